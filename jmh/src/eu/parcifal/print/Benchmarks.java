@@ -0,0 +1,111 @@
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Prepares the forked virtual machine of a benchmark before the
+ * {@link eu.parcifal.print.Printer} is first used. The configuration file is
+ * read once, so each benchmark writes its own "cfg/print.xml" into the working
+ * directory from its setup, and everything the benchmarks print is written to
+ * a stream that discards it.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Benchmarks {
+
+    /**
+     * The location of a file that discards everything written to it.
+     */
+    final static String NULL_FILE = System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null";
+
+    /**
+     * Prevent instantiation, all members are static.
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Write the configuration file containing the specified child elements of
+     * the printer element, and let {@link java.lang.System#out} discard
+     * everything printed to the console.
+     *
+     * @param elements
+     *            The child elements of the printer element.
+     */
+    static void configure(String... elements) {
+        StringBuilder configuration = new StringBuilder();
+
+        configuration.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>\n");
+        configuration.append("<printer xmlns=\"https://print.parcifal.eu/2016\">\n");
+
+        for (String element : elements) {
+            configuration.append("    ").append(element).append('\n');
+        }
+
+        configuration.append("</printer>\n");
+
+        try {
+            Path location = Paths.get("cfg", "print.xml");
+
+            Files.createDirectories(location.getParent());
+            Files.write(location, configuration.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException exception) {
+            throw new Error(exception);
+        }
+
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Return the specified amount of log elements with the specified
+     * attributes, each writing to {@link #NULL_FILE}.
+     *
+     * @param count
+     *            The amount of log elements.
+     * @param attributes
+     *            The attributes of each log element.
+     * @return The log elements.
+     */
+    static String[] logs(int count, String attributes) {
+        String[] logs = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            logs[i] = "<log location=\"" + NULL_FILE + "\" " + attributes + " />";
+        }
+
+        return logs;
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Channel} writing the content of
+     * each {@link eu.parcifal.print.Printable} to a stream that discards it.
+     *
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @return The new {@link eu.parcifal.print.Channel}.
+     */
+    static Channel nullChannel(String channelName) {
+        return new Channel(channelName, OutputStream.nullOutputStream(), false) {
+
+            @Override
+            protected String format(Printable printable) {
+                return printable.getContent() + '\n';
+            }
+
+            @Override
+            protected void format(Printable printable, StringBuilder output) {
+                output.append(printable.getContent()).append('\n');
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,67 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the methods of the {@link eu.parcifal.print.Console}, printing to a
+ * {@link java.lang.System#out} that discards everything.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleBenchmark {
+
+    /**
+     * Whether or not the console prints the source of each message.
+     */
+    @Param({ "false", "true" })
+    public boolean captureLocation;
+
+    /**
+     * Configure a console that does not print debug messages.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure("<console capture-location=\"" + this.captureLocation + "\" />");
+    }
+
+    @Benchmark
+    public Print note() {
+        return Console.note("message");
+    }
+
+    @Benchmark
+    public Print noteWithArguments() {
+        return Console.note("message %d of %s", 42, "arguments");
+    }
+
+    @Benchmark
+    public Print warning() {
+        return Console.warning("message");
+    }
+
+    @Benchmark
+    public Print debugDisabled() {
+        return Console.debug(() -> "message");
+    }
+
+}
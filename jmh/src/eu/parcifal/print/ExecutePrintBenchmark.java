@@ -0,0 +1,76 @@
+package eu.parcifal.print;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link eu.parcifal.print.Printer#executePrint(Printable, Collection)}
+ * by one thread and by several threads printing to the same
+ * {@link eu.parcifal.print.Channel}, which writes to a stream that discards
+ * everything. Run with -t to measure other amounts of threads.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutePrintBenchmark {
+
+    /**
+     * The {@link eu.parcifal.print.Channel} printed to.
+     */
+    private Collection<Channel> channels;
+
+    /**
+     * The {@link eu.parcifal.print.Printable} printed by all threads.
+     */
+    private Printable printable;
+
+    /**
+     * Add the {@link eu.parcifal.print.Channel} to the
+     * {@link eu.parcifal.print.Printer}.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure();
+
+        Channel channel = Benchmarks.nullChannel("eu.parcifal.print.benchmark");
+
+        Printer.addChannel(channel);
+
+        this.channels = Collections.singletonList(channel);
+        this.printable = new Printable("tag", "message") {
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Print uncontended() {
+        return Printer.executePrint(this.printable, this.channels);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Print contended() {
+        return Printer.executePrint(this.printable, this.channels);
+    }
+
+}
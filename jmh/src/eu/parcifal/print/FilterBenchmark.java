@@ -0,0 +1,78 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link eu.parcifal.print.Log#write(String, String)} to 1, 4 and 16
+ * log files, each of which filters by a tag of its own, expressed in turn as a
+ * literal, a literal prefix and a regular expression. One tag is accepted by
+ * the first log file only, the other is rejected by all of them.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    /**
+     * The amount of log files.
+     */
+    @Param({ "1", "4", "16" })
+    public int channels;
+
+    /**
+     * Configure the log files, each filtering by a literal, a prefix or a
+     * regular expression.
+     */
+    @Setup
+    public void setUp() {
+        String[] logs = new String[this.channels];
+
+        for (int i = 0; i < this.channels; i++) {
+            String tag = i % 3 == 0 ? "tag" + i : i % 3 == 1 ? "tag" + i + "\\..*" : "tag" + i + "|other" + i;
+
+            logs[i] = "<log location=\"" + Benchmarks.NULL_FILE + "\" tag=\"" + tag
+                    + "\" capture-location=\"false\" flush=\"size\" />";
+        }
+
+        Benchmarks.configure(logs);
+    }
+
+    /**
+     * Write the records still buffered.
+     */
+    @TearDown
+    public void tearDown() {
+        Printer.shutdown();
+    }
+
+    @Benchmark
+    public Print accepted() {
+        return Log.write("tag0", "message");
+    }
+
+    @Benchmark
+    public Print rejected() {
+        return Log.write("rejected", "message");
+    }
+
+}
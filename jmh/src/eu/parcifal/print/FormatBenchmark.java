@@ -0,0 +1,124 @@
+package eu.parcifal.print;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link eu.parcifal.print.Channel#format(Printable, StringBuilder)}
+ * of a {@link eu.parcifal.print.LogChannel} with the default line format and
+ * with the default console header, formatting the same located
+ * {@link eu.parcifal.print.Printable} into the same
+ * {@link java.lang.StringBuilder}, against
+ * {@link java.lang.String#format(String, Object...)} of the same pattern and
+ * arguments as a baseline.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    /**
+     * The pattern of the {@link eu.parcifal.print.LogChannel}.
+     */
+    @Param({ "line", "header" })
+    public String pattern;
+
+    /**
+     * Whether or not the content is formatted from arguments.
+     */
+    @Param({ "false", "true" })
+    public boolean arguments;
+
+    /**
+     * The {@link eu.parcifal.print.LogChannel} formatting the
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private LogChannel channel;
+
+    /**
+     * The {@link eu.parcifal.print.Printable} to be formatted.
+     */
+    private Printable printable;
+
+    /**
+     * The {@link java.lang.StringBuilder} formatted into.
+     */
+    private final StringBuilder output = new StringBuilder();
+
+    /**
+     * The pattern formatted by the baseline.
+     */
+    private String format;
+
+    /**
+     * The format of the content formatted by the baseline, or the content
+     * itself if it has no arguments.
+     */
+    private String contentFormat;
+
+    /**
+     * The arguments of the content formatted by the baseline.
+     */
+    private Object[] contentArguments;
+
+    /**
+     * Create the {@link eu.parcifal.print.LogChannel} and the located
+     * {@link eu.parcifal.print.Printable}.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure();
+
+        this.format = "line".equals(this.pattern) ? LogChannel.LINE_FORMAT
+                : "%1$-8.8S[ %2$tY.%2$tm.%2$td %2$tH:%2$tM:%2$tS:%2$tL ] %3$s#%4$s (%5$s:%6$d)\r\n";
+        this.channel = new LogChannel("eu.parcifal.print.log+benchmark", OutputStream.nullOutputStream(), true,
+                FlushPolicy.EVERY_RECORD, this.format, Filter.compile(""), Filter.compile(""), Filter.compile(""),
+                Filter.compile(""), null);
+        this.contentFormat = this.arguments ? "message \"%d\" of %s" : "message \"42\" of arguments";
+        this.contentArguments = this.arguments ? new Object[] { 42, Field.of("name", "value") } : new Object[0];
+        this.printable = this.arguments ? new Printable("tag", this.contentFormat, this.contentArguments) {
+        } : new Printable("tag", this.contentFormat) {
+        };
+
+        // the source is located once, not in each invocation
+        this.printable.getSourceClassName();
+    }
+
+    @Benchmark
+    public StringBuilder format() {
+        this.output.setLength(0);
+        this.channel.format(this.printable, this.output);
+
+        return this.output;
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        String content = this.arguments ? String.format(this.contentFormat, this.contentArguments)
+                : this.contentFormat;
+
+        return String.format(this.format, this.printable.getTag(), this.printable.getDateTime(),
+                this.printable.getSourceClassName(), this.printable.getSourceMethodName(),
+                this.printable.getSourceFileName(), this.printable.getSourceLineNumber(), content, "");
+    }
+
+}
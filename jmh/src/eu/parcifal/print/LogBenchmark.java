@@ -0,0 +1,67 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link eu.parcifal.print.Log#write(String, String)} to 1, 4 and 16
+ * log files, each of which accepts every message and writes to a file that
+ * discards it.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    /**
+     * The amount of log files.
+     */
+    @Param({ "1", "4", "16" })
+    public int channels;
+
+    /**
+     * Configure the log files, buffering their records by size.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure(Benchmarks.logs(this.channels, "capture-location=\"false\" flush=\"size\""));
+    }
+
+    /**
+     * Write the records still buffered.
+     */
+    @TearDown
+    public void tearDown() {
+        Printer.shutdown();
+    }
+
+    @Benchmark
+    public Print write() {
+        return Log.write("tag", "message");
+    }
+
+    @Benchmark
+    public Print writeWithArguments() {
+        return Log.write("tag", "message %d of %s", 42, "arguments");
+    }
+
+}
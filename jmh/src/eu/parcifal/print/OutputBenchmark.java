@@ -0,0 +1,90 @@
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link eu.parcifal.print.Log#write(String, String)} to a log file
+ * on disk written through a {@link java.io.FileOutputStream} and through a
+ * {@link eu.parcifal.print.MappedOutputStream}, flushing each record or
+ * buffering records by size. The log file is rotated at 64 megabytes, keeping
+ * a single previous file, so that the benchmark does not fill the disk.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+    /**
+     * The way the log file is written.
+     */
+    @Param({ "stream", "mapped" })
+    public String output;
+
+    /**
+     * When the log file is flushed.
+     */
+    @Param({ "record", "size" })
+    public String flush;
+
+    /**
+     * The directory holding the log files.
+     */
+    private Path directory;
+
+    /**
+     * Configure the log file in a new temporary directory.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("print-benchmark");
+
+        Benchmarks.configure("<log location=\"" + this.directory.resolve("benchmark.csv") + "\" output=\""
+                + this.output + "\" flush=\"" + this.flush
+                + "\" capture-location=\"false\" max-size=\"64m\" max-files=\"1\" compress=\"false\" />");
+    }
+
+    /**
+     * Write the records still buffered and remove the temporary directory.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Printer.shutdown();
+
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Print write() {
+        return Log.write("tag", "message");
+    }
+
+}
@@ -0,0 +1,90 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of {@link eu.parcifal.print.Printable}s, which
+ * stamps them with the current time but leaves formatting and locating the
+ * source to the {@link eu.parcifal.print.Channel}s.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrintableBenchmark {
+
+    /**
+     * Configure the default clock.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure();
+    }
+
+    @Benchmark
+    public Printable construct() {
+        return new Message("tag", "message");
+    }
+
+    @Benchmark
+    public Printable constructWithArguments() {
+        return new Message("tag", "message %d of %s", 42, "arguments");
+    }
+
+    @Benchmark
+    public String constructAndFormat() {
+        return new Message("tag", "message %d of %s", 42, "arguments").getContent();
+    }
+
+    /**
+     * A {@link eu.parcifal.print.Printable} that can be constructed outside
+     * its package.
+     */
+    private final static class Message extends Printable {
+
+        /**
+         * Construct a new {@link eu.parcifal.print.PrintableBenchmark.Message}.
+         *
+         * @param tag
+         *            The tag of the new message.
+         * @param content
+         *            The content of the new message.
+         */
+        Message(String tag, String content) {
+            super(tag, content);
+        }
+
+        /**
+         * Construct a new {@link eu.parcifal.print.PrintableBenchmark.Message}.
+         *
+         * @param tag
+         *            The tag of the new message.
+         * @param format
+         *            The format of the content of the new message.
+         * @param arguments
+         *            The arguments of the format.
+         */
+        Message(String tag, String format, Object... arguments) {
+            super(tag, format, arguments);
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the first {@link eu.parcifal.print.Console#note(String)} of a new
+ * virtual machine, which reads the configuration file and opens the channels
+ * of the {@link eu.parcifal.print.Printer}. Each of the forks measures it
+ * exactly once, without warming up.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    /**
+     * Configure the console and a log file, without touching the
+     * {@link eu.parcifal.print.Printer}.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure("<console />", Benchmarks.logs(1, "capture-location=\"false\"")[0]);
+    }
+
+    @Benchmark
+    public Print firstNote() {
+        return Console.note("message");
+    }
+
+}
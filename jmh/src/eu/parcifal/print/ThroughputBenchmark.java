@@ -0,0 +1,129 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the amount of records written per second by 1 up to 128 threads
+ * calling {@link eu.parcifal.print.Log#write(String, String)} at once on the
+ * same log file, which writes to a file that discards them, with and without
+ * staging. Each invocation writes {@link #RECORDS} records divided over the
+ * threads. The threads are platform threads by default; run with -p
+ * threadKind=virtual on Java 21 or later to use a virtual thread per task
+ * instead.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThroughputBenchmark {
+
+    /**
+     * The amount of records written by each invocation.
+     */
+    private final static int RECORDS = 65536;
+
+    /**
+     * The amount of threads writing at once.
+     */
+    @Param({ "1", "2", "4", "8", "16", "32", "64", "128" })
+    public int threads;
+
+    /**
+     * Whether or not the log file stages its records.
+     */
+    @Param({ "false", "true" })
+    public boolean staging;
+
+    /**
+     * The kind of threads writing, either "platform" or "virtual".
+     */
+    @Param({ "platform" })
+    public String threadKind;
+
+    /**
+     * The {@link java.util.concurrent.ExecutorService} running the threads.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The tasks run by each invocation, one for each thread.
+     */
+    private List<Callable<Void>> tasks;
+
+    /**
+     * Configure the log file and start the threads.
+     */
+    @Setup
+    public void setUp() {
+        Benchmarks.configure(
+                Benchmarks.logs(1, "capture-location=\"false\" flush=\"size\" staging=\"" + this.staging + "\""));
+
+        if ("virtual".equals(this.threadKind)) {
+            try {
+                this.executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException exception) {
+                throw new Error("virtual threads require Java 21 or later", exception);
+            }
+        } else {
+            this.executor = Executors.newFixedThreadPool(this.threads);
+        }
+
+        this.tasks = new ArrayList<Callable<Void>>();
+
+        for (int t = 0; t < this.threads; t++) {
+            this.tasks.add(() -> {
+                for (int i = RECORDS / this.threads; i > 0; i--) {
+                    Log.write("tag", "message");
+                }
+
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Stop the threads and write the records still buffered.
+     */
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown();
+        Printer.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void write() throws InterruptedException, ExecutionException {
+        for (Future<Void> future : this.executor.invokeAll(this.tasks)) {
+            future.get();
+        }
+    }
+
+}
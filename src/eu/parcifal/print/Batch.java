@@ -0,0 +1,125 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints several {@link eu.parcifal.print.Printable}s at once. Each contained
+ * {@link eu.parcifal.print.Print} holds one of the
+ * {@link eu.parcifal.print.Printable}s and the
+ * {@link eu.parcifal.print.Channel}s it was routed to. Executing the
+ * {@link eu.parcifal.print.Batch} hands each
+ * {@link eu.parcifal.print.Channel} all of the
+ * {@link eu.parcifal.print.Printable}s routed to it in a single call, so that
+ * it writes and flushes once for the whole batch instead of once per
+ * {@link eu.parcifal.print.Printable}.
+ *
+ * @see eu.parcifal.print.Printer#executeBatch(Collection)
+ * @see eu.parcifal.print.Channel#print(List)
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public class Batch extends Job {
+
+    /**
+     * The {@link eu.parcifal.print.Print}s contained by the current
+     * {@link eu.parcifal.print.Batch}, in order.
+     */
+    private final List<Print> prints;
+
+    /**
+     * The {@link eu.parcifal.print.Channel}s to which the current
+     * {@link eu.parcifal.print.Batch} prints, in order.
+     */
+    private final List<Channel> channels;
+
+    /**
+     * The {@link eu.parcifal.print.Printable}s routed to each
+     * {@link eu.parcifal.print.Channel}, in order.
+     */
+    private final Map<Channel, List<Printable>> printables;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Batch} containing the specified
+     * {@link eu.parcifal.print.Print}s.
+     *
+     * @param prints
+     *            The {@link eu.parcifal.print.Print}s to be executed by the new
+     *            {@link eu.parcifal.print.Batch}.
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s of the specified
+     *            {@link eu.parcifal.print.Print}s routed to each
+     *            {@link eu.parcifal.print.Channel} to which at least one of
+     *            them prints, in the order in which the
+     *            {@link eu.parcifal.print.Channel}s are printed to.
+     */
+    Batch(List<Print> prints, Map<Channel, List<Printable>> printables) {
+        this.prints = Collections.unmodifiableList(prints);
+        this.channels = Collections.unmodifiableList(new ArrayList<Channel>(printables.keySet()));
+        this.printables = printables;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Print}s contained by the current
+     * {@link eu.parcifal.print.Batch}, in the order in which their
+     * {@link eu.parcifal.print.Printable}s are printed.
+     *
+     * @return The unmodifiable list of {@link eu.parcifal.print.Print}s.
+     */
+    public final List<Print> getPrints() {
+        return this.prints;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Channel}s to which at least one of
+     * the {@link eu.parcifal.print.Print}s of the current
+     * {@link eu.parcifal.print.Batch} prints, in the order in which they are
+     * printed to.
+     *
+     * @return The unmodifiable list of {@link eu.parcifal.print.Channel}s.
+     */
+    @Override
+    public final Collection<Channel> getChannels() {
+        return this.channels;
+    }
+
+    @Override
+    Batch execute() {
+        for (Map.Entry<Channel, List<Printable>> entry : this.printables.entrySet()) {
+            entry.getKey().print(entry.getValue());
+        }
+
+        return this;
+    }
+
+    @Override
+    void detach() {
+        for (Print print : this.prints) {
+            print.detach();
+        }
+    }
+
+    @Override
+    void settle() {
+        for (Print print : this.prints) {
+            print.settle();
+        }
+    }
+
+    @Override
+    boolean isHighPriority() {
+        for (Print print : this.prints) {
+            if (print.isHighPriority()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
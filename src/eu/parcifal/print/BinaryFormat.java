@@ -0,0 +1,219 @@
+package eu.parcifal.print;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the records of a {@link eu.parcifal.print.LogChannel} in a compact
+ * binary format instead of CSV. A file in this format starts with
+ * {@link eu.parcifal.print.BinaryFormat#MAGIC}, followed by a sequence of
+ * entries, each starting with its kind:
+ *
+ * <ul>
+ * <li>{@link eu.parcifal.print.BinaryFormat#DEFINE}: the id and string of a
+ * dictionary entry, written once per file before the id is first used.</li>
+ * <li>{@link eu.parcifal.print.BinaryFormat#RECORD}: the difference in
+ * milliseconds with the date-time of the previous record in the file, the
+ * dictionary ids of the tag, source class, method and file name, the source
+ * line number and the content.</li>
+ * <li>{@link eu.parcifal.print.BinaryFormat#RECORD_WITHOUT_LOCATION}: the
+ * same, leaving out the source.</li>
+ * <li>{@link eu.parcifal.print.BinaryFormat#FIELDS}: directly following a
+ * record that has {@link eu.parcifal.print.Field}s, their amount followed by
+ * the dictionary id of the name and the value of each.</li>
+ * </ul>
+ *
+ * Numbers are variable length integers as written by
+ * {@link eu.parcifal.print.Channel#encodeVarint(long)}; signed numbers are
+ * zigzag encoded first. Strings are written by
+ * {@link eu.parcifal.print.Channel#encodeString(CharSequence)}. Date-times are
+ * the local date-time of a {@link eu.parcifal.print.Printable} counted in
+ * milliseconds as if it were UTC. Dictionary id 0 is the empty string and is
+ * never defined. A kind of 0 is padding and is skipped, as found at the end
+ * of a memory-mapped file that has not been truncated. When a file is appended
+ * to after a reload of the configuration file, the appended part starts with
+ * {@link eu.parcifal.print.BinaryFormat#MAGIC} again and has a dictionary and
+ * date-time of its own.
+ *
+ * @see eu.parcifal.print.LogChannel
+ * @see eu.parcifal.print.LogDecoder
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class BinaryFormat {
+
+    /**
+     * The bytes with which each file in the binary format starts, the last
+     * one being the version of the format.
+     */
+    final static byte[] MAGIC = { 'P', 'R', 'N', 'T', 1 };
+
+    /**
+     * The kind of an entry defining a dictionary entry.
+     */
+    final static int DEFINE = 1;
+
+    /**
+     * The kind of an entry holding a record including its source.
+     */
+    final static int RECORD = 2;
+
+    /**
+     * The kind of an entry holding a record without its source.
+     */
+    final static int RECORD_WITHOUT_LOCATION = 3;
+
+    /**
+     * The kind of an entry holding the {@link eu.parcifal.print.Field}s of the
+     * preceding record.
+     */
+    final static int FIELDS = 4;
+
+    /**
+     * The ids of the strings defined in the current file.
+     */
+    private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+    /**
+     * Indicates whether or not the current file has been started by writing
+     * {@link eu.parcifal.print.BinaryFormat#MAGIC}.
+     */
+    private boolean started = false;
+
+    /**
+     * The date-time in milliseconds of the previous record in the current
+     * file.
+     */
+    private long previous = 0;
+
+    /**
+     * Forget the dictionary and the previous date-time, so that the next
+     * record starts a new file.
+     */
+    void reset() {
+        this.dictionary.clear();
+        this.started = false;
+        this.previous = 0;
+    }
+
+    /**
+     * Encode a record of the specified {@link eu.parcifal.print.Printable}
+     * into the buffer of the specified {@link eu.parcifal.print.Channel}.
+     * Must be called while holding the lock of the
+     * {@link eu.parcifal.print.Channel}.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to encode into.
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} of the record.
+     * @param content
+     *            The content of the record.
+     */
+    void encode(Channel channel, Printable printable, CharSequence content) {
+        if (!this.started) {
+            for (byte b : MAGIC) {
+                channel.encodeByte(b);
+            }
+
+            this.started = true;
+        }
+
+        long time = Clock.toLocalMillis(printable.getTimestamp());
+        int tag = this.define(channel, printable.getTag());
+        List<Field> fields = printable.getFields();
+        int[] names = new int[fields.size()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.define(channel, fields.get(i).getName());
+        }
+
+        if (channel.capturesLocation()) {
+            int className = this.define(channel, printable.getSourceClassName());
+            int methodName = this.define(channel, printable.getSourceMethodName());
+            int fileName = this.define(channel, printable.getSourceFileName());
+
+            channel.encodeByte(RECORD);
+            channel.encodeVarint(zigzag(time - this.previous));
+            channel.encodeVarint(tag);
+            channel.encodeVarint(className);
+            channel.encodeVarint(methodName);
+            channel.encodeVarint(fileName);
+            channel.encodeVarint(zigzag(printable.getSourceLineNumber()));
+        } else {
+            channel.encodeByte(RECORD_WITHOUT_LOCATION);
+            channel.encodeVarint(zigzag(time - this.previous));
+            channel.encodeVarint(tag);
+        }
+
+        channel.encodeString(content);
+
+        if (names.length > 0) {
+            channel.encodeByte(FIELDS);
+            channel.encodeVarint(names.length);
+
+            for (int i = 0; i < names.length; i++) {
+                channel.encodeVarint(names[i]);
+                channel.encodeString(String.valueOf(fields.get(i).getValue()));
+            }
+        }
+
+        this.previous = time;
+    }
+
+    /**
+     * Return the dictionary id of the specified string, first defining it in
+     * the current file if it has not been defined yet.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to encode into.
+     * @param string
+     *            The string of which the id is requested.
+     * @return The id of the string.
+     */
+    private int define(Channel channel, String string) {
+        if (string == null || string.isEmpty()) {
+            return 0;
+        }
+
+        Integer id = this.dictionary.get(string);
+
+        if (id == null) {
+            id = this.dictionary.size() + 1;
+
+            this.dictionary.put(string, id);
+
+            channel.encodeByte(DEFINE);
+            channel.encodeVarint(id);
+            channel.encodeString(string);
+        }
+
+        return id;
+    }
+
+    /**
+     * Map a signed number onto a non-negative one, so that numbers close to
+     * zero take few bytes.
+     *
+     * @param value
+     *            The signed number.
+     * @return The zigzag encoded number.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverse {@link eu.parcifal.print.BinaryFormat#zigzag(long)}.
+     *
+     * @param value
+     *            The zigzag encoded number.
+     * @return The signed number.
+     */
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
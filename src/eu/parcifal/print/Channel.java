@@ -1,104 +1,828 @@
-package eu.parcifal.print;
-
-import java.io.IOException;
-import java.io.OutputStream;
-
-/**
- * A {@link eu.parcifal.print.Channel} associates a name with an
- * {@link java.io.OutputStream} and is meant to be the only object to write to
- * that specific {@link java.io.OutputStream}. A
- * {@link eu.parcifal.print.Channel}s formats the content of a
- * {@link eu.parcifal.print.Printable} to be written to the
- * {@link java.io.OutputStream}.
- * 
- * @see eu.parcifal.print.Printable
- * 
- * @author Michal van de Weerd
- * @version 15.05.2016
- * @since 10.05.2016
- */
-public abstract class Channel {
-
-    /**
-     * The name of the current {@link eu.parcifal.print.Channel}.
-     */
-    private final String channelName;
-
-    /**
-     * The {@link java.io.OutputStream} of the current
-     * {@link eu.parcifal.print.Channel}.
-     */
-    protected final OutputStream outputStream;
-
-    /**
-     * Construct a new {@link eu.parcifal.print.Channel} with the specified name
-     * and {@link java.io.OutputStream}.
-     * 
-     * @param channelName
-     *            The name of the new {@link eu.parcifal.print.Channel}.
-     * @param outputStream
-     *            The OutputStream of the new {@link eu.parcifal.print.Channel}.
-     */
-    protected Channel(String channelName, OutputStream outputStream) {
-        this.channelName = channelName;
-        this.outputStream = outputStream;
-    }
-
-    /**
-     * Return the name of the current {@link eu.parcifal.print.Channel}.
-     * 
-     * @return The name of the current {@link eu.parcifal.print.Channel}.
-     */
-    public final String getChannelName() {
-        return this.channelName;
-    }
-
-    /**
-     * Return true if the current {@link eu.parcifal.print.Channel} accepts the
-     * specified {@link eu.parcifal.print.Printable}, otherwise return false.
-     * Returns true by default.
-     * 
-     * @param printable
-     *            The printable that the current
-     *            {@link eu.parcifal.print.Channel} does or does not accept.
-     * @return True if the current {@link eu.parcifal.print.Channel} accept the
-     *         specified {@link eu.parcifal.print.Printable}, otherwise false.
-     */
-    public boolean acceptsPrintable(Printable printable) {
-        return true;
-    }
-
-    /**
-     * Return a string representing the specified
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be formatted.
-     * @return A string representing the specified
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    protected abstract String format(Printable printable);
-
-    /**
-     * Write the results of the
-     * {@link eu.parcifal.print.Channel#format(Printable)} method to the
-     * {@link java.io.OutputStream} of the current
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} of which the formatted
-     *            string will be written to the OutputStream of the current
-     *            {@link eu.parcifal.print.Channel}.
-     */
-    public void print(Printable printable) {
-        String output = this.format(printable);
-
-        try {
-            this.outputStream.write(output.getBytes());
-            this.outputStream.flush();
-        } catch (IOException exception) {
-            throw new Error(exception);
-        }
-    }
-
-}
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link eu.parcifal.print.Channel} associates a name with an
+ * {@link java.io.OutputStream} and is meant to be the only object to write to
+ * that specific {@link java.io.OutputStream}. A
+ * {@link eu.parcifal.print.Channel}s formats the content of a
+ * {@link eu.parcifal.print.Printable} to be written to the
+ * {@link java.io.OutputStream}. Records are encoded as UTF-8 into a buffer
+ * owned by the {@link eu.parcifal.print.Channel}, which is written to the
+ * {@link java.io.OutputStream} and flushed as its
+ * {@link eu.parcifal.print.FlushPolicy} prescribes. Records are buffered one
+ * at a time, so a {@link eu.parcifal.print.Channel} can be printed to by
+ * multiple threads. A batch of records is encoded while holding the lock once
+ * and written and flushed at most once. A {@link eu.parcifal.print.Channel}
+ * that stages its records lets each thread hand them to a
+ * {@link eu.parcifal.print.Stager} instead, which writes them in order.
+ * 
+ * @see eu.parcifal.print.Printable
+ * @see eu.parcifal.print.FlushPolicy
+ * @see eu.parcifal.print.Stager
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 10.05.2016
+ */
+public abstract class Channel {
+
+    /**
+     * Declares what the decision of a {@link eu.parcifal.print.Channel} to
+     * accept a {@link eu.parcifal.print.Printable} depends on, so that the
+     * {@link eu.parcifal.print.Printer} knows whether it may remember that
+     * decision for later {@link eu.parcifal.print.Printable}s.
+     */
+    public enum Routing {
+
+        /**
+         * The decision depends on nothing but the tag of the
+         * {@link eu.parcifal.print.Printable}.
+         */
+        TAG,
+
+        /**
+         * The decision depends on nothing but the tag and the source class,
+         * method and file of the {@link eu.parcifal.print.Printable}.
+         */
+        SOURCE,
+
+        /**
+         * The decision may depend on anything, so it is made again for each
+         * {@link eu.parcifal.print.Printable}.
+         */
+        PRINTABLE
+
+    }
+
+    /**
+     * The name of the current {@link eu.parcifal.print.Channel}.
+     */
+    private final String channelName;
+
+    /**
+     * The {@link java.io.OutputStream} of the current
+     * {@link eu.parcifal.print.Channel}.
+     */
+    protected final OutputStream outputStream;
+
+    /**
+     * The lock guarding the {@link java.io.OutputStream} of the current
+     * {@link eu.parcifal.print.Channel}, so that records of concurrent prints
+     * are never interleaved.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The {@link java.lang.StringBuilder} of the current thread into which
+     * {@link eu.parcifal.print.Printable}s are formatted, or null while it is
+     * in use.
+     */
+    private final static ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * The largest capacity of a {@link java.lang.StringBuilder} that is kept
+     * for reuse.
+     */
+    private final static int BUILDER_CAPACITY = 1 << 16;
+
+    /**
+     * The amount of buffered bytes after which a batch of records is written
+     * to the {@link java.io.OutputStream} before the rest of the batch is
+     * encoded, so that a large batch does not grow the buffer without bound.
+     */
+    private final static int BATCH_CAPACITY = 1 << 16;
+
+    /**
+     * Indicates whether or not the current {@link eu.parcifal.print.Channel}
+     * prints the source of each {@link eu.parcifal.print.Printable}.
+     */
+    private final boolean capturesLocation;
+
+    /**
+     * The {@link eu.parcifal.print.FlushPolicy} of the current
+     * {@link eu.parcifal.print.Channel}.
+     */
+    private final FlushPolicy flushPolicy;
+
+    /**
+     * The buffer into which records are encoded before they are written to
+     * the {@link java.io.OutputStream}.
+     */
+    private byte[] buffer = new byte[1024];
+
+    /**
+     * The amount of bytes in the buffer.
+     */
+    private int buffered = 0;
+
+    /**
+     * Indicates whether or not bytes have been written to the
+     * {@link java.io.OutputStream} since it was last flushed.
+     */
+    private boolean unflushed = false;
+
+    /**
+     * Indicates whether or not the current {@link eu.parcifal.print.Channel}
+     * has been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * The task of the background flusher flushing the current
+     * {@link eu.parcifal.print.Channel}, or null if there is none.
+     */
+    private Future<?> flushTask;
+
+    /**
+     * The counters of the current {@link eu.parcifal.print.Channel}.
+     */
+    private final ChannelMetrics metrics = new ChannelMetrics();
+
+    /**
+     * The {@link eu.parcifal.print.Stager} to which printing threads hand
+     * their records, or null if they write them themselves.
+     */
+    private Stager stager;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Channel} with the specified name
+     * and {@link java.io.OutputStream}.
+     * 
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @param outputStream
+     *            The OutputStream of the new {@link eu.parcifal.print.Channel}.
+     */
+    protected Channel(String channelName, OutputStream outputStream) {
+        this(channelName, outputStream, true);
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Channel} with the specified
+     * name and {@link java.io.OutputStream} that does or does not print the
+     * source of each {@link eu.parcifal.print.Printable}.
+     * 
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @param outputStream
+     *            The OutputStream of the new {@link eu.parcifal.print.Channel}.
+     * @param capturesLocation
+     *            Whether or not the new {@link eu.parcifal.print.Channel}
+     *            prints the source of each {@link eu.parcifal.print.Printable}.
+     */
+    protected Channel(String channelName, OutputStream outputStream, boolean capturesLocation) {
+        this(channelName, outputStream, capturesLocation, FlushPolicy.EVERY_RECORD);
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Channel} with the specified
+     * name, {@link java.io.OutputStream} and
+     * {@link eu.parcifal.print.FlushPolicy}, that does or does not print the
+     * source of each {@link eu.parcifal.print.Printable}.
+     * 
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @param outputStream
+     *            The OutputStream of the new {@link eu.parcifal.print.Channel}.
+     * @param capturesLocation
+     *            Whether or not the new {@link eu.parcifal.print.Channel}
+     *            prints the source of each {@link eu.parcifal.print.Printable}.
+     * @param flushPolicy
+     *            The {@link eu.parcifal.print.FlushPolicy} defining when the
+     *            new {@link eu.parcifal.print.Channel} flushes.
+     */
+    protected Channel(String channelName, OutputStream outputStream, boolean capturesLocation,
+            FlushPolicy flushPolicy) {
+        this.channelName = channelName;
+        this.outputStream = outputStream;
+        this.capturesLocation = capturesLocation;
+        this.flushPolicy = flushPolicy;
+
+        if (flushPolicy.getInterval() > 0) {
+            this.flushTask = Flusher.schedule(this, flushPolicy.getInterval());
+        }
+    }
+
+    /**
+     * Return the name of the current {@link eu.parcifal.print.Channel}.
+     * 
+     * @return The name of the current {@link eu.parcifal.print.Channel}.
+     */
+    public final String getChannelName() {
+        return this.channelName;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Channel} prints the
+     * source of each {@link eu.parcifal.print.Printable}. If false,
+     * {@link eu.parcifal.print.Channel#format(Printable)} must not request the
+     * source of a {@link eu.parcifal.print.Printable}, so the call stack does
+     * not have to be walked for it.
+     * 
+     * @return True if the current {@link eu.parcifal.print.Channel} prints the
+     *         source of each {@link eu.parcifal.print.Printable}, otherwise
+     *         false.
+     */
+    public final boolean capturesLocation() {
+        return this.capturesLocation;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.FlushPolicy} of the current
+     * {@link eu.parcifal.print.Channel}.
+     * 
+     * @return The {@link eu.parcifal.print.FlushPolicy} of the current
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    public final FlushPolicy getFlushPolicy() {
+        return this.flushPolicy;
+    }
+
+    /**
+     * Return the current values of the counters of the current
+     * {@link eu.parcifal.print.Channel}.
+     * 
+     * @return The {@link eu.parcifal.print.ChannelStatistics} of the current
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    public final ChannelStatistics getStatistics() {
+        return this.metrics.snapshot(this.channelName);
+    }
+
+    /**
+     * Return the counters of the current {@link eu.parcifal.print.Channel}.
+     * 
+     * @return The {@link eu.parcifal.print.ChannelMetrics} of the current
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    final ChannelMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Let printing threads stage their formatted records in buffers of their
+     * own instead of writing them, and start a
+     * {@link eu.parcifal.print.Stager} merging them into the
+     * {@link java.io.OutputStream} in the order in which they were printed.
+     * Must be called before the current {@link eu.parcifal.print.Channel} is
+     * printed to.
+     * 
+     * @see eu.parcifal.print.Stager
+     */
+    final void startStaging() {
+        if (this.stager == null) {
+            this.stager = new Stager(this);
+        }
+    }
+
+    /**
+     * Return what the decision of
+     * {@link eu.parcifal.print.Channel#acceptsPrintable(Printable)} depends
+     * on. Returns {@link eu.parcifal.print.Channel.Routing#PRINTABLE} by
+     * default, so the decision is never remembered. A subclass of which the
+     * decision only depends on the tag or source may return a narrower
+     * {@link eu.parcifal.print.Channel.Routing} to have it remembered by the
+     * {@link eu.parcifal.print.Printer}.
+     * 
+     * @return What the decision to accept a
+     *         {@link eu.parcifal.print.Printable} depends on.
+     */
+    public Routing getRouting() {
+        return Routing.PRINTABLE;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Channel} accepts the
+     * specified {@link eu.parcifal.print.Printable}, otherwise return false.
+     * Returns true by default.
+     * 
+     * @param printable
+     *            The printable that the current
+     *            {@link eu.parcifal.print.Channel} does or does not accept.
+     * @return True if the current {@link eu.parcifal.print.Channel} accept the
+     *         specified {@link eu.parcifal.print.Printable}, otherwise false.
+     */
+    public boolean acceptsPrintable(Printable printable) {
+        return true;
+    }
+
+    /**
+     * Return a string representing the specified
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be formatted.
+     * @return A string representing the specified
+     *         {@link eu.parcifal.print.Printable}.
+     */
+    protected abstract String format(Printable printable);
+
+    /**
+     * Append a string representing the specified
+     * {@link eu.parcifal.print.Printable} to the specified
+     * {@link java.lang.StringBuilder}. Appends the result of
+     * {@link eu.parcifal.print.Channel#format(Printable)} by default;
+     * {@link eu.parcifal.print.Channel}s that can format directly into the
+     * {@link java.lang.StringBuilder} should override this method to avoid the
+     * intermediate string.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be formatted.
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     */
+    protected void format(Printable printable, StringBuilder output) {
+        output.append(this.format(printable));
+    }
+
+    /**
+     * Write the results of the
+     * {@link eu.parcifal.print.Channel#format(Printable)} method to the
+     * {@link java.io.OutputStream} of the current
+     * {@link eu.parcifal.print.Channel}, or to its buffer if the
+     * {@link eu.parcifal.print.FlushPolicy} does not require a flush yet.
+     * Does nothing once the current {@link eu.parcifal.print.Channel} has been
+     * closed. If staging has been started, the formatted record is staged
+     * instead, to be written by the {@link eu.parcifal.print.Stager}.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} of which the formatted
+     *            string will be written to the OutputStream of the current
+     *            {@link eu.parcifal.print.Channel}.
+     */
+    public void print(Printable printable) {
+        long start = System.nanoTime();
+        StringBuilder builder = BUILDER.get();
+
+        if (builder == null) {
+            // a nested print made while formatting on the current thread
+            builder = new StringBuilder();
+        } else {
+            BUILDER.set(null);
+        }
+
+        try {
+            this.format(printable, builder);
+
+            if (this.stager != null) {
+                this.stager.stage(printable, builder);
+                this.metrics.timed(System.nanoTime() - start);
+
+                return;
+            }
+
+            this.lock.lock();
+
+            try {
+                if (this.closed) {
+                    return;
+                }
+
+                this.beforeRecord();
+
+                int buffered = this.buffered;
+
+                this.encodeRecord(printable, builder);
+                this.metrics.written(this.buffered - buffered);
+
+                if (this.flushPolicy.isDue(printable.getTag(), this.buffered)) {
+                    this.flushBuffer();
+                }
+            } catch (IOException exception) {
+                this.metrics.failed();
+
+                throw new Error(exception);
+            } finally {
+                this.lock.unlock();
+            }
+
+            this.metrics.timed(System.nanoTime() - start);
+        } finally {
+            if (builder.capacity() <= BUILDER_CAPACITY) {
+                builder.setLength(0);
+
+                BUILDER.set(builder);
+            } else {
+                BUILDER.set(new StringBuilder());
+            }
+        }
+    }
+
+    /**
+     * Write the results of the
+     * {@link eu.parcifal.print.Channel#format(Printable)} method for each of
+     * the specified {@link eu.parcifal.print.Printable}s to the
+     * {@link java.io.OutputStream} of the current
+     * {@link eu.parcifal.print.Channel}, in order. All records are formatted
+     * before the lock is taken and encoded into the buffer while holding it
+     * once, after which the buffer is written and flushed at most once for the
+     * whole batch, if the {@link eu.parcifal.print.FlushPolicy} requires a
+     * flush for any of the records. Does nothing once the current
+     * {@link eu.parcifal.print.Channel} has been closed.
+     * 
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s of which the
+     *            formatted strings will be written to the OutputStream of the
+     *            current {@link eu.parcifal.print.Channel}.
+     */
+    public void print(List<Printable> printables) {
+        if (printables.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        StringBuilder builder = BUILDER.get();
+
+        if (builder == null) {
+            // a nested print made while formatting on the current thread
+            builder = new StringBuilder();
+        } else {
+            BUILDER.set(null);
+        }
+
+        try {
+            int[] ends = new int[printables.size()];
+
+            for (int i = 0; i < ends.length; i++) {
+                this.format(printables.get(i), builder);
+
+                ends[i] = builder.length();
+            }
+
+            if (this.stager != null) {
+                this.stager.stage(printables, builder, ends);
+            } else {
+                this.write(printables, builder, ends);
+            }
+
+            this.metrics.timed(System.nanoTime() - start);
+        } finally {
+            if (builder.capacity() <= BUILDER_CAPACITY) {
+                builder.setLength(0);
+
+                BUILDER.set(builder);
+            } else {
+                BUILDER.set(new StringBuilder());
+            }
+        }
+    }
+
+    /**
+     * Encode the specified formatted records into the buffer while holding the
+     * lock once, writing and flushing the buffer at most once if the
+     * {@link eu.parcifal.print.FlushPolicy} requires a flush for any of the
+     * records. Does nothing once the current
+     * {@link eu.parcifal.print.Channel} has been closed.
+     * 
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s of the records.
+     * @param formatted
+     *            The formatted records, one after the other.
+     * @param ends
+     *            The end of each formatted record.
+     */
+    final void write(List<Printable> printables, CharSequence formatted, int[] ends) {
+        this.lock.lock();
+
+        try {
+            if (this.closed) {
+                return;
+            }
+
+            boolean due = false;
+
+            for (int i = 0; i < printables.size(); i++) {
+                Printable printable = printables.get(i);
+
+                this.beforeRecord();
+
+                int buffered = this.buffered;
+
+                this.encodeRecord(printable, CharBuffer.wrap(formatted, i == 0 ? 0 : ends[i - 1], ends[i]));
+                this.metrics.written(this.buffered - buffered);
+
+                due |= this.flushPolicy.isDue(printable.getTag(), this.buffered);
+
+                if (this.buffered >= BATCH_CAPACITY) {
+                    this.writeBuffer();
+                }
+            }
+
+            if (due) {
+                this.flushBuffer();
+            }
+        } catch (IOException exception) {
+            this.metrics.failed();
+
+            throw new Error(exception);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Write all buffered records to the {@link java.io.OutputStream} of the
+     * current {@link eu.parcifal.print.Channel} and flush it. Staged records
+     * that can be written in order are written first.
+     */
+    public void flush() {
+        this.flush(true);
+    }
+
+    /**
+     * Write all buffered records to the {@link java.io.OutputStream} of the
+     * current {@link eu.parcifal.print.Channel} and flush it, but only if a
+     * record has been buffered or written since the last flush, so that the
+     * background flusher neither flushes nor counts a flush of an idle
+     * {@link eu.parcifal.print.Channel}.
+     */
+    final void flushWritten() {
+        this.flush(false);
+    }
+
+    /**
+     * Write all buffered records to the {@link java.io.OutputStream} of the
+     * current {@link eu.parcifal.print.Channel} and flush it, after writing
+     * the staged records that can be written in order.
+     * 
+     * @param always
+     *            Whether or not to flush if nothing has been written since
+     *            the last flush.
+     */
+    private void flush(boolean always) {
+        if (this.stager != null) {
+            this.stager.merge();
+        }
+
+        this.lock.lock();
+
+        try {
+            if (!this.closed && (always || this.buffered > 0 || this.unflushed)) {
+                this.flushBuffer();
+            }
+        } catch (IOException exception) {
+            this.metrics.failed();
+
+            throw new Error(exception);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Flush and close the current {@link eu.parcifal.print.Channel}, closing
+     * its {@link java.io.OutputStream}, after stopping the
+     * {@link eu.parcifal.print.Stager} and writing the records left staged.
+     * Records printed afterwards are discarded.
+     */
+    public void close() {
+        if (this.stager != null) {
+            this.stager.close();
+        }
+
+        this.lock.lock();
+
+        try {
+            if (!this.closed) {
+                this.writeBuffer();
+                this.closeOutputStream();
+            }
+        } catch (IOException exception) {
+            this.metrics.failed();
+
+            throw new Error(exception);
+        } finally {
+            this.closed = true;
+
+            if (this.flushTask != null) {
+                this.flushTask.cancel(false);
+            }
+
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Close the {@link java.io.OutputStream} of the current
+     * {@link eu.parcifal.print.Channel}. Called by
+     * {@link eu.parcifal.print.Channel#close()} after the buffer has been
+     * written; {@link eu.parcifal.print.Channel}s writing to a stream they do
+     * not own, such as {@link java.lang.System#out}, should only flush it.
+     * 
+     * @throws IOException
+     *             Thrown if the {@link java.io.OutputStream} cannot be closed.
+     */
+    protected void closeOutputStream() throws IOException {
+        this.outputStream.close();
+    }
+
+    /**
+     * Called while holding the lock, right before a record is encoded into
+     * the buffer. Allows package {@link eu.parcifal.print.Channel}s to start a
+     * new file at a record boundary. Does nothing by default.
+     * 
+     * @throws IOException
+     *             Thrown if preparing for the record fails.
+     */
+    void beforeRecord() throws IOException {
+    }
+
+    /**
+     * Called while holding the lock to encode a record into the buffer, after
+     * {@link eu.parcifal.print.Channel#beforeRecord()}. Encodes the formatted
+     * {@link eu.parcifal.print.Printable} as UTF-8 by default; package
+     * {@link eu.parcifal.print.Channel}s writing another format may override
+     * this method and use the other encode methods instead.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} of the record.
+     * @param formatted
+     *            The result of
+     *            {@link eu.parcifal.print.Channel#format(Printable, StringBuilder)}.
+     * @throws IOException
+     *             Thrown if encoding the record fails.
+     */
+    void encodeRecord(Printable printable, CharSequence formatted) throws IOException {
+        this.encode(formatted);
+    }
+
+    /**
+     * Return the amount of bytes in the buffer that have not been written to
+     * the {@link java.io.OutputStream} yet. Must be called while holding the
+     * lock.
+     * 
+     * @return The amount of buffered bytes.
+     */
+    final int getBuffered() {
+        return this.buffered;
+    }
+
+    /**
+     * Write the buffered records to the {@link java.io.OutputStream} of the
+     * current {@link eu.parcifal.print.Channel} without flushing it. Must be
+     * called while holding the lock.
+     * 
+     * @throws IOException
+     *             Thrown if the buffered records cannot be written.
+     */
+    final void writeBuffer() throws IOException {
+        if (this.buffered > 0) {
+            int length = this.buffered;
+
+            this.buffered = 0;
+            this.unflushed = true;
+            this.outputStream.write(this.buffer, 0, length);
+        }
+    }
+
+    /**
+     * Write the buffered records to the {@link java.io.OutputStream} of the
+     * current {@link eu.parcifal.print.Channel} and flush it. Must be called
+     * while holding the lock.
+     * 
+     * @throws IOException
+     *             Thrown if the buffered records cannot be written or
+     *             flushed.
+     */
+    private void flushBuffer() throws IOException {
+        this.writeBuffer();
+        this.outputStream.flush();
+        this.unflushed = false;
+        this.metrics.flushed();
+    }
+
+    /**
+     * Append the specified byte to the buffer of the current
+     * {@link eu.parcifal.print.Channel}. Must be called while holding the lock.
+     * 
+     * @param b
+     *            The byte to be appended.
+     */
+    final void encodeByte(int b) {
+        this.reserve(1);
+        this.buffer[this.buffered++] = (byte) b;
+    }
+
+    /**
+     * Append the specified non-negative number to the buffer of the current
+     * {@link eu.parcifal.print.Channel} as a variable length integer, seven
+     * bits per byte with the lowest bits first. Must be called while holding
+     * the lock.
+     * 
+     * @param value
+     *            The number to be appended, treated as unsigned.
+     */
+    final void encodeVarint(long value) {
+        this.reserve(10);
+
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.buffered++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        this.buffer[this.buffered++] = (byte) value;
+    }
+
+    /**
+     * Append the specified characters to the buffer of the current
+     * {@link eu.parcifal.print.Channel} as their length in bytes, encoded by
+     * {@link eu.parcifal.print.Channel#encodeVarint(long)}, followed by the
+     * characters encoded as UTF-8. Must be called while holding the lock.
+     * 
+     * @param characters
+     *            The characters to be appended.
+     */
+    final void encodeString(CharSequence characters) {
+        int length = characters.length();
+        int bytes = 0;
+
+        for (int i = 0; i < length; i++) {
+            char character = characters.charAt(i);
+
+            if (character < 0x80) {
+                bytes++;
+            } else if (character < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(character) && i + 1 < length
+                    && Character.isLowSurrogate(characters.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(character)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+
+        this.encodeVarint(bytes);
+        this.encode(characters);
+    }
+
+    /**
+     * Append the specified characters encoded as UTF-8 to the buffer of the
+     * current {@link eu.parcifal.print.Channel}, growing it if needed. Must be
+     * called while holding the lock.
+     * 
+     * @param characters
+     *            The characters to be encoded.
+     */
+    private void encode(CharSequence characters) {
+        int length = characters.length();
+
+        this.reserve(length * 3);
+
+        byte[] bytes = this.buffer;
+        int position = this.buffered;
+        for (int i = 0; i < length; i++) {
+            char character = characters.charAt(i);
+
+            if (character < 0x80) {
+                bytes[position++] = (byte) character;
+            } else if (character < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (character >> 6));
+                bytes[position++] = (byte) (0x80 | (character & 0x3F));
+            } else if (Character.isHighSurrogate(character) && i + 1 < length
+                    && Character.isLowSurrogate(characters.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(character, characters.charAt(++i));
+
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(character)) {
+                bytes[position++] = (byte) '?';
+            } else {
+                bytes[position++] = (byte) (0xE0 | (character >> 12));
+                bytes[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (character & 0x3F));
+            }
+        }
+
+        this.buffered = position;
+    }
+
+    /**
+     * Grow the buffer of the current {@link eu.parcifal.print.Channel} if it
+     * cannot take the specified amount of additional bytes.
+     * 
+     * @param length
+     *            The amount of bytes about to be appended.
+     */
+    private void reserve(int length) {
+        if (this.buffer.length - this.buffered < length) {
+            byte[] buffer = new byte[Math.max(this.buffer.length * 2, this.buffered + length)];
+
+            System.arraycopy(this.buffer, 0, buffer, 0, this.buffered);
+
+            this.buffer = buffer;
+        }
+    }
+
+}
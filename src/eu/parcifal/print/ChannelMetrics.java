@@ -0,0 +1,150 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what a {@link eu.parcifal.print.Channel} does: how many
+ * {@link eu.parcifal.print.Printable}s are routed to it and accepted, how
+ * many records and bytes it writes, how long each write takes, how often it
+ * flushes and how often writing fails. All counters are
+ * {@link java.util.concurrent.atomic.LongAdder}s, so that concurrent writers
+ * do not contend on them.
+ *
+ * @see eu.parcifal.print.ChannelStatistics
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class ChannelMetrics {
+
+    /**
+     * The amount of buckets of the write latency histogram. Bucket i counts
+     * the writes taking from 2^i up to 2^(i+1) nanoseconds; the last bucket
+     * also counts all longer writes.
+     */
+    final static int LATENCY_BUCKETS = 40;
+
+    /**
+     * The amount of {@link eu.parcifal.print.Printable}s routed to the
+     * {@link eu.parcifal.print.Channel}.
+     */
+    private final LongAdder offered = new LongAdder();
+
+    /**
+     * The amount of {@link eu.parcifal.print.Printable}s the
+     * {@link eu.parcifal.print.Channel} accepted.
+     */
+    private final LongAdder accepted = new LongAdder();
+
+    /**
+     * The amount of records written.
+     */
+    private final LongAdder records = new LongAdder();
+
+    /**
+     * The amount of bytes written.
+     */
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * The amount of flushes of the {@link java.io.OutputStream}.
+     */
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * The amount of failed writes, flushes and closes.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * The write latency histogram.
+     */
+    private final LongAdder[] latency = new LongAdder[LATENCY_BUCKETS];
+
+    /**
+     * Construct a new {@link eu.parcifal.print.ChannelMetrics} with all
+     * counters at zero.
+     */
+    ChannelMetrics() {
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            this.latency[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count a {@link eu.parcifal.print.Printable} routed to the
+     * {@link eu.parcifal.print.Channel}.
+     */
+    void offered() {
+        this.offered.increment();
+    }
+
+    /**
+     * Count a {@link eu.parcifal.print.Printable} accepted by the
+     * {@link eu.parcifal.print.Channel}.
+     */
+    void accepted() {
+        this.accepted.increment();
+    }
+
+    /**
+     * Count a written record.
+     *
+     * @param bytes
+     *            The size of the record in bytes.
+     */
+    void written(int bytes) {
+        this.records.increment();
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * Count a flush of the {@link java.io.OutputStream}.
+     */
+    void flushed() {
+        this.flushes.increment();
+    }
+
+    /**
+     * Count a failed write, flush or close.
+     */
+    void failed() {
+        this.failures.increment();
+    }
+
+    /**
+     * Count a write that took the specified amount of nanoseconds in the
+     * write latency histogram.
+     *
+     * @param nanos
+     *            The duration of the write in nanoseconds.
+     */
+    void timed(long nanos) {
+        int bucket = Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+
+        this.latency[Math.min(bucket, LATENCY_BUCKETS - 1)].increment();
+    }
+
+    /**
+     * Return the current values of all counters.
+     *
+     * @param channelName
+     *            The name of the {@link eu.parcifal.print.Channel}.
+     * @return The {@link eu.parcifal.print.ChannelStatistics} of the
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    ChannelStatistics snapshot(String channelName) {
+        long[] latency = new long[LATENCY_BUCKETS];
+
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            latency[i] = this.latency[i].sum();
+        }
+
+        long accepted = this.accepted.sum();
+
+        return new ChannelStatistics(channelName, accepted, Math.max(this.offered.sum() - accepted, 0),
+                this.records.sum(), this.bytes.sum(), this.flushes.sum(), this.failures.sum(), latency);
+    }
+
+}
@@ -0,0 +1,173 @@
+package eu.parcifal.print;
+
+/**
+ * The values of the counters of a {@link eu.parcifal.print.Channel} at a
+ * certain moment. Returned by
+ * {@link eu.parcifal.print.Channel#getStatistics()} and
+ * {@link eu.parcifal.print.Printer#getStatistics()}, and exposed through the
+ * {@link eu.parcifal.print.PrinterMXBean}.
+ *
+ * @see eu.parcifal.print.PrinterMXBean
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class ChannelStatistics {
+
+    /**
+     * The name of the {@link eu.parcifal.print.Channel}.
+     */
+    private final String channelName;
+
+    /**
+     * The amount of {@link eu.parcifal.print.Printable}s accepted.
+     */
+    private final long recordsAccepted;
+
+    /**
+     * The amount of {@link eu.parcifal.print.Printable}s rejected.
+     */
+    private final long recordsRejected;
+
+    /**
+     * The amount of records written.
+     */
+    private final long recordsWritten;
+
+    /**
+     * The amount of bytes written.
+     */
+    private final long bytesWritten;
+
+    /**
+     * The amount of flushes.
+     */
+    private final long flushCount;
+
+    /**
+     * The amount of failed writes, flushes and closes.
+     */
+    private final long failureCount;
+
+    /**
+     * The write latency histogram.
+     */
+    private final long[] latencyHistogram;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.ChannelStatistics}.
+     *
+     * @param channelName
+     *            The name of the {@link eu.parcifal.print.Channel}.
+     * @param recordsAccepted
+     *            The amount of {@link eu.parcifal.print.Printable}s accepted.
+     * @param recordsRejected
+     *            The amount of {@link eu.parcifal.print.Printable}s rejected.
+     * @param recordsWritten
+     *            The amount of records written.
+     * @param bytesWritten
+     *            The amount of bytes written.
+     * @param flushCount
+     *            The amount of flushes.
+     * @param failureCount
+     *            The amount of failed writes, flushes and closes.
+     * @param latencyHistogram
+     *            The write latency histogram.
+     */
+    ChannelStatistics(String channelName, long recordsAccepted, long recordsRejected, long recordsWritten,
+            long bytesWritten, long flushCount, long failureCount, long[] latencyHistogram) {
+        this.channelName = channelName;
+        this.recordsAccepted = recordsAccepted;
+        this.recordsRejected = recordsRejected;
+        this.recordsWritten = recordsWritten;
+        this.bytesWritten = bytesWritten;
+        this.flushCount = flushCount;
+        this.failureCount = failureCount;
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    /**
+     * Return the name of the {@link eu.parcifal.print.Channel}.
+     *
+     * @return The name of the {@link eu.parcifal.print.Channel}.
+     */
+    public String getChannelName() {
+        return this.channelName;
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Printable}s routed to the
+     * {@link eu.parcifal.print.Channel} that it accepted.
+     *
+     * @return The amount of accepted {@link eu.parcifal.print.Printable}s.
+     */
+    public long getRecordsAccepted() {
+        return this.recordsAccepted;
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Printable}s routed to the
+     * {@link eu.parcifal.print.Channel} that it rejected.
+     *
+     * @return The amount of rejected {@link eu.parcifal.print.Printable}s.
+     */
+    public long getRecordsRejected() {
+        return this.recordsRejected;
+    }
+
+    /**
+     * Return the amount of records the {@link eu.parcifal.print.Channel} has
+     * written to its buffer.
+     *
+     * @return The amount of written records.
+     */
+    public long getRecordsWritten() {
+        return this.recordsWritten;
+    }
+
+    /**
+     * Return the amount of bytes the {@link eu.parcifal.print.Channel} has
+     * written to its buffer.
+     *
+     * @return The amount of written bytes.
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Return the amount of times the {@link eu.parcifal.print.Channel} has
+     * flushed its {@link java.io.OutputStream}.
+     *
+     * @return The amount of flushes.
+     */
+    public long getFlushCount() {
+        return this.flushCount;
+    }
+
+    /**
+     * Return the amount of times writing, flushing or closing the
+     * {@link java.io.OutputStream} of the {@link eu.parcifal.print.Channel}
+     * failed with an {@link java.io.IOException}.
+     *
+     * @return The amount of failures.
+     */
+    public long getFailureCount() {
+        return this.failureCount;
+    }
+
+    /**
+     * Return the write latency histogram of the
+     * {@link eu.parcifal.print.Channel}, measured from the start of formatting
+     * a record until it has been written. Element i holds the amount of
+     * writes that took from 2^i up to 2^(i+1) nanoseconds; the last element
+     * also holds all longer writes.
+     *
+     * @return A copy of the write latency histogram.
+     */
+    public long[] getLatencyHistogram() {
+        return this.latencyHistogram.clone();
+    }
+
+}
@@ -0,0 +1,234 @@
+package eu.parcifal.print;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.function.LongSupplier;
+
+/**
+ * Provides the time at which each {@link eu.parcifal.print.Printable} is
+ * created, in milliseconds since the epoch, and converts it to the local
+ * date-time of the system time-zone.
+ *
+ * By default the time is read from {@link java.lang.System#currentTimeMillis()}
+ * for each {@link eu.parcifal.print.Printable}. If the PRINTER element has its
+ * CLOCK attribute set to "coarse", a background thread reads the time every
+ * CLOCK-RESOLUTION milliseconds instead and each
+ * {@link eu.parcifal.print.Printable} takes the last value read, trading
+ * precision for a cheaper read.
+ *
+ * The offset of the time-zone is looked up once and reused until the next
+ * transition of the time-zone, so converting a time to a local date-time does
+ * not consult the time-zone rules for each {@link eu.parcifal.print.Printable}.
+ *
+ * @see eu.parcifal.print.Printable
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Clock {
+
+    /**
+     * The rules of the system time-zone.
+     */
+    private final static ZoneRules RULES = ZoneId.systemDefault().getRules();
+
+    /**
+     * The source of the current time in milliseconds since the epoch.
+     */
+    private final static LongSupplier SOURCE;
+
+    /**
+     * The time most recently read by the background thread of a coarse clock.
+     */
+    private static volatile long COARSE = System.currentTimeMillis();
+
+    /**
+     * The offset of the time-zone and the period in which it is valid.
+     */
+    private static volatile Offset OFFSET = new Offset(Long.MAX_VALUE, Long.MIN_VALUE, ZoneOffset.UTC);
+
+    static {
+        Configuration.Element printer = Configuration.current().getPrinter();
+
+        if ("coarse".equals(printer.getAttribute("clock"))) {
+            String attribute = printer.getAttribute("clock-resolution", "10");
+            long resolution = Math.max(RotatingOutputStream.parseDuration(attribute), 1);
+
+            Thread thread = new Thread(() -> {
+                while (true) {
+                    try {
+                        Thread.sleep(resolution);
+                    } catch (InterruptedException exception) {
+                        return;
+                    }
+
+                    COARSE = System.currentTimeMillis();
+                }
+            }, "eu.parcifal.print.clock");
+
+            thread.setDaemon(true);
+            thread.start();
+
+            SOURCE = () -> COARSE;
+        } else {
+            SOURCE = System::currentTimeMillis;
+        }
+    }
+
+    /**
+     * Private constructor, as {@link eu.parcifal.print.Clock} only has static
+     * methods.
+     */
+    private Clock() {
+    }
+
+    /**
+     * Return the current time.
+     *
+     * @return The current time in milliseconds since the epoch.
+     */
+    static long millis() {
+        return SOURCE.getAsLong();
+    }
+
+    /**
+     * Return the offset of the system time-zone at the specified time.
+     *
+     * @param millis
+     *            The time in milliseconds since the epoch.
+     * @return The offset of the system time-zone.
+     */
+    static ZoneOffset offset(long millis) {
+        Offset offset = OFFSET;
+
+        if (millis < offset.from || millis >= offset.until) {
+            Instant instant = Instant.ofEpochMilli(millis);
+            ZoneOffsetTransition previous = RULES.previousTransition(instant);
+            ZoneOffsetTransition next = RULES.nextTransition(instant);
+
+            offset = new Offset(previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L,
+                    next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000L, RULES.getOffset(instant));
+
+            OFFSET = offset;
+        }
+
+        return offset.offset;
+    }
+
+    /**
+     * Return the local date-time of the system time-zone at the specified
+     * time.
+     *
+     * @param millis
+     *            The time in milliseconds since the epoch.
+     * @return The local date-time.
+     */
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1000000, offset(millis));
+    }
+
+    /**
+     * Return the local date-time of the system time-zone at the specified
+     * time, counted in milliseconds as if it were UTC.
+     *
+     * @param millis
+     *            The time in milliseconds since the epoch.
+     * @return The local time in milliseconds.
+     */
+    static long toLocalMillis(long millis) {
+        return millis + offset(millis).getTotalSeconds() * 1000L;
+    }
+
+    /**
+     * Return a single field of the local date-time of the system time-zone at
+     * the specified time, without creating a {@link java.time.LocalDateTime}.
+     *
+     * @param millis
+     *            The time in milliseconds since the epoch.
+     * @param conversion
+     *            The date-time conversion of the field: 'Y' for the year, 'm'
+     *            for the month, 'd' for the day of the month, 'H' for the
+     *            hour, 'M' for the minute, 'S' for the second or 'L' for the
+     *            millisecond.
+     * @return The value of the field.
+     */
+    static int field(long millis, char conversion) {
+        long local = toLocalMillis(millis);
+        int ofDay = (int) Math.floorMod(local, 86400000L);
+
+        switch (conversion) {
+        case 'H':
+            return ofDay / 3600000;
+        case 'M':
+            return ofDay / 60000 % 60;
+        case 'S':
+            return ofDay / 1000 % 60;
+        case 'L':
+            return ofDay % 1000;
+        }
+
+        // the proleptic Gregorian date, counted in years starting in March
+        long days = Math.floorDiv(local, 86400000L) + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long ofEra = days - era * 146097;
+        long yearOfEra = (ofEra - ofEra / 1460 + ofEra / 36524 - ofEra / 146096) / 365;
+        long ofYear = ofEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * ofYear + 2) / 153;
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+
+        switch (conversion) {
+        case 'd':
+            return (int) (ofYear - (153 * shiftedMonth + 2) / 5 + 1);
+        case 'm':
+            return month;
+        default:
+            return (int) (era * 400 + yearOfEra + (month <= 2 ? 1 : 0));
+        }
+    }
+
+    /**
+     * The offset of the time-zone during the period between two of its
+     * transitions.
+     */
+    private final static class Offset {
+
+        /**
+         * The start of the period in milliseconds since the epoch.
+         */
+        private final long from;
+
+        /**
+         * The end of the period in milliseconds since the epoch, exclusive.
+         */
+        private final long until;
+
+        /**
+         * The offset of the time-zone during the period.
+         */
+        private final ZoneOffset offset;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Clock.Offset}.
+         *
+         * @param from
+         *            The start of the period.
+         * @param until
+         *            The end of the period, exclusive.
+         * @param offset
+         *            The offset of the time-zone during the period.
+         */
+        Offset(long from, long until, ZoneOffset offset) {
+            this.from = from;
+            this.until = until;
+            this.offset = offset;
+        }
+
+    }
+
+}
@@ -0,0 +1,306 @@
+package eu.parcifal.print;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Receives the records that remote log elements send over TCP and writes them
+ * to a single {@link java.io.OutputStream}, so that the logs of many
+ * applications end up in one place. Each connection is read by its own
+ * thread, and each frame is written as a whole, so records of different
+ * applications are never interleaved.
+ *
+ * A connection carries a sequence of frames. Each frame starts with the
+ * length of its payload as a four byte big-endian integer, followed by a
+ * single byte that is {@link eu.parcifal.print.Collector#COMPRESSED} if the
+ * payload is compressed by a {@link java.util.zip.Deflater} and
+ * {@link eu.parcifal.print.Collector#PLAIN} if it is not, followed by the
+ * payload itself: one or more complete records.
+ *
+ * The {@link eu.parcifal.print.Collector} can be started from the command
+ * line, taking the port to listen on and optionally the file to append to,
+ * which defaults to the standard output:
+ *
+ * <pre>
+ * java eu.parcifal.print.Collector 5140 ./log/collected.csv
+ * </pre>
+ *
+ * @see eu.parcifal.print.RemoteOutputStream
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class Collector implements Closeable {
+
+    /**
+     * The amount of bytes preceding the payload of a frame.
+     */
+    final static int HEADER_SIZE = 5;
+
+    /**
+     * Marks a frame of which the payload is not compressed.
+     */
+    final static byte PLAIN = 0;
+
+    /**
+     * Marks a frame of which the payload is compressed.
+     */
+    final static byte COMPRESSED = 1;
+
+    /**
+     * The largest payload accepted, so that a connection sending garbage
+     * cannot exhaust the memory of the {@link eu.parcifal.print.Collector}.
+     */
+    private final static int MAX_PAYLOAD = 1 << 26;
+
+    /**
+     * The {@link java.nio.channels.ServerSocketChannel} accepting connections.
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * The {@link java.io.OutputStream} to which the received records are
+     * written.
+     */
+    private final OutputStream output;
+
+    /**
+     * The thread accepting connections.
+     */
+    private final Thread acceptor;
+
+    /**
+     * The connections being read.
+     */
+    private final Set<SocketChannel> connections = new HashSet<SocketChannel>();
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Collector} listening on the
+     * specified port and writing the received records to the specified
+     * {@link java.io.OutputStream}, and start accepting connections.
+     *
+     * @param port
+     *            The port to listen on, or 0 for any free port.
+     * @param output
+     *            The {@link java.io.OutputStream} to which the received
+     *            records are written.
+     * @throws IOException
+     *             Thrown if the port cannot be listened on.
+     */
+    public Collector(int port, OutputStream output) throws IOException {
+        this.server = ServerSocketChannel.open();
+        this.output = output;
+
+        this.server.bind(new InetSocketAddress(port));
+
+        this.acceptor = new Thread(this::accept, "eu.parcifal.print.collector:" + this.getPort());
+
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    /**
+     * Return the port on which the current
+     * {@link eu.parcifal.print.Collector} listens.
+     *
+     * @return The port of the current {@link eu.parcifal.print.Collector}.
+     */
+    public int getPort() {
+        return this.server.socket().getLocalPort();
+    }
+
+    /**
+     * Stop accepting connections and close the open ones, returning once the
+     * port can be listened on again. The {@link java.io.OutputStream} is
+     * flushed but not closed.
+     *
+     * @throws IOException
+     *             Thrown if the {@link java.io.OutputStream} cannot be
+     *             flushed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.server.close();
+
+        try {
+            // the port is only released once the thread accepting on it left
+            this.acceptor.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this.connections) {
+            for (SocketChannel connection : this.connections) {
+                connection.close();
+            }
+
+            this.connections.clear();
+        }
+
+        synchronized (this.output) {
+            this.output.flush();
+        }
+    }
+
+    /**
+     * Accept connections until the current {@link eu.parcifal.print.Collector}
+     * is closed, starting a thread reading each of them.
+     */
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel connection = this.server.accept();
+
+                synchronized (this.connections) {
+                    this.connections.add(connection);
+                }
+
+                Thread reader = new Thread(() -> this.read(connection),
+                        "eu.parcifal.print.collector+" + connection.getRemoteAddress());
+
+                reader.setDaemon(true);
+                reader.start();
+            }
+        } catch (ClosedChannelException exception) {
+            // the collector has been closed
+        } catch (IOException exception) {
+            throw new Error(exception);
+        }
+    }
+
+    /**
+     * Read the frames of the specified connection until it ends, writing the
+     * records they contain to the {@link java.io.OutputStream}. A frame that
+     * ends before its payload does is discarded.
+     *
+     * @param connection
+     *            The connection to be read.
+     */
+    private void read(SocketChannel connection) {
+        Inflater inflater = new Inflater();
+
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(connection)))) {
+            while (true) {
+                int length;
+
+                try {
+                    length = input.readInt();
+                } catch (EOFException exception) {
+                    return;
+                }
+
+                int flags = input.readUnsignedByte();
+
+                if (length < 0 || length > MAX_PAYLOAD || (flags != PLAIN && flags != COMPRESSED)) {
+                    throw new IOException("malformed frame from " + connection.getRemoteAddress());
+                }
+
+                byte[] payload = new byte[length];
+
+                input.readFully(payload);
+
+                if (flags == COMPRESSED) {
+                    payload = inflate(inflater, payload);
+                }
+
+                synchronized (this.output) {
+                    this.output.write(payload);
+                    this.output.flush();
+                }
+            }
+        } catch (IOException | DataFormatException exception) {
+            // the connection is dropped, the sender will reconnect
+        } finally {
+            inflater.end();
+
+            synchronized (this.connections) {
+                this.connections.remove(connection);
+            }
+        }
+    }
+
+    /**
+     * Decompress the specified payload.
+     *
+     * @param inflater
+     *            The {@link java.util.zip.Inflater} of the connection.
+     * @param payload
+     *            The compressed payload.
+     * @return The decompressed payload.
+     * @throws DataFormatException
+     *             Thrown if the payload is not compressed correctly.
+     */
+    private static byte[] inflate(Inflater inflater, byte[] payload) throws DataFormatException {
+        byte[] inflated = new byte[Math.max(payload.length * 4, 1024)];
+        int length = 0;
+
+        inflater.reset();
+        inflater.setInput(payload);
+
+        while (!inflater.finished()) {
+            if (length == inflated.length) {
+                if (inflated.length >= MAX_PAYLOAD) {
+                    throw new DataFormatException("frame exceeds " + MAX_PAYLOAD + " bytes");
+                }
+
+                inflated = Arrays.copyOf(inflated, inflated.length * 2);
+            }
+
+            int inflatedLength = inflater.inflate(inflated, length, inflated.length - length);
+
+            if (inflatedLength == 0 && inflater.needsInput()) {
+                throw new DataFormatException("frame ends before its payload");
+            }
+
+            length += inflatedLength;
+        }
+
+        return Arrays.copyOf(inflated, length);
+    }
+
+    /**
+     * Listen on the port given as the first argument and append the received
+     * records to the file given as the second argument, or print them to the
+     * standard output if there is none, until the JVM is stopped.
+     *
+     * @param arguments
+     *            The port and optionally the file.
+     * @throws IOException
+     *             Thrown if the port cannot be listened on or the file cannot
+     *             be opened.
+     * @throws InterruptedException
+     *             Thrown if the main thread is interrupted.
+     */
+    public static void main(String[] arguments) throws IOException, InterruptedException {
+        if (arguments.length < 1 || arguments.length > 2) {
+            System.err.println("usage: java eu.parcifal.print.Collector <port> [file]");
+
+            return;
+        }
+
+        OutputStream output = arguments.length == 2 ? new FileOutputStream(arguments[1], true) : System.out;
+        Collector collector = new Collector(Integer.parseInt(arguments[0]), output);
+
+        System.err.println("collecting on port " + collector.getPort());
+
+        Thread.currentThread().join();
+    }
+
+}
@@ -1,125 +1,539 @@
-package eu.parcifal.print;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-
-import javax.xml.namespace.QName;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-
-import org.w3c.dom.Document;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-/**
- * Gives access to the configuration file, defining the debug mode of the
- * Console and the Logs that will be used.
- * 
- * @see eu.parcifal.print.Console
- * @see eu.parcifal.print.Log
- * 
- * @author Michal van de Weerd
- * @version 15.05.2016
- * @since 11.05.2016
- */
-class Configuration {
-
-    /**
-     * The location of the file containing custom configuration settings.
-     */
-    private final static String LOCATION = "./cfg/print.xml";
-
-    /**
-     * The document representing the configuration file.
-     */
-    private final static Document DOCUMENT;
-
-    /**
-     * The XPath object to be used for navigating the configuration document.
-     */
-    private final static XPath X_PATH;
-
-    /**
-     * Indicates whether or not the configuration file is available.
-     */
-    final static boolean AVAILABLE;
-
-    static {
-        try {
-            File file = new File(LOCATION);
-
-            AVAILABLE = file.exists();
-
-            if (AVAILABLE) {
-                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-
-                factory.setIgnoringElementContentWhitespace(true);
-
-                DocumentBuilder builder = factory.newDocumentBuilder();
-
-                builder.setEntityResolver(new Resolver());
-
-                FileInputStream inputStream = new FileInputStream(file);
-
-                DOCUMENT = builder.parse(inputStream);
-                DOCUMENT.normalize();
-
-                X_PATH = XPathFactory.newInstance().newXPath();
-            } else {
-                DOCUMENT = null;
-                X_PATH = null;
-            }
-        } catch (Exception exception) {
-            throw new Error(exception);
-        }
-    }
-
-    /**
-     * Evaluate an x-path expression on the current {@link org.w3c.dom.Document}
-     * and return the result.
-     * 
-     * @param expression
-     *            The x-path expression to be evaluated.
-     * @param type
-     *            The type to be returned.
-     * @return The result of the evaluation of the specified x-path expression
-     *         on the current {@link org.w3c.dom.Document}.
-     * @throws XPathExpressionException
-     *             Thrown if the specified x-path expression is invalid.
-     */
-    static Object evaluate(String expression, QName type) throws XPathExpressionException {
-        return X_PATH.evaluate(expression, DOCUMENT, type);
-    }
-
-    /**
-     * Provides the XML parser with the location of the DTD file, used to
-     * validate the contents of the configuration file.
-     * 
-     * @author Michal van de Weerd
-     * @version 15.05.2016
-     * @since 15.05.2016
-     */
-    private static class Resolver implements EntityResolver {
-
-        /**
-         * The name of the DTD file.
-         */
-        private final static String FILE_NAME = "eu.parcifal.print.dtd";
-
-        @Override
-        public InputSource resolveEntity(String publicID, String systemID) throws SAXException, IOException {
-            if (systemID.contains(FILE_NAME)) {
-                return new InputSource(this.getClass().getResourceAsStream("/" + FILE_NAME));
-            } else {
-                return null;
-            }
-        }
-
-    }
-
-}
+package eu.parcifal.print;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Gives access to the configuration file, defining the debug mode of the
+ * Console and the Logs that will be used.
+ * 
+ * Each {@link eu.parcifal.print.Configuration} is an immutable view of the
+ * configuration file as it was when it was read. The file is read in a single
+ * pass by a streaming parser, which skips the DTD, into the attributes of the
+ * PRINTER element and of each of its children; the defaults declared by the
+ * DTD are applied by the code reading the attributes. If the PRINTER element has
+ * its RELOAD attribute set to "true", the file is watched and read again once
+ * it changes. Every listener registered through
+ * {@link eu.parcifal.print.Configuration#addListener(Listener)} then prepares
+ * applying the new {@link eu.parcifal.print.Configuration} first, without
+ * changing anything in use. Only once all of them have succeeded does the new
+ * {@link eu.parcifal.print.Configuration} become the current one and are the
+ * prepared changes applied. If one of them fails, the changes prepared by the
+ * others are abandoned, the failure is reported and the current
+ * {@link eu.parcifal.print.Configuration} stays in use.
+ * 
+ * @see eu.parcifal.print.Console
+ * @see eu.parcifal.print.Log
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 11.05.2016
+ */
+final class Configuration {
+
+    /**
+     * The location of the file containing custom configuration settings.
+     */
+    private final static String LOCATION = "./cfg/print.xml";
+
+    /**
+     * The {@link eu.parcifal.print.Configuration} read most recently.
+     */
+    private static volatile Configuration CURRENT;
+
+    /**
+     * The listeners called with each {@link eu.parcifal.print.Configuration}
+     * read after the first one.
+     */
+    private final static List<Listener> LISTENERS = new CopyOnWriteArrayList<Listener>();
+
+    /**
+     * Indicates whether or not the configuration file existed when the
+     * {@link eu.parcifal.print.Configuration} was read.
+     */
+    private final boolean available;
+
+    /**
+     * The root element of the configuration file, without attributes if the
+     * file is not available.
+     */
+    private final Element printer;
+
+    /**
+     * The child elements of the root element, in the order of the
+     * configuration file.
+     */
+    private final List<Element> elements;
+
+    static {
+        CURRENT = new Configuration(new File(LOCATION));
+
+        if (CURRENT.isAvailable() && CURRENT.getPrinter().getFlag("reload", false)) {
+            watch(new File(LOCATION));
+        }
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Configuration} by reading the
+     * specified file, which does not have to exist.
+     * 
+     * @param file
+     *            The configuration file.
+     */
+    private Configuration(File file) {
+        Element printer = Element.EMPTY;
+        List<Element> elements = new ArrayList<Element>();
+
+        if (file.exists()) {
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                XMLInputFactory factory = XMLInputFactory.newFactory();
+
+                factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+                factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+
+                XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+                int depth = 0;
+
+                try {
+                    while (reader.hasNext()) {
+                        switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT:
+                            depth++;
+
+                            if (depth == 1 && "printer".equals(reader.getLocalName())) {
+                                printer = Element.read(reader);
+                            } else if (depth == 2 && printer != Element.EMPTY) {
+                                elements.add(Element.read(reader));
+                            }
+
+                            break;
+                        case XMLStreamConstants.END_ELEMENT:
+                            depth--;
+                            break;
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | XMLStreamException exception) {
+                throw new Error(exception);
+            }
+        }
+
+        this.available = file.exists();
+        this.printer = printer;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Configuration} read most recently.
+     * 
+     * @return The current {@link eu.parcifal.print.Configuration}.
+     */
+    static Configuration current() {
+        return CURRENT;
+    }
+
+    /**
+     * Register a listener to be called with each
+     * {@link eu.parcifal.print.Configuration} read after the current one.
+     * 
+     * @param listener
+     *            The listener to be registered.
+     */
+    static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Read the configuration file again, let all listeners prepare applying
+     * the result and apply it once all of them have succeeded. If the file
+     * cannot be read or a listener fails, the failure is reported and the
+     * current {@link eu.parcifal.print.Configuration} is kept.
+     */
+    static synchronized void reload() {
+        Configuration configuration;
+
+        try {
+            File file = new File(LOCATION);
+
+            if (!file.exists()) {
+                return;
+            }
+
+            configuration = new Configuration(file);
+        } catch (Error error) {
+            error.printStackTrace();
+
+            return;
+        }
+
+        List<Change> changes = new ArrayList<Change>();
+
+        try {
+            for (Listener listener : LISTENERS) {
+                changes.add(listener.prepare(configuration));
+            }
+        } catch (Throwable throwable) {
+            for (Change change : changes) {
+                change.abort();
+            }
+
+            throwable.printStackTrace();
+
+            return;
+        }
+
+        CURRENT = configuration;
+
+        for (Change change : changes) {
+            try {
+                change.commit();
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Start a background thread that calls
+     * {@link eu.parcifal.print.Configuration#reload()} whenever the specified
+     * file changes.
+     * 
+     * @param file
+     *            The configuration file.
+     */
+    private static void watch(File file) {
+        Path directory = file.getAbsoluteFile().toPath().getParent();
+        Path name = file.toPath().getFileName();
+        WatchService watchService;
+
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException exception) {
+            throw new Error(exception);
+        }
+
+        Thread thread = new Thread(() -> {
+            while (true) {
+                WatchKey key;
+
+                try {
+                    key = watchService.take();
+
+                    // let the editor finish writing and combine its events
+                    Thread.sleep(100);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+
+                boolean changed = false;
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= name.equals(event.context());
+                }
+
+                key.reset();
+
+                if (changed) {
+                    reload();
+                }
+            }
+        }, "eu.parcifal.print.reloader");
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Return true if the configuration file was available when the current
+     * {@link eu.parcifal.print.Configuration} was read.
+     * 
+     * @return True if the configuration file is available, otherwise false.
+     */
+    boolean isAvailable() {
+        return this.available;
+    }
+
+    /**
+     * Return the root element of the configuration file.
+     * 
+     * @return The PRINTER element, without attributes if the configuration
+     *         file is not available.
+     */
+    Element getPrinter() {
+        return this.printer;
+    }
+
+    /**
+     * Return the first child element of the root element with the specified
+     * name, such as "console".
+     * 
+     * @param name
+     *            The name of the element.
+     * @return The first element with the specified name, or an element
+     *         without attributes if there is none.
+     */
+    Element getElement(String name) {
+        for (Element element : this.elements) {
+            if (element.name.equals(name)) {
+                return element;
+            }
+        }
+
+        return Element.EMPTY;
+    }
+
+    /**
+     * Return the child elements of the root element with the specified name,
+     * such as "log", in the order of the configuration file.
+     * 
+     * @param name
+     *            The name of the elements.
+     * @return The elements with the specified name.
+     */
+    List<Element> getElements(String name) {
+        List<Element> elements = new ArrayList<Element>();
+
+        for (Element element : this.elements) {
+            if (element.name.equals(name)) {
+                elements.add(element);
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Applies each {@link eu.parcifal.print.Configuration} read after the
+     * current one, in two steps so that nothing changes unless every listener
+     * can apply it.
+     * 
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    @FunctionalInterface
+    interface Listener {
+
+        /**
+         * Prepare applying the specified
+         * {@link eu.parcifal.print.Configuration} without changing anything
+         * in use, releasing whatever was prepared if that fails.
+         * 
+         * @param configuration
+         *            The {@link eu.parcifal.print.Configuration} read.
+         * @return The {@link eu.parcifal.print.Configuration.Change} applying
+         *         or abandoning what was prepared.
+         * @throws Exception
+         *             Thrown if the {@link eu.parcifal.print.Configuration}
+         *             cannot be applied.
+         */
+        Change prepare(Configuration configuration) throws Exception;
+
+    }
+
+    /**
+     * A change prepared by a {@link eu.parcifal.print.Configuration.Listener},
+     * either applied once all listeners have prepared theirs or abandoned.
+     * 
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    final static class Change {
+
+        /**
+         * Applies the prepared change.
+         */
+        private final Runnable commit;
+
+        /**
+         * Releases what was prepared without applying it.
+         */
+        private final Runnable abort;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Configuration.Change}.
+         * 
+         * @param commit
+         *            Applies the prepared change.
+         * @param abort
+         *            Releases what was prepared without applying it.
+         */
+        Change(Runnable commit, Runnable abort) {
+            this.commit = commit;
+            this.abort = abort;
+        }
+
+        /**
+         * Apply the prepared change.
+         */
+        void commit() {
+            this.commit.run();
+        }
+
+        /**
+         * Release what was prepared without applying it.
+         */
+        void abort() {
+            this.abort.run();
+        }
+
+    }
+
+    /**
+     * An immutable element of the configuration file, holding its name and
+     * attributes.
+     * 
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    final static class Element {
+
+        /**
+         * The element without a name or attributes, returned for elements
+         * that are not defined.
+         */
+        final static Element EMPTY = new Element("", Collections.<String, String> emptyMap());
+
+        /**
+         * The local name of the element.
+         */
+        private final String name;
+
+        /**
+         * The attributes of the element by name.
+         */
+        private final Map<String, String> attributes;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Configuration.Element}.
+         * 
+         * @param name
+         *            The local name of the element.
+         * @param attributes
+         *            The attributes of the element by name.
+         */
+        private Element(String name, Map<String, String> attributes) {
+            this.name = name;
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        /**
+         * Read the element at which the specified
+         * {@link javax.xml.stream.XMLStreamReader} is positioned.
+         * 
+         * @param reader
+         *            The {@link javax.xml.stream.XMLStreamReader} positioned
+         *            at the start of an element.
+         * @return The {@link eu.parcifal.print.Configuration.Element}.
+         */
+        private static Element read(XMLStreamReader reader) {
+            Map<String, String> attributes = new TreeMap<String, String>();
+
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+
+            return new Element(reader.getLocalName(), attributes);
+        }
+
+        /**
+         * Return the local name of the element, such as "log".
+         * 
+         * @return The local name of the element.
+         */
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Return the value of the specified attribute.
+         * 
+         * @param name
+         *            The name of the attribute.
+         * @return The value of the attribute, or an empty string if it is not
+         *         defined.
+         */
+        String getAttribute(String name) {
+            return this.attributes.getOrDefault(name, "");
+        }
+
+        /**
+         * Return the value of the specified attribute, or the specified
+         * default if it is not defined or empty.
+         * 
+         * @param name
+         *            The name of the attribute.
+         * @param defaultValue
+         *            The value returned if the attribute is not defined.
+         * @return The value of the attribute or the specified default.
+         */
+        String getAttribute(String name, String defaultValue) {
+            String value = this.getAttribute(name);
+
+            return value.isEmpty() ? defaultValue : value;
+        }
+
+        /**
+         * Return the value of the specified boolean attribute.
+         * 
+         * @param name
+         *            The name of the attribute.
+         * @param defaultValue
+         *            The value returned if the attribute is not defined.
+         * @return True if the attribute equals "true", false if it has another
+         *         value or the specified default if it is not defined.
+         */
+        boolean getFlag(String name, boolean defaultValue) {
+            String value = this.getAttribute(name);
+
+            return value.isEmpty() ? defaultValue : "true".equals(value.trim());
+        }
+
+        /**
+         * Return true if the specified attribute is defined.
+         * 
+         * @param name
+         *            The name of the attribute.
+         * @return True if the attribute is defined, otherwise false.
+         */
+        boolean hasAttribute(String name) {
+            return this.attributes.containsKey(name);
+        }
+
+        /**
+         * Return all attributes of the element, so that two elements can be
+         * compared.
+         * 
+         * @return The unmodifiable attributes of the element by name.
+         */
+        Map<String, String> getAttributes() {
+            return this.attributes;
+        }
+
+    }
+
+}
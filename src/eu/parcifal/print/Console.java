@@ -1,252 +1,526 @@
-package eu.parcifal.print;
-
-import java.util.Arrays;
-
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-
-/**
- * Prints to the {@link eu.parcifal.print.Console} for direct communication with
- * the user. Each {@link eu.parcifal.print.Printable} is formatted for user
- * readability and the possibility to backtrack the source of the message.
- * 
- * @see eu.parcifal.print.Printable
- * 
- * @author Michal van de Weerd
- * @since 10.05.2016
- * @version 12.05.2016
- */
-public class Console {
-
-    /**
-     * The format of the header of each print that the
-     * {@link eu.parcifal.print.Console} makes.
-     */
-    private final static String HEADER_FORMAT = "%1$-8.8S[ %2$tY.%2$tm.%2$td %2$tH:%2$tM:%2$tS:%2$tL ] %3$s#%4$s (%5$s:%6$d)\r\n";
-
-    /**
-     * The instance of the {@link eu.parcifal.print.Channel} used by the
-     * {@link eu.parcifal.print.Console} to print. Its
-     * {@link eu.parcifal.print.Channel#format(Printable)} method creates a
-     * header with meta-data and appends each line of content.
-     */
-    private final static Channel CHANNEL_CONSOLE = new Channel("eu.parcifal.print.console", System.out) {
-
-        @Override
-        protected String format(Printable printable) {
-            String output = String.format(HEADER_FORMAT, printable.getTag(), printable.getDateTime(),
-                    printable.getSourceClassName(), printable.getSourceMethodName(), printable.getSourceFileName(),
-                    printable.getSourceLineNumber());
-
-            for (int i = 0; i < printable.getContentLineCount(); i++) {
-                output += printable.getLine(i) + "\r\n";
-            }
-
-            return output;
-        }
-
-    };
-
-    /**
-     * Indicates whether or not the current {@link eu.parcifal.print.Console}
-     * prints debug messages or not.
-     */
-    private final static boolean DEBUG;
-
-    static {
-        if (Configuration.AVAILABLE) {
-            try {
-                DEBUG = (boolean) Configuration.evaluate("/printer/console/@debug", XPathConstants.BOOLEAN);
-            } catch (XPathExpressionException exception) {
-                throw new Error(exception);
-            }
-        } else {
-            DEBUG = false;
-        }
-
-        Printer.addChannel(CHANNEL_CONSOLE);
-    }
-
-    /**
-     * Print a note containing the specified message to the console
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print note(String message) {
-        return Printer.executePrint(new Printable("note", message) {
-
-            private String[] lines = this.getContent().split("\r?\n");
-
-            @Override
-            public int getContentLineCount() {
-                return this.lines.length;
-            }
-
-            @Override
-            public String getLine(int number) {
-                return " : " + this.lines[number];
-            }
-
-        }, Arrays.asList(CHANNEL_CONSOLE));
-    }
-
-    /**
-     * Print a formatted note containing the specified message to the console
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @param arguments
-     *            The arguments used to format the specified message.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print note(String message, Object... arguments) {
-        return note(String.format(message, arguments));
-    }
-
-    /**
-     * Print a warning containing the specified message to the console
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print warning(String message) {
-        return Printer.executePrint(new Printable("warning", message) {
-
-            private String[] lines = this.getContent().split("\r?\n");
-
-            @Override
-            public int getContentLineCount() {
-                return this.lines.length;
-            }
-
-            @Override
-            public String getLine(int number) {
-                return " ! " + this.lines[number];
-            }
-
-        }, Arrays.asList(CHANNEL_CONSOLE));
-    }
-
-    /**
-     * Print a warning containing the specified message to the console
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @param arguments
-     *            The arguments used to format the specified message.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print warning(String message, Object... arguments) {
-        return warning(String.format(message, arguments));
-    }
-
-    /**
-     * Print an error containing the message and stack-trace of the specified
-     * {@link java.lang.Throwable} to the console
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param throwable
-     *            The throwable to be printed to the console.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print error(Throwable throwable) {
-        return Printer.executePrint(
-                new Printable("error", throwable.getMessage() + " (" + throwable.getClass().getName() + ")") {
-
-                    private StackTraceElement[] stackTrace = throwable.getStackTrace();
-
-                    @Override
-                    public int getContentLineCount() {
-                        return stackTrace.length + 1;
-                    }
-
-                    @Override
-                    public String getLine(int number) {
-                        if (number == 0) {
-                            return " : " + this.getContent();
-                        } else {
-                            StackTraceElement element = this.stackTrace[number - 1];
-
-                            String line = " @ " + element.getClassName() + "#" + element.getMethodName();
-
-                            if (!(element.getFileName() == null || element.getLineNumber() == -1)) {
-                                return line + " (" + element.getFileName() + ":" + element.getLineNumber() + ")";
-                            } else {
-                                return line;
-                            }
-                        }
-                    }
-
-                }, Arrays.asList(CHANNEL_CONSOLE));
-    }
-
-    /**
-     * Print a debug message containing the specified message to the console
-     * {@link eu.parcifal.print.Channel} if the current
-     * {@link eu.parcifal.print.Console} is set to print debug messages.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print debug(String message) {
-        Printable debug = new Printable("debug", message) {
-
-            private String[] lines = this.getContent().split("\r?\n");
-
-            @Override
-            public int getContentLineCount() {
-                return lines.length;
-            }
-
-            @Override
-            public String getLine(int number) {
-                return " > " + this.lines[number];
-            }
-
-        };
-
-        if (DEBUG) {
-            return Printer.executePrint(debug, Arrays.asList(CHANNEL_CONSOLE));
-        } else {
-            return Printer.compilePrint(debug, Arrays.asList(CHANNEL_CONSOLE));
-        }
-    }
-
-    /**
-     * Print a formatted debug message containing the specified message to the
-     * console {@link eu.parcifal.print.Channel} if the current
-     * {@link eu.parcifal.print.Console} is set to print debug messages.
-     * 
-     * @param message
-     *            The message to be printed to the console.
-     * @param arguments
-     *            The arguments used to format the specified message.
-     * @return The {@link eu.parcifal.print.Print} containing the printed
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is printed.
-     */
-    public final static Print debug(String message, Object... arguments) {
-        return debug(String.format(message, arguments));
-    }
-
-}
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Prints to the {@link eu.parcifal.print.Console} for direct communication with
+ * the user. Each {@link eu.parcifal.print.Printable} is formatted for user
+ * readability and the possibility to backtrack the source of the message.
+ * 
+ * @see eu.parcifal.print.Printable
+ * 
+ * @author Michaël van de Weerd
+ * @since 10.05.2016
+ * @version 17.10.2026
+ */
+public class Console {
+
+    /**
+     * The default format of the header of each print that the
+     * {@link eu.parcifal.print.Console} makes. Its arguments are described by
+     * {@link eu.parcifal.print.Template}.
+     */
+    private final static String HEADER_FORMAT = "%1$-8.8S[ %2$tY.%2$tm.%2$td %2$tH:%2$tM:%2$tS:%2$tL ] %3$s#%4$s (%5$s:%6$d)\r\n";
+
+    /**
+     * The default format of the header of each print that the
+     * {@link eu.parcifal.print.Console} makes if location capture has been
+     * turned off.
+     */
+    private final static String HEADER_FORMAT_WITHOUT_LOCATION = "%1$-8.8S[ %2$tY.%2$tm.%2$td %2$tH:%2$tM:%2$tS:%2$tL ]\r\n";
+
+    /**
+     * The instance of the {@link eu.parcifal.print.Channel} used by the
+     * {@link eu.parcifal.print.Console} to print, replaced when a reload of
+     * the configuration file changes the console element.
+     */
+    private static volatile Channel CHANNEL_CONSOLE;
+
+    /**
+     * The {@link eu.parcifal.print.Channel}s to which the
+     * {@link eu.parcifal.print.Console} prints, being only
+     * {@link eu.parcifal.print.Console#CHANNEL_CONSOLE}. Always the same
+     * {@link java.util.List} until the next reload, so that the
+     * {@link eu.parcifal.print.Printer} can route each print with a single
+     * lookup.
+     */
+    private static volatile List<Channel> CHANNELS_CONSOLE;
+
+    /**
+     * The attributes of the console element from which
+     * {@link eu.parcifal.print.Console#CHANNEL_CONSOLE} was created.
+     */
+    private static Map<String, String> ATTRIBUTES;
+
+    /**
+     * Indicates whether or not a reload is replacing the console
+     * {@link eu.parcifal.print.Channel} in the
+     * {@link eu.parcifal.print.Printer} and has not yet published it.
+     */
+    private static volatile boolean SWAPPING = false;
+
+    /**
+     * Indicates whether or not the current {@link eu.parcifal.print.Console}
+     * prints debug messages or not.
+     */
+    private static volatile boolean DEBUG;
+
+    static {
+        prepare(Configuration.current()).commit();
+
+        Configuration.addListener(Console::prepare);
+    }
+
+    /**
+     * Prepare applying the console element of the specified
+     * {@link eu.parcifal.print.Configuration}. A new console
+     * {@link eu.parcifal.print.Channel} is only created if the attributes of
+     * the console element have changed.
+     * 
+     * @param configuration
+     *            The {@link eu.parcifal.print.Configuration} to be applied.
+     * @return The {@link eu.parcifal.print.Configuration.Change} applying the
+     *         console element.
+     */
+    private static Configuration.Change prepare(Configuration configuration) {
+        Configuration.Element console = configuration.getElement("console");
+        Map<String, String> attributes = new TreeMap<String, String>(console.getAttributes());
+        boolean debug = console.getFlag("debug", false);
+
+        attributes.remove("debug");
+
+        if (attributes.equals(ATTRIBUTES)) {
+            return new Configuration.Change(() -> DEBUG = debug, () -> {
+            });
+        }
+
+        Channel channel = createChannel(console);
+
+        return new Configuration.Change(() -> install(channel, attributes, debug), channel::close);
+    }
+
+    /**
+     * Replace the console {@link eu.parcifal.print.Channel} by the specified
+     * one, created from the specified attributes. Printers that still hold the
+     * previous one wait while it is swapped out, and then print to the
+     * specified one.
+     * 
+     * @param channel
+     *            The new console {@link eu.parcifal.print.Channel}.
+     * @param attributes
+     *            The attributes of the console element, except debug.
+     * @param debug
+     *            Whether or not debug messages are printed.
+     */
+    private static synchronized void install(Channel channel, Map<String, String> attributes, boolean debug) {
+        Channel previous = CHANNEL_CONSOLE;
+
+        DEBUG = debug;
+        SWAPPING = true;
+
+        try {
+            Printer.replaceChannels(
+                    previous == null ? Collections.<Channel> emptyList() : Collections.singletonList(previous),
+                    Collections.singletonList(channel));
+
+            CHANNEL_CONSOLE = channel;
+            CHANNELS_CONSOLE = Collections.singletonList(channel);
+        } finally {
+            SWAPPING = false;
+        }
+
+        ATTRIBUTES = attributes;
+
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Create the {@link eu.parcifal.print.Channel} used by the
+     * {@link eu.parcifal.print.Console} to print as defined by the specified
+     * console element. Its
+     * {@link eu.parcifal.print.Channel#format(Printable)} method creates a
+     * header with meta-data from a compiled {@link eu.parcifal.print.Template}
+     * and appends each line of content.
+     * 
+     * @param console
+     *            The console element of the configuration file.
+     * @return The console {@link eu.parcifal.print.Channel}.
+     */
+    private static Channel createChannel(Configuration.Element console) {
+        return new Channel("eu.parcifal.print.console", System.out, console.getFlag("capture-location", true),
+                FlushPolicy.forAttributes(console.getAttribute("flush"), console.getAttribute("flush-size"),
+                        console.getAttribute("flush-interval"), console.getAttribute("flush-on-error"))) {
+
+            private final Template header = Template.compile(
+                    console.getAttribute("pattern",
+                            this.capturesLocation() ? HEADER_FORMAT : HEADER_FORMAT_WITHOUT_LOCATION),
+                    this.capturesLocation(), false);
+
+            @Override
+            public Routing getRouting() {
+                return Routing.TAG;
+            }
+
+            @Override
+            protected String format(Printable printable) {
+                StringBuilder output = new StringBuilder();
+
+                this.format(printable, output);
+
+                return output.toString();
+            }
+
+            @Override
+            protected void format(Printable printable, StringBuilder output) {
+                this.header.format(printable, output);
+
+                for (int i = 0; i < printable.getContentLineCount(); i++) {
+                    output.append(printable.getLine(i)).append("\r\n");
+                }
+            }
+
+            @Override
+            protected void closeOutputStream() throws IOException {
+                // System.out is not owned by the console
+                this.outputStream.flush();
+            }
+
+        };
+    }
+
+    /**
+     * Print the specified {@link eu.parcifal.print.Printable} to the console
+     * {@link eu.parcifal.print.Channel}, trying again with the new
+     * {@link eu.parcifal.print.Channel} for as long as reloads replace it in
+     * the meantime.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    private static Print print(Printable printable) {
+        List<Channel> channels = CHANNELS_CONSOLE;
+
+        while (true) {
+            try {
+                return Printer.executePrint(printable, channels);
+            } catch (ChannelNotAvailableException exception) {
+                // a reload swaps the channel out right before publishing its
+                // replacement
+                while (SWAPPING) {
+                    Thread.onSpinWait();
+                }
+
+                if (channels == CHANNELS_CONSOLE) {
+                    throw exception;
+                }
+
+                channels = CHANNELS_CONSOLE;
+            }
+        }
+    }
+
+    /**
+     * Print a note containing the specified message to the console
+     * {@link eu.parcifal.print.Channel}.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    public final static Print note(String message) {
+        return print(new Message("note", " : ", message));
+    }
+
+    /**
+     * Print a formatted note containing the specified message to the console
+     * {@link eu.parcifal.print.Channel}. The message is only formatted once
+     * the console {@link eu.parcifal.print.Channel} writes it; arguments that
+     * are {@link eu.parcifal.print.Field}s are also printed on a line of their
+     * own.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @param arguments
+     *            The arguments used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    public final static Print note(String message, Object... arguments) {
+        return print(new Message("note", " : ", message, arguments));
+    }
+
+    /**
+     * Print a warning containing the specified message to the console
+     * {@link eu.parcifal.print.Channel}.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    public final static Print warning(String message) {
+        return print(new Message("warning", " ! ", message));
+    }
+
+    /**
+     * Print a formatted warning containing the specified message to the
+     * console {@link eu.parcifal.print.Channel}. The message is only formatted
+     * once the console {@link eu.parcifal.print.Channel} writes it; arguments
+     * that are {@link eu.parcifal.print.Field}s are also printed on a line of
+     * their own.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @param arguments
+     *            The arguments used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    public final static Print warning(String message, Object... arguments) {
+        return print(new Message("warning", " ! ", message, arguments));
+    }
+
+    /**
+     * Print an error containing the message and stack-trace of the specified
+     * {@link java.lang.Throwable} and its causes to the console
+     * {@link eu.parcifal.print.Channel}. A stack-trace that has been printed
+     * recently is only referred to by its fingerprint and the amount of times
+     * it occurred.
+     * 
+     * @param throwable
+     *            The throwable to be printed to the console.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed.
+     */
+    public final static Print error(Throwable throwable) {
+        Trace trace = new Trace(throwable);
+
+        return print(new Printable("error", Trace.describe(throwable)) {
+
+            @Override
+            public int getContentLineCount() {
+                return trace.getLineCount();
+            }
+
+            @Override
+            public String getLine(int number) {
+                return trace.getLine(number);
+            }
+
+        });
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Console} is set to
+     * print debug messages. Can be used to skip building an expensive debug
+     * message altogether.
+     * 
+     * @return True if debug messages are printed, otherwise false.
+     */
+    public final static boolean isDebugEnabled() {
+        return DEBUG;
+    }
+
+    /**
+     * Print a debug message containing the specified message to the console
+     * {@link eu.parcifal.print.Channel} if the current
+     * {@link eu.parcifal.print.Console} is set to print debug messages.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed, or an
+     *         empty {@link eu.parcifal.print.Print} if debug messages are not
+     *         printed.
+     */
+    public final static Print debug(String message) {
+        if (!DEBUG) {
+            return Print.NONE;
+        }
+
+        return print(new Message("debug", " > ", message));
+    }
+
+    /**
+     * Print a formatted debug message containing the specified message to the
+     * console {@link eu.parcifal.print.Channel} if the current
+     * {@link eu.parcifal.print.Console} is set to print debug messages. The
+     * message is only formatted once the console
+     * {@link eu.parcifal.print.Channel} writes it.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @param arguments
+     *            The arguments used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed, or an
+     *         empty {@link eu.parcifal.print.Print} if debug messages are not
+     *         printed.
+     */
+    public final static Print debug(String message, Object... arguments) {
+        if (!DEBUG) {
+            return Print.NONE;
+        }
+
+        return print(new Message("debug", " > ", message, arguments));
+    }
+
+    /**
+     * Print a debug message supplied by the specified
+     * {@link java.util.function.Supplier} to the console
+     * {@link eu.parcifal.print.Channel} if the current
+     * {@link eu.parcifal.print.Console} is set to print debug messages. The
+     * {@link java.util.function.Supplier} is not called if debug messages are
+     * not printed.
+     * 
+     * @param message
+     *            The {@link java.util.function.Supplier} of the message to be
+     *            printed to the console.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed, or an
+     *         empty {@link eu.parcifal.print.Print} if debug messages are not
+     *         printed.
+     */
+    public final static Print debug(Supplier<String> message) {
+        if (!DEBUG) {
+            return Print.NONE;
+        }
+
+        return debug(message.get());
+    }
+
+    /**
+     * Print a formatted debug message containing the specified message to the
+     * console {@link eu.parcifal.print.Channel} if the current
+     * {@link eu.parcifal.print.Console} is set to print debug messages. The
+     * arguments are only supplied and the message is only formatted if debug
+     * messages are printed.
+     * 
+     * @param message
+     *            The message to be printed to the console.
+     * @param arguments
+     *            The {@link java.util.function.Supplier}s of the arguments
+     *            used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the printed
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is printed, or an
+     *         empty {@link eu.parcifal.print.Print} if debug messages are not
+     *         printed.
+     */
+    public final static Print debug(String message, Supplier<?>... arguments) {
+        if (!DEBUG) {
+            return Print.NONE;
+        }
+
+        return print(new Message("debug", " > ", message, Print.supply(arguments)));
+    }
+
+    /**
+     * A message printed by the {@link eu.parcifal.print.Console}, of which
+     * each line, followed by a line for each {@link eu.parcifal.print.Field},
+     * is printed after a prefix. The lines are only split once they are
+     * printed.
+     */
+    private final static class Message extends Printable {
+
+        /**
+         * The prefix of each line.
+         */
+        private final String prefix;
+
+        /**
+         * The lines of the content, or null if they have not been split yet.
+         */
+        private volatile String[] lines;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Console.Message} containing
+         * the specified message as is.
+         * 
+         * @param tag
+         *            The tag of the message.
+         * @param prefix
+         *            The prefix of each line.
+         * @param message
+         *            The message.
+         */
+        Message(String tag, String prefix, String message) {
+            super(tag, message);
+
+            this.prefix = prefix;
+        }
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Console.Message} containing
+         * the specified message formatted with the specified arguments.
+         * 
+         * @param tag
+         *            The tag of the message.
+         * @param prefix
+         *            The prefix of each line.
+         * @param message
+         *            The format of the message.
+         * @param arguments
+         *            The arguments used to format the message.
+         */
+        Message(String tag, String prefix, String message, Object[] arguments) {
+            super(tag, message, arguments);
+
+            this.prefix = prefix;
+        }
+
+        @Override
+        public int getContentLineCount() {
+            return this.lines().length + this.getFields().size();
+        }
+
+        @Override
+        public String getLine(int number) {
+            String[] lines = this.lines();
+
+            if (number < lines.length) {
+                return this.prefix + lines[number];
+            } else {
+                return this.prefix + this.getFields().get(number - lines.length);
+            }
+        }
+
+        /**
+         * Return the lines of the content, splitting them the first time.
+         * 
+         * @return The lines of the content.
+         */
+        private String[] lines() {
+            String[] lines = this.lines;
+
+            if (lines == null) {
+                lines = this.getContent().split("\r?\n");
+
+                this.lines = lines;
+            }
+
+            return lines;
+        }
+
+    }
+
+}
@@ -0,0 +1,477 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes {@link eu.parcifal.print.Job}s on one or more background threads
+ * instead of the thread that requested them. Each
+ * {@link eu.parcifal.print.Job} is published into a bounded, lock-free ring
+ * buffer from which the background threads take it and print it to its
+ * {@link eu.parcifal.print.Channel}s. A {@link eu.parcifal.print.Job} is
+ * either a single {@link eu.parcifal.print.Print} or a
+ * {@link eu.parcifal.print.Batch}.
+ *
+ * With a single background thread the order in which
+ * {@link eu.parcifal.print.Job}s are executed equals the order in which they
+ * were published. With multiple background threads each
+ * {@link eu.parcifal.print.Channel} still receives complete records, but
+ * records published by different threads at nearly the same time may be
+ * written in a different order.
+ *
+ * A background thread that finds the ring buffer empty spins briefly and then
+ * parks until a publisher unparks it, so an idle process does not wake its
+ * background threads. Likewise a publisher blocked on a full ring buffer
+ * waits until a background thread takes a {@link eu.parcifal.print.Job}.
+ *
+ * @see eu.parcifal.print.Printer
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Dispatcher {
+
+    /**
+     * The amount of times a background thread spins on an empty ring buffer
+     * before it parks.
+     */
+    private final static int SPIN_LIMIT = 128;
+
+    /**
+     * Defines what happens to a {@link eu.parcifal.print.Job} that is
+     * published while the ring buffer is full.
+     */
+    enum Policy {
+
+        /**
+         * The publishing thread waits until the ring buffer has room.
+         */
+        BLOCK,
+
+        /**
+         * The {@link eu.parcifal.print.Job} is dropped.
+         */
+        DROP,
+
+        /**
+         * A {@link eu.parcifal.print.Job} with a low priority tag is
+         * dropped, while one with a warning or error tag makes the publishing
+         * thread wait until the ring buffer has room.
+         */
+        DROP_LOWEST_TAG;
+
+        /**
+         * Return the {@link eu.parcifal.print.Dispatcher.Policy} with the
+         * specified name, as used in the configuration file.
+         *
+         * @param name
+         *            The name of the policy, such as "drop-lowest-tag".
+         * @return The {@link eu.parcifal.print.Dispatcher.Policy} with the
+         *         specified name.
+         */
+        static Policy forName(String name) {
+            return Policy.valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+
+    }
+
+    /**
+     * The slots of the ring buffer.
+     */
+    private final Job[] buffer;
+
+    /**
+     * The sequence of each slot of the ring buffer, telling publishers and
+     * background threads whether the slot may be written or read.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The mask used to map a position onto a slot of the ring buffer.
+     */
+    private final int mask;
+
+    /**
+     * The next position to be claimed by a publisher.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The next position to be claimed by a background thread.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The policy applied when the ring buffer is full.
+     */
+    private final Policy policy;
+
+    /**
+     * The background threads of the current
+     * {@link eu.parcifal.print.Dispatcher}.
+     */
+    private final Thread[] threads;
+
+    /**
+     * For each background thread, 1 if it is parked or about to park and has
+     * not been unparked yet, 0 otherwise.
+     */
+    private final AtomicIntegerArray parked;
+
+    /**
+     * The monitor on which publishers wait while the ring buffer is full.
+     */
+    private final Object room = new Object();
+
+    /**
+     * The amount of publishers waiting on {@link #room}.
+     */
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * The amount of {@link eu.parcifal.print.Job}s dropped because the ring
+     * buffer was full.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Indicates whether or not the current
+     * {@link eu.parcifal.print.Dispatcher} has been shut down.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Construct and start a new {@link eu.parcifal.print.Dispatcher}.
+     *
+     * @param capacity
+     *            The minimum amount of {@link eu.parcifal.print.Job}s the
+     *            ring buffer can hold, rounded up to a power of two.
+     * @param threadCount
+     *            The amount of background threads.
+     * @param policy
+     *            The policy applied when the ring buffer is full.
+     */
+    Dispatcher(int capacity, int threadCount, Policy policy) {
+        if (capacity < 1 || threadCount < 1) {
+            throw new IllegalArgumentException("capacity and thread count must be positive");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.buffer = new Job[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.policy = policy;
+
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+
+        this.threads = new Thread[threadCount];
+        this.parked = new AtomicIntegerArray(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            int slot = i;
+
+            this.threads[i] = new Thread(() -> this.consume(slot), "eu.parcifal.print.dispatcher-" + i);
+            this.threads[i].setDaemon(true);
+            this.threads[i].start();
+        }
+    }
+
+    /**
+     * Publish the specified {@link eu.parcifal.print.Job} to be executed by
+     * a background thread. If the current {@link eu.parcifal.print.Dispatcher}
+     * has been shut down the {@link eu.parcifal.print.Job} is executed on
+     * the calling thread instead.
+     *
+     * @param job
+     *            The {@link eu.parcifal.print.Job} to be executed.
+     */
+    void dispatch(Job job) {
+        if (this.closed) {
+            job.execute();
+
+            return;
+        }
+
+        while (!this.offer(job)) {
+            if (this.closed) {
+                job.execute();
+
+                return;
+            } else if (this.policy == Policy.DROP || (this.policy == Policy.DROP_LOWEST_TAG
+                    && !job.isHighPriority())) {
+                this.dropped.increment();
+
+                return;
+            }
+
+            this.awaitRoom();
+        }
+
+        this.unparkOne();
+
+        if (this.closed) {
+            // the background threads may have left before this print landed
+            this.drain();
+        }
+    }
+
+    /**
+     * Stop accepting {@link eu.parcifal.print.Job}s, execute all
+     * {@link eu.parcifal.print.Job}s left in the ring buffer and wait for
+     * the background threads to finish.
+     */
+    void shutdown() {
+        this.closed = true;
+
+        for (Thread thread : this.threads) {
+            LockSupport.unpark(thread);
+        }
+
+        synchronized (this.room) {
+            this.room.notifyAll();
+        }
+
+        for (Thread thread : this.threads) {
+            if (thread != Thread.currentThread()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+
+                    break;
+                }
+            }
+        }
+
+        this.drain();
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Job}s dropped because
+     * the ring buffer was full.
+     *
+     * @return The amount of dropped {@link eu.parcifal.print.Job}s.
+     */
+    long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Try to claim a slot in the ring buffer for the specified
+     * {@link eu.parcifal.print.Job}.
+     *
+     * @param job
+     *            The {@link eu.parcifal.print.Job} to be published.
+     * @return True if the {@link eu.parcifal.print.Job} has been published,
+     *         false if the ring buffer is full.
+     */
+    private boolean offer(Job job) {
+        long position = this.head.get();
+
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    this.buffer[index] = job;
+                    // a volatile write, ordered before reading which background threads are parked
+                    this.sequences.set(index, position + 1);
+
+                    return true;
+                }
+
+                position = this.head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest {@link eu.parcifal.print.Job} from the ring buffer.
+     *
+     * @return The oldest {@link eu.parcifal.print.Job} in the ring buffer,
+     *         or null if it is empty.
+     */
+    private Job poll() {
+        long position = this.tail.get();
+
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    Job job = this.buffer[index];
+
+                    this.buffer[index] = null;
+                    // a volatile write, ordered before reading whether publishers are waiting
+                    this.sequences.set(index, position + this.mask + 1);
+
+                    if (this.waiting.get() > 0) {
+                        synchronized (this.room) {
+                            this.room.notifyAll();
+                        }
+                    }
+
+                    return job;
+                }
+
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Return whether or not the ring buffer holds no
+     * {@link eu.parcifal.print.Job} that can be taken.
+     *
+     * @return True if the ring buffer is empty, false otherwise.
+     */
+    private boolean isEmpty() {
+        long position = this.tail.get();
+
+        return this.sequences.get((int) (position & this.mask)) - (position + 1) < 0;
+    }
+
+    /**
+     * Return whether or not the ring buffer has no slot that can be claimed.
+     *
+     * @return True if the ring buffer is full, false otherwise.
+     */
+    private boolean isFull() {
+        long position = this.head.get();
+
+        return this.sequences.get((int) (position & this.mask)) - position < 0;
+    }
+
+    /**
+     * Unpark one parked background thread, if any, after a
+     * {@link eu.parcifal.print.Job} has been published.
+     */
+    private void unparkOne() {
+        for (int i = 0; i < this.threads.length; i++) {
+            if (this.parked.get(i) != 0 && this.parked.compareAndSet(i, 1, 0)) {
+                LockSupport.unpark(this.threads[i]);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait until the ring buffer has room or the current
+     * {@link eu.parcifal.print.Dispatcher} has been shut down. An interrupt
+     * does not end the wait, but is restored afterwards.
+     */
+    private void awaitRoom() {
+        boolean interrupted = false;
+
+        this.waiting.incrementAndGet();
+
+        try {
+            synchronized (this.room) {
+                while (this.isFull() && !this.closed) {
+                    try {
+                        this.room.wait();
+                    } catch (InterruptedException exception) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            this.waiting.decrementAndGet();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Execute all {@link eu.parcifal.print.Job}s left in the ring buffer on
+     * the calling thread.
+     */
+    private void drain() {
+        Job job;
+
+        while ((job = this.poll()) != null) {
+            execute(job);
+        }
+    }
+
+    /**
+     * Take and execute {@link eu.parcifal.print.Job}s until the current
+     * {@link eu.parcifal.print.Dispatcher} has been shut down and its ring
+     * buffer is empty.
+     *
+     * @param slot
+     *            The index of the calling background thread.
+     */
+    private void consume(int slot) {
+        int idle = 0;
+
+        while (true) {
+            Job job = this.poll();
+
+            if (job != null) {
+                execute(job);
+
+                idle = 0;
+            } else if (this.closed) {
+                return;
+            } else if (idle < SPIN_LIMIT) {
+                idle++;
+
+                Thread.onSpinWait();
+            } else {
+                // announce the park before checking once more, so a publisher either sees it or is seen
+                this.parked.set(slot, 1);
+
+                if (this.isEmpty() && !this.closed) {
+                    LockSupport.park(this);
+                }
+
+                this.parked.set(slot, 0);
+
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Execute the specified {@link eu.parcifal.print.Job}, reporting rather
+     * than propagating a failure so a single broken
+     * {@link eu.parcifal.print.Channel} cannot stop a background thread.
+     *
+     * @param job
+     *            The {@link eu.parcifal.print.Job} to be executed.
+     */
+    private static void execute(Job job) {
+        try {
+            job.execute();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        }
+    }
+
+}
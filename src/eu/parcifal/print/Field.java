@@ -0,0 +1,138 @@
+package eu.parcifal.print;
+
+/**
+ * A named value attached to a {@link eu.parcifal.print.Printable}. A
+ * {@link eu.parcifal.print.Field} passed as an argument of a message is
+ * formatted into the message as its value and, in addition, written by each
+ * {@link eu.parcifal.print.LogChannel} as a column of its own, so that the
+ * value can be read back without parsing the message.
+ * 
+ * <pre>
+ * Log.write("http", "%s took %d ms", Field.of("path", path), Field.of("duration", millis));
+ * </pre>
+ * 
+ * @see eu.parcifal.print.Printable
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class Field {
+
+    /**
+     * The name of the current {@link eu.parcifal.print.Field}.
+     */
+    private final String name;
+
+    /**
+     * The value of the current {@link eu.parcifal.print.Field}.
+     */
+    private final Object value;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Field}.
+     * 
+     * @param name
+     *            The name of the new {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the new {@link eu.parcifal.print.Field}.
+     */
+    private Field(String name, Object value) {
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+
+        this.name = name;
+        this.value = value;
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Field} with a textual value.
+     * 
+     * @param name
+     *            The name of the {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the {@link eu.parcifal.print.Field}.
+     * @return The new {@link eu.parcifal.print.Field}.
+     */
+    public static Field of(String name, String value) {
+        return new Field(name, value);
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Field} with an integral value.
+     * 
+     * @param name
+     *            The name of the {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the {@link eu.parcifal.print.Field}.
+     * @return The new {@link eu.parcifal.print.Field}.
+     */
+    public static Field of(String name, long value) {
+        return new Field(name, value);
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Field} with a decimal value.
+     * 
+     * @param name
+     *            The name of the {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the {@link eu.parcifal.print.Field}.
+     * @return The new {@link eu.parcifal.print.Field}.
+     */
+    public static Field of(String name, double value) {
+        return new Field(name, value);
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Field} with a boolean value.
+     * 
+     * @param name
+     *            The name of the {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the {@link eu.parcifal.print.Field}.
+     * @return The new {@link eu.parcifal.print.Field}.
+     */
+    public static Field of(String name, boolean value) {
+        return new Field(name, value);
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Field} with any other value,
+     * which is written using its {@link java.lang.Object#toString()} method.
+     * 
+     * @param name
+     *            The name of the {@link eu.parcifal.print.Field}.
+     * @param value
+     *            The value of the {@link eu.parcifal.print.Field}.
+     * @return The new {@link eu.parcifal.print.Field}.
+     */
+    public static Field of(String name, Object value) {
+        return new Field(name, value);
+    }
+
+    /**
+     * Return the name of the current {@link eu.parcifal.print.Field}.
+     * 
+     * @return The name of the current {@link eu.parcifal.print.Field}.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Return the value of the current {@link eu.parcifal.print.Field}.
+     * 
+     * @return The value of the current {@link eu.parcifal.print.Field}.
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + "=" + this.value;
+    }
+
+}
@@ -0,0 +1,193 @@
+package eu.parcifal.print;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression compiled once for matching one attribute of a
+ * {@link eu.parcifal.print.Printable}, such as its tag or source class-name.
+ * Like {@link java.util.regex.Pattern#matches(String, CharSequence)} a value
+ * only matches if the expression matches it entirely. Expressions that match
+ * anything, a literal or a literal prefix followed by ".*" are matched without
+ * the regular expression engine.
+ *
+ * @see eu.parcifal.print.FilterSet
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Filter {
+
+    /**
+     * The characters that give an expression a meaning other than its
+     * literal text.
+     */
+    private final static String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * The {@link eu.parcifal.print.Filter} accepting any value.
+     */
+    final static Filter ANY = new Filter("", Kind.ANY, "", null);
+
+    /**
+     * The way a {@link eu.parcifal.print.Filter} is matched.
+     */
+    private enum Kind {
+        ANY, LITERAL, PREFIX, REGEX
+    }
+
+    /**
+     * The expression of the current {@link eu.parcifal.print.Filter}.
+     */
+    private final String expression;
+
+    /**
+     * The way the current {@link eu.parcifal.print.Filter} is matched.
+     */
+    private final Kind kind;
+
+    /**
+     * The literal text or prefix of the current
+     * {@link eu.parcifal.print.Filter}.
+     */
+    private final String literal;
+
+    /**
+     * The {@link java.util.regex.Matcher} of the current thread, or null if
+     * the current {@link eu.parcifal.print.Filter} does not need one.
+     */
+    private final ThreadLocal<Matcher> matcher;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Filter}.
+     *
+     * @param expression
+     *            The expression of the new {@link eu.parcifal.print.Filter}.
+     * @param kind
+     *            The way the new {@link eu.parcifal.print.Filter} is matched.
+     * @param literal
+     *            The literal text or prefix of the new
+     *            {@link eu.parcifal.print.Filter}.
+     * @param pattern
+     *            The compiled expression, or null if it is not needed.
+     */
+    private Filter(String expression, Kind kind, String literal, Pattern pattern) {
+        this.expression = expression;
+        this.kind = kind;
+        this.literal = literal;
+        this.matcher = pattern == null ? null : ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    /**
+     * Compile the specified expression into a {@link eu.parcifal.print.Filter}
+     * . A null or empty expression accepts any value.
+     *
+     * @param expression
+     *            The regular expression to be compiled.
+     * @return A {@link eu.parcifal.print.Filter} matching the specified
+     *         expression.
+     */
+    static Filter compile(String expression) {
+        if (expression == null || expression.isEmpty() || expression.equals(".*")) {
+            return ANY;
+        } else if (isLiteral(expression)) {
+            return new Filter(expression, Kind.LITERAL, expression, null);
+        } else if (expression.endsWith(".*") && isLiteral(expression.substring(0, expression.length() - 2))) {
+            return new Filter(expression, Kind.PREFIX, expression.substring(0, expression.length() - 2), null);
+        } else {
+            return new Filter(expression, Kind.REGEX, "", Pattern.compile(expression));
+        }
+    }
+
+    /**
+     * Return the expression of the current {@link eu.parcifal.print.Filter}.
+     *
+     * @return The expression of the current {@link eu.parcifal.print.Filter}.
+     */
+    String getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Filter} accepts any
+     * value, so it does not have to be evaluated at all.
+     *
+     * @return True if the current {@link eu.parcifal.print.Filter} accepts any
+     *         value, otherwise false.
+     */
+    boolean acceptsAny() {
+        return this.kind == Kind.ANY;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Filter} matches the
+     * specified value entirely. A null value is matched as an empty string.
+     * The value may be any {@link java.lang.CharSequence}, so that a value can
+     * be matched without creating a string for it.
+     *
+     * @param value
+     *            The value to be matched.
+     * @return True if the value matches, otherwise false.
+     */
+    boolean matches(CharSequence value) {
+        if (value == null) {
+            value = "";
+        }
+
+        switch (this.kind) {
+        case ANY:
+            return true;
+        case LITERAL:
+            return this.literal.contentEquals(value);
+        case PREFIX:
+            return startsWith(value, this.literal);
+        default:
+            return this.matcher.get().reset(value).matches();
+        }
+    }
+
+    /**
+     * Return true if the specified value starts with the specified prefix.
+     *
+     * @param value
+     *            The value to be checked.
+     * @param prefix
+     *            The prefix.
+     * @return True if the value starts with the prefix, otherwise false.
+     */
+    private static boolean startsWith(CharSequence value, String prefix) {
+        if (value instanceof String) {
+            return ((String) value).startsWith(prefix);
+        } else if (value.length() < prefix.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (value.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return true if the specified expression contains no characters with a
+     * special meaning to the regular expression engine.
+     *
+     * @param expression
+     *            The expression to be checked.
+     * @return True if the expression is literal text, otherwise false.
+     */
+    private static boolean isLiteral(String expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            if (META_CHARACTERS.indexOf(expression.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
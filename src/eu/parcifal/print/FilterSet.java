@@ -0,0 +1,256 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combines the {@link eu.parcifal.print.Filter}s of multiple
+ * {@link eu.parcifal.print.LogChannel}s, so that a
+ * {@link eu.parcifal.print.Printable} can be matched against all of them in a
+ * single pass. Identical expressions used by several
+ * {@link eu.parcifal.print.LogChannel}s are evaluated only once per
+ * {@link eu.parcifal.print.Printable}, and the source of a
+ * {@link eu.parcifal.print.Printable} is only looked up if one of the
+ * {@link eu.parcifal.print.Filter}s actually needs it.
+ *
+ * @see eu.parcifal.print.Filter
+ * @see eu.parcifal.print.LogChannel
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class FilterSet {
+
+    /**
+     * The attribute of a {@link eu.parcifal.print.Printable} matched by a
+     * {@link eu.parcifal.print.Filter}, in the order they are evaluated.
+     */
+    private final static int TAG = 0, CLASS_NAME = 1, METHOD_NAME = 2, FILE_NAME = 3;
+
+    /**
+     * The amount of distinct {@link eu.parcifal.print.Filter}s of which the
+     * results are remembered during a single pass.
+     */
+    private final static int MEMO_SIZE = Long.SIZE;
+
+    /**
+     * The maximum amount of tags of which the current
+     * {@link eu.parcifal.print.FilterSet} remembers whether they can be
+     * accepted.
+     */
+    private final static int TAG_CACHE_SIZE = 1024;
+
+    /**
+     * The {@link eu.parcifal.print.LogChannel}s of the current
+     * {@link eu.parcifal.print.FilterSet}.
+     */
+    private final LogChannel[] channels;
+
+    /**
+     * The distinct {@link eu.parcifal.print.Filter}s of all
+     * {@link eu.parcifal.print.LogChannel}s, leaving out those accepting any
+     * value.
+     */
+    private final Filter[] filters;
+
+    /**
+     * The attribute matched by each of the distinct
+     * {@link eu.parcifal.print.Filter}s.
+     */
+    private final int[] attributes;
+
+    /**
+     * The indices of the distinct {@link eu.parcifal.print.Filter}s applied by
+     * each {@link eu.parcifal.print.LogChannel}.
+     */
+    private final int[][] channelFilters;
+
+    /**
+     * Whether or not any {@link eu.parcifal.print.LogChannel} can accept a
+     * {@link eu.parcifal.print.Printable} with a certain tag, per tag.
+     */
+    private final Map<String, Boolean> acceptedTags = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * Construct a new {@link eu.parcifal.print.FilterSet} combining the
+     * {@link eu.parcifal.print.Filter}s of the specified
+     * {@link eu.parcifal.print.LogChannel}s.
+     *
+     * @param channels
+     *            The {@link eu.parcifal.print.LogChannel}s to be combined.
+     */
+    FilterSet(Collection<LogChannel> channels) {
+        this.channels = channels.toArray(new LogChannel[channels.size()]);
+        this.channelFilters = new int[this.channels.length][];
+
+        List<Filter> filters = new ArrayList<Filter>();
+        List<Integer> attributes = new ArrayList<Integer>();
+        Map<String, Integer> indices = new HashMap<String, Integer>();
+
+        for (int i = 0; i < this.channels.length; i++) {
+            LogChannel channel = this.channels[i];
+            Filter[] channelFilters = { channel.getTagFilter(), channel.getClassNameFilter(),
+                    channel.getMethodNameFilter(), channel.getFileNameFilter() };
+            List<Integer> used = new ArrayList<Integer>();
+
+            for (int attribute = TAG; attribute <= FILE_NAME; attribute++) {
+                Filter filter = channelFilters[attribute];
+
+                if (filter.acceptsAny()) {
+                    continue;
+                }
+
+                String key = attribute + ":" + filter.getExpression();
+                Integer index = indices.get(key);
+
+                if (index == null) {
+                    index = filters.size();
+
+                    filters.add(filter);
+                    attributes.add(attribute);
+                    indices.put(key, index);
+                }
+
+                used.add(index);
+            }
+
+            this.channelFilters[i] = used.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.filters = filters.toArray(new Filter[filters.size()]);
+        this.attributes = attributes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.LogChannel}s of the current
+     * {@link eu.parcifal.print.FilterSet} accepting the specified
+     * {@link eu.parcifal.print.Printable}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be matched.
+     * @return The accepting {@link eu.parcifal.print.LogChannel}s, in the
+     *         order they were given.
+     */
+    Collection<Channel> accepting(Printable printable) {
+        long evaluated = 0;
+        long passed = 0;
+        List<Channel> accepting = null;
+
+        for (int i = 0; i < this.channels.length; i++) {
+            boolean accepts = true;
+
+            for (int index : this.channelFilters[i]) {
+                boolean matches;
+
+                if (index < MEMO_SIZE && (evaluated & (1L << index)) != 0) {
+                    matches = (passed & (1L << index)) != 0;
+                } else {
+                    matches = this.filters[index].matches(value(printable, this.attributes[index]));
+
+                    if (index < MEMO_SIZE) {
+                        evaluated |= 1L << index;
+                        passed |= matches ? 1L << index : 0;
+                    }
+                }
+
+                if (!matches) {
+                    accepts = false;
+
+                    break;
+                }
+            }
+
+            if (accepts) {
+                if (accepting == null) {
+                    accepting = new ArrayList<Channel>(this.channels.length - i);
+                }
+
+                accepting.add(this.channels[i]);
+            }
+        }
+
+        return accepting == null ? Collections.<Channel> emptyList() : accepting;
+    }
+
+    /**
+     * Return true if any of the {@link eu.parcifal.print.LogChannel}s of the
+     * current {@link eu.parcifal.print.FilterSet} accepts the specified tag.
+     * A {@link eu.parcifal.print.Printable} with that tag may still be
+     * rejected because of its source.
+     *
+     * @param tag
+     *            The tag to be matched.
+     * @return True if the tag is accepted by any
+     *         {@link eu.parcifal.print.LogChannel}, otherwise false.
+     */
+    boolean acceptsTag(String tag) {
+        if (tag == null) {
+            // a null tag cannot be a key of the cache
+            return this.matchesTag(null);
+        }
+
+        Boolean accepted = this.acceptedTags.get(tag);
+
+        if (accepted == null) {
+            accepted = this.matchesTag(tag);
+
+            if (this.acceptedTags.size() < TAG_CACHE_SIZE) {
+                this.acceptedTags.put(tag, accepted);
+            }
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Return true if the tag {@link eu.parcifal.print.Filter} of any of the
+     * {@link eu.parcifal.print.LogChannel}s of the current
+     * {@link eu.parcifal.print.FilterSet} matches the specified tag, without
+     * consulting the cache.
+     *
+     * @param tag
+     *            The tag to be matched, which may be null.
+     * @return True if the tag is accepted by any
+     *         {@link eu.parcifal.print.LogChannel}, otherwise false.
+     */
+    private boolean matchesTag(String tag) {
+        for (LogChannel channel : this.channels) {
+            if (channel.getTagFilter().matches(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return the specified attribute of the specified
+     * {@link eu.parcifal.print.Printable}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} of which an attribute
+     *            is requested.
+     * @param attribute
+     *            The attribute to be returned.
+     * @return The value of the attribute.
+     */
+    private static String value(Printable printable, int attribute) {
+        switch (attribute) {
+        case TAG:
+            return printable.getTag();
+        case CLASS_NAME:
+            return printable.getSourceClassName();
+        case METHOD_NAME:
+            return printable.getSourceMethodName();
+        default:
+            return printable.getSourceFileName();
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package eu.parcifal.print;
+
+/**
+ * Defines when a {@link eu.parcifal.print.Channel} writes the records it has
+ * buffered to its {@link java.io.OutputStream} and flushes it. A
+ * {@link eu.parcifal.print.Channel} flushes after every record, once a number
+ * of bytes has been buffered, or every so many milliseconds. Independent of
+ * that, a {@link eu.parcifal.print.FlushPolicy} can make a
+ * {@link eu.parcifal.print.Channel} flush immediately after each record with
+ * the "error" tag.
+ *
+ * @see eu.parcifal.print.Channel
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class FlushPolicy {
+
+    /**
+     * The amount of bytes buffered by default before a
+     * {@link eu.parcifal.print.Channel} flushes.
+     */
+    public final static int DEFAULT_SIZE = 8192;
+
+    /**
+     * The {@link eu.parcifal.print.FlushPolicy} flushing after every record.
+     */
+    public final static FlushPolicy EVERY_RECORD = new FlushPolicy(0, 0, true);
+
+    /**
+     * The amount of bytes after which the buffer is flushed, or 0 to flush
+     * after every record.
+     */
+    private final int size;
+
+    /**
+     * The amount of milliseconds between two flushes by the background
+     * flusher, or 0 if the background flusher is not used.
+     */
+    private final long interval;
+
+    /**
+     * Indicates whether or not each record with the "error" tag is flushed
+     * immediately.
+     */
+    private final boolean flushesErrors;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.FlushPolicy}.
+     *
+     * @param size
+     *            The amount of bytes after which the buffer is flushed, or 0
+     *            to flush after every record.
+     * @param interval
+     *            The amount of milliseconds between two flushes by the
+     *            background flusher, or 0 if it is not used.
+     * @param flushesErrors
+     *            Whether or not each record with the "error" tag is flushed
+     *            immediately.
+     */
+    private FlushPolicy(int size, long interval, boolean flushesErrors) {
+        this.size = size;
+        this.interval = interval;
+        this.flushesErrors = flushesErrors;
+    }
+
+    /**
+     * Return a {@link eu.parcifal.print.FlushPolicy} flushing once the
+     * specified amount of bytes has been buffered.
+     *
+     * @param size
+     *            The amount of bytes after which the buffer is flushed.
+     * @param flushesErrors
+     *            Whether or not each record with the "error" tag is flushed
+     *            immediately.
+     * @return The requested {@link eu.parcifal.print.FlushPolicy}.
+     */
+    public static FlushPolicy bySize(int size, boolean flushesErrors) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        return new FlushPolicy(size, 0, flushesErrors);
+    }
+
+    /**
+     * Return a {@link eu.parcifal.print.FlushPolicy} flushing every specified
+     * amount of milliseconds, or earlier once the specified amount of bytes
+     * has been buffered.
+     *
+     * @param interval
+     *            The amount of milliseconds between two flushes.
+     * @param size
+     *            The amount of bytes after which the buffer is flushed before
+     *            the interval has passed.
+     * @param flushesErrors
+     *            Whether or not each record with the "error" tag is flushed
+     *            immediately.
+     * @return The requested {@link eu.parcifal.print.FlushPolicy}.
+     */
+    public static FlushPolicy byInterval(long interval, int size, boolean flushesErrors) {
+        if (interval < 1 || size < 1) {
+            throw new IllegalArgumentException("interval and size must be positive");
+        }
+
+        return new FlushPolicy(size, interval, flushesErrors);
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.FlushPolicy} described by the flush
+     * attributes of a channel element in the configuration file.
+     *
+     * @param flush
+     *            The FLUSH attribute: "record", "size" or "interval". Empty
+     *            for "record".
+     * @param size
+     *            The FLUSH-SIZE attribute, empty for the default.
+     * @param interval
+     *            The FLUSH-INTERVAL attribute, empty for the default.
+     * @param flushesErrors
+     *            The FLUSH-ON-ERROR attribute, empty for "true".
+     * @return The described {@link eu.parcifal.print.FlushPolicy}.
+     */
+    static FlushPolicy forAttributes(String flush, String size, String interval, String flushesErrors) {
+        int bytes = size.isEmpty() ? DEFAULT_SIZE : Integer.parseInt(size.trim());
+        boolean errors = !"false".equals(flushesErrors.trim());
+
+        switch (flush.trim()) {
+        case "":
+        case "record":
+            return EVERY_RECORD;
+        case "size":
+            return bySize(bytes, errors);
+        case "interval":
+            return byInterval(interval.isEmpty() ? 1000 : Long.parseLong(interval.trim()), bytes, errors);
+        default:
+            throw new IllegalArgumentException("unknown flush policy \"" + flush + "\"");
+        }
+    }
+
+    /**
+     * Return true if a {@link eu.parcifal.print.Channel} has to flush after
+     * writing a record with the specified tag, when the specified amount of
+     * bytes is buffered.
+     *
+     * @param tag
+     *            The tag of the record that has been written.
+     * @param buffered
+     *            The amount of bytes buffered.
+     * @return True if the {@link eu.parcifal.print.Channel} has to flush,
+     *         otherwise false.
+     */
+    boolean isDue(String tag, int buffered) {
+        return buffered >= this.size || (this.flushesErrors && "error".equals(tag));
+    }
+
+    /**
+     * Return the amount of bytes after which the buffer is flushed, or 0 if
+     * it is flushed after every record.
+     *
+     * @return The amount of bytes after which the buffer is flushed.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Return the amount of milliseconds between two flushes by the background
+     * flusher, or 0 if the background flusher is not used.
+     *
+     * @return The flush interval in milliseconds.
+     */
+    public long getInterval() {
+        return this.interval;
+    }
+
+    /**
+     * Return true if each record with the "error" tag is flushed immediately.
+     *
+     * @return True if errors are flushed immediately, otherwise false.
+     */
+    public boolean flushesErrors() {
+        return this.flushesErrors;
+    }
+
+}
@@ -0,0 +1,83 @@
+package eu.parcifal.print;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flushes {@link eu.parcifal.print.Channel}s with an interval based
+ * {@link eu.parcifal.print.FlushPolicy}, and the due summaries of the
+ * {@link eu.parcifal.print.Limits}, on a single background thread.
+ *
+ * @see eu.parcifal.print.FlushPolicy
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Flusher {
+
+    /**
+     * The executor running the flush tasks, created when the first task is
+     * scheduled.
+     */
+    private static ScheduledExecutorService EXECUTOR;
+
+    /**
+     * Prevent instantiation, all members are static.
+     */
+    private Flusher() {
+    }
+
+    /**
+     * Flush the specified {@link eu.parcifal.print.Channel} every specified
+     * amount of milliseconds, skipping the flushes for which nothing has been
+     * written since the previous one.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to be flushed.
+     * @param interval
+     *            The amount of milliseconds between two flushes.
+     * @return The scheduled task, to be cancelled when the
+     *         {@link eu.parcifal.print.Channel} is closed.
+     */
+    static Future<?> schedule(Channel channel, long interval) {
+        return schedule(channel::flushWritten, interval);
+    }
+
+    /**
+     * Run the specified task every specified amount of milliseconds.
+     *
+     * @param task
+     *            The task to be run.
+     * @param interval
+     *            The amount of milliseconds between two runs.
+     * @return The scheduled task, to be cancelled when it is no longer
+     *         needed.
+     */
+    static synchronized Future<?> schedule(Runnable task, long interval) {
+        if (EXECUTOR == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "eu.parcifal.print.flusher");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            executor.setRemoveOnCancelPolicy(true);
+
+            EXECUTOR = executor;
+        }
+
+        return EXECUTOR.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+}
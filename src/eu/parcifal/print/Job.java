@@ -0,0 +1,59 @@
+package eu.parcifal.print;
+
+import java.util.Collection;
+
+/**
+ * Something the {@link eu.parcifal.print.Printer} executes on the thread that
+ * requested it or hands to its {@link eu.parcifal.print.Dispatcher}: either a
+ * single {@link eu.parcifal.print.Print} or a
+ * {@link eu.parcifal.print.Batch} of them.
+ *
+ * @see eu.parcifal.print.Dispatcher
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+abstract class Job {
+
+    /**
+     * Return the {@link eu.parcifal.print.Channel}s to which the current
+     * {@link eu.parcifal.print.Job} prints.
+     *
+     * @return The {@link java.util.Collection} of
+     *         {@link eu.parcifal.print.Channel}s of the current
+     *         {@link eu.parcifal.print.Job}.
+     */
+    abstract Collection<Channel> getChannels();
+
+    /**
+     * Execute the current {@link eu.parcifal.print.Job}.
+     *
+     * @return The current {@link eu.parcifal.print.Job}.
+     */
+    abstract Job execute();
+
+    /**
+     * Prepare the current {@link eu.parcifal.print.Job} to be executed by
+     * another thread.
+     */
+    abstract void detach();
+
+    /**
+     * Settle the sources of the {@link eu.parcifal.print.Printable}s of the
+     * current {@link eu.parcifal.print.Job} before it leaves the thread that
+     * requested it.
+     */
+    abstract void settle();
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Job} may not be
+     * dropped under the
+     * {@link eu.parcifal.print.Dispatcher.Policy#DROP_LOWEST_TAG} policy.
+     *
+     * @return True if the current {@link eu.parcifal.print.Job} prints a
+     *         warning or an error, otherwise false.
+     */
+    abstract boolean isHighPriority();
+
+}
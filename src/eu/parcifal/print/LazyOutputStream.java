@@ -0,0 +1,118 @@
+package eu.parcifal.print;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link java.io.OutputStream} that opens its file on the first write, so
+ * that a log file that is never written to is never created and opening all
+ * log files does not slow down the start of the application. Flushing or
+ * closing it before the first write does nothing. Like the
+ * {@link java.io.OutputStream} of any {@link eu.parcifal.print.Channel}, it is
+ * only used while holding the lock of that {@link eu.parcifal.print.Channel}.
+ *
+ * @see eu.parcifal.print.Log
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class LazyOutputStream extends OutputStream {
+
+    /**
+     * The file to be opened.
+     */
+    private final File file;
+
+    /**
+     * Opens the {@link java.io.OutputStream} of the file.
+     */
+    private final RotatingOutputStream.Opener opener;
+
+    /**
+     * The {@link java.io.OutputStream} of the file, or null if it has not been
+     * opened yet.
+     */
+    private OutputStream outputStream;
+
+    /**
+     * Indicates whether or not the
+     * {@link eu.parcifal.print.LazyOutputStream} has been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.LazyOutputStream} writing to
+     * the specified file once it is first written to.
+     *
+     * @param file
+     *            The file to be written to.
+     * @param opener
+     *            Opens the {@link java.io.OutputStream} of the file.
+     */
+    LazyOutputStream(File file, RotatingOutputStream.Opener opener) {
+        this.file = file;
+        this.opener = opener;
+    }
+
+    /**
+     * Return true if the file has been opened.
+     *
+     * @return True if the file has been written to, otherwise false.
+     */
+    boolean isOpened() {
+        return this.outputStream != null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.open().write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.open().write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.outputStream != null) {
+            this.outputStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+
+        if (this.outputStream != null) {
+            this.outputStream.close();
+        }
+    }
+
+    /**
+     * Return the {@link java.io.OutputStream} of the file, opening it and
+     * creating its directory first if this is the first write.
+     *
+     * @return The {@link java.io.OutputStream} of the file.
+     * @throws IOException
+     *             Thrown if the file cannot be opened or has been closed.
+     */
+    private OutputStream open() throws IOException {
+        if (this.outputStream == null) {
+            if (this.closed) {
+                throw new IOException("stream closed");
+            }
+
+            if (this.file.getParentFile() != null && !this.file.getParentFile().exists()) {
+                this.file.getParentFile().mkdirs();
+            }
+
+            this.outputStream = this.opener.open(this.file);
+        }
+
+        return this.outputStream;
+    }
+
+}
@@ -0,0 +1,973 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import eu.parcifal.print.Configuration.Element;
+
+/**
+ * Suppresses {@link eu.parcifal.print.Printable}s before they are routed or
+ * formatted, as defined by the limit elements in the configuration file. The
+ * first limit of which the tag, class-name, method-name and file-name
+ * {@link eu.parcifal.print.Filter}s match applies to a
+ * {@link eu.parcifal.print.Printable}. A limit can restrict the rate of
+ * {@link eu.parcifal.print.Printable}s per tag or per source with a token
+ * bucket, and can collapse identical consecutive content from one source into
+ * a single summary stating how often it was repeated. The token is taken
+ * first, and repeats are recognized by their format and arguments, so a
+ * suppressed {@link eu.parcifal.print.Printable} is never formatted.
+ *
+ * The limit applying to each source is looked up once and remembered. Once
+ * more than the maximum amount of sources is remembered, the background
+ * thread of the {@link eu.parcifal.print.Flusher} forgets the least recently
+ * seen ones on a second chance basis, and the token buckets of tags that
+ * have been idle long enough to be full again. Sources and tags beyond twice
+ * that amount are not remembered until then: they share a single token bucket
+ * per limit and their repeats are not collapsed. Token buckets and repeat
+ * counters are updated with compare-and-set, so checking a
+ * {@link eu.parcifal.print.Printable} never blocks. The summary of a run of
+ * repeats is printed when the run ends, when its collapse interval has
+ * passed, and when the {@link eu.parcifal.print.Limits} are closed by a
+ * reload or by {@link eu.parcifal.print.Printer#shutdown()}.
+ *
+ * @see eu.parcifal.print.Printer
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Limits {
+
+    /**
+     * The maximum amount of sources of which the
+     * {@link eu.parcifal.print.Limits} keep track, beyond which the least
+     * recently seen sources are forgotten by the background thread.
+     */
+    private final static int SITE_CACHE_SIZE = 4096;
+
+    /**
+     * The amount of sources, and of tags per limit, beyond which new ones are
+     * not remembered until the background thread has forgotten others.
+     */
+    private final static int SITE_CACHE_LIMIT = 2 * SITE_CACHE_SIZE;
+
+    /**
+     * The maximum amount of milliseconds between two runs of the background
+     * task.
+     */
+    private final static long MAINTENANCE_INTERVAL = 1000;
+
+    /**
+     * The {@link eu.parcifal.print.Limits.Site} of the current thread used to
+     * look up sources without creating a new key for each lookup.
+     */
+    private final static ThreadLocal<Site> PROBE = ThreadLocal.withInitial(Site::new);
+
+    /**
+     * The configured limits, in the order they are tried.
+     */
+    private final Limit[] limits;
+
+    /**
+     * Indicates whether or not any limit depends on the source of a
+     * {@link eu.parcifal.print.Printable}, in which case the call stack has
+     * to be walked for each {@link eu.parcifal.print.Printable}.
+     */
+    private final boolean bySource;
+
+    /**
+     * The state of each source seen so far.
+     */
+    private final Map<Site, SiteState> sites = new ConcurrentHashMap<Site, SiteState>();
+
+    /**
+     * The position in the sources at which the search for a source to be
+     * evicted continues, only used by the background thread.
+     */
+    private Iterator<SiteState> hand;
+
+    /**
+     * The task printing the summaries of runs of repeats of which the
+     * collapse interval has passed and forgetting sources and tags, or null
+     * if there are no limits.
+     */
+    private final Future<?> maintainer;
+
+    /**
+     * The amount of {@link eu.parcifal.print.Printable}s suppressed by all
+     * {@link eu.parcifal.print.Limits}, including those replaced by a reload.
+     */
+    private final static LongAdder SUPPRESSED = new LongAdder();
+
+    /**
+     * Construct new {@link eu.parcifal.print.Limits}.
+     *
+     * @param limits
+     *            The limits, in the order they are tried.
+     */
+    private Limits(Limit[] limits) {
+        boolean bySource = false;
+        long interval = MAINTENANCE_INTERVAL;
+
+        for (Limit limit : limits) {
+            bySource |= limit.bySource();
+
+            if (limit.collapses) {
+                interval = Math.min(interval, Math.max(limit.collapseInterval / 1000000L, 1));
+            }
+        }
+
+        this.limits = limits;
+        this.bySource = bySource;
+        this.maintainer = limits.length == 0 ? null : Flusher.schedule(this::maintain, interval);
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Limits} defined by the limit
+     * elements in the specified {@link eu.parcifal.print.Configuration}.
+     *
+     * @param configuration
+     *            The {@link eu.parcifal.print.Configuration} to be read.
+     * @return The configured {@link eu.parcifal.print.Limits}.
+     */
+    static Limits configure(Configuration configuration) {
+        List<Limit> limits = new ArrayList<Limit>();
+
+        for (Element limit : configuration.getElements("limit")) {
+            String rate = limit.getAttribute("rate").trim();
+            String burst = limit.getAttribute("burst").trim();
+            String interval = limit.getAttribute("collapse-interval");
+
+            limits.add(new Limit(Filter.compile(limit.getAttribute("tag")),
+                    Filter.compile(limit.getAttribute("class-name")),
+                    Filter.compile(limit.getAttribute("method-name")),
+                    Filter.compile(limit.getAttribute("file-name")), rate.isEmpty() ? 0 : Double.parseDouble(rate),
+                    burst.isEmpty() ? 0 : Integer.parseInt(burst), "source".equals(limit.getAttribute("per")),
+                    "true".equals(limit.getAttribute("collapse")),
+                    interval.isEmpty() ? 10000 : RotatingOutputStream.parseDuration(interval)));
+        }
+
+        return new Limits(limits.toArray(new Limit[limits.size()]));
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Printable}s suppressed so
+     * far.
+     *
+     * @return The amount of suppressed {@link eu.parcifal.print.Printable}s.
+     */
+    static long getSuppressedCount() {
+        return SUPPRESSED.sum();
+    }
+
+    /**
+     * Print the summaries of all runs of repeats, whether or not their
+     * collapse interval has passed, so that no suppressed repeats go
+     * unmentioned. Repeats that follow are collapsed into a new run.
+     */
+    void flush() {
+        this.summarize(true);
+    }
+
+    /**
+     * Print the summaries of all runs of repeats and stop printing them
+     * periodically, to be called when the current
+     * {@link eu.parcifal.print.Limits} are replaced.
+     */
+    void close() {
+        if (this.maintainer != null) {
+            this.maintainer.cancel(false);
+        }
+
+        this.summarize(true);
+    }
+
+    /**
+     * Return true if the specified {@link eu.parcifal.print.Printable} may be
+     * printed to the specified {@link eu.parcifal.print.Channel}s. If it ends
+     * a run of collapsed repeats, or the summary of a run is due, the summary
+     * is printed to the same {@link eu.parcifal.print.Channel}s first.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be checked.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the
+     *            {@link eu.parcifal.print.Printable} is requested to be
+     *            printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     * @return True if the {@link eu.parcifal.print.Printable} may be printed,
+     *         otherwise false.
+     */
+    boolean admits(Printable printable, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        if (this.limits.length == 0) {
+            return true;
+        }
+
+        Site probe = PROBE.get().set(printable, this.bySource);
+        SiteState state = this.sites.get(probe);
+
+        if (state == null) {
+            Site site = probe.copy();
+
+            probe.clear();
+
+            if (this.sites.size() < SITE_CACHE_LIMIT) {
+                state = new SiteState(site, this.limitFor(printable), true);
+
+                SiteState previous = this.sites.putIfAbsent(site, state);
+
+                state = previous == null ? state : previous;
+            } else {
+                // not remembered until the background thread forgets others
+                state = new SiteState(site, this.limitFor(printable), false);
+            }
+        } else {
+            probe.clear();
+
+            if (!state.referenced) {
+                state.referenced = true;
+            }
+        }
+
+        Limit limit = state.limit;
+
+        if (limit == null) {
+            return true;
+        }
+
+        Bucket bucket = limit.perSource ? state.bucket : limit.bucketFor(printable.getTag());
+
+        if (bucket != null && !bucket.tryAcquire()) {
+            SUPPRESSED.increment();
+
+            return false;
+        }
+
+        if (limit.collapses) {
+            long now = System.nanoTime();
+            Repeat repeat;
+            Repeat next;
+            boolean repeated;
+
+            do {
+                repeat = state.repeat.get();
+                repeated = repeat != null && printable.hasContent(repeat.text, repeat.arguments)
+                        && (repeat.count > 0 || now - repeat.since < limit.collapseInterval);
+
+                if (!repeated || now - repeat.since >= limit.collapseInterval) {
+                    next = new Repeat(printable.getFormatOrContent(), printable.getArguments(), 0, now, null, null,
+                            null);
+                } else if (repeat.count > 0) {
+                    next = new Repeat(repeat.text, repeat.arguments, repeat.count + 1, repeat.since, repeat.source,
+                            channels, accepting);
+                } else {
+                    // the source is kept apart, the printable may be reused
+                    next = new Repeat(repeat.text, repeat.arguments, 1, repeat.since,
+                            new Printable(printable.getTag(), "", printable) {
+                            }, channels, accepting);
+                }
+            } while (!state.repeat.compareAndSet(repeat, next));
+
+            if (repeated) {
+                SUPPRESSED.increment();
+
+                if (next.count == 0) {
+                    // the run continues, but its summary is due
+                    summarize(printable, repeat.count + 1, channels, accepting);
+                }
+
+                return false;
+            } else if (repeat != null && repeat.count > 0) {
+                summarize(printable, repeat.count, channels, accepting);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return the first limit applying to the specified
+     * {@link eu.parcifal.print.Printable}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be matched.
+     * @return The first matching limit, or null if none matches.
+     */
+    private Limit limitFor(Printable printable) {
+        for (Limit limit : this.limits) {
+            if (limit.matches(printable)) {
+                return limit;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Print the summaries of the runs of repeats of which the collapse
+     * interval has passed, forget the least recently seen sources beyond the
+     * maximum amount of sources and the token buckets of idle tags. Runs on
+     * the background thread.
+     */
+    private void maintain() {
+        this.summarize(false);
+
+        while (this.sites.size() > SITE_CACHE_SIZE && this.evict()) {
+            // forget sources until there is room again
+        }
+
+        long now = System.nanoTime();
+
+        for (Limit limit : this.limits) {
+            limit.prune(now);
+        }
+    }
+
+    /**
+     * Forget a source that has not been seen since the previous eviction,
+     * after printing the summary of its run of repeats, if any. Each source
+     * passed over on the way gets a second chance until the next eviction.
+     * Runs on the background thread.
+     *
+     * @return True if a source was forgotten, otherwise false.
+     */
+    private boolean evict() {
+        for (int passed = 0; passed <= 2 * SITE_CACHE_LIMIT; passed++) {
+            if (this.hand == null || !this.hand.hasNext()) {
+                this.hand = this.sites.values().iterator();
+
+                if (!this.hand.hasNext()) {
+                    return false;
+                }
+            }
+
+            SiteState state = this.hand.next();
+
+            if (state.referenced) {
+                state.referenced = false;
+            } else if (this.sites.remove(state.site, state)) {
+                state.summarize(System.nanoTime(), true);
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Print the summaries of the runs of repeats of all sources.
+     *
+     * @param all
+     *            Whether or not the summaries of runs of which the collapse
+     *            interval has not yet passed are printed as well.
+     */
+    private void summarize(boolean all) {
+        long now = System.nanoTime();
+
+        for (SiteState state : this.sites.values()) {
+            state.summarize(now, all);
+        }
+    }
+
+    /**
+     * Print a summary of a run of repeats of a
+     * {@link eu.parcifal.print.Printable} from the same source as the
+     * specified one.
+     *
+     * @param printable
+     *            A {@link eu.parcifal.print.Printable} from the source of the
+     *            repeats.
+     * @param count
+     *            The amount of suppressed repeats.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the summary
+     *            is printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     */
+    private static void summarize(Printable printable, long count, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        Printer.executeSummary(new Printable(printable.getTag(), "last message repeated " + count + " times",
+                printable) {
+
+            @Override
+            public int getContentLineCount() {
+                return 1;
+            }
+
+            @Override
+            public String getLine(int number) {
+                return " : " + this.getContent();
+            }
+
+        }, channels, accepting);
+    }
+
+    /**
+     * A limit element of the configuration file.
+     */
+    private final static class Limit {
+
+        /**
+         * The {@link eu.parcifal.print.Filter} applied to the tag.
+         */
+        private final Filter tagFilter;
+
+        /**
+         * The {@link eu.parcifal.print.Filter} applied to the source
+         * class-name.
+         */
+        private final Filter classNameFilter;
+
+        /**
+         * The {@link eu.parcifal.print.Filter} applied to the source
+         * method-name.
+         */
+        private final Filter methodNameFilter;
+
+        /**
+         * The {@link eu.parcifal.print.Filter} applied to the source
+         * file-name.
+         */
+        private final Filter fileNameFilter;
+
+        /**
+         * The amount of {@link eu.parcifal.print.Printable}s allowed per
+         * second, or 0 if the rate is not limited.
+         */
+        private final double rate;
+
+        /**
+         * The amount of {@link eu.parcifal.print.Printable}s allowed at once.
+         */
+        private final int burst;
+
+        /**
+         * Indicates whether the rate is limited per source rather than per
+         * tag.
+         */
+        private final boolean perSource;
+
+        /**
+         * Indicates whether or not identical consecutive content from one
+         * source is collapsed.
+         */
+        private final boolean collapses;
+
+        /**
+         * The amount of nanoseconds after which a summary of collapsed
+         * repeats is printed, even if they continue.
+         */
+        private final long collapseInterval;
+
+        /**
+         * The token bucket of each tag, if the rate is limited per tag.
+         */
+        private final Map<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+        /**
+         * The token bucket of {@link eu.parcifal.print.Printable}s without a
+         * tag, if the rate is limited per tag.
+         */
+        private final Bucket untagged;
+
+        /**
+         * The token bucket shared by the tags or sources that are not
+         * remembered.
+         */
+        private final Bucket overflow;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Limits.Limit}.
+         *
+         * @param tagFilter
+         *            The {@link eu.parcifal.print.Filter} applied to the tag.
+         * @param classNameFilter
+         *            The {@link eu.parcifal.print.Filter} applied to the
+         *            source class-name.
+         * @param methodNameFilter
+         *            The {@link eu.parcifal.print.Filter} applied to the
+         *            source method-name.
+         * @param fileNameFilter
+         *            The {@link eu.parcifal.print.Filter} applied to the
+         *            source file-name.
+         * @param rate
+         *            The amount of {@link eu.parcifal.print.Printable}s
+         *            allowed per second, or 0 if not limited.
+         * @param burst
+         *            The amount of {@link eu.parcifal.print.Printable}s
+         *            allowed at once, or 0 for the rate.
+         * @param perSource
+         *            Whether the rate is limited per source rather than per
+         *            tag.
+         * @param collapses
+         *            Whether or not identical consecutive content is
+         *            collapsed.
+         * @param collapseInterval
+         *            The amount of milliseconds after which a summary of
+         *            collapsed repeats is printed.
+         */
+        Limit(Filter tagFilter, Filter classNameFilter, Filter methodNameFilter, Filter fileNameFilter, double rate,
+                int burst, boolean perSource, boolean collapses, long collapseInterval) {
+            this.tagFilter = tagFilter;
+            this.classNameFilter = classNameFilter;
+            this.methodNameFilter = methodNameFilter;
+            this.fileNameFilter = fileNameFilter;
+            this.rate = rate;
+            this.burst = burst > 0 ? burst : (int) Math.max(Math.ceil(rate), 1);
+            this.perSource = perSource;
+            this.collapses = collapses;
+            this.collapseInterval = collapseInterval * 1000000L;
+            this.untagged = this.newBucket();
+            this.overflow = this.newBucket();
+        }
+
+        /**
+         * Return true if the current limit depends on the source of a
+         * {@link eu.parcifal.print.Printable}.
+         *
+         * @return True if the source is needed, otherwise false.
+         */
+        boolean bySource() {
+            return this.perSource || this.collapses || !this.classNameFilter.acceptsAny()
+                    || !this.methodNameFilter.acceptsAny() || !this.fileNameFilter.acceptsAny();
+        }
+
+        /**
+         * Return true if the current limit applies to the specified
+         * {@link eu.parcifal.print.Printable}.
+         *
+         * @param printable
+         *            The {@link eu.parcifal.print.Printable} to be matched.
+         * @return True if the limit applies, otherwise false.
+         */
+        boolean matches(Printable printable) {
+            return this.tagFilter.matches(printable.getTag())
+                    && (this.classNameFilter.acceptsAny()
+                            || this.classNameFilter.matches(printable.getSourceClassName()))
+                    && (this.methodNameFilter.acceptsAny()
+                            || this.methodNameFilter.matches(printable.getSourceMethodName()))
+                    && (this.fileNameFilter.acceptsAny()
+                            || this.fileNameFilter.matches(printable.getSourceFileName()));
+        }
+
+        /**
+         * Return a new token bucket for the rate of the current limit.
+         *
+         * @return A new {@link eu.parcifal.print.Limits.Bucket}, or null if
+         *         the rate is not limited.
+         */
+        Bucket newBucket() {
+            return this.rate > 0 ? new Bucket(this.rate, this.burst) : null;
+        }
+
+        /**
+         * Return the token bucket of the specified tag.
+         *
+         * @param tag
+         *            The tag of which the token bucket is requested, or null
+         *            for {@link eu.parcifal.print.Printable}s without a tag.
+         * @return The {@link eu.parcifal.print.Limits.Bucket}, or null if the
+         *         rate is not limited.
+         */
+        Bucket bucketFor(String tag) {
+            if (this.rate <= 0) {
+                return null;
+            } else if (tag == null) {
+                return this.untagged;
+            }
+
+            Bucket bucket = this.buckets.get(tag);
+
+            if (bucket == null) {
+                if (this.buckets.size() >= SITE_CACHE_LIMIT) {
+                    // not remembered until the background thread forgets others
+                    return this.overflow;
+                }
+
+                bucket = this.buckets.computeIfAbsent(tag, key -> this.newBucket());
+            }
+
+            return bucket;
+        }
+
+        /**
+         * Forget the token buckets of the tags that have been idle long
+         * enough for their bucket to be full again, if there are more than
+         * the maximum amount of sources. Such a bucket admits exactly what a
+         * new one would. Runs on the background thread.
+         *
+         * @param now
+         *            The current time in nanoseconds.
+         */
+        void prune(long now) {
+            if (this.buckets.size() > SITE_CACHE_SIZE) {
+                this.buckets.values().removeIf(bucket -> bucket.isFull(now));
+            }
+        }
+
+    }
+
+    /**
+     * A token bucket, kept as the theoretical arrival time of the next
+     * {@link eu.parcifal.print.Printable}. A
+     * {@link eu.parcifal.print.Printable} is allowed if that time is at most
+     * the burst ahead of now, after which it advances by one interval.
+     */
+    private final static class Bucket {
+
+        /**
+         * The amount of nanoseconds per allowed
+         * {@link eu.parcifal.print.Printable}.
+         */
+        private final long interval;
+
+        /**
+         * The amount of nanoseconds the theoretical arrival time may run
+         * ahead.
+         */
+        private final long tolerance;
+
+        /**
+         * The theoretical arrival time of the next
+         * {@link eu.parcifal.print.Printable} in nanoseconds.
+         */
+        private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Limits.Bucket}.
+         *
+         * @param rate
+         *            The amount of {@link eu.parcifal.print.Printable}s
+         *            allowed per second.
+         * @param burst
+         *            The amount of {@link eu.parcifal.print.Printable}s
+         *            allowed at once.
+         */
+        Bucket(double rate, int burst) {
+            this.interval = Math.max((long) (1000000000L / rate), 1);
+            this.tolerance = this.interval * (burst - 1);
+        }
+
+        /**
+         * Take a token if one is available.
+         *
+         * @return True if a token was taken, otherwise false.
+         */
+        boolean tryAcquire() {
+            long now = System.nanoTime();
+
+            while (true) {
+                long arrival = this.arrival.get();
+                long next = arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival;
+
+                if (next - now > this.tolerance) {
+                    return false;
+                } else if (this.arrival.compareAndSet(arrival, next + this.interval)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Return true if the bucket holds all the tokens a new one would.
+         *
+         * @param now
+         *            The current time in nanoseconds.
+         * @return True if the bucket is full, otherwise false.
+         */
+        boolean isFull(long now) {
+            long arrival = this.arrival.get();
+
+            return arrival == Long.MIN_VALUE || arrival - now <= 0;
+        }
+
+    }
+
+    /**
+     * The state of a source: the limit applying to it, its token bucket and
+     * its current run of repeats.
+     */
+    private final static class SiteState {
+
+        /**
+         * The key of the source.
+         */
+        private final Site site;
+
+        /**
+         * The limit applying to the source, or null if none applies.
+         */
+        private final Limit limit;
+
+        /**
+         * The token bucket of the source, if the rate is limited per source,
+         * shared with the other sources that are not remembered.
+         */
+        private final Bucket bucket;
+
+        /**
+         * The current run of repeats of the source.
+         */
+        private final AtomicReference<Repeat> repeat = new AtomicReference<Repeat>();
+
+        /**
+         * Indicates whether or not the source has been seen since it was last
+         * passed over for eviction.
+         */
+        private volatile boolean referenced;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Limits.SiteState}.
+         *
+         * @param site
+         *            The key of the source.
+         * @param limit
+         *            The limit applying to the source, or null if none
+         *            applies.
+         * @param remembered
+         *            Whether or not the source is remembered by the
+         *            {@link eu.parcifal.print.Limits}.
+         */
+        SiteState(Site site, Limit limit, boolean remembered) {
+            this.site = site;
+            this.limit = limit;
+            this.bucket = limit == null || !limit.perSource ? null : remembered ? limit.newBucket() : limit.overflow;
+        }
+
+        /**
+         * Print the summary of the current run of repeats of the source, if
+         * any repeats were suppressed and, unless requested otherwise, its
+         * collapse interval has passed. Repeats that follow are collapsed
+         * into a new run.
+         *
+         * @param now
+         *            The current time in nanoseconds.
+         * @param all
+         *            Whether or not the summary is printed before the
+         *            collapse interval has passed.
+         */
+        void summarize(long now, boolean all) {
+            Repeat repeat;
+
+            do {
+                repeat = this.repeat.get();
+
+                if (repeat == null || repeat.count == 0
+                        || (!all && now - repeat.since < this.limit.collapseInterval)) {
+                    return;
+                }
+            } while (!this.repeat.compareAndSet(repeat,
+                    new Repeat(repeat.text, repeat.arguments, 0, now, null, null, null)));
+
+            Limits.summarize(repeat.source, repeat.count, repeat.channels, repeat.accepting);
+        }
+
+    }
+
+    /**
+     * A run of repeats of the same content from one source.
+     */
+    private final static class Repeat {
+
+        /**
+         * The format of the repeated content, or the content itself if it was
+         * given as is.
+         */
+        private final String text;
+
+        /**
+         * The arguments of the format, or null if the content was given as
+         * is.
+         */
+        private final Object[] arguments;
+
+        /**
+         * The amount of suppressed repeats.
+         */
+        private final long count;
+
+        /**
+         * The time in nanoseconds at which the run started.
+         */
+        private final long since;
+
+        /**
+         * A {@link eu.parcifal.print.Printable} with the tag and source of
+         * the repeats, or null if none were suppressed.
+         */
+        private final Printable source;
+
+        /**
+         * The {@link eu.parcifal.print.Channel}s to which the last repeat was
+         * requested to be printed, or null if none were suppressed.
+         */
+        private final Collection<Channel> channels;
+
+        /**
+         * Returns the {@link eu.parcifal.print.Channel}s accepting the last
+         * repeat, or null if none were suppressed.
+         */
+        private final BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Limits.Repeat}.
+         *
+         * @param text
+         *            The format of the repeated content, or the content
+         *            itself.
+         * @param arguments
+         *            The arguments of the format, or null.
+         * @param count
+         *            The amount of suppressed repeats.
+         * @param since
+         *            The time in nanoseconds at which the run started.
+         * @param source
+         *            A {@link eu.parcifal.print.Printable} with the tag and
+         *            source of the repeats.
+         * @param channels
+         *            The {@link eu.parcifal.print.Channel}s to which the last
+         *            repeat was requested to be printed.
+         * @param accepting
+         *            Returns the {@link eu.parcifal.print.Channel}s accepting
+         *            the last repeat.
+         */
+        Repeat(String text, Object[] arguments, long count, long since, Printable source,
+                Collection<Channel> channels, BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+            this.text = text;
+            this.arguments = arguments;
+            this.count = count;
+            this.since = since;
+            this.source = source;
+            this.channels = channels;
+            this.accepting = accepting;
+        }
+
+    }
+
+    /**
+     * The key of a source: the tag and, if any limit depends on it, the
+     * source class, method and line of a {@link eu.parcifal.print.Printable}.
+     */
+    private final static class Site {
+
+        /**
+         * The tag.
+         */
+        private String tag;
+
+        /**
+         * The source class-name, or null if not needed.
+         */
+        private String className;
+
+        /**
+         * The source method-name, or null if not needed.
+         */
+        private String methodName;
+
+        /**
+         * The source file-name, or null if not needed.
+         */
+        private String fileName;
+
+        /**
+         * The source line-number, or 0 if not needed.
+         */
+        private int lineNumber;
+
+        /**
+         * The hash code of the current {@link eu.parcifal.print.Limits.Site}.
+         */
+        private int hash;
+
+        /**
+         * Set the current {@link eu.parcifal.print.Limits.Site} to the tag
+         * and, if required, the source of the specified
+         * {@link eu.parcifal.print.Printable}.
+         *
+         * @param printable
+         *            The {@link eu.parcifal.print.Printable}.
+         * @param bySource
+         *            Whether or not the source is part of the key.
+         * @return The current {@link eu.parcifal.print.Limits.Site}.
+         */
+        Site set(Printable printable, boolean bySource) {
+            this.tag = printable.getTag();
+            this.className = bySource ? printable.getSourceClassName() : null;
+            this.methodName = bySource ? printable.getSourceMethodName() : null;
+            this.fileName = bySource ? printable.getSourceFileName() : null;
+            this.lineNumber = bySource ? printable.getSourceLineNumber() : 0;
+            this.hash = ((((31 + Objects.hashCode(this.tag)) * 31 + Objects.hashCode(this.className)) * 31
+                    + Objects.hashCode(this.methodName)) * 31 + Objects.hashCode(this.fileName)) * 31
+                    + this.lineNumber;
+
+            return this;
+        }
+
+        /**
+         * Release the references held by the current
+         * {@link eu.parcifal.print.Limits.Site}.
+         */
+        void clear() {
+            this.tag = this.className = this.methodName = this.fileName = null;
+        }
+
+        /**
+         * Return a copy of the current {@link eu.parcifal.print.Limits.Site}.
+         *
+         * @return The copy of the current
+         *         {@link eu.parcifal.print.Limits.Site}.
+         */
+        Site copy() {
+            Site copy = new Site();
+
+            copy.tag = this.tag;
+            copy.className = this.className;
+            copy.methodName = this.methodName;
+            copy.fileName = this.fileName;
+            copy.lineNumber = this.lineNumber;
+            copy.hash = this.hash;
+
+            return copy;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            } else if (!(object instanceof Site)) {
+                return false;
+            }
+
+            Site site = (Site) object;
+
+            return this.hash == site.hash && this.lineNumber == site.lineNumber && Objects.equals(this.tag, site.tag)
+                    && Objects.equals(this.className, site.className)
+                    && Objects.equals(this.methodName, site.methodName)
+                    && Objects.equals(this.fileName, site.fileName);
+        }
+
+    }
+
+}
@@ -1,154 +1,533 @@
-package eu.parcifal.print;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.regex.Pattern;
-
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
-/**
- * Prints to a file in a CSV format. Depending on the current configuration
- * message might or might not be written to a log file.
- * 
- * @author Michal van de Weerd
- * @since 10.05.2016
- * @version 12.05.2016
- */
-public class Log {
-
-    /**
-     * The format of a line written to the log files.
-     */
-    private final static String LINE_FORMAT = "%1$s;%2$tY;%2$tm;%2$td;%2$tH;%2$tM;%2$tS;%2$tL;%3$s;%4$s;%5$s;%6$d;\"%7$s\"\r\n";
-
-    /**
-     * The {@link eu.parcifal.print.Channel}s to which the current
-     * {@link eu.parcifal.print.Log} writes.
-     */
-    private static Collection<Channel> LOG_CHANNELS = new ArrayList<Channel>();
-
-    static {
-        if (Configuration.AVAILABLE) {
-            NodeList logNodes;
-
-            try {
-                logNodes = (NodeList) Configuration.evaluate("/printer/log", XPathConstants.NODESET);
-            } catch (XPathExpressionException exception) {
-                throw new Error(exception);
-            }
-
-            for (int i = 0; i < logNodes.getLength(); i++) {
-                Element log = (Element) logNodes.item(i);
-
-                try {
-                    File file = new File(String.format(log.getAttribute("location"), LocalDateTime.now()));
-
-                    if (!file.getParentFile().exists()) {
-                        file.getParentFile().mkdirs();
-                    }
-
-                    if (!file.exists()) {
-                        file.createNewFile();
-                    }
-
-                    Channel channel = new Channel("eu.parcifal.print.log+" + file.getPath(),
-                            new FileOutputStream(file)) {
-
-                        private String tagPattern = log.getAttribute("tag");
-
-                        private String classNamePattern = log.getAttribute("class-name");
-
-                        private String methodNamePattern = log.getAttribute("method-name");
-
-                        private String fileNamePattern = log.getAttribute("file-name");
-
-                        @Override
-                        public boolean acceptsPrintable(Printable printable) {
-                            if (this.tagPattern.length() > 0 && !Pattern.matches(this.tagPattern, printable.getTag())) {
-                                return false;
-                            }
-
-                            if (this.classNamePattern.length() > 0
-                                    && !Pattern.matches(this.classNamePattern, printable.getSourceClassName())) {
-                                return false;
-                            }
-
-                            if (this.methodNamePattern.length() > 0
-                                    && !Pattern.matches(this.methodNamePattern, printable.getSourceMethodName())) {
-                                return false;
-                            }
-
-                            if (this.fileNamePattern.length() > 0
-                                    && !Pattern.matches(this.fileNamePattern, printable.getSourceFileName())) {
-                                return false;
-                            }
-
-                            return true;
-                        }
-
-                        @Override
-                        protected String format(Printable printable) {
-                            return String.format(LINE_FORMAT, printable.getTag(), printable.getDateTime(),
-                                    printable.getSourceClassName(), printable.getSourceMethodName(),
-                                    printable.getSourceFileName(), printable.getSourceLineNumber(),
-                                    printable.getContent().replaceAll("\"", "\\\\\"").replaceAll("\r", "\\\\r")
-                                            .replaceAll("\n", "\\\\n"));
-                        }
-
-                    };
-
-                    LOG_CHANNELS.add(channel);
-
-                    Printer.addChannel(channel);
-                } catch (IOException exception) {
-                    System.out.println(exception.getMessage());
-                    throw new Error(exception);
-                }
-            }
-        }
-    }
-
-    /**
-     * Write the specified message to the {@link eu.parcifal.print.Channel}s of
-     * the current {@link eu.parcifal.print.Log}.
-     * 
-     * @param tag
-     *            The tag of the specified message.
-     * @param message
-     *            The message to be written to the log file.
-     * @return The {@link eu.parcifal.print.Print} containing the written
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is written.
-     */
-    public final static Print write(String tag, String message) {
-        return Printer.executePrint(new Printable(tag, message), LOG_CHANNELS);
-    }
-
-    /**
-     * Write the specified formatted message to the
-     * {@link eu.parcifal.print.Channel}s of the current
-     * {@link eu.parcifal.print.Log}.
-     * 
-     * @param tag
-     *            The tag of the specified message.
-     * @param message
-     *            The message to be written to the log file.
-     * @param arguments
-     *            The arguments used to format the specified message.
-     * @return The {@link eu.parcifal.print.Print} containing the written
-     *         {@link eu.parcifal.print.Printable} and the
-     *         {@link eu.parcifal.print.Channel}s to which it is written.
-     */
-    public final static Print write(String tag, String message, Object... attributes) {
-        return write(tag, String.format(message, attributes));
-    }
-
-}
+package eu.parcifal.print;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import eu.parcifal.print.Configuration.Element;
+
+/**
+ * Prints to a file in a CSV format. Depending on the current configuration
+ * message might or might not be written to a log file. Remote log elements
+ * send their records to a {@link eu.parcifal.print.Collector} instead. The filters of all log
+ * files are compiled once and evaluated together for each message. When the
+ * configuration file is reloaded, the log files are replaced all at once.
+ * 
+ * @see eu.parcifal.print.LogChannel
+ * @see eu.parcifal.print.FilterSet
+ * 
+ * @author Michaël van de Weerd
+ * @since 10.05.2016
+ * @version 17.10.2026
+ */
+public class Log {
+
+    /**
+     * The {@link eu.parcifal.print.Channel}s to which the current
+     * {@link eu.parcifal.print.Log} writes and their combined
+     * {@link eu.parcifal.print.Filter}s, replaced as a whole when the
+     * configuration file is reloaded.
+     */
+    private static volatile Setup SETUP;
+
+    /**
+     * Indicates whether or not a reload is replacing the
+     * {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Log} in the {@link eu.parcifal.print.Printer}
+     * and has not yet published its {@link eu.parcifal.print.Log.Setup}.
+     */
+    private static volatile boolean SWAPPING = false;
+
+    static {
+        try {
+            install(null, Setup.configure(Configuration.current(), null));
+        } catch (IOException exception) {
+            throw new Error(exception);
+        }
+
+        Configuration.addListener(Log::prepare);
+    }
+
+    /**
+     * Prepare replacing the {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Log} by those defined in the specified
+     * {@link eu.parcifal.print.Configuration}, opening the new ones.
+     * 
+     * @param configuration
+     *            The reloaded {@link eu.parcifal.print.Configuration}.
+     * @return The {@link eu.parcifal.print.Configuration.Change} installing
+     *         the new {@link eu.parcifal.print.Channel}s, or closing them if
+     *         the reload is abandoned.
+     * @throws IOException
+     *             Thrown if a new {@link eu.parcifal.print.Channel} cannot be
+     *             opened.
+     */
+    private static Configuration.Change prepare(Configuration configuration) throws IOException {
+        Setup previous = SETUP;
+        Setup next = Setup.configure(configuration, previous);
+
+        return new Configuration.Change(() -> install(previous, next), () -> {
+            for (Channel channel : next.without(previous)) {
+                channel.close();
+            }
+        });
+    }
+
+    /**
+     * Replace the {@link eu.parcifal.print.Channel}s of the specified previous
+     * {@link eu.parcifal.print.Log.Setup} by those of the specified next one
+     * in the {@link eu.parcifal.print.Printer} in a single update, publish the
+     * next one and close the {@link eu.parcifal.print.Channel}s it did not
+     * take over. Writers that still hold the previous one wait while the
+     * {@link eu.parcifal.print.Channel}s are swapped, and then write to the
+     * next one.
+     * 
+     * @param previous
+     *            The {@link eu.parcifal.print.Log.Setup} to be replaced, or
+     *            null.
+     * @param next
+     *            The {@link eu.parcifal.print.Log.Setup} replacing it.
+     */
+    private static synchronized void install(Setup previous, Setup next) {
+        List<Channel> removed = previous == null ? Collections.<Channel> emptyList() : previous.without(next);
+
+        // records written so far precede those of the new channels
+        for (Channel channel : removed) {
+            channel.flush();
+        }
+
+        SWAPPING = true;
+
+        try {
+            Printer.replaceChannels(removed, next.without(previous));
+
+            SETUP = next;
+        } finally {
+            SWAPPING = false;
+        }
+
+        // writes the records routed to them before they were replaced
+        for (Channel channel : removed) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Return true if any of the {@link eu.parcifal.print.Channel}s of the
+     * current {@link eu.parcifal.print.Log} could accept a message with the
+     * specified tag. Can be used to skip building an expensive message
+     * altogether.
+     * 
+     * @param tag
+     *            The tag of a message.
+     * @return True if a message with the specified tag could be written,
+     *         otherwise false.
+     */
+    public final static boolean isEnabled(String tag) {
+        return SETUP.filters.acceptsTag(tag);
+    }
+
+    /**
+     * Write the specified message to the {@link eu.parcifal.print.Channel}s of
+     * the current {@link eu.parcifal.print.Log}. In garbage-free mode the
+     * returned {@link eu.parcifal.print.Print} is reused for the next message
+     * written by the same thread.
+     * 
+     * @param tag
+     *            The tag of the specified message.
+     * @param message
+     *            The message to be written to the log file.
+     * @return The {@link eu.parcifal.print.Print} containing the written
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is written, or an
+     *         empty {@link eu.parcifal.print.Print} if no
+     *         {@link eu.parcifal.print.Channel} accepts the specified tag.
+     */
+    public final static Print write(String tag, String message) {
+        Setup setup = SETUP;
+
+        if (!setup.filters.acceptsTag(tag)) {
+            return Print.NONE;
+        }
+
+        if (Printer.isGarbageFree()) {
+            ReusablePrintable printable = ReusablePrintable.acquire(tag, message);
+
+            if (printable != null) {
+                try {
+                    return print(setup, printable);
+                } finally {
+                    printable.release();
+                }
+            }
+        }
+
+        return print(setup, new Printable(tag, message));
+    }
+
+    /**
+     * Write the specified formatted message to the
+     * {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Log}. The message is only formatted once a
+     * {@link eu.parcifal.print.Channel} that accepts it writes it. Arguments
+     * that are {@link eu.parcifal.print.Field}s are also written as columns of
+     * their own.
+     * 
+     * @param tag
+     *            The tag of the specified message.
+     * @param message
+     *            The message to be written to the log file.
+     * @param attributes
+     *            The arguments used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the written
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is written, or an
+     *         empty {@link eu.parcifal.print.Print} if no
+     *         {@link eu.parcifal.print.Channel} accepts the specified tag.
+     */
+    public final static Print write(String tag, String message, Object... attributes) {
+        Setup setup = SETUP;
+
+        if (!setup.filters.acceptsTag(tag)) {
+            return Print.NONE;
+        }
+
+        return print(setup, new Printable(tag, message, attributes));
+    }
+
+    /**
+     * Write the message supplied by the specified
+     * {@link java.util.function.Supplier} to the
+     * {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Log}. The {@link java.util.function.Supplier} is
+     * not called if no {@link eu.parcifal.print.Channel} accepts the specified
+     * tag.
+     * 
+     * @param tag
+     *            The tag of the supplied message.
+     * @param message
+     *            The {@link java.util.function.Supplier} of the message to be
+     *            written to the log file.
+     * @return The {@link eu.parcifal.print.Print} containing the written
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is written, or an
+     *         empty {@link eu.parcifal.print.Print} if no
+     *         {@link eu.parcifal.print.Channel} accepts the specified tag.
+     */
+    public final static Print write(String tag, Supplier<String> message) {
+        if (!SETUP.filters.acceptsTag(tag)) {
+            return Print.NONE;
+        }
+
+        return write(tag, message.get());
+    }
+
+    /**
+     * Write the specified formatted message to the
+     * {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Log}. The arguments are only supplied and the
+     * message is only formatted if a {@link eu.parcifal.print.Channel} accepts
+     * the specified tag.
+     * 
+     * @param tag
+     *            The tag of the specified message.
+     * @param message
+     *            The message to be written to the log file.
+     * @param arguments
+     *            The {@link java.util.function.Supplier}s of the arguments
+     *            used to format the specified message.
+     * @return The {@link eu.parcifal.print.Print} containing the written
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is written, or an
+     *         empty {@link eu.parcifal.print.Print} if no
+     *         {@link eu.parcifal.print.Channel} accepts the specified tag.
+     */
+    public final static Print write(String tag, String message, Supplier<?>... arguments) {
+        if (!SETUP.filters.acceptsTag(tag)) {
+            return Print.NONE;
+        }
+
+        return print(SETUP, new Printable(tag, message, Print.supply(arguments)));
+    }
+
+    /**
+     * Write the specified {@link eu.parcifal.print.Printable} to the
+     * {@link eu.parcifal.print.Channel}s of the specified
+     * {@link eu.parcifal.print.Log.Setup} that accept it, trying again with
+     * the current {@link eu.parcifal.print.Log.Setup} for as long as reloads
+     * replace the {@link eu.parcifal.print.Channel}s in the meantime.
+     * 
+     * @param setup
+     *            The {@link eu.parcifal.print.Log.Setup} that accepted the
+     *            tag.
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be written.
+     * @return The {@link eu.parcifal.print.Print} containing the written
+     *         {@link eu.parcifal.print.Printable} and the
+     *         {@link eu.parcifal.print.Channel}s to which it is written.
+     */
+    private static Print print(Setup setup, Printable printable) {
+        while (true) {
+            try {
+                return Printer.executeAcceptedPrint(printable, setup.channels, setup.accepting);
+            } catch (ChannelNotAvailableException exception) {
+                // a reload swaps the channels right before publishing its setup
+                while (SWAPPING) {
+                    Thread.onSpinWait();
+                }
+
+                if (setup == SETUP) {
+                    throw exception;
+                }
+
+                // the channels were replaced by a reload in the meantime
+                setup = SETUP;
+            }
+        }
+    }
+
+    /**
+     * The {@link eu.parcifal.print.LogChannel}s defined by one
+     * {@link eu.parcifal.print.Configuration}, together with their combined
+     * {@link eu.parcifal.print.Filter}s.
+     */
+    private final static class Setup {
+
+        /**
+         * The attributes of the log element of each
+         * {@link eu.parcifal.print.LogChannel}, used to find out which
+         * {@link eu.parcifal.print.LogChannel}s are unchanged by a reload.
+         */
+        private final List<Map<String, String>> attributes;
+
+        /**
+         * The {@link eu.parcifal.print.LogChannel}s, as the
+         * {@link java.util.List} requested from the
+         * {@link eu.parcifal.print.Printer} for each message.
+         */
+        private final List<Channel> channels;
+
+        /**
+         * The combined {@link eu.parcifal.print.Filter}s of the
+         * {@link eu.parcifal.print.LogChannel}s.
+         */
+        private final FilterSet filters;
+
+        /**
+         * Returns the {@link eu.parcifal.print.LogChannel}s accepting a
+         * {@link eu.parcifal.print.Printable}, as decided by the
+         * {@link eu.parcifal.print.FilterSet}.
+         */
+        private final BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Log.Setup}.
+         * 
+         * @param attributes
+         *            The attributes of the log element of each
+         *            {@link eu.parcifal.print.LogChannel}.
+         * @param channels
+         *            The {@link eu.parcifal.print.LogChannel}s.
+         */
+        private Setup(List<Map<String, String>> attributes, List<LogChannel> channels) {
+            this.attributes = attributes;
+            this.channels = Collections.unmodifiableList(new ArrayList<Channel>(channels));
+            this.filters = new FilterSet(channels);
+            this.accepting = (printable, requested) -> this.filters.accepting(printable);
+        }
+
+        /**
+         * Return the {@link eu.parcifal.print.Log.Setup} defined by the log
+         * elements in the specified {@link eu.parcifal.print.Configuration},
+         * to replace the specified previous one. A
+         * {@link eu.parcifal.print.LogChannel} of which the log element is
+         * unchanged is taken over. The others are opened, appending to files
+         * that already exist, but not yet added to the
+         * {@link eu.parcifal.print.Printer}. If one cannot be opened, those
+         * opened before it are closed and the previous
+         * {@link eu.parcifal.print.Log.Setup} stays in use untouched.
+         * 
+         * @param configuration
+         *            The {@link eu.parcifal.print.Configuration} to be read.
+         * @param previous
+         *            The {@link eu.parcifal.print.Log.Setup} to be replaced,
+         *            or null.
+         * @return The new {@link eu.parcifal.print.Log.Setup}.
+         * @throws IOException
+         *             Thrown if a new {@link eu.parcifal.print.LogChannel}
+         *             cannot be opened.
+         */
+        static Setup configure(Configuration configuration, Setup previous) throws IOException {
+            List<Element> logs = configuration.getElements("log");
+
+            logs.addAll(configuration.getElements("remote"));
+            List<Map<String, String>> attributes = new ArrayList<Map<String, String>>();
+            LogChannel[] channels = new LogChannel[logs.size()];
+            List<Channel> removed = new ArrayList<Channel>();
+            List<Channel> opened = new ArrayList<Channel>();
+
+            if (previous != null) {
+                removed.addAll(previous.channels);
+            }
+
+            for (int i = 0; i < logs.size(); i++) {
+                attributes.add(logs.get(i).getAttributes());
+
+                int index = previous == null ? -1 : previous.attributes.indexOf(attributes.get(i));
+
+                if (index >= 0 && removed.remove(previous.channels.get(index))) {
+                    channels[i] = (LogChannel) previous.channels.get(index);
+                }
+            }
+
+            for (int i = 0; i < logs.size(); i++) {
+                if (channels[i] == null) {
+                    try {
+                        channels[i] = open(logs.get(i), previous != null);
+                    } catch (IOException | RuntimeException exception) {
+                        for (Channel channel : opened) {
+                            channel.close();
+                        }
+
+                        throw exception;
+                    }
+
+                    opened.add(channels[i]);
+                }
+            }
+
+            return new Setup(attributes, Arrays.asList(channels));
+        }
+
+        /**
+         * Return the {@link eu.parcifal.print.LogChannel}s of the current
+         * {@link eu.parcifal.print.Log.Setup} that the specified other one
+         * does not hold.
+         * 
+         * @param other
+         *            The other {@link eu.parcifal.print.Log.Setup}, or null.
+         * @return The {@link eu.parcifal.print.LogChannel}s only held by the
+         *         current {@link eu.parcifal.print.Log.Setup}.
+         */
+        List<Channel> without(Setup other) {
+            List<Channel> channels = new ArrayList<Channel>();
+
+            for (Channel channel : this.channels) {
+                if (other == null || !other.channels.contains(channel)) {
+                    channels.add(channel);
+                }
+            }
+
+            return channels;
+        }
+
+        /**
+         * Open the {@link eu.parcifal.print.LogChannel} defined by the
+         * specified log or remote element.
+         * 
+         * @param log
+         *            The log or remote element.
+         * @param append
+         *            Whether or not an existing file is appended to instead
+         *            of emptied.
+         * @return The new {@link eu.parcifal.print.LogChannel}.
+         * @throws IOException
+         *             Thrown if the log file cannot be opened.
+         */
+        private static LogChannel open(Element log, boolean append) throws IOException {
+            if ("remote".equals(log.getName())) {
+                String host = log.getAttribute("host", "localhost");
+                int port = Integer.parseInt(log.getAttribute("port").trim());
+                long spoolSize = RotatingOutputStream.parseSize(log.getAttribute("spool-size", "1m"));
+
+                return open(log, "eu.parcifal.print.remote+" + host + ":" + port,
+                        new RemoteOutputStream(host, port, log.getFlag("compress", false), spoolSize), null);
+            }
+
+            String location = log.getAttribute("location");
+            RotatingOutputStream.Opener eager;
+
+            if ("mapped".equals(log.getAttribute("output"))) {
+                eager = target -> new MappedOutputStream(target, MappedOutputStream.DEFAULT_REGION_SIZE, append);
+            } else {
+                eager = target -> new FileOutputStream(target, append);
+            }
+
+            // files are only opened once a record is written to them
+            RotatingOutputStream.Opener opener = target -> new LazyOutputStream(target, eager);
+
+            long maxSize = RotatingOutputStream.parseSize(log.getAttribute("max-size"));
+            long interval = RotatingOutputStream.parseDuration(log.getAttribute("rotate-interval"));
+            File file;
+            OutputStream outputStream;
+
+            if (maxSize > 0 || interval > 0) {
+                String maxFiles = log.getAttribute("max-files");
+                RotatingOutputStream rotation = new RotatingOutputStream(location, opener, maxSize, interval,
+                        maxFiles.isEmpty() ? 0 : Integer.parseInt(maxFiles.trim()),
+                        !"false".equals(log.getAttribute("compress")));
+
+                file = rotation.getFile();
+                outputStream = rotation;
+            } else {
+                file = new File(String.format(location, LocalDateTime.now()));
+                outputStream = opener.open(file);
+            }
+
+            LogIndex.Writer index = null;
+
+            if (log.getFlag("index", false) && !"binary".equals(log.getAttribute("format"))) {
+                index = new LogIndex.Writer(file, append,
+                        Integer.parseInt(log.getAttribute("index-interval", "1024").trim()));
+            }
+
+            return open(log, "eu.parcifal.print.log+" + file.getPath(), outputStream, index);
+        }
+
+        /**
+         * Create the {@link eu.parcifal.print.LogChannel} defined by the
+         * specified log or remote element, writing to the specified
+         * {@link java.io.OutputStream}.
+         * 
+         * @param log
+         *            The log or remote element.
+         * @param channelName
+         *            The name of the {@link eu.parcifal.print.LogChannel}.
+         * @param outputStream
+         *            The {@link java.io.OutputStream} to write to.
+         * @param index
+         *            Writes the {@link eu.parcifal.print.LogIndex}, or null.
+         * @return The new {@link eu.parcifal.print.LogChannel}.
+         */
+        private static LogChannel open(Element log, String channelName, OutputStream outputStream,
+                LogIndex.Writer index) {
+            LogChannel channel = new LogChannel(channelName, outputStream,
+                    !"false".equals(log.getAttribute("capture-location")),
+                    FlushPolicy.forAttributes(log.getAttribute("flush"), log.getAttribute("flush-size"),
+                            log.getAttribute("flush-interval"), log.getAttribute("flush-on-error")),
+                    "binary".equals(log.getAttribute("format")) ? null
+                            : log.hasAttribute("pattern") ? log.getAttribute("pattern") : LogChannel.LINE_FORMAT,
+                    Filter.compile(log.getAttribute("tag")), Filter.compile(log.getAttribute("class-name")),
+                    Filter.compile(log.getAttribute("method-name")), Filter.compile(log.getAttribute("file-name")),
+                    index);
+
+            if (log.getFlag("staging", false)) {
+                channel.startStaging();
+            }
+
+            return channel;
+        }
+
+    }
+
+}
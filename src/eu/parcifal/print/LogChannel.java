@@ -0,0 +1,255 @@
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The {@link eu.parcifal.print.Channel} used by the
+ * {@link eu.parcifal.print.Log} for each log file. It writes each
+ * {@link eu.parcifal.print.Printable} as a line in a CSV format and only
+ * accepts {@link eu.parcifal.print.Printable}s that pass its tag, class-name,
+ * method-name and file-name {@link eu.parcifal.print.Filter}s. If it writes to
+ * a {@link eu.parcifal.print.RotatingOutputStream}, a new file is started
+ * between two records once the current one is due. Instead of CSV, records
+ * can be written in the {@link eu.parcifal.print.BinaryFormat}, in which case
+ * each file gets its own dictionary. CSV lines can be indexed by a
+ * {@link eu.parcifal.print.LogIndex} written next to each file.
+ *
+ * @see eu.parcifal.print.Log
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class LogChannel extends Channel {
+
+    /**
+     * The default format of a line written to the log files. Its arguments are
+     * described by {@link eu.parcifal.print.Template}; the content is escaped
+     * so that it fits in a single quoted CSV field, and each
+     * {@link eu.parcifal.print.Field} follows in a field of its own.
+     */
+    final static String LINE_FORMAT = "%1$s;%2$tY;%2$tm;%2$td;%2$tH;%2$tM;%2$tS;%2$tL;%3$s;%4$s;%5$s;%6$d;\"%7$s\"%8$s\r\n";
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the tag of each
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private final Filter tagFilter;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source class-name of
+     * each {@link eu.parcifal.print.Printable}.
+     */
+    private final Filter classNameFilter;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source method-name
+     * of each {@link eu.parcifal.print.Printable}.
+     */
+    private final Filter methodNameFilter;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source file-name of
+     * each {@link eu.parcifal.print.Printable}.
+     */
+    private final Filter fileNameFilter;
+
+    /**
+     * The {@link eu.parcifal.print.Template} of a line written to the log
+     * file, or null if records are written in the
+     * {@link eu.parcifal.print.BinaryFormat}.
+     */
+    private final Template template;
+
+    /**
+     * The {@link eu.parcifal.print.BinaryFormat} of the records written to the
+     * log file, or null if records are written as CSV lines.
+     */
+    private final BinaryFormat binary;
+
+    /**
+     * The {@link eu.parcifal.print.RotatingOutputStream} of the log file, or
+     * null if the log file is not rotated.
+     */
+    private final RotatingOutputStream rotation;
+
+    /**
+     * Writes the {@link eu.parcifal.print.LogIndex} of the log file, or null
+     * if the log file is not indexed.
+     */
+    private final LogIndex.Writer index;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.LogChannel}.
+     *
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.LogChannel}.
+     * @param outputStream
+     *            The {@link java.io.OutputStream} of the log file.
+     * @param capturesLocation
+     *            Whether or not the source of each
+     *            {@link eu.parcifal.print.Printable} is written.
+     * @param flushPolicy
+     *            The {@link eu.parcifal.print.FlushPolicy} of the log file.
+     * @param format
+     *            The format of a line written to the log file, or null to
+     *            write records in the {@link eu.parcifal.print.BinaryFormat}.
+     * @param tagFilter
+     *            The {@link eu.parcifal.print.Filter} applied to the tag.
+     * @param classNameFilter
+     *            The {@link eu.parcifal.print.Filter} applied to the source
+     *            class-name.
+     * @param methodNameFilter
+     *            The {@link eu.parcifal.print.Filter} applied to the source
+     *            method-name.
+     * @param fileNameFilter
+     *            The {@link eu.parcifal.print.Filter} applied to the source
+     *            file-name.
+     * @param index
+     *            Writes the {@link eu.parcifal.print.LogIndex} of the log
+     *            file, or null if the log file is not indexed.
+     */
+    LogChannel(String channelName, OutputStream outputStream, boolean capturesLocation, FlushPolicy flushPolicy,
+            String format, Filter tagFilter, Filter classNameFilter, Filter methodNameFilter,
+            Filter fileNameFilter, LogIndex.Writer index) {
+        super(channelName, outputStream, capturesLocation, flushPolicy);
+
+        this.template = format == null ? null : Template.compile(format, capturesLocation, true);
+        this.binary = format == null ? new BinaryFormat() : null;
+        this.rotation = outputStream instanceof RotatingOutputStream ? (RotatingOutputStream) outputStream : null;
+        this.tagFilter = tagFilter;
+        this.classNameFilter = classNameFilter;
+        this.methodNameFilter = methodNameFilter;
+        this.fileNameFilter = fileNameFilter;
+        this.index = index;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Filter} applied to the tag of each
+     * {@link eu.parcifal.print.Printable}.
+     *
+     * @return The tag {@link eu.parcifal.print.Filter}.
+     */
+    final Filter getTagFilter() {
+        return this.tagFilter;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Filter} applied to the source
+     * class-name of each {@link eu.parcifal.print.Printable}.
+     *
+     * @return The class-name {@link eu.parcifal.print.Filter}.
+     */
+    final Filter getClassNameFilter() {
+        return this.classNameFilter;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Filter} applied to the source
+     * method-name of each {@link eu.parcifal.print.Printable}.
+     *
+     * @return The method-name {@link eu.parcifal.print.Filter}.
+     */
+    final Filter getMethodNameFilter() {
+        return this.methodNameFilter;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Filter} applied to the source
+     * file-name of each {@link eu.parcifal.print.Printable}.
+     *
+     * @return The file-name {@link eu.parcifal.print.Filter}.
+     */
+    final Filter getFileNameFilter() {
+        return this.fileNameFilter;
+    }
+
+    @Override
+    public Routing getRouting() {
+        return this.classNameFilter.acceptsAny() && this.methodNameFilter.acceptsAny()
+                && this.fileNameFilter.acceptsAny() ? Routing.TAG : Routing.SOURCE;
+    }
+
+    @Override
+    public boolean acceptsPrintable(Printable printable) {
+        return this.tagFilter.matches(printable.getTag())
+                && (this.classNameFilter.acceptsAny() || this.classNameFilter.matches(printable.getSourceClassName()))
+                && (this.methodNameFilter.acceptsAny()
+                        || this.methodNameFilter.matches(printable.getSourceMethodName()))
+                && (this.fileNameFilter.acceptsAny() || this.fileNameFilter.matches(printable.getSourceFileName()));
+    }
+
+    @Override
+    void beforeRecord() throws IOException {
+        if (this.rotation != null && this.rotation.isDue(this.getBuffered())) {
+            this.writeBuffer();
+
+            if (this.index != null) {
+                this.index.finish();
+            }
+
+            this.rotation.rotate();
+
+            if (this.binary != null) {
+                this.binary.reset();
+            }
+
+            if (this.index != null) {
+                this.index.start(this.rotation.getFile(), false);
+            }
+        }
+    }
+
+    @Override
+    void encodeRecord(Printable printable, CharSequence formatted) throws IOException {
+        if (this.binary == null) {
+            int buffered = this.getBuffered();
+
+            super.encodeRecord(printable, formatted);
+
+            if (this.index != null) {
+                this.index.record(printable.getTag(), printable.getTimestamp(), this.getBuffered() - buffered);
+            }
+        } else {
+            this.binary.encode(this, printable, formatted);
+        }
+    }
+
+    @Override
+    protected void closeOutputStream() throws IOException {
+        super.closeOutputStream();
+
+        if (this.index != null) {
+            this.index.finish();
+        }
+    }
+
+    @Override
+    protected String format(Printable printable) {
+        if (this.binary == null) {
+            return this.template.format(printable);
+        }
+
+        StringBuilder output = new StringBuilder();
+
+        this.format(printable, output);
+
+        return output.toString();
+    }
+
+    @Override
+    protected void format(Printable printable, StringBuilder output) {
+        if (this.binary == null) {
+            this.template.format(printable, output);
+        } else {
+            if (this.capturesLocation()) {
+                // find the source before the lock is taken
+                printable.locate();
+            }
+
+            printable.appendContent(output);
+        }
+    }
+
+}
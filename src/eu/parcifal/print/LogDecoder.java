@@ -0,0 +1,232 @@
+package eu.parcifal.print;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Turns log files written in the {@link eu.parcifal.print.BinaryFormat} back
+ * into the CSV layout of {@link eu.parcifal.print.LogChannel#LINE_FORMAT}.
+ * Can be run from the command line with the files to be decoded as arguments,
+ * writing the CSV lines to the standard output. Files ending in ".gz", as left
+ * by rotation, are decompressed first.
+ *
+ * @see eu.parcifal.print.BinaryFormat
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class LogDecoder {
+
+    /**
+     * The format of the date-time fields of a CSV line.
+     */
+    private final static DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy;MM;dd;HH;mm;ss;SSS");
+
+    /**
+     * Prevent instantiation, all members are static.
+     */
+    private LogDecoder() {
+    }
+
+    /**
+     * Decode the log files specified as arguments to the standard output.
+     *
+     * @param arguments
+     *            The paths of the log files to be decoded.
+     * @throws IOException
+     *             Thrown if a log file cannot be read or is not in the
+     *             {@link eu.parcifal.print.BinaryFormat}.
+     */
+    public static void main(String... arguments) throws IOException {
+        if (arguments.length == 0) {
+            System.err.println("usage: java eu.parcifal.print.LogDecoder <file>...");
+            System.exit(1);
+        }
+
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        for (String argument : arguments) {
+            try (InputStream input = argument.endsWith(".gz")
+                    ? new GZIPInputStream(new FileInputStream(argument), 1 << 16)
+                    : new FileInputStream(argument)) {
+                decode(input, output);
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Decode the log file read from the specified
+     * {@link java.io.InputStream}, writing a CSV line for each of its records
+     * to the specified {@link java.io.Writer}. An empty
+     * {@link java.io.InputStream} holds no records.
+     *
+     * @param input
+     *            The {@link java.io.InputStream} of the log file.
+     * @param output
+     *            The {@link java.io.Writer} to which the CSV lines are
+     *            written.
+     * @throws IOException
+     *             Thrown if the log file cannot be read or is not in the
+     *             {@link eu.parcifal.print.BinaryFormat}.
+     */
+    public static void decode(InputStream input, Writer output) throws IOException {
+        input = new BufferedInputStream(input, 1 << 16);
+
+        int first = input.read();
+
+        if (first < 0) {
+            return;
+        }
+
+        if (first != BinaryFormat.MAGIC[0]) {
+            throw new IOException("not a binary log file of a supported version");
+        }
+
+        List<String> dictionary = new ArrayList<String>();
+        StringBuilder line = new StringBuilder();
+        long time = 0;
+
+        for (int kind = first; kind >= 0; kind = input.read()) {
+            if (kind != BinaryFormat.FIELDS && line.length() > 0) {
+                // the previous record has no more fields
+                output.append(line).append("\r\n");
+                line.setLength(0);
+            }
+
+            switch (kind) {
+            case 0:
+                // the zero bytes of a memory-mapped file that was not
+                // truncated, possibly followed by a section appended later
+                break;
+            case 'P':
+                // the start of the file or of a section appended to it
+                for (int i = 1; i < BinaryFormat.MAGIC.length; i++) {
+                    if (input.read() != BinaryFormat.MAGIC[i]) {
+                        throw new IOException("not a binary log file of a supported version");
+                    }
+                }
+
+                dictionary.clear();
+                dictionary.add("");
+                time = 0;
+                break;
+            case BinaryFormat.DEFINE:
+                int id = (int) readVarint(input);
+
+                if (id != dictionary.size()) {
+                    throw new IOException("dictionary entry " + id + " defined out of order");
+                }
+
+                dictionary.add(readString(input));
+                break;
+            case BinaryFormat.RECORD:
+            case BinaryFormat.RECORD_WITHOUT_LOCATION:
+                time += BinaryFormat.unzigzag(readVarint(input));
+
+                line.append(dictionary.get((int) readVarint(input))).append(';');
+                line.append(DATE_TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC)));
+                line.append(';');
+
+                if (kind == BinaryFormat.RECORD) {
+                    line.append(dictionary.get((int) readVarint(input))).append(';');
+                    line.append(dictionary.get((int) readVarint(input))).append(';');
+                    line.append(dictionary.get((int) readVarint(input))).append(';');
+                    line.append(BinaryFormat.unzigzag(readVarint(input))).append(';');
+                } else {
+                    line.append(";;;;");
+                }
+
+                line.append('"');
+                Template.escape(readString(input), line);
+                line.append('"');
+                break;
+            case BinaryFormat.FIELDS:
+                if (line.length() == 0) {
+                    throw new IOException("fields without a record");
+                }
+
+                for (long count = readVarint(input); count > 0; count--) {
+                    line.append(";\"").append(dictionary.get((int) readVarint(input))).append('=');
+                    Template.escape(readString(input), line);
+                    line.append('"');
+                }
+
+                break;
+            default:
+                throw new IOException("unknown entry kind " + kind);
+            }
+        }
+
+        if (line.length() > 0) {
+            output.append(line).append("\r\n");
+        }
+    }
+
+    /**
+     * Read a variable length integer as written by
+     * {@link eu.parcifal.print.Channel#encodeVarint(long)}.
+     *
+     * @param input
+     *            The {@link java.io.InputStream} to read from.
+     * @return The number read.
+     * @throws IOException
+     *             Thrown if the number cannot be read.
+     */
+    private static long readVarint(InputStream input) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = input.read();
+
+            if (b < 0) {
+                throw new EOFException();
+            }
+
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("malformed variable length integer");
+    }
+
+    /**
+     * Read a string as written by
+     * {@link eu.parcifal.print.Channel#encodeString(CharSequence)}.
+     *
+     * @param input
+     *            The {@link java.io.InputStream} to read from.
+     * @return The string read.
+     * @throws IOException
+     *             Thrown if the string cannot be read.
+     */
+    private static String readString(InputStream input) throws IOException {
+        byte[] bytes = new byte[(int) readVarint(input)];
+
+        if (input.readNBytes(bytes, 0, bytes.length) < bytes.length) {
+            throw new EOFException();
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
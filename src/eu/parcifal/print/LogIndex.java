@@ -0,0 +1,681 @@
+package eu.parcifal.print;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The sidecar index of a CSV log file, written next to it with the
+ * {@link eu.parcifal.print.LogIndex#EXTENSION} added to its name when the log
+ * element enables it. The log file is divided into blocks of a fixed amount of
+ * records. For each block the index holds its position in the log file, the
+ * earliest and latest time at which its records were written and the tags
+ * that occur in it, so that the blocks holding the records between two times
+ * or with a certain tag can be read without scanning the whole file.
+ *
+ * The index consists of sections, one for each time the log file was opened.
+ * Each section starts with the {@link eu.parcifal.print.LogIndex#MAGIC}
+ * bytes, followed by entries that each start with a single byte:
+ * {@link eu.parcifal.print.LogIndex#TAG} defines the next tag number of the
+ * section, followed by the tag as modified UTF-8, and
+ * {@link eu.parcifal.print.LogIndex#BLOCK} describes a block by its offset and
+ * length in bytes, its earliest and latest time in milliseconds since the
+ * epoch, its amount of records and the numbers of its tags. Parts of the log
+ * file that are not described by a block, such as the records written after
+ * the last complete block before the application stopped, are returned as
+ * blocks of which the times and tags are unknown, so that they are always
+ * read.
+ *
+ * @see eu.parcifal.print.Log
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class LogIndex {
+
+    /**
+     * The extension added to the name of a log file to get the name of its
+     * index.
+     */
+    public final static String EXTENSION = ".idx";
+
+    /**
+     * The bytes starting each section of an index.
+     */
+    final static byte[] MAGIC = { 'P', 'I', 'D', 'X', 1 };
+
+    /**
+     * Starts an entry defining a tag.
+     */
+    final static byte TAG = 1;
+
+    /**
+     * Starts an entry describing a block.
+     */
+    final static byte BLOCK = 2;
+
+    /**
+     * The log file.
+     */
+    private final File file;
+
+    /**
+     * The blocks of the log file, ordered by offset.
+     */
+    private final List<Block> blocks;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.LogIndex}.
+     *
+     * @param file
+     *            The log file.
+     * @param blocks
+     *            The blocks of the log file, ordered by offset.
+     */
+    private LogIndex(File file, List<Block> blocks) {
+        this.file = file;
+        this.blocks = Collections.unmodifiableList(blocks);
+    }
+
+    /**
+     * Read the index of the specified log file. If the log file has no index,
+     * the whole file is a single block of which the times and tags are
+     * unknown.
+     *
+     * @param file
+     *            The log file.
+     * @return The {@link eu.parcifal.print.LogIndex} of the log file.
+     * @throws IOException
+     *             Thrown if the index exists but cannot be read.
+     */
+    public static LogIndex open(File file) throws IOException {
+        List<Block> indexed = new ArrayList<Block>();
+        File index = new File(file.getPath() + EXTENSION);
+
+        if (index.exists()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+                List<String> tags = new ArrayList<String>();
+                byte[] magic = new byte[MAGIC.length];
+
+                while (true) {
+                    int type;
+
+                    try {
+                        type = input.readUnsignedByte();
+                    } catch (EOFException exception) {
+                        break;
+                    }
+
+                    if (type == MAGIC[0]) {
+                        magic[0] = (byte) type;
+                        input.readFully(magic, 1, magic.length - 1);
+
+                        if (!Arrays.equals(magic, MAGIC)) {
+                            throw new IOException(index + " is not an index");
+                        }
+
+                        tags.clear();
+                    } else if (type == TAG) {
+                        tags.add(input.readUTF());
+                    } else if (type == BLOCK) {
+                        long offset = input.readLong();
+                        long length = input.readLong();
+                        long first = input.readLong();
+                        long last = input.readLong();
+                        int records = input.readInt();
+                        Set<String> blockTags = new HashSet<String>();
+
+                        for (int i = input.readInt(); i > 0; i--) {
+                            blockTags.add(tags.get(input.readInt()));
+                        }
+
+                        indexed.add(new Block(offset, length, first, last, records, blockTags));
+                    } else {
+                        throw new IOException(index + " is not an index");
+                    }
+                }
+            } catch (EOFException exception) {
+                // the last entry was cut off while it was being written
+            }
+        }
+
+        indexed.sort(Comparator.comparingLong(Block::getOffset));
+
+        List<Block> blocks = new ArrayList<Block>();
+        long length = file.length();
+        long offset = 0;
+
+        for (Block block : indexed) {
+            if (block.offset + block.length > length) {
+                // the records of the block never reached the log file
+                break;
+            } else if (block.offset > offset) {
+                blocks.add(Block.unknown(offset, block.offset - offset));
+            }
+
+            blocks.add(block);
+
+            offset = block.offset + block.length;
+        }
+
+        if (length > offset) {
+            blocks.add(Block.unknown(offset, length - offset));
+        }
+
+        return new LogIndex(file, blocks);
+    }
+
+    /**
+     * Return the log file of the current {@link eu.parcifal.print.LogIndex}.
+     *
+     * @return The log file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Return all blocks of the log file, ordered by offset.
+     *
+     * @return The unmodifiable list of blocks.
+     */
+    public List<Block> getBlocks() {
+        return this.blocks;
+    }
+
+    /**
+     * Return the blocks that may hold records written between the specified
+     * times.
+     *
+     * @param from
+     *            The earliest time in milliseconds since the epoch.
+     * @param to
+     *            The latest time in milliseconds since the epoch.
+     * @return The blocks that may hold records between the times, ordered by
+     *         offset.
+     */
+    public List<Block> find(long from, long to) {
+        return this.find(null, from, to);
+    }
+
+    /**
+     * Return the blocks that may hold records with the specified tag.
+     *
+     * @param tag
+     *            The tag of the records.
+     * @return The blocks that may hold records with the tag, ordered by
+     *         offset.
+     */
+    public List<Block> find(String tag) {
+        return this.find(tag, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Return the blocks that may hold records with the specified tag written
+     * between the specified times.
+     *
+     * @param tag
+     *            The tag of the records, or null for any tag.
+     * @param from
+     *            The earliest time in milliseconds since the epoch.
+     * @param to
+     *            The latest time in milliseconds since the epoch.
+     * @return The blocks that may hold matching records, ordered by offset.
+     */
+    public List<Block> find(String tag, long from, long to) {
+        List<Block> found = new ArrayList<Block>();
+
+        for (Block block : this.blocks) {
+            if (block.overlaps(from, to) && (tag == null || block.mayContain(tag))) {
+                found.add(block);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Read the lines of the specified blocks of the log file, seeking to each
+     * of them directly. The lines are split at line feeds, so this only
+     * returns one line per record if the pattern of the log writes each
+     * record as a single line, as the default pattern does.
+     *
+     * @param blocks
+     *            The blocks to be read.
+     * @return The lines of the blocks, without their line breaks.
+     * @throws IOException
+     *             Thrown if the log file cannot be read.
+     */
+    public List<String> read(List<Block> blocks) throws IOException {
+        List<String> lines = new ArrayList<String>();
+
+        try (RandomAccessFile input = new RandomAccessFile(this.file, "r")) {
+            for (Block block : blocks) {
+                byte[] bytes = new byte[Math.toIntExact(block.length)];
+
+                input.seek(block.offset);
+                input.readFully(bytes);
+
+                String text = new String(bytes, StandardCharsets.UTF_8);
+                int start = 0;
+
+                for (int end = text.indexOf('\n'); end >= 0; end = text.indexOf('\n', start)) {
+                    lines.add(text.substring(start, end > start && text.charAt(end - 1) == '\r' ? end - 1 : end));
+
+                    start = end + 1;
+                }
+
+                if (start < text.length()) {
+                    lines.add(text.substring(start));
+                }
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * A part of a log file described by its
+     * {@link eu.parcifal.print.LogIndex}.
+     *
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    public final static class Block {
+
+        /**
+         * The offset of the block in the log file.
+         */
+        private final long offset;
+
+        /**
+         * The length of the block in bytes.
+         */
+        private final long length;
+
+        /**
+         * The earliest time at which a record of the block was written.
+         */
+        private final long first;
+
+        /**
+         * The latest time at which a record of the block was written.
+         */
+        private final long last;
+
+        /**
+         * The amount of records in the block, or -1 if unknown.
+         */
+        private final int records;
+
+        /**
+         * The tags of the records in the block, or null if unknown.
+         */
+        private final Set<String> tags;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.LogIndex.Block}.
+         *
+         * @param offset
+         *            The offset of the block in the log file.
+         * @param length
+         *            The length of the block in bytes.
+         * @param first
+         *            The earliest time of a record of the block.
+         * @param last
+         *            The latest time of a record of the block.
+         * @param records
+         *            The amount of records, or -1 if unknown.
+         * @param tags
+         *            The tags of the records, or null if unknown.
+         */
+        private Block(long offset, long length, long first, long last, int records, Set<String> tags) {
+            this.offset = offset;
+            this.length = length;
+            this.first = first;
+            this.last = last;
+            this.records = records;
+            this.tags = tags == null ? null : Collections.unmodifiableSet(tags);
+        }
+
+        /**
+         * Return a block of which the times and tags are unknown.
+         *
+         * @param offset
+         *            The offset of the block in the log file.
+         * @param length
+         *            The length of the block in bytes.
+         * @return The new {@link eu.parcifal.print.LogIndex.Block}.
+         */
+        private static Block unknown(long offset, long length) {
+            return new Block(offset, length, Long.MIN_VALUE, Long.MAX_VALUE, -1, null);
+        }
+
+        /**
+         * Return the offset of the current block in the log file.
+         *
+         * @return The offset in bytes.
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Return the length of the current block.
+         *
+         * @return The length in bytes.
+         */
+        public long getLength() {
+            return this.length;
+        }
+
+        /**
+         * Return the earliest time at which a record of the current block was
+         * written, or {@link java.lang.Long#MIN_VALUE} if unknown.
+         *
+         * @return The earliest time in milliseconds since the epoch.
+         */
+        public long getFirstTimestamp() {
+            return this.first;
+        }
+
+        /**
+         * Return the latest time at which a record of the current block was
+         * written, or {@link java.lang.Long#MAX_VALUE} if unknown.
+         *
+         * @return The latest time in milliseconds since the epoch.
+         */
+        public long getLastTimestamp() {
+            return this.last;
+        }
+
+        /**
+         * Return the amount of records in the current block, or -1 if
+         * unknown.
+         *
+         * @return The amount of records.
+         */
+        public int getRecordCount() {
+            return this.records;
+        }
+
+        /**
+         * Return the tags of the records in the current block, or null if
+         * they are unknown.
+         *
+         * @return The unmodifiable set of tags, or null.
+         */
+        public Set<String> getTags() {
+            return this.tags;
+        }
+
+        /**
+         * Return true if the current block may hold a record written between
+         * the specified times.
+         *
+         * @param from
+         *            The earliest time in milliseconds since the epoch.
+         * @param to
+         *            The latest time in milliseconds since the epoch.
+         * @return True if the times of the block overlap, otherwise false.
+         */
+        public boolean overlaps(long from, long to) {
+            return this.first <= to && this.last >= from;
+        }
+
+        /**
+         * Return true if the current block may hold a record with the
+         * specified tag.
+         *
+         * @param tag
+         *            The tag of a record.
+         * @return True if the tag occurs in the block or its tags are unknown,
+         *         otherwise false.
+         */
+        public boolean mayContain(String tag) {
+            return this.tags == null || this.tags.contains(tag);
+        }
+
+    }
+
+    /**
+     * Writes the index of a log file while its records are written. The
+     * position, times and tags of each record are only gathered in memory;
+     * the index is written once per block, in a single write. Like the
+     * {@link java.io.OutputStream} of any {@link eu.parcifal.print.Channel},
+     * it is only used while holding the lock of that
+     * {@link eu.parcifal.print.Channel}.
+     *
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    final static class Writer {
+
+        /**
+         * The amount of records in each block.
+         */
+        private final int interval;
+
+        /**
+         * The entries waiting to be written, being the tags defined since the
+         * last block and the section start if nothing was written yet.
+         */
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+
+        /**
+         * Writes to the entries waiting to be written.
+         */
+        private final DataOutputStream data = new DataOutputStream(this.entries);
+
+        /**
+         * The numbers of the tags defined in the current section by tag.
+         */
+        private final Map<String, Integer> tags = new HashMap<String, Integer>();
+
+        /**
+         * The numbers of the tags of the records in the current block.
+         */
+        private final BitSet blockTags = new BitSet();
+
+        /**
+         * The index file.
+         */
+        private File file;
+
+        /**
+         * Whether or not an existing index file is appended to.
+         */
+        private boolean append;
+
+        /**
+         * The {@link java.io.OutputStream} of the index file, or null if it has
+         * not been opened yet.
+         */
+        private OutputStream output;
+
+        /**
+         * The offset in the log file right after the last record.
+         */
+        private long offset;
+
+        /**
+         * The offset in the log file of the current block.
+         */
+        private long blockOffset;
+
+        /**
+         * The amount of records in the current block.
+         */
+        private int records;
+
+        /**
+         * The earliest time of a record in the current block.
+         */
+        private long first;
+
+        /**
+         * The latest time of a record in the current block.
+         */
+        private long last;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.LogIndex.Writer} for the
+         * specified log file.
+         *
+         * @param file
+         *            The log file.
+         * @param append
+         *            Whether or not records are appended to an existing log
+         *            file.
+         * @param interval
+         *            The amount of records in each block.
+         * @throws IOException
+         *             Thrown if the index cannot be started.
+         */
+        Writer(File file, boolean append, int interval) throws IOException {
+            this.interval = interval;
+
+            this.start(file, append);
+        }
+
+        /**
+         * Start the index of the specified log file, after finishing the index
+         * of the previous one.
+         *
+         * @param file
+         *            The log file.
+         * @param append
+         *            Whether or not records are appended to an existing log
+         *            file.
+         * @throws IOException
+         *             Thrown if the index cannot be started.
+         */
+        void start(File file, boolean append) throws IOException {
+            this.finish();
+
+            this.file = new File(file.getPath() + EXTENSION);
+            this.append = append;
+            this.offset = append && file.exists() ? file.length() : 0;
+            this.records = 0;
+            this.tags.clear();
+            this.entries.reset();
+            this.data.write(MAGIC);
+        }
+
+        /**
+         * Add a record to the index.
+         *
+         * @param tag
+         *            The tag of the record.
+         * @param timestamp
+         *            The time in milliseconds since the epoch at which the
+         *            record was written.
+         * @param length
+         *            The length of the record in bytes.
+         * @throws IOException
+         *             Thrown if a finished block cannot be written.
+         */
+        void record(String tag, long timestamp, int length) throws IOException {
+            if (this.records == 0) {
+                this.blockOffset = this.offset;
+                this.first = this.last = timestamp;
+            } else if (timestamp < this.first) {
+                this.first = timestamp;
+            } else if (timestamp > this.last) {
+                this.last = timestamp;
+            }
+
+            Integer number = this.tags.get(tag);
+
+            if (number == null) {
+                number = this.tags.size();
+
+                this.tags.put(tag, number);
+                this.data.writeByte(TAG);
+                this.data.writeUTF(tag);
+            }
+
+            this.blockTags.set(number);
+            this.offset += length;
+
+            if (++this.records == this.interval) {
+                this.writeBlock();
+            }
+        }
+
+        /**
+         * Write the current block, even if it is not complete, and close the
+         * index file.
+         *
+         * @throws IOException
+         *             Thrown if the block cannot be written.
+         */
+        void finish() throws IOException {
+            this.writeBlock();
+
+            if (this.output != null) {
+                this.output.close();
+                this.output = null;
+            }
+        }
+
+        /**
+         * Write the current block to the index file, together with the tags
+         * defined since the previous one, opening the index file first if
+         * needed.
+         *
+         * @throws IOException
+         *             Thrown if the block cannot be written.
+         */
+        private void writeBlock() throws IOException {
+            if (this.records == 0) {
+                return;
+            }
+
+            this.data.writeByte(BLOCK);
+            this.data.writeLong(this.blockOffset);
+            this.data.writeLong(this.offset - this.blockOffset);
+            this.data.writeLong(this.first);
+            this.data.writeLong(this.last);
+            this.data.writeInt(this.records);
+            this.data.writeInt(this.blockTags.cardinality());
+
+            for (int i = this.blockTags.nextSetBit(0); i >= 0; i = this.blockTags.nextSetBit(i + 1)) {
+                this.data.writeInt(i);
+            }
+
+            if (this.output == null) {
+                this.output = new FileOutputStream(this.file, this.append);
+            }
+
+            this.entries.writeTo(this.output);
+            this.entries.reset();
+            this.blockTags.clear();
+            this.records = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,1032 @@
+package eu.parcifal.print;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Searches a CSV log file written in the default format of the
+ * {@link eu.parcifal.print.Log}. The file is mapped into memory and split
+ * into chunks at record boundaries, which a parallel
+ * {@link java.util.stream.Stream} scans on the common
+ * {@link java.util.concurrent.ForkJoinPool}. The tag, class-name, method-name
+ * and file-name filters are regular expressions with the same meaning as the
+ * attributes of the log element, and are matched against the bytes of the
+ * file without creating strings for them. Each matching record is returned as
+ * a {@link eu.parcifal.print.LogQuery.Record} that only decodes the columns
+ * that are asked for.
+ *
+ * Records are split at line feeds, which the default format escapes in the
+ * content and fields of a record. Within the content and each field, a
+ * backslash escapes the character following it, so the first double quote
+ * that is not escaped ends the column. Files written before backslashes were
+ * escaped are read the same way, except that a content ending in a backslash
+ * is then taken to end at the last double quote of the line.
+ *
+ * @see eu.parcifal.print.LogIndex
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class LogQuery {
+
+    /**
+     * The amount of bytes up to which a chunk is scanned by a single thread
+     * instead of being split further.
+     */
+    private final static long CHUNK_SIZE = 1L << 24;
+
+    /**
+     * The largest amount of bytes mapped into memory at once.
+     */
+    private final static int WINDOW_SIZE = 1 << 26;
+
+    /**
+     * The amount of columns preceding the content in the default format.
+     */
+    private final static int COLUMNS = 12;
+
+    /**
+     * The log file to be searched.
+     */
+    private final File file;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the tag.
+     */
+    private Filter tagFilter = Filter.ANY;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source class-name.
+     */
+    private Filter classNameFilter = Filter.ANY;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source method-name.
+     */
+    private Filter methodNameFilter = Filter.ANY;
+
+    /**
+     * The {@link eu.parcifal.print.Filter} applied to the source file-name.
+     */
+    private Filter fileNameFilter = Filter.ANY;
+
+    /**
+     * The earliest time of a matching record in milliseconds since the epoch.
+     */
+    private long from = Long.MIN_VALUE;
+
+    /**
+     * The latest time of a matching record in milliseconds since the epoch.
+     */
+    private long to = Long.MAX_VALUE;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.LogQuery} matching all records
+     * of the specified log file.
+     *
+     * @param file
+     *            The log file to be searched.
+     */
+    public LogQuery(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Only match records of which the tag matches the specified regular
+     * expression entirely.
+     *
+     * @param expression
+     *            The regular expression, or null to match any tag.
+     * @return The current {@link eu.parcifal.print.LogQuery}.
+     */
+    public LogQuery tag(String expression) {
+        this.tagFilter = Filter.compile(expression);
+
+        return this;
+    }
+
+    /**
+     * Only match records of which the source class-name matches the specified
+     * regular expression entirely.
+     *
+     * @param expression
+     *            The regular expression, or null to match any class-name.
+     * @return The current {@link eu.parcifal.print.LogQuery}.
+     */
+    public LogQuery className(String expression) {
+        this.classNameFilter = Filter.compile(expression);
+
+        return this;
+    }
+
+    /**
+     * Only match records of which the source method-name matches the
+     * specified regular expression entirely.
+     *
+     * @param expression
+     *            The regular expression, or null to match any method-name.
+     * @return The current {@link eu.parcifal.print.LogQuery}.
+     */
+    public LogQuery methodName(String expression) {
+        this.methodNameFilter = Filter.compile(expression);
+
+        return this;
+    }
+
+    /**
+     * Only match records of which the source file-name matches the specified
+     * regular expression entirely.
+     *
+     * @param expression
+     *            The regular expression, or null to match any file-name.
+     * @return The current {@link eu.parcifal.print.LogQuery}.
+     */
+    public LogQuery fileName(String expression) {
+        this.fileNameFilter = Filter.compile(expression);
+
+        return this;
+    }
+
+    /**
+     * Only match records written between the specified times, inclusive.
+     *
+     * @param from
+     *            The earliest time in milliseconds since the epoch.
+     * @param to
+     *            The latest time in milliseconds since the epoch.
+     * @return The current {@link eu.parcifal.print.LogQuery}.
+     */
+    public LogQuery between(long from, long to) {
+        this.from = from;
+        this.to = to;
+
+        return this;
+    }
+
+    /**
+     * Return a parallel {@link java.util.stream.Stream} of the matching
+     * records, in the order of the log file. The log file is only read while
+     * the {@link java.util.stream.Stream} is consumed, and is closed when the
+     * {@link java.util.stream.Stream} is.
+     *
+     * @return The {@link java.util.stream.Stream} of matching records.
+     * @throws IOException
+     *             Thrown if the log file cannot be opened.
+     */
+    public Stream<Record> stream() throws IOException {
+        FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+        Scan scan = new Scan(channel, 0, channel.size(), this.from == Long.MIN_VALUE ? Long.MIN_VALUE
+                : Clock.toLocalMillis(this.from), this.to == Long.MAX_VALUE ? Long.MAX_VALUE
+                        : Clock.toLocalMillis(this.to));
+
+        return StreamSupport.stream(scan, true).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    /**
+     * Return true if the bytes of the specified column are all ASCII, so that
+     * each byte is a character.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param start
+     *            The position of the first byte.
+     * @param end
+     *            The position after the last byte.
+     * @return True if all bytes are ASCII, otherwise false.
+     */
+    private static boolean isAscii(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decode the specified bytes as UTF-8.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param start
+     *            The position of the first byte.
+     * @param end
+     *            The position after the last byte.
+     * @return The decoded string.
+     */
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+
+        buffer.get(start, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode the specified bytes as UTF-8, undoing the escapes of the default
+     * format.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param start
+     *            The position of the first byte.
+     * @param end
+     *            The position after the last byte.
+     * @return The decoded and unescaped string.
+     */
+    private static String unescape(ByteBuffer buffer, int start, int end) {
+        String escaped = decode(buffer, start, end);
+
+        if (escaped.indexOf('\\') < 0) {
+            return escaped;
+        }
+
+        StringBuilder unescaped = new StringBuilder(escaped.length());
+
+        for (int i = 0; i < escaped.length(); i++) {
+            char character = escaped.charAt(i);
+
+            if (character == '\\' && i + 1 < escaped.length()) {
+                char escape = escaped.charAt(i + 1);
+
+                if (escape == '\\' || escape == '"' || escape == 'r' || escape == 'n') {
+                    unescaped.append(escape == 'r' ? '\r' : escape == 'n' ? '\n' : escape);
+                    i++;
+
+                    continue;
+                }
+            }
+
+            unescaped.append(character);
+        }
+
+        return unescaped.toString();
+    }
+
+    /**
+     * Parse the specified bytes as a non-negative decimal number.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param start
+     *            The position of the first byte.
+     * @param end
+     *            The position after the last byte.
+     * @return The number, or -1 if the bytes are empty or not all digits.
+     */
+    private static int parseNumber(ByteBuffer buffer, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+
+        int number = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            number = number * 10 + digit;
+        }
+
+        return number;
+    }
+
+    /**
+     * Find the bounds of the columns of the record between the specified
+     * positions and store them in the specified array: the start and end of
+     * each of the {@link eu.parcifal.print.LogQuery#COLUMNS} columns preceding
+     * the content, followed by those of the content and of the fields
+     * following it.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param start
+     *            The position of the first byte of the record.
+     * @param end
+     *            The position of the line feed ending the record.
+     * @param bounds
+     *            The array receiving the bounds.
+     * @return True if the record has the default format, otherwise false.
+     */
+    private static boolean split(ByteBuffer buffer, int start, int end, int[] bounds) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        int position = start;
+
+        for (int column = 0; column < COLUMNS; column++) {
+            bounds[column * 2] = position;
+
+            while (position < end && buffer.get(position) != ';') {
+                position++;
+            }
+
+            if (position == end) {
+                return false;
+            }
+
+            bounds[column * 2 + 1] = position++;
+        }
+
+        if (position == end || buffer.get(position) != '"') {
+            return false;
+        }
+
+        int content = ++position;
+
+        position = closingQuote(buffer, position, end);
+
+        if (position == end) {
+            // an unescaped backslash ending the content of an older file
+            position = end - 1;
+
+            while (position >= content && buffer.get(position) != '"') {
+                position--;
+            }
+
+            if (position < content) {
+                return false;
+            }
+        }
+
+        bounds[COLUMNS * 2] = content;
+        bounds[COLUMNS * 2 + 1] = position;
+        bounds[COLUMNS * 2 + 2] = position + 1;
+        bounds[COLUMNS * 2 + 3] = end;
+
+        return true;
+    }
+
+    /**
+     * Return the position of the first double quote between the specified
+     * positions that is not escaped by a backslash.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param position
+     *            The position of the first byte of the escaped column.
+     * @param end
+     *            The position after the last byte of the record.
+     * @return The position of the closing quote, or the specified end if
+     *         there is none.
+     */
+    private static int closingQuote(ByteBuffer buffer, int position, int end) {
+        while (position < end) {
+            byte b = buffer.get(position);
+
+            if (b == '"') {
+                return position;
+            }
+
+            position += b == '\\' ? 2 : 1;
+        }
+
+        return end;
+    }
+
+    /**
+     * Return the local time of the record of which the bounds of the columns
+     * are specified, counted in milliseconds as if it were UTC.
+     *
+     * @param buffer
+     *            The mapped bytes.
+     * @param bounds
+     *            The bounds of the columns of the record.
+     * @return The local time, or {@link java.lang.Long#MIN_VALUE} if the date
+     *         columns cannot be parsed.
+     */
+    private static long localMillis(ByteBuffer buffer, int[] bounds) {
+        int year = parseNumber(buffer, bounds[2], bounds[3]);
+        int month = parseNumber(buffer, bounds[4], bounds[5]);
+        int day = parseNumber(buffer, bounds[6], bounds[7]);
+        int hour = parseNumber(buffer, bounds[8], bounds[9]);
+        int minute = parseNumber(buffer, bounds[10], bounds[11]);
+        int second = parseNumber(buffer, bounds[12], bounds[13]);
+        int millisecond = parseNumber(buffer, bounds[14], bounds[15]);
+
+        if ((year | month | day | hour | minute | second | millisecond) < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        try {
+            return LocalDate.of(year, month, day).toEpochDay() * 86400000L + hour * 3600000L + minute * 60000L
+                    + second * 1000L + millisecond;
+        } catch (DateTimeException exception) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * A record of a log file, of which the columns are only decoded when
+     * asked for. It refers to the mapped bytes of the log file, so it stays
+     * valid after the {@link java.util.stream.Stream} that returned it has
+     * been closed.
+     *
+     * @author Michaël van de Weerd
+     * @version 17.10.2026
+     * @since 17.10.2026
+     */
+    public final static class Record {
+
+        /**
+         * The mapped bytes holding the record.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The offset of the record in the log file.
+         */
+        private final long offset;
+
+        /**
+         * The bounds of the columns of the record in the mapped bytes.
+         */
+        private final int[] bounds;
+
+        /**
+         * The local time of the record, counted in milliseconds as if it were
+         * UTC.
+         */
+        private final long localMillis;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.LogQuery.Record}.
+         *
+         * @param buffer
+         *            The mapped bytes holding the record.
+         * @param offset
+         *            The offset of the record in the log file.
+         * @param bounds
+         *            The bounds of the columns of the record.
+         * @param localMillis
+         *            The local time of the record.
+         */
+        private Record(ByteBuffer buffer, long offset, int[] bounds, long localMillis) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.bounds = bounds;
+            this.localMillis = localMillis;
+        }
+
+        /**
+         * Return the offset of the current record in the log file.
+         *
+         * @return The offset in bytes.
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Return the tag of the current record.
+         *
+         * @return The tag.
+         */
+        public String getTag() {
+            return this.column(0);
+        }
+
+        /**
+         * Return the local date-time at which the current record was written.
+         *
+         * @return The local date-time.
+         */
+        public LocalDateTime getDateTime() {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(this.localMillis, 1000L),
+                    (int) Math.floorMod(this.localMillis, 1000L) * 1000000, ZoneOffset.UTC);
+        }
+
+        /**
+         * Return the time at which the current record was written, assuming
+         * it was written in the time-zone of the current system.
+         *
+         * @return The time in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return this.getDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        /**
+         * Return the class-name of the source of the current record.
+         *
+         * @return The class-name, or an empty string if it was not captured.
+         */
+        public String getSourceClassName() {
+            return this.column(8);
+        }
+
+        /**
+         * Return the method-name of the source of the current record.
+         *
+         * @return The method-name, or an empty string if it was not captured.
+         */
+        public String getSourceMethodName() {
+            return this.column(9);
+        }
+
+        /**
+         * Return the file-name of the source of the current record.
+         *
+         * @return The file-name, or an empty string if it was not captured.
+         */
+        public String getSourceFileName() {
+            return this.column(10);
+        }
+
+        /**
+         * Return the line-number of the source of the current record.
+         *
+         * @return The line-number, or -1 if it was not captured.
+         */
+        public int getSourceLineNumber() {
+            return parseNumber(this.buffer, this.bounds[22], this.bounds[23]);
+        }
+
+        /**
+         * Return the content of the current record, unescaped.
+         *
+         * @return The content.
+         */
+        public String getContent() {
+            return unescape(this.buffer, this.bounds[COLUMNS * 2], this.bounds[COLUMNS * 2 + 1]);
+        }
+
+        /**
+         * Return the {@link eu.parcifal.print.Field}s of the current record,
+         * of which the values are unescaped strings.
+         *
+         * @return The {@link eu.parcifal.print.Field}s, in the order in which
+         *         they were written.
+         */
+        public List<Field> getFields() {
+            int start = this.bounds[COLUMNS * 2 + 2];
+            int end = this.bounds[COLUMNS * 2 + 3];
+
+            if (start >= end) {
+                return Collections.emptyList();
+            }
+
+            List<Field> fields = new ArrayList<Field>();
+
+            // each field is a ;"name=value" column of its own, split before unescaping
+            while (start + 1 < end && this.buffer.get(start) == ';' && this.buffer.get(start + 1) == '"') {
+                int closing = closingQuote(this.buffer, start + 2, end);
+                String column = unescape(this.buffer, start + 2, closing);
+                int separator = column.indexOf('=');
+
+                fields.add(separator < 0 ? Field.of(column, "")
+                        : Field.of(column.substring(0, separator), column.substring(separator + 1)));
+
+                start = closing + 1;
+            }
+
+            return fields;
+        }
+
+        /**
+         * Return the current record as it was written, without its line
+         * break.
+         *
+         * @return The line of the current record.
+         */
+        @Override
+        public String toString() {
+            return decode(this.buffer, this.bounds[0], this.bounds[COLUMNS * 2 + 3]);
+        }
+
+        /**
+         * Decode the specified column preceding the content.
+         *
+         * @param column
+         *            The number of the column.
+         * @return The decoded column.
+         */
+        private String column(int column) {
+            return decode(this.buffer, this.bounds[column * 2], this.bounds[column * 2 + 1]);
+        }
+
+    }
+
+    /**
+     * A {@link java.lang.CharSequence} of ASCII bytes in a mapped buffer, so
+     * that a {@link eu.parcifal.print.Filter} can match a column without a
+     * string being created for it. Reused for each column a thread matches.
+     */
+    private final static class Text implements CharSequence {
+
+        /**
+         * The mapped bytes.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * The position of the first byte.
+         */
+        private int start;
+
+        /**
+         * The amount of bytes.
+         */
+        private int length;
+
+        /**
+         * Let the current {@link eu.parcifal.print.LogQuery.Text} refer to the
+         * specified bytes.
+         *
+         * @param buffer
+         *            The mapped bytes.
+         * @param start
+         *            The position of the first byte.
+         * @param end
+         *            The position after the last byte.
+         * @return The current {@link eu.parcifal.print.LogQuery.Text}, or the
+         *         decoded bytes if they are not all ASCII.
+         */
+        CharSequence set(ByteBuffer buffer, int start, int end) {
+            if (!isAscii(buffer, start, end)) {
+                return decode(buffer, start, end);
+            }
+
+            this.buffer = buffer;
+            this.start = start;
+            this.length = end - start;
+
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) this.buffer.get(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return decode(this.buffer, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return decode(this.buffer, this.start, this.start + this.length);
+        }
+
+    }
+
+    /**
+     * Scans a part of the log file that starts and ends at a record boundary,
+     * splitting off halves for other threads as long as it is larger than
+     * {@link eu.parcifal.print.LogQuery#CHUNK_SIZE}, and maps it into memory
+     * one window at a time.
+     */
+    private final class Scan implements Spliterator<Record> {
+
+        /**
+         * The log file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The offset in the log file of the first record not mapped yet.
+         */
+        private long start;
+
+        /**
+         * The offset in the log file after the last record of the part.
+         */
+        private final long end;
+
+        /**
+         * The earliest local time of a matching record.
+         */
+        private final long localFrom;
+
+        /**
+         * The latest local time of a matching record.
+         */
+        private final long localTo;
+
+        /**
+         * The mapped window, or null if none has been mapped yet.
+         */
+        private ByteBuffer window;
+
+        /**
+         * The offset in the log file of the mapped window.
+         */
+        private long windowOffset;
+
+        /**
+         * The position in the window after its last complete record.
+         */
+        private int windowEnd;
+
+        /**
+         * The position in the window of the next record.
+         */
+        private int position;
+
+        /**
+         * The bounds of the columns of the record being matched.
+         */
+        private final int[] bounds = new int[COLUMNS * 2 + 4];
+
+        /**
+         * The view matched by the {@link eu.parcifal.print.Filter}s.
+         */
+        private final Text text = new Text();
+
+        /**
+         * Construct a new {@link eu.parcifal.print.LogQuery.Scan}.
+         *
+         * @param channel
+         *            The log file.
+         * @param start
+         *            The offset of the first record of the part.
+         * @param end
+         *            The offset after the last record of the part.
+         * @param localFrom
+         *            The earliest local time of a matching record.
+         * @param localTo
+         *            The latest local time of a matching record.
+         */
+        Scan(FileChannel channel, long start, long end, long localFrom, long localTo) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.localFrom = localFrom;
+            this.localTo = localTo;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Record> action) {
+            try {
+                while (true) {
+                    if (this.window == null || this.position >= this.windowEnd) {
+                        if (this.start >= this.end) {
+                            return false;
+                        }
+
+                        this.map();
+                    }
+
+                    int recordStart = this.position;
+
+                    // skip the zero bytes of a memory-mapped log file that was
+                    // not truncated
+                    while (recordStart < this.windowEnd && this.window.get(recordStart) == 0) {
+                        recordStart++;
+                    }
+
+                    if (recordStart == this.windowEnd) {
+                        this.position = recordStart;
+
+                        continue;
+                    }
+
+                    int recordEnd = recordStart;
+
+                    while (recordEnd < this.windowEnd && this.window.get(recordEnd) != '\n') {
+                        recordEnd++;
+                    }
+
+                    this.position = recordEnd + 1;
+
+                    Record record = this.match(recordStart, recordEnd);
+
+                    if (record != null) {
+                        action.accept(record);
+
+                        return true;
+                    }
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public Spliterator<Record> trySplit() {
+            if (this.window != null || this.end - this.start <= CHUNK_SIZE) {
+                return null;
+            }
+
+            try {
+                long middle = this.boundary(this.start + (this.end - this.start) / 2);
+
+                if (middle >= this.end) {
+                    return null;
+                }
+
+                Scan prefix = new Scan(this.channel, this.start, middle, this.localFrom, this.localTo);
+
+                this.start = middle;
+
+                return prefix;
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.start + (this.window == null ? 0 : this.windowEnd - this.position);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        /**
+         * Return the offset in the log file right after the first line feed
+         * at or after the specified offset.
+         *
+         * @param offset
+         *            The offset to start looking at.
+         * @return The offset of the next record boundary, or the end of the
+         *         part if there is none.
+         * @throws IOException
+         *             Thrown if the log file cannot be read.
+         */
+        private long boundary(long offset) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+            while (offset < this.end) {
+                buffer.clear();
+
+                int read = this.channel.read(buffer, offset);
+
+                if (read <= 0) {
+                    break;
+                }
+
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return offset + i + 1;
+                    }
+                }
+
+                offset += read;
+            }
+
+            return this.end;
+        }
+
+        /**
+         * Map the next window of the part into memory, ending it after the
+         * last complete record it holds.
+         *
+         * @throws IOException
+         *             Thrown if the log file cannot be mapped.
+         */
+        private void map() throws IOException {
+            long size = Math.min(this.end - this.start, WINDOW_SIZE);
+            MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.start, size);
+            int windowEnd = (int) size;
+
+            if (this.start + size < this.end) {
+                while (windowEnd > 0 && window.get(windowEnd - 1) != '\n' && window.get(windowEnd - 1) != 0) {
+                    windowEnd--;
+                }
+
+                if (windowEnd == 0) {
+                    throw new IOException("record at " + this.start + " exceeds " + WINDOW_SIZE + " bytes");
+                }
+            }
+
+            this.window = window;
+            this.windowOffset = this.start;
+            this.windowEnd = windowEnd;
+            this.position = 0;
+            this.start += windowEnd;
+        }
+
+        /**
+         * Return the record between the specified positions of the window if
+         * it matches the {@link eu.parcifal.print.LogQuery}, otherwise null.
+         *
+         * @param recordStart
+         *            The position of the first byte of the record.
+         * @param recordEnd
+         *            The position of the line feed ending the record.
+         * @return The matching {@link eu.parcifal.print.LogQuery.Record}, or
+         *         null.
+         */
+        private Record match(int recordStart, int recordEnd) {
+            ByteBuffer window = this.window;
+            int[] bounds = this.bounds;
+
+            if (!split(window, recordStart, recordEnd, bounds)
+                    || !this.matches(LogQuery.this.tagFilter, 0)
+                    || !this.matches(LogQuery.this.classNameFilter, 8)
+                    || !this.matches(LogQuery.this.methodNameFilter, 9)
+                    || !this.matches(LogQuery.this.fileNameFilter, 10)) {
+                return null;
+            }
+
+            long localMillis = localMillis(window, bounds);
+
+            if (localMillis < this.localFrom || localMillis > this.localTo) {
+                return null;
+            }
+
+            return new Record(window, this.windowOffset + recordStart, bounds.clone(), localMillis);
+        }
+
+        /**
+         * Return true if the specified column of the record being matched
+         * matches the specified {@link eu.parcifal.print.Filter}.
+         *
+         * @param filter
+         *            The {@link eu.parcifal.print.Filter}.
+         * @param column
+         *            The number of the column.
+         * @return True if the column matches, otherwise false.
+         */
+        private boolean matches(Filter filter, int column) {
+            return filter.acceptsAny()
+                    || filter.matches(this.text.set(this.window, this.bounds[column * 2], this.bounds[column * 2 + 1]));
+        }
+
+    }
+
+    /**
+     * Print the lines of the records in a log file that match the specified
+     * tag, class-name, method-name and file-name expressions, in the order of
+     * the log file.
+     *
+     * @param arguments
+     *            The log file, followed by up to four regular expressions
+     *            for the tag, class-name, method-name and file-name.
+     * @throws IOException
+     *             Thrown if the log file cannot be read.
+     */
+    public static void main(String[] arguments) throws IOException {
+        if (arguments.length < 1 || arguments.length > 5) {
+            System.err.println(
+                    "usage: java eu.parcifal.print.LogQuery <file> [tag] [class-name] [method-name] [file-name]");
+
+            return;
+        }
+
+        LogQuery query = new LogQuery(new File(arguments[0]));
+
+        query.tag(arguments.length > 1 ? arguments[1] : null);
+        query.className(arguments.length > 2 ? arguments[2] : null);
+        query.methodName(arguments.length > 3 ? arguments[3] : null);
+        query.fileName(arguments.length > 4 ? arguments[4] : null);
+
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        try (Stream<Record> records = query.stream()) {
+            records.forEachOrdered(record -> {
+                try {
+                    output.write(record.toString());
+                    output.write("\r\n");
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }
+
+        output.flush();
+    }
+
+}
@@ -0,0 +1,181 @@
+package eu.parcifal.print;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link java.io.OutputStream} appending to a file through a
+ * {@link java.nio.MappedByteBuffer}. The file is mapped in large regions, so
+ * that writing is a plain memory copy into the page cache. Once a region is
+ * full the next one is mapped. On {@link #close()} the file is truncated to
+ * the amount of bytes actually written, except on Windows, which refuses to
+ * truncate a file while a region of it is still mapped. A
+ * {@link java.nio.MappedByteBuffer} is only unmapped once it is garbage
+ * collected, so there the file keeps its run of zero bytes up to the end of
+ * the last mapped region, and appending to it later starts after that run.
+ * {@link eu.parcifal.print.LogQuery} and {@link eu.parcifal.print.LogDecoder}
+ * skip such runs.
+ *
+ * Crash semantics: {@link #flush()} does not force anything to disk, it
+ * returns immediately. Bytes written before the JVM crashes or is killed are
+ * already in the page cache and are written back by the operating system.
+ * Because the file is not truncated in that case, it ends in a run of zero
+ * bytes up to the end of the last mapped region, which readers should ignore.
+ * Bytes that the operating system has not written back before it crashes or
+ * loses power are lost. {@link #close()} forces the last region to disk before
+ * truncating.
+ *
+ * @see eu.parcifal.print.LogChannel
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class MappedOutputStream extends OutputStream {
+
+    /**
+     * The default size of a mapped region in bytes.
+     */
+    final static int DEFAULT_REGION_SIZE = 64 << 20;
+
+    /**
+     * Indicates whether or not the file is truncated to the amount of bytes
+     * written when it is closed.
+     */
+    final static boolean TRUNCATES = !System.getProperty("os.name", "").startsWith("Windows");
+
+    /**
+     * The {@link java.nio.channels.FileChannel} of the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of a mapped region in bytes.
+     */
+    private final int regionSize;
+
+    /**
+     * The currently mapped region.
+     */
+    private MappedByteBuffer region;
+
+    /**
+     * The position in the file at which the current region starts.
+     */
+    private long regionStart;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.MappedOutputStream} writing to
+     * the specified file, which is emptied first like a
+     * {@link java.io.FileOutputStream} would.
+     *
+     * @param file
+     *            The file to be written to.
+     * @param regionSize
+     *            The size of a mapped region in bytes.
+     * @throws IOException
+     *             Thrown if the file cannot be opened or mapped.
+     */
+    MappedOutputStream(File file, int regionSize) throws IOException {
+        this(file, regionSize, false);
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.MappedOutputStream} writing to
+     * the specified file, which is either emptied first or appended to.
+     *
+     * @param file
+     *            The file to be written to.
+     * @param regionSize
+     *            The size of a mapped region in bytes.
+     * @param append
+     *            Whether or not the file is appended to instead of emptied.
+     * @throws IOException
+     *             Thrown if the file cannot be opened or mapped.
+     */
+    MappedOutputStream(File file, int regionSize, boolean append) throws IOException {
+        this.channel = append
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)
+                : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.regionSize = regionSize;
+        this.regionStart = append ? this.channel.size() : 0;
+        this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, this.regionStart, regionSize);
+    }
+
+    /**
+     * Return the amount of bytes written to the file.
+     *
+     * @return The amount of bytes written.
+     */
+    long position() {
+        return this.regionStart + this.region.position();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!this.region.hasRemaining()) {
+            this.remap();
+        }
+
+        this.region.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!this.region.hasRemaining()) {
+                this.remap();
+            }
+
+            int count = Math.min(length, this.region.remaining());
+
+            this.region.put(bytes, offset, count);
+
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void flush() {
+        // the page cache writes the mapped regions back
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.channel.isOpen()) {
+            return;
+        }
+
+        long length = this.position();
+
+        this.region.force();
+        this.region = null;
+
+        try {
+            if (TRUNCATES) {
+                this.channel.truncate(length);
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Map the region following the current one.
+     *
+     * @throws IOException
+     *             Thrown if the region cannot be mapped.
+     */
+    private void remap() throws IOException {
+        this.regionStart += this.region.capacity();
+        this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, this.regionStart, this.regionSize);
+    }
+
+}
@@ -1,85 +1,206 @@
-package eu.parcifal.print;
-
-import java.util.Collection;
-
-/**
- * Associates a variable amount of {@link eu.parcifal.print.Channel}s with a
- * {@link eu.parcifal.print.Printable} and can print the contained
- * {@eu.parcifal.print.Printable} to all {@eu.parcifal.print.Channel}s.
- * 
- * @see eu.parcifal.print.Printable
- * @see eu.parcifal.print.Channel
- * 
- * @author Michal van de Weerd
- * @version 12.05.2016
- * @since 28.04.2016
- */
-public class Print {
-
-    /**
-     * The {@link eu.parcifal.print.Printable} of the current
-     * {@link eu.parcifal.print.Print}.
-     */
-    private final Printable printable;
-
-    /**
-     * A {@link java.util.Collection} of {@link eu.parcifal.print.Channel}s to
-     * which the current {@link eu.parcifal.print.Print} prints.
-     */
-    private final Collection<Channel> channels;
-
-    /**
-     * Construct a new {@link eu.parcifal.print.Print}, containing the specified
-     * {@link eu.parcifal.print.Printable} and {@link eu.parcifal.print.Channel}
-     * s.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be printed by the
-     *            new {@link eu.parcifal.print.Print}.
-     * @param channels
-     *            The {@link eu.parcifal.print.Channel}s to which the specified
-     *            {@link eu.parcifal.print.Printable} must be printed.
-     */
-    public Print(Printable printable, Collection<Channel> channels) {
-        this.printable = printable;
-        this.channels = channels;
-    }
-
-    /**
-     * Return the {@link eu.parcifal.print.Printable} of the current
-     * {@link eu.parcifal.print.Print}.
-     * 
-     * @return The {@link eu.parcifal.print.Printable} of the current
-     *         {@link eu.parcifal.print.Print}.
-     */
-    public final Printable getPrintable() {
-        return this.printable;
-    }
-
-    /**
-     * Return the {@link java.util.Collection} of
-     * {@link eu.parcifal.print.Channel}s of the current
-     * {@link eu.parcifal.print.Print}.
-     * 
-     * @return The {@link java.util.Collection} of
-     *         {@link eu.parcifal.print.Channel}s of the current
-     *         {@link eu.parcifal.print.Print}.
-     */
-    public final Collection<Channel> getChannels() {
-        return this.channels;
-    }
-
-    /**
-     * Execute the current {@link eu.parcifal.print.Print}.
-     * 
-     * @return The current {@link eu.parcifal.print.Print}.
-     */
-    final Print execute() {
-        for (Channel channel : this.channels) {
-            channel.print(this.printable);
-        }
-
-        return this;
-    }
-
-}
+package eu.parcifal.print;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+/**
+ * Associates a variable amount of {@link eu.parcifal.print.Channel}s with a
+ * {@link eu.parcifal.print.Printable} and can print the contained
+ * {@eu.parcifal.print.Printable} to all {@eu.parcifal.print.Channel}s.
+ * 
+ * @see eu.parcifal.print.Printable
+ * @see eu.parcifal.print.Channel
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 28.04.2016
+ */
+public class Print extends Job {
+
+    /**
+     * The shared {@link eu.parcifal.print.Print} returned when nothing is
+     * printed at all, such as a debug message while debug messages are turned
+     * off. It contains no {@link eu.parcifal.print.Printable} and no
+     * {@link eu.parcifal.print.Channel}s.
+     */
+    final static Print NONE = new Print(null, Collections.<Channel> emptyList());
+
+    /**
+     * The {@link eu.parcifal.print.Printable} of the current
+     * {@link eu.parcifal.print.Print}.
+     */
+    private Printable printable;
+
+    /**
+     * A {@link java.util.Collection} of {@link eu.parcifal.print.Channel}s to
+     * which the current {@link eu.parcifal.print.Print} prints.
+     */
+    private Collection<Channel> channels;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Print}, containing the specified
+     * {@link eu.parcifal.print.Printable} and {@link eu.parcifal.print.Channel}
+     * s.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed by the
+     *            new {@link eu.parcifal.print.Print}.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable} must be printed.
+     */
+    public Print(Printable printable, Collection<Channel> channels) {
+        this.printable = printable;
+        this.channels = channels;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Printable} of the current
+     * {@link eu.parcifal.print.Print}.
+     * 
+     * @return The {@link eu.parcifal.print.Printable} of the current
+     *         {@link eu.parcifal.print.Print}.
+     */
+    public final Printable getPrintable() {
+        return this.printable;
+    }
+
+    /**
+     * Return the {@link java.util.Collection} of
+     * {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Print}.
+     * 
+     * @return The {@link java.util.Collection} of
+     *         {@link eu.parcifal.print.Channel}s of the current
+     *         {@link eu.parcifal.print.Print}.
+     */
+    @Override
+    public final Collection<Channel> getChannels() {
+        return this.channels;
+    }
+
+    /**
+     * Execute the current {@link eu.parcifal.print.Print}.
+     * 
+     * @return The current {@link eu.parcifal.print.Print}.
+     */
+    @Override
+    Print execute() {
+        if (this.channels instanceof List && this.channels instanceof RandomAccess) {
+            List<Channel> channels = (List<Channel>) this.channels;
+
+            for (int i = 0; i < channels.size(); i++) {
+                channels.get(i).print(this.printable);
+            }
+        } else {
+            for (Channel channel : this.channels) {
+                channel.print(this.printable);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Prepare the current {@link eu.parcifal.print.Print} to be executed by
+     * another thread: settle the source of its
+     * {@link eu.parcifal.print.Printable} and build its content from the
+     * arguments, both of which are only possible on the thread that requested
+     * the {@link eu.parcifal.print.Print}.
+     */
+    @Override
+    void detach() {
+        this.settle();
+        this.printable.detach();
+    }
+
+    /**
+     * Settle the source of the {@link eu.parcifal.print.Printable} of the
+     * current {@link eu.parcifal.print.Print} before the
+     * {@link eu.parcifal.print.Print} leaves the thread that requested it:
+     * look it up if one of its {@link eu.parcifal.print.Channel}s captures
+     * the location, and leave it unknown otherwise.
+     */
+    @Override
+    void settle() {
+        if (this.printable == null || this.printable.isLocated()) {
+            return;
+        }
+
+        boolean locate = false;
+
+        if (this.channels instanceof List && this.channels instanceof RandomAccess) {
+            List<Channel> channels = (List<Channel>) this.channels;
+
+            for (int i = 0; i < channels.size() && !locate; i++) {
+                locate = channels.get(i).capturesLocation();
+            }
+        } else {
+            for (Channel channel : this.channels) {
+                if (channel.capturesLocation()) {
+                    locate = true;
+
+                    break;
+                }
+            }
+        }
+
+        this.printable.settle(locate);
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Print} may not be
+     * dropped under the
+     * {@link eu.parcifal.print.Dispatcher.Policy#DROP_LOWEST_TAG} policy.
+     * 
+     * @return True if the tag of the {@link eu.parcifal.print.Printable} is
+     *         "warning" or "error", otherwise false.
+     */
+    @Override
+    boolean isHighPriority() {
+        String tag = this.printable.getTag();
+
+        return "error".equals(tag) || "warning".equals(tag);
+    }
+
+    /**
+     * Let the current {@link eu.parcifal.print.Print} contain the specified
+     * {@link eu.parcifal.print.Printable} and
+     * {@link eu.parcifal.print.Channel}s, so that it can be executed again
+     * without allocating a new one.
+     * 
+     * @param printable
+     *            The new {@link eu.parcifal.print.Printable}.
+     * @param channels
+     *            The new {@link eu.parcifal.print.Channel}s.
+     * @return The current {@link eu.parcifal.print.Print}.
+     */
+    final Print reset(Printable printable, Collection<Channel> channels) {
+        this.printable = printable;
+        this.channels = channels;
+
+        return this;
+    }
+
+    /**
+     * Call each of the specified {@link java.util.function.Supplier}s and
+     * return their results, to be used as arguments for formatting a message.
+     * 
+     * @param suppliers
+     *            The {@link java.util.function.Supplier}s of the arguments.
+     * @return The supplied arguments.
+     */
+    final static Object[] supply(Supplier<?>[] suppliers) {
+        Object[] arguments = new Object[suppliers.length];
+
+        for (int i = 0; i < suppliers.length; i++) {
+            arguments[i] = suppliers[i].get();
+        }
+
+        return arguments;
+    }
+
+}
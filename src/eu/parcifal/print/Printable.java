@@ -1,186 +1,562 @@
-package eu.parcifal.print;
-
-import java.time.LocalDateTime;
-import java.util.regex.Pattern;
-
-/**
- * Contains a message and its meta-data to be used by a
- * {@link eu.parcifal.print.Print}.
- * 
- * @see eu.parcifal.print.Print
- * 
- * @author Michal van de Weerd
- * @version 12.05.2016
- * @since 28.04.2016
- */
-public class Printable {
-
-    /**
-     * The tag of the current {@link eu.parcifal.print.Printable}.
-     */
-    private final String tag;
-
-    /**
-     * The content of the current {@link eu.parcifal.print.Printable}.
-     */
-    private final String content;
-
-    /**
-     * The {@link java.time.LocalDateTime} at which the current
-     * {@link eu.parcifal.print.Printable} was created.
-     */
-    private final LocalDateTime dateTime = LocalDateTime.now();
-
-    /**
-     * The class-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     */
-    private final String sourceClassName;
-
-    /**
-     * The method-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     */
-    private final String sourceMethodName;
-
-    /**
-     * The file-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     */
-    private final String sourceFileName;
-
-    /**
-     * The line-number of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     */
-    private final int sourceLineNumber;
-
-    /**
-     * Construct a new {@link eu.parcifal.print.Printable} containing the
-     * specified tag and content.
-     * 
-     * @param tag
-     *            The tag of the current {@link eu.parcifal.print.Printable}.
-     * @param content
-     *            The content of the current {@link eu.parcifal.print.Printable}
-     *            .
-     */
-    protected Printable(String tag, String content) {
-        this.tag = tag;
-        this.content = content;
-
-        StackTraceElement source = null;
-
-        for (StackTraceElement element : new Throwable().getStackTrace()) {
-            if (!Pattern.matches("^eu\\.parcifal\\.print.*", element.getClassName())) {
-                source = element;
-
-                break;
-            }
-        }
-
-        this.sourceClassName = source.getClassName();
-        this.sourceMethodName = source.getMethodName();
-        this.sourceFileName = source.getFileName();
-        this.sourceLineNumber = source.getLineNumber();
-    }
-
-    /**
-     * Return the tag of the current {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The tag of the current {@link eu.parcifal.print.Printable}.
-     */
-    public final String getTag() {
-        return this.tag;
-    }
-
-    /**
-     * Return the content of the current {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The content of the current {@link eu.parcifal.print.Printable}.
-     */
-    public final String getContent() {
-        return this.content;
-    }
-
-    /**
-     * Return the {@link java.time.LocalDateTime} at which the current
-     * {@link eu.parcifal.print.Printable} was created.
-     * 
-     * @return The {@link java.time.LocalDateTime} at which the current
-     *         {@link eu.parcifal.print.Printable} was created.
-     */
-    public final LocalDateTime getDateTime() {
-        return this.dateTime;
-    }
-
-    /**
-     * Return the class-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The class-name of the source of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public final String getSourceClassName() {
-        return this.sourceClassName;
-    }
-
-    /**
-     * Return the method-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The method-name of the source of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public final String getSourceMethodName() {
-        return this.sourceMethodName;
-    }
-
-    /**
-     * Return the file-name of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The file-name of the source of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public final String getSourceFileName() {
-        return this.sourceFileName;
-    }
-
-    /**
-     * Return the line-number of the source of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The line-number of the source of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public final int getSourceLineNumber() {
-        return this.sourceLineNumber;
-    }
-
-    /**
-     * Return the amount of lines in the content of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @return The amount of lines in the content of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public int getContentLineCount() {
-        return 0;
-    }
-
-    /**
-     * Return the specified line in the content of the current
-     * {@link eu.parcifal.print.Printable}.
-     * 
-     * @param number
-     *            The number of the line in the content of the current
-     *            {@link eu.parcifal.print.Printable} to be returned.
-     * @return The specified line in the content of the current
-     *         {@link eu.parcifal.print.Printable}.
-     */
-    public String getLine(int number) {
-        throw new RuntimeException(this.getClass().getName() + "#getLine has no implementation");
-    }
-
-}
+package eu.parcifal.print;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Contains a message and its meta-data to be used by a
+ * {@link eu.parcifal.print.Print}.
+ * 
+ * The source of a {@link eu.parcifal.print.Printable} is the first frame on the
+ * call stack outside of the eu.parcifal.print package. It is looked up the
+ * first time it is requested, which has to happen on the thread that created
+ * the {@link eu.parcifal.print.Printable} while it is being printed. Before a
+ * {@link eu.parcifal.print.Print} is handed to another thread or returned to
+ * its caller the {@link eu.parcifal.print.Printer} settles the source: it is
+ * looked up if one of the {@link eu.parcifal.print.Channel}s captures the
+ * location, and is otherwise left unknown, so that it is never looked up from
+ * an unrelated call stack later on.
+ * 
+ * The content can also be given as a format with its arguments, in which case
+ * it is only formatted once a {@link eu.parcifal.print.Channel} that accepted
+ * the {@link eu.parcifal.print.Printable} writes it. Arguments that are
+ * {@link eu.parcifal.print.Field}s are formatted as their value and kept as the
+ * fields of the {@link eu.parcifal.print.Printable}.
+ * 
+ * @see eu.parcifal.print.Print
+ * @see eu.parcifal.print.Field
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 28.04.2016
+ */
+public class Printable {
+
+    /**
+     * The name of the package whose frames are skipped when looking up the
+     * source of a {@link eu.parcifal.print.Printable}.
+     */
+    private final static String LIBRARY_PACKAGE = "eu.parcifal.print.";
+
+    /**
+     * The {@link java.lang.StackWalker} used to look up the source of each
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private final static StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    /**
+     * The tag of the current {@link eu.parcifal.print.Printable}.
+     */
+    private String tag;
+
+    /**
+     * The content of the current {@link eu.parcifal.print.Printable}, or null
+     * if it has not been formatted yet.
+     */
+    private volatile String content;
+
+    /**
+     * The format of the content, or null if the content was given as is.
+     */
+    private String format;
+
+    /**
+     * The arguments of the format, with each {@link eu.parcifal.print.Field}
+     * replaced by its value.
+     */
+    private Object[] arguments;
+
+    /**
+     * The {@link eu.parcifal.print.Field}s among the arguments of the format.
+     */
+    private List<Field> fields;
+
+    /**
+     * The time at which the current {@link eu.parcifal.print.Printable} was
+     * created, in milliseconds since the epoch.
+     */
+    private long timestamp = Clock.millis();
+
+    /**
+     * The {@link java.time.LocalDateTime} at which the current
+     * {@link eu.parcifal.print.Printable} was created, or null if it has not
+     * been requested yet.
+     */
+    private volatile LocalDateTime dateTime;
+
+    /**
+     * The class-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private String sourceClassName;
+
+    /**
+     * The method-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private String sourceMethodName;
+
+    /**
+     * The file-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private String sourceFileName;
+
+    /**
+     * The line-number of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     */
+    private int sourceLineNumber;
+
+    /**
+     * Indicates whether or not the source of the current
+     * {@link eu.parcifal.print.Printable} has been looked up or settled as
+     * unknown. Written after the source itself, so that a thread that sees it
+     * set also sees the source.
+     */
+    private volatile boolean located = false;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Printable} containing the
+     * specified tag and content.
+     * 
+     * @param tag
+     *            The tag of the current {@link eu.parcifal.print.Printable}.
+     * @param content
+     *            The content of the current {@link eu.parcifal.print.Printable}
+     *            .
+     */
+    protected Printable(String tag, String content) {
+        this.tag = tag;
+        this.content = content;
+        this.format = null;
+        this.arguments = null;
+        this.fields = Collections.emptyList();
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Printable} containing the
+     * specified tag and the content resulting from formatting the specified
+     * arguments with the specified format, which is not done until the
+     * content is requested.
+     * 
+     * @param tag
+     *            The tag of the current {@link eu.parcifal.print.Printable}.
+     * @param format
+     *            The format of the content, in the syntax of
+     *            {@link java.util.Formatter}.
+     * @param arguments
+     *            The arguments of the format, of which the
+     *            {@link eu.parcifal.print.Field}s are kept as the fields of
+     *            the current {@link eu.parcifal.print.Printable}.
+     */
+    protected Printable(String tag, String format, Object... arguments) {
+        List<Field> fields = null;
+        Object[] values = arguments;
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] instanceof Field) {
+                if (fields == null) {
+                    fields = new ArrayList<Field>();
+                    values = Arrays.copyOf(arguments, arguments.length);
+                }
+
+                fields.add((Field) arguments[i]);
+                values[i] = ((Field) arguments[i]).getValue();
+            }
+        }
+
+        this.tag = tag;
+        this.format = format;
+        this.arguments = values;
+        this.fields = fields == null ? Collections.<Field> emptyList() : Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Printable} containing the
+     * specified tag and content, with the same source as the specified
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @param tag
+     *            The tag of the current {@link eu.parcifal.print.Printable}.
+     * @param content
+     *            The content of the current {@link eu.parcifal.print.Printable}
+     *            .
+     * @param source
+     *            The {@link eu.parcifal.print.Printable} of which the source
+     *            is taken over.
+     */
+    Printable(String tag, String content, Printable source) {
+        this.tag = tag;
+        this.content = content;
+        this.format = null;
+        this.arguments = null;
+        this.fields = Collections.emptyList();
+        this.sourceClassName = source.getSourceClassName();
+        this.sourceMethodName = source.getSourceMethodName();
+        this.sourceFileName = source.getSourceFileName();
+        this.sourceLineNumber = source.getSourceLineNumber();
+        this.located = true;
+    }
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Printable} that is a copy of
+     * the specified {@link eu.parcifal.print.Printable}, including its
+     * timestamp and source, so that it can be kept after the specified one has
+     * been reused.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be copied.
+     */
+    Printable(Printable printable) {
+        this.tag = printable.tag;
+        this.content = printable.content;
+        this.format = printable.format;
+        this.arguments = printable.arguments;
+        this.fields = printable.fields;
+        this.timestamp = printable.timestamp;
+        this.dateTime = printable.dateTime;
+        this.sourceClassName = printable.sourceClassName;
+        this.sourceMethodName = printable.sourceMethodName;
+        this.sourceFileName = printable.sourceFileName;
+        this.sourceLineNumber = printable.sourceLineNumber;
+        this.located = printable.located;
+    }
+
+    /**
+     * Let the current {@link eu.parcifal.print.Printable} contain the
+     * specified tag and content as if it had just been constructed, so that
+     * it can be printed again without allocating a new one.
+     * 
+     * @param tag
+     *            The new tag.
+     * @param content
+     *            The new content.
+     */
+    final void reset(String tag, String content) {
+        this.tag = tag;
+        this.content = content;
+        this.format = null;
+        this.arguments = null;
+        this.fields = Collections.emptyList();
+        this.timestamp = Clock.millis();
+        this.dateTime = null;
+        this.sourceClassName = null;
+        this.sourceMethodName = null;
+        this.sourceFileName = null;
+        this.sourceLineNumber = 0;
+        this.located = false;
+    }
+
+    /**
+     * Return the tag of the current {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The tag of the current {@link eu.parcifal.print.Printable}.
+     */
+    public final String getTag() {
+        return this.tag;
+    }
+
+    /**
+     * Return the content of the current {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The content of the current {@link eu.parcifal.print.Printable}.
+     */
+    public final String getContent() {
+        String content = this.content;
+
+        if (content == null && this.format != null) {
+            content = String.format(this.format, this.arguments);
+
+            this.content = content;
+        }
+
+        return content;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Printable} has the
+     * specified format and arguments, or the specified content if it was
+     * given as is, without formatting the content.
+     * 
+     * @param text
+     *            The format, or the content if the arguments are null.
+     * @param arguments
+     *            The arguments of the format, or null.
+     * @return True if the content is given by the specified format and
+     *         arguments, otherwise false.
+     */
+    final boolean hasContent(String text, Object[] arguments) {
+        return this.format == null
+                ? arguments == null && Objects.equals(this.getContent(), text)
+                : arguments != null && this.format.equals(text) && Arrays.equals(this.arguments, arguments);
+    }
+
+    /**
+     * Return the format of the current {@link eu.parcifal.print.Printable}, or
+     * its content if that was given as is.
+     * 
+     * @return The format or the content.
+     */
+    final String getFormatOrContent() {
+        return this.format == null ? this.getContent() : this.format;
+    }
+
+    /**
+     * Return the arguments of the format of the current
+     * {@link eu.parcifal.print.Printable}, with each
+     * {@link eu.parcifal.print.Field} replaced by its value.
+     * 
+     * @return The arguments, or null if the content was given as is.
+     */
+    final Object[] getArguments() {
+        return this.format == null ? null : this.arguments;
+    }
+
+    /**
+     * Append the content of the current {@link eu.parcifal.print.Printable} to
+     * the specified {@link java.lang.StringBuilder}, formatting it directly
+     * into the {@link java.lang.StringBuilder} if that has not been done yet.
+     * 
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     */
+    final void appendContent(StringBuilder output) {
+        String content = this.content;
+
+        if (content == null && this.format != null) {
+            new Formatter(output).format(this.format, this.arguments);
+        } else {
+            output.append(content);
+        }
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Field}s of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The unmodifiable {@link eu.parcifal.print.Field}s, in the order
+     *         of the arguments.
+     */
+    public final List<Field> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Return the {@link java.time.LocalDateTime} at which the current
+     * {@link eu.parcifal.print.Printable} was created.
+     * 
+     * @return The {@link java.time.LocalDateTime} at which the current
+     *         {@link eu.parcifal.print.Printable} was created.
+     */
+    public final LocalDateTime getDateTime() {
+        LocalDateTime dateTime = this.dateTime;
+
+        if (dateTime == null) {
+            dateTime = Clock.toDateTime(this.timestamp);
+
+            this.dateTime = dateTime;
+        }
+
+        return dateTime;
+    }
+
+    /**
+     * Return the time at which the current {@link eu.parcifal.print.Printable}
+     * was created.
+     * 
+     * @return The time in milliseconds since the epoch.
+     */
+    public final long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Return the class-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The class-name of the source of the current
+     *         {@link eu.parcifal.print.Printable}, or null if it is not
+     *         known.
+     */
+    public final String getSourceClassName() {
+        this.locate();
+
+        return this.sourceClassName;
+    }
+
+    /**
+     * Return the method-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The method-name of the source of the current
+     *         {@link eu.parcifal.print.Printable}, or null if it is not
+     *         known.
+     */
+    public final String getSourceMethodName() {
+        this.locate();
+
+        return this.sourceMethodName;
+    }
+
+    /**
+     * Return the file-name of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The file-name of the source of the current
+     *         {@link eu.parcifal.print.Printable}, or null if it is not
+     *         known.
+     */
+    public final String getSourceFileName() {
+        this.locate();
+
+        return this.sourceFileName;
+    }
+
+    /**
+     * Return the line-number of the source of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The line-number of the source of the current
+     *         {@link eu.parcifal.print.Printable}, or -1 if it is not known.
+     */
+    public final int getSourceLineNumber() {
+        this.locate();
+
+        return this.sourceLineNumber;
+    }
+
+    /**
+     * Return the amount of lines in the content of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @return The amount of lines in the content of the current
+     *         {@link eu.parcifal.print.Printable}.
+     */
+    public int getContentLineCount() {
+        return 0;
+    }
+
+    /**
+     * Return the specified line in the content of the current
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @param number
+     *            The number of the line in the content of the current
+     *            {@link eu.parcifal.print.Printable} to be returned.
+     * @return The specified line in the content of the current
+     *         {@link eu.parcifal.print.Printable}.
+     */
+    public String getLine(int number) {
+        throw new RuntimeException(this.getClass().getName() + "#getLine has no implementation");
+    }
+
+    /**
+     * Build the content of the current {@link eu.parcifal.print.Printable} and
+     * replace the values of its {@link eu.parcifal.print.Field}s by their
+     * string form, so that it no longer refers to objects of the thread that
+     * created it and can be printed by another thread. Values that are
+     * strings, numbers or booleans are kept as they are.
+     */
+    final void detach() {
+        this.getContent();
+
+        List<Field> fields = null;
+
+        for (int i = 0; i < this.fields.size(); i++) {
+            Object value = this.fields.get(i).getValue();
+
+            if (value != null && !(value instanceof String) && !(value instanceof Number)
+                    && !(value instanceof Boolean)) {
+                if (fields == null) {
+                    fields = new ArrayList<Field>(this.fields);
+                }
+
+                fields.set(i, Field.of(this.fields.get(i).getName(), value.toString()));
+            }
+        }
+
+        if (fields != null) {
+            this.fields = Collections.unmodifiableList(fields);
+        }
+    }
+
+    /**
+     * Look up the source of the current {@link eu.parcifal.print.Printable} if
+     * that has not been done yet, by walking the call stack up to the first
+     * frame outside of the eu.parcifal.print package.
+     */
+    final void locate() {
+        if (this.located) {
+            return;
+        }
+
+        StackWalker.StackFrame source = STACK_WALKER
+                .walk(frames -> frames.filter(frame -> !isLibraryClass(frame.getClassName())).findFirst())
+                .orElse(null);
+
+        if (source != null) {
+            this.sourceClassName = source.getClassName();
+            this.sourceMethodName = source.getMethodName();
+            this.sourceFileName = source.getFileName();
+            this.sourceLineNumber = source.getLineNumber();
+        } else {
+            this.sourceLineNumber = -1;
+        }
+
+        this.located = true;
+    }
+
+    /**
+     * Settle the source of the current {@link eu.parcifal.print.Printable}
+     * before it leaves the thread that printed it, looking it up if it has not
+     * been looked up yet and the specified flag is set, and otherwise leaving
+     * it unknown for good.
+     * 
+     * @param locate
+     *            Whether or not the source has to be looked up.
+     */
+    final void settle(boolean locate) {
+        if (this.located) {
+            return;
+        }
+
+        if (locate) {
+            this.locate();
+        } else {
+            this.sourceLineNumber = -1;
+            this.located = true;
+        }
+    }
+
+    /**
+     * Return whether or not the source of the current
+     * {@link eu.parcifal.print.Printable} has been looked up or settled.
+     * 
+     * @return True if the source is known or settled as unknown, otherwise
+     *         false.
+     */
+    final boolean isLocated() {
+        return this.located;
+    }
+
+    /**
+     * Return true if the class with the specified name belongs to the
+     * eu.parcifal.print package itself, so that it cannot be the source of a
+     * {@link eu.parcifal.print.Printable}.
+     * 
+     * @param className
+     *            The fully qualified name of a class.
+     * @return True if the class belongs to the eu.parcifal.print package,
+     *         otherwise false.
+     */
+    private static boolean isLibraryClass(String className) {
+        return className.startsWith(LIBRARY_PACKAGE) && className.indexOf('.', LIBRARY_PACKAGE.length()) < 0;
+    }
+
+}
@@ -1,148 +1,584 @@
-package eu.parcifal.print;
-
-import java.util.ArrayList;
-import java.util.Collection;
-
-/**
- * Handles {@link eu.parcifal.print.Printable}s by wrapping them into
- * {@link eu.parcifal.print.Print} objects together with specific
- * {@link eu.parcifal.print.Channel}s and executes the
- * {@link eu.parcifal.print.Print}, causing the
- * {@link eu.parcifal.print.Printable}s to be printed to each
- * {@link eu.parcifal.print.Channel}.
- * 
- * @see eu.parcifal.print.Channel
- * @see eu.parcifal.print.Print
- * @see eu.parcifal.print.Printable
- * 
- * @author Michal van de Weerd
- * @version 10.05.2016
- * @since 28.04.2016
- */
-public final class Printer {
-    /**
-     * The {@link eu.parcifal.print.Channel}s that are available to the current
-     * {@link eu.parcifal.print.Printer}.
-     */
-    private final static Collection<Channel> CHANNELS = new ArrayList<Channel>();
-
-    /**
-     * Executes a {@link eu.parcifal.print.Print} containing the specified
-     * {@link eu.parcifal.print.Printable} and {@eu.parcifal.print.Channel}s,
-     * causing the Printable to be printed to each
-     * {@link eu.parcifal.print.Channel}. Throws an
-     * {@link eu.parcifal.print.ChannelNotAvailableException} if one or more of
-     * the specified {@link eu.parcifal.print.Channel}s is not available to the
-     * current {@link eu.parcifal.print.Printer}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be printed to the
-     *            specified {@link eu.parcifal.print.Channel}s.
-     * @param channels
-     *            The {@link eu.parcifal.print.Channel}s to which the specified
-     *            {@link eu.parcifal.print.Printable} must be printed.
-     * @return The {@link eu.parcifal.print.Print} containing the specified
-     *         {@link eu.parcifal.print.Printable} and the specified
-     *         {@link eu.parcifal.print.Channel}s.
-     */
-    public final static Print executePrint(Printable printable, Collection<Channel> channels) {
-        return compilePrint(printable, channels).execute();
-    }
-
-    /**
-     * Compiles a {@link eu.parcifal.print.Print} containing the specified
-     * {@link eu.parcifal.print.Printable} and
-     * {@eu.parcifal.print.Channels. Throws an
-     * {@link eu.parcifal.print.ChannelNotAvailableException} if one or more of
-     * the specified {@link eu.parcifal.print.Channel}s is not available to the
-     * current {@link eu.parcifal.print.Printer}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be printed to the
-     *            specified {@link eu.parcifal.print.Channel}s.
-     * @param channels
-     *            The {@link eu.parcifal.print.Channel}s to which the specified
-     *            {@link eu.parcifal.print.Printable} must be printed.
-     * @return The {@link eu.parcifal.print.Print containing the specified
-     *         {@link eu.parcifal.print.Printable} and the specified
-     *         {@link eu.parcifal.print.Channel}s.
-     */
-    public final static Print compilePrint(Printable printable, Collection<Channel> channels) {
-        Collection<Channel> acceptingChannels = new ArrayList<Channel>();
-
-        for (Channel channel : channels) {
-            if (!CHANNELS.contains(channel)) {
-                throw new ChannelNotAvailableException(channel);
-            } else if (channel.acceptsPrintable(printable)) {
-                acceptingChannels.add(channel);
-            }
-        }
-
-        return new Print(printable, acceptingChannels);
-    }
-
-    /**
-     * Executes a {@link eu.parcifal.print.Print} containing the specified
-     * {@link eu.parcifal.print.Printable} and all
-     * {@link eu.parcifal.print.Channel}s available to the current
-     * {@link eu.parcifal.print.Printer}, causing the
-     * {@link eu.parcifal.print.Printable} to be printed to each
-     * {@link eu.parcifal.print.Channel}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be printed to all
-     *            {@link eu.parcifal.print.Channel}s available to the current
-     *            {@link eu.parcifal.print.Printer}.
-     * @return The {@link eu.parcifal.print.Print} containing the specified
-     *         {@link eu.parcifal.print.Printable} and all
-     *         {@link eu.parcifal.print.Channel}s available to the current
-     *         {@link eu.parcifal.print.Printer}.
-     */
-    public final static Print executePrint(Printable printable) {
-        return compilePrint(printable).execute();
-    }
-
-    /**
-     * Compiles a {@link eu.parcifal.print.Print} containing the specified
-     * {@link eu.parcifal.print.Printable} and all
-     * {@link eu.parcifal.print.Channel}s available to the current
-     * {@link eu.parcifal.print.Printer}.
-     * 
-     * @param printable
-     *            The {@link eu.parcifal.print.Printable} to be printed to all
-     *            {@link eu.parcifal.print.Channel}s available to the current
-     *            {@link eu.parcifal.print.Printer}.
-     * @return The {@link eu.parcifal.print.Print} containing the specified
-     *         {@link eu.parcifal.print.Printable} and all
-     *         {@link eu.parcifal.print.Channel}s available to the current
-     *         {@link eu.parcifal.print.Printer}.
-     */
-    public final static Print compilePrint(Printable printable) {
-        return compilePrint(printable, CHANNELS);
-    }
-
-    /**
-     * Add the specified {@link eu.parcifal.print.Channel} to the current
-     * {@link eu.parcifal.print.Printer}, making it available for printing.
-     * 
-     * @param channel
-     *            The {@link eu.parcifal.print.Channel} to be added to the
-     *            current {@link eu.parcifal.print.Printer}.
-     */
-    public final static void addChannel(Channel channel) {
-        CHANNELS.add(channel);
-    }
-
-    /**
-     * Remove the specified {@link eu.parcifal.print.Channel} from the current
-     * {@link eu.parcifal.print.Printer}, making it unavailable for printing.
-     * 
-     * @param channel
-     *            The {@link eu.parcifal.print.Channel} to be remove from the
-     *            current {@link eu.parcifal.print.Printer}.
-     */
-    public final static void removeChannel(Channel channel) {
-        CHANNELS.remove(channel);
-    }
-
-}
+package eu.parcifal.print;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Handles {@link eu.parcifal.print.Printable}s by wrapping them into
+ * {@link eu.parcifal.print.Print} objects together with specific
+ * {@link eu.parcifal.print.Channel}s and executes the
+ * {@link eu.parcifal.print.Print}, causing the
+ * {@link eu.parcifal.print.Printable}s to be printed to each
+ * {@link eu.parcifal.print.Channel}.
+ * 
+ * If the configuration file defines an asynchronous dispatcher,
+ * {@link eu.parcifal.print.Print}s are executed by background threads instead
+ * of the thread that requested them. Those threads are drained when the JVM
+ * shuts down, or earlier by calling
+ * {@link eu.parcifal.print.Printer#shutdown()}, which also flushes all
+ * {@link eu.parcifal.print.Channel}s.
+ * 
+ * The counters of all {@link eu.parcifal.print.Channel}s are available through
+ * {@link eu.parcifal.print.Printer#getStatistics()} and the
+ * {@link eu.parcifal.print.PrinterMXBean}.
+ * 
+ * @see eu.parcifal.print.Channel
+ * @see eu.parcifal.print.Print
+ * @see eu.parcifal.print.Printable
+ * 
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 28.04.2016
+ */
+public final class Printer {
+    /**
+     * The {@link eu.parcifal.print.Channel}s that are available to the current
+     * {@link eu.parcifal.print.Printer}. The {@link eu.parcifal.print.Registry}
+     * is immutable and replaced as a whole when a
+     * {@link eu.parcifal.print.Channel} is added or removed, so printing
+     * threads only need a single volatile read to get a consistent view.
+     */
+    private final static AtomicReference<Registry> CHANNELS = new AtomicReference<Registry>(Registry.EMPTY);
+
+    /**
+     * The {@link eu.parcifal.print.Dispatcher} executing
+     * {@link eu.parcifal.print.Print}s in the background, or null if
+     * {@link eu.parcifal.print.Print}s are executed by the calling thread.
+     */
+    private static volatile Dispatcher DISPATCHER;
+
+    /**
+     * The {@link eu.parcifal.print.Limits} checked before each
+     * {@link eu.parcifal.print.Printable} is routed, replaced when the
+     * configuration file is reloaded.
+     */
+    private static volatile Limits LIMITS = Limits.configure(Configuration.current());
+
+    /**
+     * The amount of {@link eu.parcifal.print.Print}s dropped by
+     * {@link eu.parcifal.print.Dispatcher}s that have been shut down.
+     */
+    private static volatile long DROPPED = 0;
+
+    /**
+     * Indicates whether or not messages are written in garbage-free mode,
+     * reusing a {@link eu.parcifal.print.ReusablePrintable} per thread.
+     */
+    private final static boolean GARBAGE_FREE;
+
+    static {
+        Configuration.Element dispatcher = Configuration.current().getElement("dispatcher");
+
+        if ("async".equals(dispatcher.getAttribute("mode"))) {
+            DISPATCHER = new Dispatcher(Integer.parseInt(dispatcher.getAttribute("buffer-size", "8192")),
+                    Integer.parseInt(dispatcher.getAttribute("threads", "1")),
+                    Dispatcher.Policy.forName(dispatcher.getAttribute("policy", "block")));
+        }
+
+        // reused printables must not be handed to another thread
+        GARBAGE_FREE = DISPATCHER == null && Configuration.current().getPrinter().getFlag("garbage-free", false);
+
+        Configuration.addListener(reloaded -> {
+            Limits next = Limits.configure(reloaded);
+
+            return new Configuration.Change(() -> {
+                Limits previous = LIMITS;
+
+                LIMITS = next;
+
+                previous.close();
+            }, next::close);
+        });
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new PrinterMXBean() {
+
+                @Override
+                public ChannelStatistics[] getChannelStatistics() {
+                    return getStatistics().toArray(new ChannelStatistics[0]);
+                }
+
+                @Override
+                public boolean isAsynchronous() {
+                    return DISPATCHER != null;
+                }
+
+                @Override
+                public long getDroppedCount() {
+                    return Printer.getDroppedCount();
+                }
+
+                @Override
+                public long getSuppressedCount() {
+                    return Printer.getSuppressedCount();
+                }
+
+            }, new ObjectName(PrinterMXBean.OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException exception) {
+            // registered by a copy of the printer in another class loader
+        } catch (JMException exception) {
+            throw new Error(exception);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            shutdown();
+
+            for (Channel channel : CHANNELS.get().getChannels()) {
+                channel.close();
+            }
+        }, "eu.parcifal.print.shutdown"));
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and {@eu.parcifal.print.Channel}s,
+     * causing the Printable to be printed to each
+     * {@link eu.parcifal.print.Channel}. Throws an
+     * {@link eu.parcifal.print.ChannelNotAvailableException} if one or more of
+     * the specified {@link eu.parcifal.print.Channel}s is not available to the
+     * current {@link eu.parcifal.print.Printer}. If the
+     * {@link eu.parcifal.print.Printer} dispatches asynchronously, the
+     * returned {@link eu.parcifal.print.Print} may not have been executed yet.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed to the
+     *            specified {@link eu.parcifal.print.Channel}s.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable} must be printed.
+     * @return The {@link eu.parcifal.print.Print} containing the specified
+     *         {@link eu.parcifal.print.Printable} and the specified
+     *         {@link eu.parcifal.print.Channel}s.
+     */
+    public final static Print executePrint(Printable printable, Collection<Channel> channels) {
+        return execute(printable, channels, Printer::accepting);
+    }
+
+    /**
+     * Compiles a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and
+     * {@eu.parcifal.print.Channels. Throws an
+     * {@link eu.parcifal.print.ChannelNotAvailableException} if one or more of
+     * the specified {@link eu.parcifal.print.Channel}s is not available to the
+     * current {@link eu.parcifal.print.Printer}.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed to the
+     *            specified {@link eu.parcifal.print.Channel}s.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable} must be printed.
+     * @return The {@link eu.parcifal.print.Print containing the specified
+     *         {@link eu.parcifal.print.Printable} and the specified
+     *         {@link eu.parcifal.print.Channel}s.
+     */
+    public final static Print compilePrint(Printable printable, Collection<Channel> channels) {
+        Print print = new Print(printable, CHANNELS.get().route(printable, channels, Printer::accepting));
+
+        print.settle();
+
+        return print;
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and those of the specified
+     * {@link eu.parcifal.print.Channel}s returned by the specified function.
+     * Unlike {@link eu.parcifal.print.Printer#executePrint(Printable, Collection)}
+     * this does not ask each {@link eu.parcifal.print.Channel} whether it
+     * accepts the {@link eu.parcifal.print.Printable}, but lets a single
+     * function decide for all of them.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed to the
+     *            accepting {@link eu.parcifal.print.Channel}s.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable} may be printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     * @return The {@link eu.parcifal.print.Print} containing the specified
+     *         {@link eu.parcifal.print.Printable} and the accepting
+     *         {@link eu.parcifal.print.Channel}s.
+     */
+    final static Print executeAcceptedPrint(Printable printable, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        return execute(printable, channels, accepting);
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Print} containing the specified
+     * summary of suppressed repeats and those of the specified
+     * {@link eu.parcifal.print.Channel}s returned by the specified function,
+     * without checking it against the {@link eu.parcifal.print.Limits}.
+     * 
+     * @param summary
+     *            The {@link eu.parcifal.print.Printable} summarizing the
+     *            suppressed repeats.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the repeats
+     *            were requested to be printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     */
+    final static void executeSummary(Printable summary, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        dispatch(new Print(summary, CHANNELS.get().route(summary, channels, accepting)));
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Batch} of the specified
+     * {@link eu.parcifal.print.Printable}s and the specified
+     * {@link eu.parcifal.print.Channel}s, causing each
+     * {@link eu.parcifal.print.Printable} to be printed to those
+     * {@link eu.parcifal.print.Channel}s that accept it. All
+     * {@link eu.parcifal.print.Printable}s are routed against the same
+     * {@link eu.parcifal.print.Channel}s available to the current
+     * {@link eu.parcifal.print.Printer}, after which each
+     * {@link eu.parcifal.print.Channel} prints all of the
+     * {@link eu.parcifal.print.Printable}s routed to it at once, writing and
+     * flushing once per batch. {@link eu.parcifal.print.Printable}s suppressed
+     * by the limits in the configuration file are left out. Throws an
+     * {@link eu.parcifal.print.ChannelNotAvailableException} if one or more of
+     * the specified {@link eu.parcifal.print.Channel}s is not available to the
+     * current {@link eu.parcifal.print.Printer}.
+     * 
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s to be printed, in
+     *            order.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable}s must be printed.
+     * @return The {@link eu.parcifal.print.Batch} containing a
+     *         {@link eu.parcifal.print.Print} for each
+     *         {@link eu.parcifal.print.Printable} that was not suppressed.
+     */
+    public final static Batch executeBatch(Collection<Printable> printables, Collection<Channel> channels) {
+        Registry registry = CHANNELS.get();
+        List<Print> prints = new ArrayList<Print>(printables.size());
+
+        for (Printable printable : printables) {
+            if (LIMITS.admits(printable, channels, Printer::accepting)) {
+                prints.add(new Print(printable, registry.route(printable, channels, Printer::accepting)));
+            }
+        }
+
+        Map<Channel, List<Printable>> buckets = new IdentityHashMap<Channel, List<Printable>>();
+
+        for (Print print : prints) {
+            for (Channel channel : print.getChannels()) {
+                buckets.computeIfAbsent(channel, key -> new ArrayList<Printable>()).add(print.getPrintable());
+            }
+        }
+
+        // the channels are printed to in the order in which they were given
+        Map<Channel, List<Printable>> routed = new LinkedHashMap<Channel, List<Printable>>();
+
+        for (Channel channel : channels) {
+            List<Printable> bucket = buckets.remove(channel);
+
+            if (bucket != null) {
+                routed.put(channel, bucket);
+            }
+        }
+
+        Batch batch = new Batch(prints, routed);
+
+        dispatch(batch);
+
+        return batch;
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Batch} of the specified
+     * {@link eu.parcifal.print.Printable}s and all
+     * {@link eu.parcifal.print.Channel}s available to the current
+     * {@link eu.parcifal.print.Printer}, causing each
+     * {@link eu.parcifal.print.Printable} to be printed to those
+     * {@link eu.parcifal.print.Channel}s that accept it, writing and flushing
+     * once per {@link eu.parcifal.print.Channel}.
+     * 
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s to be printed, in
+     *            order.
+     * @return The {@link eu.parcifal.print.Batch} containing a
+     *         {@link eu.parcifal.print.Print} for each
+     *         {@link eu.parcifal.print.Printable} that was not suppressed.
+     */
+    public final static Batch executeBatch(Collection<Printable> printables) {
+        return executeBatch(printables, CHANNELS.get().getChannels());
+    }
+
+    /**
+     * Executes a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and all
+     * {@link eu.parcifal.print.Channel}s available to the current
+     * {@link eu.parcifal.print.Printer}, causing the
+     * {@link eu.parcifal.print.Printable} to be printed to each
+     * {@link eu.parcifal.print.Channel}.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed to all
+     *            {@link eu.parcifal.print.Channel}s available to the current
+     *            {@link eu.parcifal.print.Printer}.
+     * @return The {@link eu.parcifal.print.Print} containing the specified
+     *         {@link eu.parcifal.print.Printable} and all
+     *         {@link eu.parcifal.print.Channel}s available to the current
+     *         {@link eu.parcifal.print.Printer}.
+     */
+    public final static Print executePrint(Printable printable) {
+        return execute(printable, CHANNELS.get().getChannels(), Printer::accepting);
+    }
+
+    /**
+     * Compiles a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and all
+     * {@link eu.parcifal.print.Channel}s available to the current
+     * {@link eu.parcifal.print.Printer}.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed to all
+     *            {@link eu.parcifal.print.Channel}s available to the current
+     *            {@link eu.parcifal.print.Printer}.
+     * @return The {@link eu.parcifal.print.Print} containing the specified
+     *         {@link eu.parcifal.print.Printable} and all
+     *         {@link eu.parcifal.print.Channel}s available to the current
+     *         {@link eu.parcifal.print.Printer}.
+     */
+    public final static Print compilePrint(Printable printable) {
+        return compilePrint(printable, CHANNELS.get().getChannels());
+    }
+
+    /**
+     * Add the specified {@link eu.parcifal.print.Channel} to the current
+     * {@link eu.parcifal.print.Printer}, making it available for printing.
+     * 
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to be added to the
+     *            current {@link eu.parcifal.print.Printer}.
+     */
+    public final static void addChannel(Channel channel) {
+        CHANNELS.updateAndGet(registry -> registry.with(channel));
+    }
+
+    /**
+     * Remove the specified {@link eu.parcifal.print.Channel} from the current
+     * {@link eu.parcifal.print.Printer}, making it unavailable for printing.
+     * 
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to be remove from the
+     *            current {@link eu.parcifal.print.Printer}.
+     */
+    public final static void removeChannel(Channel channel) {
+        CHANNELS.updateAndGet(registry -> registry.without(channel));
+    }
+
+    /**
+     * Remove the specified {@link eu.parcifal.print.Channel}s from the current
+     * {@link eu.parcifal.print.Printer} and add the other specified
+     * {@link eu.parcifal.print.Channel}s in a single step, so that no
+     * {@link eu.parcifal.print.Printable} is routed while only some of them
+     * have been replaced.
+     * 
+     * @param removed
+     *            The {@link eu.parcifal.print.Channel}s to be removed.
+     * @param added
+     *            The {@link eu.parcifal.print.Channel}s to be added.
+     */
+    final static void replaceChannels(Collection<Channel> removed, Collection<Channel> added) {
+        CHANNELS.updateAndGet(registry -> {
+            for (Channel channel : removed) {
+                registry = registry.without(channel);
+            }
+
+            for (Channel channel : added) {
+                registry = registry.with(channel);
+            }
+
+            return registry;
+        });
+    }
+
+    /**
+     * Return the current {@link eu.parcifal.print.ChannelStatistics} of each
+     * {@link eu.parcifal.print.Channel} available to the current
+     * {@link eu.parcifal.print.Printer}. The same values are exposed through
+     * the {@link eu.parcifal.print.PrinterMXBean}.
+     * 
+     * @return The {@link eu.parcifal.print.ChannelStatistics} of each
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    public final static List<ChannelStatistics> getStatistics() {
+        List<ChannelStatistics> statistics = new ArrayList<ChannelStatistics>();
+
+        for (Channel channel : CHANNELS.get().getChannels()) {
+            statistics.add(channel.getStatistics());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Print}s dropped because
+     * the buffer of the background threads was full.
+     * 
+     * @return The amount of dropped {@link eu.parcifal.print.Print}s.
+     */
+    public final static long getDroppedCount() {
+        Dispatcher dispatcher = DISPATCHER;
+
+        return DROPPED + (dispatcher == null ? 0 : dispatcher.getDroppedCount());
+    }
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Printable}s suppressed by
+     * the limits in the configuration file.
+     * 
+     * @return The amount of suppressed {@link eu.parcifal.print.Printable}s.
+     */
+    public final static long getSuppressedCount() {
+        return Limits.getSuppressedCount();
+    }
+
+    /**
+     * Print the summaries of all repeats suppressed so far, stop dispatching
+     * asynchronously, waiting until all {@link eu.parcifal.print.Print}s that
+     * have been handed to the background threads are executed, and flush all
+     * {@link eu.parcifal.print.Channel}s.
+     * Afterwards each {@link eu.parcifal.print.Print} is executed by the
+     * thread that requested it. Called automatically when the JVM shuts down,
+     * after which all {@link eu.parcifal.print.Channel}s are closed as well.
+     */
+    public final static void shutdown() {
+        LIMITS.flush();
+
+        Dispatcher dispatcher = DISPATCHER;
+
+        if (dispatcher != null) {
+            DISPATCHER = null;
+
+            dispatcher.shutdown();
+
+            DROPPED += dispatcher.getDroppedCount();
+        }
+
+        for (Channel channel : CHANNELS.get().getChannels()) {
+            channel.flush();
+        }
+    }
+
+    /**
+     * Execute a {@link eu.parcifal.print.Print} containing the specified
+     * {@link eu.parcifal.print.Printable} and those of the specified
+     * {@link eu.parcifal.print.Channel}s returned by the specified function,
+     * unless the {@link eu.parcifal.print.Limits} suppress it.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be printed.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the specified
+     *            {@link eu.parcifal.print.Printable} may be printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     * @return The {@link eu.parcifal.print.Print} containing the specified
+     *         {@link eu.parcifal.print.Printable} and the accepting
+     *         {@link eu.parcifal.print.Channel}s, or an empty
+     *         {@link eu.parcifal.print.Print} if it was suppressed.
+     */
+    private static Print execute(Printable printable, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        if (!LIMITS.admits(printable, channels, accepting)) {
+            return Print.NONE;
+        }
+
+        Collection<Channel> route = CHANNELS.get().route(printable, channels, accepting);
+
+        if (printable instanceof ReusablePrintable) {
+            return dispatch(((ReusablePrintable) printable).getPrint(route));
+        }
+
+        return dispatch(new Print(printable, route));
+    }
+
+    /**
+     * Return true if messages are written in garbage-free mode, which is the
+     * case if the configuration file enables it and
+     * {@link eu.parcifal.print.Print}s are executed by the calling thread. In
+     * that mode each thread reuses a single
+     * {@link eu.parcifal.print.Printable} and
+     * {@link eu.parcifal.print.Print} for the messages it writes to the log
+     * without arguments.
+     * 
+     * @return True if garbage-free mode is enabled, otherwise false.
+     */
+    static boolean isGarbageFree() {
+        return GARBAGE_FREE;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Channel}s among the specified ones
+     * that accept the specified {@link eu.parcifal.print.Printable}, asking
+     * each of them.
+     * 
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be accepted.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to be asked.
+     * @return The accepting {@link eu.parcifal.print.Channel}s.
+     */
+    private static Collection<Channel> accepting(Printable printable, Collection<Channel> channels) {
+        Collection<Channel> acceptingChannels = new ArrayList<Channel>();
+
+        for (Channel channel : channels) {
+            if (channel.acceptsPrintable(printable)) {
+                acceptingChannels.add(channel);
+            }
+        }
+
+        return acceptingChannels;
+    }
+
+    /**
+     * Execute the specified {@link eu.parcifal.print.Job} on the calling
+     * thread, or hand it to the {@link eu.parcifal.print.Dispatcher} if one is
+     * active.
+     * 
+     * @param job
+     *            The {@link eu.parcifal.print.Job} to be executed.
+     * @return The specified {@link eu.parcifal.print.Job}.
+     */
+    private static <T extends Job> T dispatch(T job) {
+        Dispatcher dispatcher = DISPATCHER;
+
+        if (dispatcher != null && !job.getChannels().isEmpty()) {
+            // the source and the arguments can only be read on the calling thread
+            job.detach();
+
+            dispatcher.dispatch(job);
+        } else {
+            if (dispatcher == null) {
+                job.execute();
+            }
+
+            // the source cannot be looked up once the job is returned
+            job.settle();
+        }
+
+        return job;
+    }
+
+}
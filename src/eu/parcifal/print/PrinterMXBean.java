@@ -0,0 +1,58 @@
+package eu.parcifal.print;
+
+/**
+ * The management interface of the {@link eu.parcifal.print.Printer},
+ * registered with the platform MBean server under the name
+ * "eu.parcifal.print:type=Printer".
+ *
+ * @see eu.parcifal.print.Printer
+ * @see eu.parcifal.print.ChannelStatistics
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public interface PrinterMXBean {
+
+    /**
+     * The name under which the {@link eu.parcifal.print.PrinterMXBean} is
+     * registered.
+     */
+    String OBJECT_NAME = "eu.parcifal.print:type=Printer";
+
+    /**
+     * Return the current {@link eu.parcifal.print.ChannelStatistics} of each
+     * {@link eu.parcifal.print.Channel} available to the
+     * {@link eu.parcifal.print.Printer}.
+     *
+     * @return The {@link eu.parcifal.print.ChannelStatistics} of each
+     *         {@link eu.parcifal.print.Channel}.
+     */
+    ChannelStatistics[] getChannelStatistics();
+
+    /**
+     * Return true if {@link eu.parcifal.print.Print}s are executed by
+     * background threads.
+     *
+     * @return True if the {@link eu.parcifal.print.Printer} dispatches
+     *         asynchronously, otherwise false.
+     */
+    boolean isAsynchronous();
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Print}s dropped by the
+     * background threads because their buffer was full.
+     *
+     * @return The amount of dropped {@link eu.parcifal.print.Print}s.
+     */
+    long getDroppedCount();
+
+    /**
+     * Return the amount of {@link eu.parcifal.print.Printable}s suppressed by
+     * the limits in the configuration file.
+     *
+     * @return The amount of suppressed {@link eu.parcifal.print.Printable}s.
+     */
+    long getSuppressedCount();
+
+}
@@ -0,0 +1,431 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * An immutable snapshot of the {@link eu.parcifal.print.Channel}s available to
+ * the {@link eu.parcifal.print.Printer}. Adding or removing a
+ * {@link eu.parcifal.print.Channel} creates a new
+ * {@link eu.parcifal.print.Registry}, leaving the snapshot that printing
+ * threads may still be reading untouched.
+ *
+ * Each {@link eu.parcifal.print.Registry} also remembers which of the
+ * requested {@link eu.parcifal.print.Channel}s accepted a
+ * {@link eu.parcifal.print.Printable} with a certain tag and source, as far as
+ * their {@link eu.parcifal.print.Channel.Routing} allows. Because a new
+ * {@link eu.parcifal.print.Registry} starts without any remembered routes,
+ * adding or removing a {@link eu.parcifal.print.Channel} invalidates them.
+ *
+ * @see eu.parcifal.print.Printer
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Registry {
+
+    /**
+     * The {@link eu.parcifal.print.Registry} without any
+     * {@link eu.parcifal.print.Channel}s.
+     */
+    final static Registry EMPTY = new Registry(new Channel[0]);
+
+    /**
+     * The maximum amount of routes remembered by a
+     * {@link eu.parcifal.print.Registry}.
+     */
+    private final static int ROUTE_CACHE_SIZE = 4096;
+
+    /**
+     * The {@link eu.parcifal.print.Registry.Route} of the current thread used
+     * to look up routes without creating a new key for each lookup.
+     */
+    private final static ThreadLocal<Route> PROBE = ThreadLocal.withInitial(Route::new);
+
+    /**
+     * The {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Registry}.
+     */
+    private final Channel[] channels;
+
+    /**
+     * The accepting {@link eu.parcifal.print.Channel}s remembered per
+     * {@link eu.parcifal.print.Registry.Route}.
+     */
+    private final Map<Route, List<Channel>> routes = new ConcurrentHashMap<Route, List<Channel>>();
+
+    /**
+     * An unmodifiable view of the {@link eu.parcifal.print.Channel}s of the
+     * current {@link eu.parcifal.print.Registry}.
+     */
+    private final List<Channel> view;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Registry} containing the
+     * specified {@link eu.parcifal.print.Channel}s.
+     *
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s, which may not be
+     *            modified afterwards.
+     */
+    private Registry(Channel[] channels) {
+        this.channels = channels;
+        this.view = Collections.unmodifiableList(Arrays.asList(channels));
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Channel}s of the current
+     * {@link eu.parcifal.print.Registry}.
+     *
+     * @return An unmodifiable list of the {@link eu.parcifal.print.Channel}s.
+     */
+    List<Channel> getChannels() {
+        return this.view;
+    }
+
+    /**
+     * Return true if the current {@link eu.parcifal.print.Registry} contains
+     * the specified {@link eu.parcifal.print.Channel}.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to look for.
+     * @return True if the {@link eu.parcifal.print.Channel} is contained,
+     *         otherwise false.
+     */
+    boolean contains(Channel channel) {
+        for (Channel contained : this.channels) {
+            if (contained == channel) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Channel}s among the specified ones
+     * that accept the specified {@link eu.parcifal.print.Printable}, as
+     * decided by the specified function. If the
+     * {@link eu.parcifal.print.Channel.Routing} of each
+     * {@link eu.parcifal.print.Channel} allows it, the result is remembered
+     * for the tag, and if required the source, of the
+     * {@link eu.parcifal.print.Printable}, so that later lookups take a single
+     * hash lookup. Throws a
+     * {@link eu.parcifal.print.ChannelNotAvailableException} if one of the
+     * specified {@link eu.parcifal.print.Channel}s is not contained by the
+     * current {@link eu.parcifal.print.Registry}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be routed.
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to which the
+     *            {@link eu.parcifal.print.Printable} is requested to be
+     *            printed.
+     * @param accepting
+     *            Returns the {@link eu.parcifal.print.Channel}s among the
+     *            specified ones accepting a {@link eu.parcifal.print.Printable}.
+     * @return The accepting {@link eu.parcifal.print.Channel}s, which may not
+     *         be modified.
+     */
+    Collection<Channel> route(Printable printable, Collection<Channel> channels,
+            BiFunction<Printable, Collection<Channel>, Collection<Channel>> accepting) {
+        Channel.Routing routing = Channel.Routing.TAG;
+        List<Channel> indexed = indexed(channels);
+
+        for (int i = 0; i < indexed.size(); i++) {
+            Channel channel = indexed.get(i);
+
+            channel.getMetrics().offered();
+
+            if (channel.getRouting().compareTo(routing) > 0) {
+                routing = channel.getRouting();
+            }
+        }
+
+        if (routing == Channel.Routing.PRINTABLE) {
+            this.require(channels);
+
+            return accepted(accepting.apply(printable, channels));
+        }
+
+        Route probe = PROBE.get().set(channels, printable, routing == Channel.Routing.SOURCE);
+        List<Channel> route = this.routes.get(probe);
+
+        if (route == null) {
+            this.require(channels);
+
+            Collection<Channel> accepted = accepting.apply(printable, channels);
+
+            route = accepted.isEmpty() ? Collections.<Channel> emptyList()
+                    : Collections.unmodifiableList(new ArrayList<Channel>(accepted));
+
+            if (this.routes.size() < ROUTE_CACHE_SIZE) {
+                this.routes.putIfAbsent(probe.copy(), route);
+            }
+        }
+
+        probe.clear();
+
+        return accepted(route);
+    }
+
+    /**
+     * Count the specified {@link eu.parcifal.print.Channel}s as having
+     * accepted a {@link eu.parcifal.print.Printable}.
+     *
+     * @param channels
+     *            The accepting {@link eu.parcifal.print.Channel}s.
+     * @return The specified {@link eu.parcifal.print.Channel}s.
+     */
+    private static Collection<Channel> accepted(Collection<Channel> channels) {
+        List<Channel> indexed = indexed(channels);
+
+        for (int i = 0; i < indexed.size(); i++) {
+            indexed.get(i).getMetrics().accepted();
+        }
+
+        return channels;
+    }
+
+    /**
+     * Return the specified {@link eu.parcifal.print.Channel}s as a
+     * {@link java.util.List} that can be walked by index, so that routing a
+     * {@link eu.parcifal.print.Printable} does not allocate an
+     * {@link java.util.Iterator} for each pass over them. The
+     * {@link eu.parcifal.print.Channel}s are only copied if they do not
+     * support fast random access.
+     *
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to be walked.
+     * @return The {@link eu.parcifal.print.Channel}s as an indexed
+     *         {@link java.util.List}.
+     */
+    static List<Channel> indexed(Collection<Channel> channels) {
+        if (channels instanceof List && channels instanceof RandomAccess) {
+            return (List<Channel>) channels;
+        }
+
+        return new ArrayList<Channel>(channels);
+    }
+
+    /**
+     * Throw a {@link eu.parcifal.print.ChannelNotAvailableException} if one of
+     * the specified {@link eu.parcifal.print.Channel}s is not contained by the
+     * current {@link eu.parcifal.print.Registry}.
+     *
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s that must be
+     *            contained.
+     */
+    private void require(Collection<Channel> channels) {
+        for (Channel channel : channels) {
+            if (!this.contains(channel)) {
+                throw new ChannelNotAvailableException(channel);
+            }
+        }
+    }
+
+    /**
+     * Return a {@link eu.parcifal.print.Registry} containing the
+     * {@link eu.parcifal.print.Channel}s of the current one and the specified
+     * {@link eu.parcifal.print.Channel}.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to be added.
+     * @return The new {@link eu.parcifal.print.Registry}.
+     */
+    Registry with(Channel channel) {
+        Channel[] channels = Arrays.copyOf(this.channels, this.channels.length + 1);
+
+        channels[this.channels.length] = channel;
+
+        return new Registry(channels);
+    }
+
+    /**
+     * Return a {@link eu.parcifal.print.Registry} containing the
+     * {@link eu.parcifal.print.Channel}s of the current one except the
+     * specified {@link eu.parcifal.print.Channel}.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to be removed.
+     * @return The new {@link eu.parcifal.print.Registry}, or the current one
+     *         if it does not contain the {@link eu.parcifal.print.Channel}.
+     */
+    Registry without(Channel channel) {
+        for (int i = 0; i < this.channels.length; i++) {
+            if (this.channels[i] == channel) {
+                Channel[] channels = new Channel[this.channels.length - 1];
+
+                System.arraycopy(this.channels, 0, channels, 0, i);
+                System.arraycopy(this.channels, i + 1, channels, i, channels.length - i);
+
+                return new Registry(channels);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * The key of a remembered route: the requested
+     * {@link eu.parcifal.print.Channel}s, compared by identity, together with
+     * the tag and, if any of those {@link eu.parcifal.print.Channel}s routes
+     * by source, the source of a {@link eu.parcifal.print.Printable}. A
+     * {@link eu.parcifal.print.Registry.Route} used for lookups refers to the
+     * requested {@link java.util.Collection} itself, a remembered one to a
+     * copy of it.
+     */
+    private final static class Route {
+
+        /**
+         * The requested {@link eu.parcifal.print.Channel}s.
+         */
+        private Collection<Channel> channels;
+
+        /**
+         * The tag of the routed {@link eu.parcifal.print.Printable}.
+         */
+        private String tag;
+
+        /**
+         * The source class name of the routed
+         * {@link eu.parcifal.print.Printable}, or null if not routed by
+         * source.
+         */
+        private String className;
+
+        /**
+         * The source method name of the routed
+         * {@link eu.parcifal.print.Printable}, or null if not routed by
+         * source.
+         */
+        private String methodName;
+
+        /**
+         * The source file name of the routed
+         * {@link eu.parcifal.print.Printable}, or null if not routed by
+         * source.
+         */
+        private String fileName;
+
+        /**
+         * The hash code of the current {@link eu.parcifal.print.Registry.Route}.
+         */
+        private int hash;
+
+        /**
+         * Set the current {@link eu.parcifal.print.Registry.Route} to the
+         * specified {@link eu.parcifal.print.Channel}s and the tag and, if
+         * required, the source of the specified
+         * {@link eu.parcifal.print.Printable}.
+         *
+         * @param channels
+         *            The requested {@link eu.parcifal.print.Channel}s.
+         * @param printable
+         *            The routed {@link eu.parcifal.print.Printable}.
+         * @param bySource
+         *            Whether or not the source is part of the route.
+         * @return The current {@link eu.parcifal.print.Registry.Route}.
+         */
+        Route set(Collection<Channel> channels, Printable printable, boolean bySource) {
+            this.channels = channels;
+            this.tag = printable.getTag();
+            this.className = bySource ? printable.getSourceClassName() : null;
+            this.methodName = bySource ? printable.getSourceMethodName() : null;
+            this.fileName = bySource ? printable.getSourceFileName() : null;
+
+            int hash = Objects.hashCode(this.tag);
+
+            hash = 31 * hash + Objects.hashCode(this.className);
+            hash = 31 * hash + Objects.hashCode(this.methodName);
+            hash = 31 * hash + Objects.hashCode(this.fileName);
+
+            List<Channel> indexed = indexed(channels);
+
+            for (int i = 0; i < indexed.size(); i++) {
+                hash = 31 * hash + System.identityHashCode(indexed.get(i));
+            }
+
+            this.hash = hash;
+
+            return this;
+        }
+
+        /**
+         * Release the references held by the current
+         * {@link eu.parcifal.print.Registry.Route}.
+         */
+        void clear() {
+            this.channels = null;
+            this.tag = this.className = this.methodName = this.fileName = null;
+        }
+
+        /**
+         * Return a copy of the current {@link eu.parcifal.print.Registry.Route}
+         * that does not refer to the requested {@link java.util.Collection},
+         * so that it can be remembered.
+         *
+         * @return The copy of the current
+         *         {@link eu.parcifal.print.Registry.Route}.
+         */
+        Route copy() {
+            Route copy = new Route();
+
+            copy.channels = Arrays.asList(this.channels.toArray(new Channel[this.channels.size()]));
+            copy.tag = this.tag;
+            copy.className = this.className;
+            copy.methodName = this.methodName;
+            copy.fileName = this.fileName;
+            copy.hash = this.hash;
+
+            return copy;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            } else if (!(object instanceof Route)) {
+                return false;
+            }
+
+            Route route = (Route) object;
+
+            if (this.hash != route.hash || !Objects.equals(this.tag, route.tag)
+                    || !Objects.equals(this.className, route.className)
+                    || !Objects.equals(this.methodName, route.methodName)
+                    || !Objects.equals(this.fileName, route.fileName)
+                    || this.channels.size() != route.channels.size()) {
+                return false;
+            }
+
+            List<Channel> these = indexed(this.channels);
+            List<Channel> those = indexed(route.channels);
+
+            for (int i = 0; i < these.size(); i++) {
+                if (these.get(i) != those.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+}
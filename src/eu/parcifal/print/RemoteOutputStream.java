@@ -0,0 +1,550 @@
+package eu.parcifal.print;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link java.io.OutputStream} that sends what is written to it to a
+ * {@link eu.parcifal.print.Collector} over TCP. Writing never waits for the
+ * network: the bytes are appended to a bounded spool in memory, from which a
+ * background thread sends them as frames over a non-blocking
+ * {@link java.nio.channels.SocketChannel}. Whatever is written while a frame
+ * is being sent is sent as the next frame, so records are batched as soon as
+ * they arrive faster than the {@link eu.parcifal.print.Collector} takes them.
+ *
+ * While the {@link eu.parcifal.print.Collector} cannot be reached, the
+ * background thread retries sending the frame it took with an increasing
+ * delay and the spool keeps the bytes written meanwhile. Once the spool,
+ * counting the frame being sent, is full, its oldest frames are discarded.
+ * Since a
+ * {@link eu.parcifal.print.Channel} only writes whole records, frames always
+ * start and end at a record boundary.
+ *
+ * @see eu.parcifal.print.Collector
+ * @see eu.parcifal.print.Log
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class RemoteOutputStream extends OutputStream {
+
+    /**
+     * The amount of bytes after which a frame is sealed and a new one is
+     * started, even if the background thread has not taken it yet.
+     */
+    private final static int FRAME_SIZE = 1 << 16;
+
+    /**
+     * The amount of milliseconds to wait before the first attempt to
+     * reconnect, doubled after each failed attempt.
+     */
+    private final static long MIN_BACKOFF = 100;
+
+    /**
+     * The largest amount of milliseconds to wait before an attempt to
+     * reconnect.
+     */
+    private final static long MAX_BACKOFF = 30000;
+
+    /**
+     * The amount of milliseconds to wait for connecting or for the
+     * {@link eu.parcifal.print.Collector} to take more bytes before the
+     * connection is considered lost.
+     */
+    private final static long TIMEOUT = 10000;
+
+    /**
+     * The amount of milliseconds to keep sending the spool after the
+     * {@link eu.parcifal.print.RemoteOutputStream} has been closed.
+     */
+    private final static long CLOSE_TIMEOUT = 2000;
+
+    /**
+     * The host name of the {@link eu.parcifal.print.Collector}.
+     */
+    private final String host;
+
+    /**
+     * The port of the {@link eu.parcifal.print.Collector}.
+     */
+    private final int port;
+
+    /**
+     * Indicates whether or not frames are compressed.
+     */
+    private final boolean compress;
+
+    /**
+     * The largest amount of bytes kept in the spool.
+     */
+    private final long spoolSize;
+
+    /**
+     * The {@link java.nio.channels.Selector} with which the background thread
+     * waits for the connection.
+     */
+    private final Selector selector;
+
+    /**
+     * The lock guarding the spool.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when bytes are flushed to the spool or the
+     * {@link eu.parcifal.print.RemoteOutputStream} is closed.
+     */
+    private final Condition flushed = this.lock.newCondition();
+
+    /**
+     * The sealed frames waiting to be sent, oldest first.
+     */
+    private final Deque<byte[]> spool = new ArrayDeque<byte[]>();
+
+    /**
+     * The frame being written to, of which the first bytes are in use.
+     */
+    private byte[] frame = new byte[1024];
+
+    /**
+     * The amount of bytes in the frame being written to.
+     */
+    private int framed = 0;
+
+    /**
+     * The amount of bytes in the spool, including the frame being written to.
+     */
+    private long spooled = 0;
+
+    /**
+     * The amount of bytes in the frame the background thread is sending.
+     */
+    private long sending = 0;
+
+    /**
+     * Indicates whether or not bytes have been flushed that the background
+     * thread has not taken yet.
+     */
+    private boolean pending = false;
+
+    /**
+     * Indicates whether or not the {@link eu.parcifal.print.RemoteOutputStream}
+     * has been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Indicates whether or not the background thread has stopped sending the
+     * spool.
+     */
+    private boolean stopped = false;
+
+    /**
+     * The background thread sending the spool.
+     */
+    private final Thread sender;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.RemoteOutputStream} sending to
+     * the {@link eu.parcifal.print.Collector} at the specified host and port,
+     * and start its background thread.
+     *
+     * @param host
+     *            The host name of the {@link eu.parcifal.print.Collector}.
+     * @param port
+     *            The port of the {@link eu.parcifal.print.Collector}.
+     * @param compress
+     *            Whether or not frames are compressed.
+     * @param spoolSize
+     *            The largest amount of bytes kept while they cannot be sent.
+     * @throws IOException
+     *             Thrown if the {@link java.nio.channels.Selector} of the
+     *             background thread cannot be opened.
+     */
+    RemoteOutputStream(String host, int port, boolean compress, long spoolSize) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.compress = compress;
+        this.spoolSize = spoolSize;
+        this.selector = Selector.open();
+        this.sender = new Thread(this::send, "eu.parcifal.print.sender+" + host + ":" + port);
+
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.lock.lock();
+
+        try {
+            if (this.closed) {
+                throw new IOException("stream to " + this.host + ":" + this.port + " is closed");
+            }
+
+            if (this.stopped) {
+                throw new IOException("sending to " + this.host + ":" + this.port + " has stopped");
+            }
+
+            if (this.framed > 0 && this.framed + length > FRAME_SIZE) {
+                this.seal();
+            }
+
+            while (this.sending + this.spooled + length > this.spoolSize
+                    && (this.framed > 0 || !this.spool.isEmpty())) {
+                // the collector cannot keep up, so the oldest records go
+                this.seal();
+                this.spooled -= this.spool.removeFirst().length;
+            }
+
+            if (this.frame.length - this.framed < length) {
+                this.frame = Arrays.copyOf(this.frame, Math.max(this.frame.length * 2, this.framed + length));
+            }
+
+            System.arraycopy(bytes, offset, this.frame, this.framed, length);
+
+            this.framed += length;
+            this.spooled += length;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Hand the bytes written so far to the background thread, without
+     * waiting for them to be sent.
+     */
+    @Override
+    public void flush() {
+        this.lock.lock();
+
+        try {
+            if (this.framed > 0 || !this.spool.isEmpty()) {
+                this.pending = true;
+                this.flushed.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting bytes and let the background thread send what is left in
+     * the spool, waiting for it at most a few seconds.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+
+        try {
+            this.closed = true;
+            this.flushed.signal();
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.sender.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Move the frame being written to into the spool. Must be called while
+     * holding the lock.
+     */
+    private void seal() {
+        if (this.framed > 0) {
+            this.spool.addLast(Arrays.copyOf(this.frame, this.framed));
+
+            this.framed = 0;
+        }
+    }
+
+    /**
+     * Wait for a frame to be sent and take it from the spool, or return null
+     * once the {@link eu.parcifal.print.RemoteOutputStream} has been closed
+     * and the spool is empty.
+     *
+     * @return The oldest frame in the spool, or null.
+     * @throws InterruptedException
+     *             Thrown if the background thread is interrupted.
+     */
+    private byte[] take() throws InterruptedException {
+        this.lock.lock();
+
+        try {
+            this.sending = 0;
+
+            while (!this.pending && !this.closed) {
+                this.flushed.await();
+            }
+
+            this.seal();
+
+            byte[] frame = this.spool.pollFirst();
+
+            if (frame == null) {
+                this.pending = false;
+            } else {
+                this.spooled -= frame.length;
+                this.sending = frame.length;
+                this.pending = !this.spool.isEmpty();
+            }
+
+            return frame;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Wait the specified amount of milliseconds before reconnecting, or less
+     * if the {@link eu.parcifal.print.RemoteOutputStream} is closed meanwhile.
+     *
+     * @param backoff
+     *            The amount of milliseconds to wait.
+     * @return True if the {@link eu.parcifal.print.RemoteOutputStream} has
+     *         been closed, otherwise false.
+     * @throws InterruptedException
+     *             Thrown if the background thread is interrupted.
+     */
+    private boolean await(long backoff) throws InterruptedException {
+        this.lock.lock();
+
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(backoff);
+
+            while (!this.closed && nanos > 0) {
+                nanos = this.flushed.awaitNanos(nanos);
+            }
+
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Send the frames in the spool until the
+     * {@link eu.parcifal.print.RemoteOutputStream} has been closed, connecting
+     * and reconnecting to the {@link eu.parcifal.print.Collector} as needed.
+     * Run by the background thread. Should it stop for any other reason,
+     * writing to the {@link eu.parcifal.print.RemoteOutputStream} fails from
+     * then on instead of filling a spool that is never sent.
+     */
+    private void send() {
+        Deflater deflater = this.compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        SocketChannel channel = null;
+        long backoff = MIN_BACKOFF;
+
+        try {
+            byte[] frame;
+
+            while ((frame = this.take()) != null) {
+                ByteBuffer encoded = encode(frame, deflater);
+
+                while (true) {
+                    try {
+                        if (channel == null) {
+                            channel = this.connect(this.selector);
+                        }
+
+                        write(channel, this.selector, encoded);
+                        backoff = MIN_BACKOFF;
+
+                        break;
+                    } catch (IOException exception) {
+                        close(channel);
+                        channel = null;
+
+                        if (this.await(backoff)) {
+                            // closed while the collector cannot be reached
+                            return;
+                        }
+
+                        backoff = Math.min(backoff * 2, MAX_BACKOFF);
+                        encoded.rewind();
+                    }
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        } finally {
+            this.lock.lock();
+
+            try {
+                this.stopped = true;
+                this.spool.clear();
+                this.framed = 0;
+                this.spooled = 0;
+                this.sending = 0;
+            } finally {
+                this.lock.unlock();
+            }
+
+            if (deflater != null) {
+                deflater.end();
+            }
+
+            close(channel);
+            close(this.selector);
+        }
+    }
+
+    /**
+     * Close the specified connection or {@link java.nio.channels.Selector},
+     * unless it is null.
+     *
+     * @param closeable
+     *            The connection or {@link java.nio.channels.Selector}, or
+     *            null.
+     */
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException exception) {
+                // the collector will see the connection end either way
+            }
+        }
+    }
+
+    /**
+     * Open a connection to the {@link eu.parcifal.print.Collector}.
+     *
+     * @param selector
+     *            The {@link java.nio.channels.Selector} of the background
+     *            thread.
+     * @return The connected {@link java.nio.channels.SocketChannel}.
+     * @throws IOException
+     *             Thrown if the {@link eu.parcifal.print.Collector} cannot be
+     *             reached in time.
+     */
+    private SocketChannel connect(Selector selector) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+
+        try {
+            channel.configureBlocking(false);
+
+            if (!channel.connect(new InetSocketAddress(this.host, this.port))) {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+
+                if (selector.select(TIMEOUT) == 0) {
+                    throw new IOException("connecting to " + this.host + ":" + this.port + " timed out");
+                }
+
+                selector.selectedKeys().clear();
+                key.cancel();
+                channel.finishConnect();
+            }
+
+            return channel;
+        } catch (IOException exception) {
+            channel.close();
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Write the specified frame to the specified connection, waiting for the
+     * {@link eu.parcifal.print.Collector} to take it.
+     *
+     * @param channel
+     *            The connected {@link java.nio.channels.SocketChannel}.
+     * @param selector
+     *            The {@link java.nio.channels.Selector} of the background
+     *            thread.
+     * @param encoded
+     *            The encoded frame.
+     * @throws IOException
+     *             Thrown if the frame cannot be written in time.
+     */
+    private static void write(SocketChannel channel, Selector selector, ByteBuffer encoded) throws IOException {
+        while (encoded.hasRemaining()) {
+            if (channel.write(encoded) == 0) {
+                // drop keys cancelled for an earlier connection
+                selector.selectNow();
+
+                SelectionKey key = channel.register(selector, SelectionKey.OP_WRITE);
+
+                try {
+                    if (selector.select(TIMEOUT) == 0) {
+                        throw new IOException("writing to the collector timed out");
+                    }
+
+                    selector.selectedKeys().clear();
+                } finally {
+                    key.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode the specified frame as described by
+     * {@link eu.parcifal.print.Collector}, compressing it with the specified
+     * {@link java.util.zip.Deflater} unless it is null.
+     *
+     * @param frame
+     *            The bytes of the frame.
+     * @param deflater
+     *            The {@link java.util.zip.Deflater}, or null.
+     * @return The encoded frame.
+     */
+    private static ByteBuffer encode(byte[] frame, Deflater deflater) {
+        byte[] payload = frame;
+        int length = frame.length;
+
+        if (deflater != null) {
+            payload = new byte[frame.length + frame.length / 1000 + 64];
+
+            deflater.reset();
+            deflater.setInput(frame);
+            deflater.finish();
+
+            length = 0;
+
+            while (!deflater.finished()) {
+                if (length == payload.length) {
+                    payload = Arrays.copyOf(payload, payload.length * 2);
+                }
+
+                length += deflater.deflate(payload, length, payload.length - length);
+            }
+        }
+
+        ByteBuffer encoded = ByteBuffer.allocate(Collector.HEADER_SIZE + length);
+
+        encoded.putInt(length);
+        encoded.put(deflater == null ? Collector.PLAIN : Collector.COMPRESSED);
+        encoded.put(payload, 0, length);
+        encoded.flip();
+
+        return encoded;
+    }
+
+}
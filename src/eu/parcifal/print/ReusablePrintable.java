@@ -0,0 +1,98 @@
+package eu.parcifal.print;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A {@link eu.parcifal.print.Printable} that is reused by the thread owning
+ * it, together with its {@link eu.parcifal.print.Print}, for each message it
+ * writes in garbage-free mode. Each thread has one; a message written while
+ * the one of the current thread is still in use, such as from the
+ * {@link java.lang.Object#toString()} method of an argument being formatted,
+ * gets a new {@link eu.parcifal.print.Printable} instead.
+ *
+ * Reusing is only safe while each {@link eu.parcifal.print.Print} is executed
+ * on the thread that made it, so the {@link eu.parcifal.print.Printer} only
+ * enables garbage-free mode without an asynchronous
+ * {@link eu.parcifal.print.Dispatcher}.
+ *
+ * @see eu.parcifal.print.Printer#isGarbageFree()
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class ReusablePrintable extends Printable {
+
+    /**
+     * The {@link eu.parcifal.print.ReusablePrintable} of each thread.
+     */
+    private final static ThreadLocal<ReusablePrintable> CURRENT = ThreadLocal.withInitial(ReusablePrintable::new);
+
+    /**
+     * The {@link eu.parcifal.print.Print} reused for the current
+     * {@link eu.parcifal.print.ReusablePrintable}.
+     */
+    private final Print print = new Print(this, Collections.<Channel> emptyList());
+
+    /**
+     * Indicates whether or not the current
+     * {@link eu.parcifal.print.ReusablePrintable} is being printed.
+     */
+    private boolean inUse = false;
+
+    /**
+     * Construct a new, empty {@link eu.parcifal.print.ReusablePrintable}.
+     */
+    private ReusablePrintable() {
+        super(null, null);
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.ReusablePrintable} of the current
+     * thread containing the specified tag and content, or null if it is
+     * already in use. It has to be released once it has been printed.
+     *
+     * @param tag
+     *            The tag of the message.
+     * @param content
+     *            The content of the message.
+     * @return The {@link eu.parcifal.print.ReusablePrintable}, or null.
+     */
+    static ReusablePrintable acquire(String tag, String content) {
+        ReusablePrintable printable = CURRENT.get();
+
+        if (printable.inUse) {
+            return null;
+        }
+
+        printable.inUse = true;
+        printable.reset(tag, content);
+
+        return printable;
+    }
+
+    /**
+     * Release the current {@link eu.parcifal.print.ReusablePrintable}, so that
+     * it can be acquired for the next message. It keeps its contents until
+     * then, so that the {@link eu.parcifal.print.Print} returned for the
+     * message stays valid until the thread writes its next message.
+     */
+    void release() {
+        this.inUse = false;
+    }
+
+    /**
+     * Return the {@link eu.parcifal.print.Print} of the current
+     * {@link eu.parcifal.print.ReusablePrintable} containing the specified
+     * {@link eu.parcifal.print.Channel}s.
+     *
+     * @param channels
+     *            The {@link eu.parcifal.print.Channel}s to print to.
+     * @return The reused {@link eu.parcifal.print.Print}.
+     */
+    Print getPrint(Collection<Channel> channels) {
+        return this.print.reset(this, channels);
+    }
+
+}
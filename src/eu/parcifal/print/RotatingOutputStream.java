@@ -0,0 +1,516 @@
+package eu.parcifal.print;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link java.io.OutputStream} writing to a sequence of files, called
+ * segments. A new segment is started once the current one reaches a maximum
+ * size or has been open for a maximum time. The name of each segment is found
+ * by formatting a location pattern with the date-time at which it is started.
+ *
+ * Starting a segment only opens the new file. Closing the previous segment,
+ * compressing it and deleting segments beyond the maximum amount of files is
+ * done by a background thread, so that rotating never makes a writer wait for
+ * that work. The segments left in the directory by earlier runs, recognized
+ * by the name they would have been given, count towards the maximum amount of
+ * files as well.
+ *
+ * @see eu.parcifal.print.LogChannel
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class RotatingOutputStream extends OutputStream {
+
+    /**
+     * The thread closing, compressing and deleting finished segments.
+     */
+    private final static ExecutorService ARCHIVER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "eu.parcifal.print.archiver");
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * The format specifiers of a location pattern.
+     */
+    private final static Pattern SPECIFIER = Pattern.compile("%(\\d+\\$)?[-#+ 0,(<]*\\d*(\\.\\d+)?([tT]?)([a-zA-Z%])");
+
+    /**
+     * Opens the {@link java.io.OutputStream} of a segment.
+     */
+    interface Opener {
+
+        /**
+         * Open an {@link java.io.OutputStream} writing to the specified file.
+         *
+         * @param file
+         *            The file of the segment.
+         * @return The {@link java.io.OutputStream} of the segment.
+         * @throws IOException
+         *             Thrown if the file cannot be opened.
+         */
+        OutputStream open(File file) throws IOException;
+
+    }
+
+    /**
+     * The location pattern of the segments, formatted with the date-time at
+     * which a segment is started.
+     */
+    private final String location;
+
+    /**
+     * Opens the {@link java.io.OutputStream} of each segment.
+     */
+    private final Opener opener;
+
+    /**
+     * The size in bytes at which a new segment is started, or 0.
+     */
+    private final long maxSize;
+
+    /**
+     * The amount of milliseconds after which a new segment is started, or 0.
+     */
+    private final long interval;
+
+    /**
+     * The maximum amount of finished segments kept, or 0 to keep all.
+     */
+    private final int maxFiles;
+
+    /**
+     * Indicates whether or not finished segments are compressed with gzip.
+     */
+    private final boolean compresses;
+
+    /**
+     * The finished segments, oldest first. Only accessed by the archiver.
+     */
+    private final Deque<File> finished = new ArrayDeque<File>();
+
+    /**
+     * The file of the current segment.
+     */
+    private File file;
+
+    /**
+     * The {@link java.io.OutputStream} of the current segment.
+     */
+    private OutputStream outputStream;
+
+    /**
+     * The amount of bytes written to the current segment.
+     */
+    private long size;
+
+    /**
+     * The time in milliseconds at which the current segment was started.
+     */
+    private long started;
+
+    /**
+     * The amount of segments started so far.
+     */
+    private int segments = 0;
+
+    /**
+     * The formatted location of the current segment, before a counter is
+     * added.
+     */
+    private String path;
+
+    /**
+     * The counter added to the name of the current segment, or 0 if none.
+     */
+    private int counter;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.RotatingOutputStream} and
+     * start its first segment.
+     *
+     * @param location
+     *            The location pattern of the segments.
+     * @param opener
+     *            Opens the {@link java.io.OutputStream} of each segment.
+     * @param maxSize
+     *            The size in bytes at which a new segment is started, or 0.
+     * @param interval
+     *            The amount of milliseconds after which a new segment is
+     *            started, or 0.
+     * @param maxFiles
+     *            The maximum amount of finished segments kept, or 0 to keep
+     *            all.
+     * @param compresses
+     *            Whether or not finished segments are compressed with gzip.
+     * @throws IOException
+     *             Thrown if the first segment cannot be opened.
+     */
+    RotatingOutputStream(String location, Opener opener, long maxSize, long interval, int maxFiles,
+            boolean compresses) throws IOException {
+        this.location = location;
+        this.opener = opener;
+        this.maxSize = maxSize;
+        this.interval = interval;
+        this.maxFiles = maxFiles;
+        this.compresses = compresses;
+
+        this.start();
+
+        if (maxFiles > 0) {
+            File current = this.file;
+
+            ARCHIVER.execute(() -> this.recover(current));
+        }
+    }
+
+    /**
+     * Return the file of the current segment.
+     *
+     * @return The file of the current segment.
+     */
+    File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Return the amount of bytes written to the current segment.
+     *
+     * @return The amount of bytes written to the current segment.
+     */
+    long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Return true if a new segment has to be started before writing the
+     * specified amount of additional bytes.
+     *
+     * @param pending
+     *            The amount of bytes about to be written.
+     * @return True if a new segment has to be started, otherwise false.
+     */
+    boolean isDue(long pending) {
+        return (this.maxSize > 0 && this.size > 0 && this.size + pending > this.maxSize)
+                || (this.interval > 0 && System.currentTimeMillis() - this.started >= this.interval);
+    }
+
+    /**
+     * Start a new segment, handing the current one to the background thread
+     * to be closed, compressed and pruned.
+     *
+     * @throws IOException
+     *             Thrown if the new segment cannot be opened.
+     */
+    void rotate() throws IOException {
+        File previousFile = this.file;
+        OutputStream previousStream = this.outputStream;
+
+        this.start();
+
+        ARCHIVER.execute(() -> this.archive(previousFile, previousStream));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.outputStream.write(b);
+        this.size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.outputStream.write(bytes, offset, length);
+        this.size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.outputStream.close();
+    }
+
+    /**
+     * Open a new segment at the location formatted with the current
+     * date-time. If that location equals the one of the previous segment, or
+     * the file already exists, an increasing counter is added to its name.
+     *
+     * @throws IOException
+     *             Thrown if the new segment cannot be opened.
+     */
+    private void start() throws IOException {
+        String path = String.format(this.location, LocalDateTime.now());
+        int extension = path.lastIndexOf('.') > path.lastIndexOf(File.separatorChar) ? path.lastIndexOf('.')
+                : path.length();
+
+        if (path.equals(this.path)) {
+            this.counter++;
+        } else {
+            this.path = path;
+            this.counter = 0;
+        }
+
+        File file = this.counter == 0 ? new File(path)
+                : new File(path.substring(0, extension) + "-" + this.counter + path.substring(extension));
+
+        while (this.segments > 0 && (file.exists() || new File(file.getPath() + ".gz").exists())) {
+            file = new File(path.substring(0, extension) + "-" + ++this.counter + path.substring(extension));
+        }
+
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+
+        this.outputStream = this.opener.open(file);
+        this.file = file;
+        this.size = 0;
+        this.started = System.currentTimeMillis();
+        this.segments++;
+    }
+
+    /**
+     * Close the specified finished segment, compress it if required and
+     * delete the oldest segments beyond the maximum amount of files. Runs on
+     * the background thread.
+     *
+     * @param file
+     *            The file of the finished segment.
+     * @param outputStream
+     *            The {@link java.io.OutputStream} of the finished segment.
+     */
+    private void archive(File file, OutputStream outputStream) {
+        try {
+            outputStream.close();
+
+            if (!file.exists()) {
+                // the segment was never written to
+                return;
+            }
+
+            if (this.compresses) {
+                File compressed = new File(file.getPath() + ".gz");
+                File partial = new File(file.getPath() + ".gz.part");
+
+                try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(partial.toPath()), 1 << 16)) {
+                    Files.copy(file.toPath(), gzip);
+                }
+
+                Files.move(partial.toPath(), compressed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                Files.delete(file.toPath());
+                // the offsets of an index do not apply to the compressed file
+                Files.deleteIfExists(new File(file.getPath() + LogIndex.EXTENSION).toPath());
+
+                file = compressed;
+            }
+
+            this.finished.addLast(file);
+            this.prune();
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Add the segments left in the directory of the specified current segment
+     * by earlier runs to the finished segments, oldest first, and delete the
+     * oldest ones beyond the maximum amount of files. Runs on the background
+     * thread.
+     *
+     * @param current
+     *            The file of the current segment, which is never counted as
+     *            finished.
+     */
+    private void recover(File current) {
+        File directory = current.getAbsoluteFile().getParentFile();
+        File[] files = directory == null ? null : directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        Pattern pattern = segmentPattern(new File(this.location).getName());
+        List<File> segments = new ArrayList<File>();
+
+        for (File file : files) {
+            if (file.isFile() && pattern.matcher(file.getName()).matches()
+                    && !file.getName().equals(current.getName())) {
+                segments.add(file);
+            }
+        }
+
+        segments.sort(Comparator.comparingLong(File::lastModified).thenComparing(File::getName));
+
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                this.finished.addFirst(segments.get(i));
+            }
+
+            this.prune();
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Delete the oldest finished segments beyond the maximum amount of files,
+     * together with their indexes. Runs on the background thread.
+     *
+     * @throws IOException
+     *             Thrown if a segment cannot be deleted.
+     */
+    private void prune() throws IOException {
+        while (this.maxFiles > 0 && this.finished.size() > this.maxFiles) {
+            File removed = this.finished.removeFirst();
+
+            Files.deleteIfExists(removed.toPath());
+            Files.deleteIfExists(new File(removed.getPath() + LogIndex.EXTENSION).toPath());
+        }
+    }
+
+    /**
+     * Return a {@link java.util.regex.Pattern} matching the names of the
+     * segments of the specified name pattern: each format specifier matches
+     * what it formats a date-time to, followed by the counter added before the
+     * extension and by the extension of a compressed segment, both optional.
+     *
+     * @param name
+     *            The name part of the location pattern of the segments.
+     * @return The {@link java.util.regex.Pattern} matching the names.
+     */
+    static Pattern segmentPattern(String name) {
+        int extension = name.lastIndexOf('.') < 0 ? name.length() : name.lastIndexOf('.');
+
+        return Pattern.compile(toRegex(name.substring(0, extension)) + "(-\\d+)?"
+                + toRegex(name.substring(extension)) + "(\\.gz)?");
+    }
+
+    /**
+     * Return a regular expression matching the specified part of a location
+     * pattern formatted with any date-time.
+     *
+     * @param part
+     *            The part of the location pattern.
+     * @return The regular expression.
+     */
+    private static String toRegex(String part) {
+        StringBuilder regex = new StringBuilder();
+        Matcher matcher = SPECIFIER.matcher(part);
+        int position = 0;
+
+        while (matcher.find()) {
+            if (matcher.start() > position) {
+                regex.append(Pattern.quote(part.substring(position, matcher.start())));
+            }
+
+            regex.append(toRegex(!matcher.group(3).isEmpty(), matcher.group(4).charAt(0)));
+            position = matcher.end();
+        }
+
+        if (position < part.length()) {
+            regex.append(Pattern.quote(part.substring(position)));
+        }
+
+        return regex.toString();
+    }
+
+    /**
+     * Return a regular expression matching what the format specifier with the
+     * specified conversion formats a date-time to.
+     *
+     * @param dateTime
+     *            Whether or not the specifier is a date-time conversion.
+     * @param conversion
+     *            The conversion character.
+     * @return The regular expression.
+     */
+    private static String toRegex(boolean dateTime, char conversion) {
+        if (conversion == '%') {
+            return "%";
+        } else if (!dateTime) {
+            // the date-time as written by LocalDateTime.toString()
+            return "[\\dT:.-]+";
+        } else if ("YymdeHIklMSLNjCQs".indexOf(conversion) >= 0) {
+            return "\\d+";
+        } else if ("FD".indexOf(conversion) >= 0) {
+            return "\\d+[-/]\\d+[-/]\\d+";
+        } else if ("RT".indexOf(conversion) >= 0) {
+            return "\\d+:\\d+(:\\d+)?";
+        } else {
+            return "[\\p{Alpha}\\d :+-]+?";
+        }
+    }
+
+    /**
+     * Parse a size attribute, being a number of bytes optionally followed by
+     * "k", "m" or "g".
+     *
+     * @param size
+     *            The size to be parsed; empty for 0.
+     * @return The size in bytes.
+     */
+    static long parseSize(String size) {
+        return parse(size, "kmg", new long[] { 1L << 10, 1L << 20, 1L << 30 });
+    }
+
+    /**
+     * Parse a duration attribute, being a number of milliseconds or a number
+     * followed by "s", "m", "h" or "d".
+     *
+     * @param duration
+     *            The duration to be parsed; empty for 0.
+     * @return The duration in milliseconds.
+     */
+    static long parseDuration(String duration) {
+        return parse(duration, "smhd", new long[] { 1000L, 60000L, 3600000L, 86400000L });
+    }
+
+    /**
+     * Parse a number optionally followed by one of the specified units.
+     *
+     * @param value
+     *            The value to be parsed; empty for 0.
+     * @param units
+     *            The unit characters.
+     * @param factors
+     *            The factor of each unit.
+     * @return The parsed value multiplied by the factor of its unit.
+     */
+    private static long parse(String value, String units, long[] factors) {
+        value = value.trim().toLowerCase();
+
+        if (value.isEmpty()) {
+            return 0;
+        }
+
+        int unit = units.indexOf(value.charAt(value.length() - 1));
+
+        if (unit < 0) {
+            return Long.parseLong(value);
+        } else {
+            return Long.parseLong(value.substring(0, value.length() - 1).trim()) * factors[unit];
+        }
+    }
+
+}
@@ -0,0 +1,583 @@
+package eu.parcifal.print;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets the threads printing to a {@link eu.parcifal.print.Channel} hand over
+ * their records without waiting for each other. Each thread appends its
+ * formatted records to a staging buffer of its own, numbering them from a
+ * sequence shared by all threads of the {@link eu.parcifal.print.Channel},
+ * and a background merger thread writes the records of all staging buffers to
+ * the {@link eu.parcifal.print.Channel} in the order of their numbers.
+ *
+ * While appending, a thread publishes a lower bound of the number it is about
+ * to take, and the merger only writes records numbered below the lowest of
+ * those bounds, of which all have been staged. Records are therefore written
+ * in the order in which they were printed, across all threads, while no
+ * thread waits for the {@link java.io.OutputStream} of the
+ * {@link eu.parcifal.print.Channel}. A thread only waits when its staging
+ * buffer is full, until the merger has taken it.
+ *
+ * @see eu.parcifal.print.Channel#startStaging()
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Stager {
+
+    /**
+     * The amount of formatted characters after which a staging buffer is
+     * full.
+     */
+    private final static int STAGE_CAPACITY = 1 << 20;
+
+    /**
+     * The amount of nanoseconds the merger parks while records are staged
+     * that cannot be written yet, or a thread with a full staging buffer
+     * parks.
+     */
+    private final static long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * The amount of nanoseconds the merger parks while no records are staged,
+     * unless a thread stages one earlier.
+     */
+    private final static long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The {@link eu.parcifal.print.Channel} to which the staged records are
+     * written.
+     */
+    private final Channel channel;
+
+    /**
+     * The number of the next staged record.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The staging buffers of all threads that printed to the
+     * {@link eu.parcifal.print.Channel}.
+     */
+    private final Queue<Stage> stages = new ConcurrentLinkedQueue<Stage>();
+
+    /**
+     * The staging buffer of the current thread.
+     */
+    private final ThreadLocal<Stage> stage = ThreadLocal.withInitial(this::register);
+
+    /**
+     * The lock held while merging, so that a flush and the merger do not
+     * merge at the same time.
+     */
+    private final ReentrantLock mergeLock = new ReentrantLock();
+
+    /**
+     * The {@link eu.parcifal.print.Stager.Segment}s taken from the staging
+     * buffers of which not all records have been written yet.
+     */
+    private final List<Segment> segments = new ArrayList<Segment>();
+
+    /**
+     * The emptied {@link eu.parcifal.print.Stager.Segment}s to be handed back
+     * to the staging buffers.
+     */
+    private final Deque<Segment> spares = new ArrayDeque<Segment>();
+
+    /**
+     * The {@link eu.parcifal.print.Stager.Segment}s being merged, ordered by
+     * the number of their next record.
+     */
+    private final PriorityQueue<Segment> heads = new PriorityQueue<Segment>(Comparator.comparingLong(Segment::head));
+
+    /**
+     * The merged {@link eu.parcifal.print.Printable}s.
+     */
+    private final List<Printable> printables = new ArrayList<Printable>();
+
+    /**
+     * The formatted records of the merged
+     * {@link eu.parcifal.print.Printable}s, one after the other.
+     */
+    private final StringBuilder formatted = new StringBuilder();
+
+    /**
+     * The end of each formatted record of the merged
+     * {@link eu.parcifal.print.Printable}s.
+     */
+    private int[] ends = new int[64];
+
+    /**
+     * The merger thread.
+     */
+    private final Thread merger;
+
+    /**
+     * Indicates whether or not the current {@link eu.parcifal.print.Stager}
+     * has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Stager} writing to the
+     * specified {@link eu.parcifal.print.Channel} and start its merger.
+     *
+     * @param channel
+     *            The {@link eu.parcifal.print.Channel} to which the staged
+     *            records are written.
+     */
+    Stager(Channel channel) {
+        this.channel = channel;
+        this.merger = new Thread(this::run, "eu.parcifal.print.merger+" + channel.getChannelName());
+
+        this.merger.setDaemon(true);
+        this.merger.start();
+    }
+
+    /**
+     * Stage the specified {@link eu.parcifal.print.Printable} in the staging
+     * buffer of the current thread. Does nothing once the current
+     * {@link eu.parcifal.print.Stager} has been closed.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} of the record.
+     * @param formatted
+     *            The formatted record.
+     */
+    void stage(Printable printable, CharSequence formatted) {
+        if (this.closed) {
+            return;
+        }
+
+        Stage stage = this.stage.get();
+        boolean empty;
+
+        stage.pending = this.sequence.get();
+        stage.lock.lock();
+
+        try {
+            empty = stage.segment.count == 0;
+
+            stage.segment.add(copy(printable), formatted, 0, formatted.length(), this.sequence.getAndIncrement());
+        } finally {
+            stage.lock.unlock();
+            stage.pending = Long.MAX_VALUE;
+        }
+
+        this.staged(stage, empty);
+    }
+
+    /**
+     * Stage the specified {@link eu.parcifal.print.Printable}s in the staging
+     * buffer of the current thread, in order. Does nothing once the current
+     * {@link eu.parcifal.print.Stager} has been closed.
+     *
+     * @param printables
+     *            The {@link eu.parcifal.print.Printable}s of the records.
+     * @param formatted
+     *            The formatted records, one after the other.
+     * @param ends
+     *            The end of each formatted record.
+     */
+    void stage(List<Printable> printables, CharSequence formatted, int[] ends) {
+        if (this.closed) {
+            return;
+        }
+
+        Stage stage = this.stage.get();
+        boolean empty;
+
+        stage.pending = this.sequence.get();
+        stage.lock.lock();
+
+        try {
+            empty = stage.segment.count == 0;
+
+            for (int i = 0; i < printables.size(); i++) {
+                stage.segment.add(copy(printables.get(i)), formatted, i == 0 ? 0 : ends[i - 1], ends[i],
+                        this.sequence.getAndIncrement());
+            }
+        } finally {
+            stage.lock.unlock();
+            stage.pending = Long.MAX_VALUE;
+        }
+
+        this.staged(stage, empty);
+    }
+
+    /**
+     * Write all staged records that can be written in order to the
+     * {@link eu.parcifal.print.Channel}, being all records staged before the
+     * call except those of which a thread is still staging an earlier one.
+     *
+     * @return True if records are left staged, otherwise false.
+     */
+    boolean merge() {
+        this.mergeLock.lock();
+
+        try {
+            // the sequence is read before the stages, so no record below it can be missed
+            long watermark = this.sequence.get();
+
+            for (Stage stage : this.stages) {
+                watermark = Math.min(watermark, stage.pending);
+            }
+
+            this.take();
+
+            for (Segment segment : this.segments) {
+                this.heads.add(segment);
+            }
+
+            while (!this.heads.isEmpty() && this.heads.peek().head() < watermark) {
+                Segment segment = this.heads.poll();
+
+                do {
+                    this.append(segment);
+                } while (segment.cursor < segment.count && segment.head() < watermark
+                        && (this.heads.isEmpty() || segment.head() < this.heads.peek().head()));
+
+                if (segment.cursor < segment.count) {
+                    this.heads.add(segment);
+                }
+            }
+
+            this.heads.clear();
+
+            for (Iterator<Segment> iterator = this.segments.iterator(); iterator.hasNext();) {
+                Segment segment = iterator.next();
+
+                if (segment.cursor == segment.count) {
+                    iterator.remove();
+
+                    if (segment.clear()) {
+                        this.spares.push(segment);
+                    }
+                }
+            }
+
+            if (!this.printables.isEmpty()) {
+                this.channel.write(this.printables, this.formatted, this.ends);
+            }
+
+            return !this.segments.isEmpty();
+        } finally {
+            this.printables.clear();
+
+            if (this.formatted.capacity() > STAGE_CAPACITY) {
+                this.formatted.setLength(0);
+                this.formatted.trimToSize();
+            } else {
+                this.formatted.setLength(0);
+            }
+
+            this.mergeLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the merger and write the records left staged. Records staged
+     * afterwards are discarded.
+     */
+    void close() {
+        this.closed = true;
+
+        LockSupport.unpark(this.merger);
+
+        if (this.merger != Thread.currentThread()) {
+            try {
+                this.merger.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        this.merge();
+    }
+
+    /**
+     * Merge until the current {@link eu.parcifal.print.Stager} has been
+     * closed, reporting rather than propagating a failure so a single broken
+     * write cannot stop the merger.
+     */
+    private void run() {
+        while (!this.closed) {
+            boolean left = false;
+
+            try {
+                left = this.merge();
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+
+            LockSupport.parkNanos(this, left ? PARK_NANOS : IDLE_NANOS);
+        }
+    }
+
+    /**
+     * Create and register the staging buffer of the current thread.
+     *
+     * @return The new {@link eu.parcifal.print.Stager.Stage}.
+     */
+    private Stage register() {
+        Stage stage = new Stage(Thread.currentThread(), new Segment());
+
+        this.stages.add(stage);
+
+        return stage;
+    }
+
+    /**
+     * Wake the merger if the specified staging buffer of the current thread
+     * was empty, and wait while it is full.
+     *
+     * @param stage
+     *            The staging buffer of the current thread.
+     * @param empty
+     *            Whether or not the staging buffer was empty before the
+     *            records were staged.
+     */
+    private void staged(Stage stage, boolean empty) {
+        if (empty) {
+            LockSupport.unpark(this.merger);
+        }
+
+        while (!this.closed && stage.isFull()) {
+            LockSupport.unpark(this.merger);
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+    }
+
+    /**
+     * Take the staged records of all staging buffers, handing each an empty
+     * {@link eu.parcifal.print.Stager.Segment} in return, and forget the
+     * staging buffers of threads that have ended. Must be called while
+     * holding the merge lock.
+     */
+    private void take() {
+        for (Iterator<Stage> iterator = this.stages.iterator(); iterator.hasNext();) {
+            Stage stage = iterator.next();
+
+            stage.lock.lock();
+
+            try {
+                if (stage.segment.count > 0) {
+                    boolean full = stage.isFull();
+
+                    this.segments.add(stage.segment);
+
+                    stage.segment = this.spares.isEmpty() ? new Segment() : this.spares.pop();
+
+                    if (full) {
+                        LockSupport.unpark(stage.owner);
+                    }
+                } else if (!stage.owner.isAlive()) {
+                    iterator.remove();
+                }
+            } finally {
+                stage.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Append the next record of the specified
+     * {@link eu.parcifal.print.Stager.Segment} to the merged records. Must be
+     * called while holding the merge lock.
+     *
+     * @param segment
+     *            The {@link eu.parcifal.print.Stager.Segment} of which the
+     *            next record is merged.
+     */
+    private void append(Segment segment) {
+        int index = segment.cursor++;
+
+        this.printables.add(segment.printables.get(index));
+        this.formatted.append(segment.formatted, index == 0 ? 0 : segment.ends[index - 1], segment.ends[index]);
+
+        if (this.ends.length < this.printables.size()) {
+            this.ends = Arrays.copyOf(this.ends, this.ends.length * 2);
+        }
+
+        this.ends[this.printables.size() - 1] = this.formatted.length();
+    }
+
+    /**
+     * Return the specified {@link eu.parcifal.print.Printable}, or a copy of
+     * it if it is reused by its thread, so that it can be kept until it is
+     * merged.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be staged.
+     * @return The {@link eu.parcifal.print.Printable} to be kept.
+     */
+    private static Printable copy(Printable printable) {
+        return printable instanceof ReusablePrintable ? new Printable(printable) : printable;
+    }
+
+    /**
+     * The staging buffer of a single thread.
+     */
+    private final static class Stage {
+
+        /**
+         * The thread staging records in the current
+         * {@link eu.parcifal.print.Stager.Stage}.
+         */
+        private final Thread owner;
+
+        /**
+         * The lock guarding the {@link eu.parcifal.print.Stager.Segment} of
+         * the current {@link eu.parcifal.print.Stager.Stage}, only contended
+         * while the merger takes it.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The {@link eu.parcifal.print.Stager.Segment} to which records are
+         * staged.
+         */
+        private Segment segment;
+
+        /**
+         * A lower bound of the number of the record being staged, or
+         * {@link java.lang.Long#MAX_VALUE} if none is.
+         */
+        private volatile long pending = Long.MAX_VALUE;
+
+        /**
+         * Construct a new {@link eu.parcifal.print.Stager.Stage}.
+         *
+         * @param owner
+         *            The thread staging records in the new
+         *            {@link eu.parcifal.print.Stager.Stage}.
+         * @param segment
+         *            The {@link eu.parcifal.print.Stager.Segment} to which
+         *            records are staged.
+         */
+        Stage(Thread owner, Segment segment) {
+            this.owner = owner;
+            this.segment = segment;
+        }
+
+        /**
+         * Return true if the current {@link eu.parcifal.print.Stager.Stage}
+         * cannot take more records until the merger has taken them.
+         *
+         * @return True if the staging buffer is full, otherwise false.
+         */
+        boolean isFull() {
+            this.lock.lock();
+
+            try {
+                return this.segment.formatted.length() >= STAGE_CAPACITY;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+    }
+
+    /**
+     * A sequence of numbered records staged by a single thread.
+     */
+    private final static class Segment {
+
+        /**
+         * The {@link eu.parcifal.print.Printable}s of the records.
+         */
+        private final List<Printable> printables = new ArrayList<Printable>();
+
+        /**
+         * The formatted records, one after the other.
+         */
+        private final StringBuilder formatted = new StringBuilder();
+
+        /**
+         * The number of each record.
+         */
+        private long[] sequences = new long[16];
+
+        /**
+         * The end of each formatted record.
+         */
+        private int[] ends = new int[16];
+
+        /**
+         * The amount of records.
+         */
+        private int count = 0;
+
+        /**
+         * The index of the next record to be merged.
+         */
+        private int cursor = 0;
+
+        /**
+         * Append the specified record.
+         *
+         * @param printable
+         *            The {@link eu.parcifal.print.Printable} of the record.
+         * @param formatted
+         *            The characters holding the formatted record.
+         * @param start
+         *            The start of the formatted record.
+         * @param end
+         *            The end of the formatted record.
+         * @param sequence
+         *            The number of the record.
+         */
+        void add(Printable printable, CharSequence formatted, int start, int end, long sequence) {
+            if (this.count == this.sequences.length) {
+                this.sequences = Arrays.copyOf(this.sequences, this.count * 2);
+                this.ends = Arrays.copyOf(this.ends, this.count * 2);
+            }
+
+            this.printables.add(printable);
+            this.formatted.append(formatted, start, end);
+            this.sequences[this.count] = sequence;
+            this.ends[this.count++] = this.formatted.length();
+        }
+
+        /**
+         * Return the number of the next record to be merged.
+         *
+         * @return The number of the next record.
+         */
+        long head() {
+            return this.sequences[this.cursor];
+        }
+
+        /**
+         * Remove all records, so that the current
+         * {@link eu.parcifal.print.Stager.Segment} can be reused.
+         *
+         * @return True if the current {@link eu.parcifal.print.Stager.Segment}
+         *         is small enough to be reused, otherwise false.
+         */
+        boolean clear() {
+            this.printables.clear();
+            this.formatted.setLength(0);
+            this.count = 0;
+            this.cursor = 0;
+
+            return this.formatted.capacity() <= STAGE_CAPACITY * 2;
+        }
+
+    }
+
+}
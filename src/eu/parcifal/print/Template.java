@@ -0,0 +1,792 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A format, written in the syntax of {@link java.util.Formatter}, compiled
+ * into a list of segments that append the attributes of a
+ * {@link eu.parcifal.print.Printable} directly into a
+ * {@link java.lang.StringBuilder}. The arguments of the format refer to the
+ * attributes of the {@link eu.parcifal.print.Printable}:
+ *
+ * <ol>
+ * <li>the tag,</li>
+ * <li>the date-time,</li>
+ * <li>the source class-name,</li>
+ * <li>the source method-name,</li>
+ * <li>the source file-name,</li>
+ * <li>the source line-number,</li>
+ * <li>the content and</li>
+ * <li>the {@link eu.parcifal.print.Field}s, each written as ;"name=value" if the
+ * content is escaped for CSV, otherwise as name=value after a space.</li>
+ * </ol>
+ *
+ * The conversions s, S, d, n, % and the date-time conversions tY, tm, td, tH,
+ * tM, tS and tL with an optional "-" flag, width and precision are written
+ * without {@link java.lang.String#format(String, Object...)}. Consecutive
+ * date-time conversions are rendered once per millisecond by each thread and
+ * then reused, comparing the timestamp of each
+ * {@link eu.parcifal.print.Printable} without converting it to a date-time.
+ * Content given as a format with arguments is formatted directly into the
+ * output by the plain s conversion.
+ * Any other conversion falls back to {@link java.util.Formatter}.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Template {
+
+    /**
+     * The syntax of a single format specifier.
+     */
+    private final static Pattern SPECIFIER = Pattern
+            .compile("%(\\d+\\$|<)?([-#+ 0,(]*)(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+    /**
+     * The index of each attribute of a {@link eu.parcifal.print.Printable}
+     * used as argument of a format.
+     */
+    private final static int TAG = 1, DATE_TIME = 2, CLASS_NAME = 3, METHOD_NAME = 4, FILE_NAME = 5,
+            LINE_NUMBER = 6, CONTENT = 7, FIELDS = 8;
+
+    /**
+     * The segments of the current {@link eu.parcifal.print.Template}.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Template} consisting of the
+     * specified segments.
+     *
+     * @param segments
+     *            The segments of the new {@link eu.parcifal.print.Template}.
+     */
+    private Template(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Compile the specified format into a {@link eu.parcifal.print.Template}.
+     *
+     * @param format
+     *            The format to be compiled.
+     * @param capturesLocation
+     *            Whether or not the source attributes are written. If false,
+     *            they are written as empty strings.
+     * @param escapesContent
+     *            Whether or not double quotes, carriage returns and line feeds
+     *            in the content are escaped with a backslash, so the content
+     *            fits in a single quoted CSV field.
+     * @return The compiled {@link eu.parcifal.print.Template}.
+     * @throws IllegalArgumentException
+     *             Thrown if the format refers to an argument that does not
+     *             exist.
+     */
+    static Template compile(String format, boolean capturesLocation, boolean escapesContent) {
+        List<Segment> segments = new ArrayList<Segment>();
+        List<Segment> dateRun = new ArrayList<Segment>();
+        StringBuilder literal = new StringBuilder();
+        Matcher matcher = SPECIFIER.matcher(format);
+        int position = 0;
+        int ordinaryIndex = 0;
+        int lastIndex = 0;
+
+        while (matcher.find()) {
+            literal.append(format, position, matcher.start());
+            position = matcher.end();
+
+            char conversion = matcher.group(6).charAt(0);
+            boolean dateTime = matcher.group(5) != null;
+
+            if (!dateTime && conversion == 'n') {
+                literal.append(System.lineSeparator());
+
+                continue;
+            } else if (!dateTime && conversion == '%') {
+                literal.append('%');
+
+                continue;
+            }
+
+            int index;
+
+            if (matcher.group(1) == null) {
+                index = ++ordinaryIndex;
+            } else if (matcher.group(1).equals("<")) {
+                index = lastIndex;
+            } else {
+                index = Integer.parseInt(matcher.group(1).substring(0, matcher.group(1).length() - 1));
+            }
+
+            if (index < TAG || index > FIELDS) {
+                throw new IllegalArgumentException("format \"" + format + "\" refers to argument " + index
+                        + ", but only arguments 1 to 8 exist");
+            }
+
+            lastIndex = index;
+
+            Segment segment = compileSpecifier(matcher, index, capturesLocation, escapesContent);
+
+            if (index == DATE_TIME && segment instanceof DateSegment) {
+                if (!dateRun.isEmpty() && literal.length() > 0) {
+                    dateRun.add(new LiteralSegment(literal.toString()));
+                } else if (literal.length() > 0) {
+                    segments.add(new LiteralSegment(literal.toString()));
+                }
+
+                literal.setLength(0);
+                dateRun.add(segment);
+            } else {
+                closeDateRun(segments, dateRun);
+
+                if (literal.length() > 0) {
+                    segments.add(new LiteralSegment(literal.toString()));
+                    literal.setLength(0);
+                }
+
+                segments.add(segment);
+            }
+        }
+
+        closeDateRun(segments, dateRun);
+        literal.append(format, position, format.length());
+
+        if (literal.length() > 0) {
+            segments.add(new LiteralSegment(literal.toString()));
+        }
+
+        return new Template(segments.toArray(new Segment[segments.size()]));
+    }
+
+    /**
+     * Append the specified {@link eu.parcifal.print.Printable} formatted by
+     * the current {@link eu.parcifal.print.Template} to the specified
+     * {@link java.lang.StringBuilder}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be formatted.
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     */
+    void format(Printable printable, StringBuilder output) {
+        for (Segment segment : this.segments) {
+            segment.append(printable, output);
+        }
+    }
+
+    /**
+     * Return the specified {@link eu.parcifal.print.Printable} formatted by
+     * the current {@link eu.parcifal.print.Template}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable} to be formatted.
+     * @return The formatted {@link eu.parcifal.print.Printable}.
+     */
+    String format(Printable printable) {
+        StringBuilder output = new StringBuilder(128);
+
+        this.format(printable, output);
+
+        return output.toString();
+    }
+
+    /**
+     * Append the escaped form of the specified content, in which backslashes,
+     * double quotes, carriage returns and line feeds are preceded by a
+     * backslash, to the specified {@link java.lang.StringBuilder} in a single
+     * pass. Escaping the backslash itself keeps a content ending in one from
+     * being mistaken for an escaped closing quote.
+     *
+     * @param content
+     *            The content to be escaped.
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     */
+    static void escape(CharSequence content, StringBuilder output) {
+        int length = content.length();
+
+        for (int i = 0; i < length; i++) {
+            char character = content.charAt(i);
+
+            switch (character) {
+            case '\\':
+                output.append("\\\\");
+                break;
+            case '"':
+                output.append("\\\"");
+                break;
+            case '\r':
+                output.append("\\r");
+                break;
+            case '\n':
+                output.append("\\n");
+                break;
+            default:
+                output.append(character);
+            }
+        }
+    }
+
+    /**
+     * Escape the characters of the specified {@link java.lang.StringBuilder}
+     * from the specified position on, as
+     * {@link eu.parcifal.print.Template#escape(CharSequence, StringBuilder)}
+     * would have when appending them.
+     *
+     * @param output
+     *            The {@link java.lang.StringBuilder} to escape.
+     * @param start
+     *            The position of the first character to be escaped.
+     */
+    static void escape(StringBuilder output, int start) {
+        for (int i = start; i < output.length(); i++) {
+            char character = output.charAt(i);
+
+            if (character == '\\' || character == '"' || character == '\r' || character == '\n') {
+                String tail = output.substring(i);
+
+                output.setLength(i);
+                escape(tail, output);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compile the format specifier found by the specified
+     * {@link java.util.regex.Matcher} into a segment.
+     *
+     * @param matcher
+     *            The {@link java.util.regex.Matcher} that found the
+     *            specifier.
+     * @param index
+     *            The index of the argument the specifier refers to.
+     * @param capturesLocation
+     *            Whether or not the source attributes are written.
+     * @param escapesContent
+     *            Whether or not the content is escaped.
+     * @return The compiled segment.
+     */
+    private static Segment compileSpecifier(Matcher matcher, int index, boolean capturesLocation,
+            boolean escapesContent) {
+        String flags = matcher.group(2);
+        int width = matcher.group(3) == null ? -1 : Integer.parseInt(matcher.group(3));
+        int precision = matcher.group(4) == null ? -1 : Integer.parseInt(matcher.group(4).substring(1));
+        char conversion = matcher.group(6).charAt(0);
+        boolean simpleFlags = flags.isEmpty() || (flags.equals("-") && width >= 0);
+
+        if (index >= CLASS_NAME && index <= LINE_NUMBER && !capturesLocation) {
+            return new LiteralSegment("");
+        } else if (index == FIELDS && matcher.group(5) == null && flags.isEmpty() && width < 0 && precision < 0
+                && conversion == 's') {
+            return new FieldsSegment(escapesContent);
+        } else if (matcher.group(5) != null) {
+            if (index == DATE_TIME && flags.isEmpty() && width < 0 && precision < 0
+                    && "YmdHMSL".indexOf(conversion) >= 0) {
+                return new DateSegment(conversion);
+            }
+        } else if (simpleFlags && (conversion == 's' || conversion == 'S')) {
+            return new TextSegment(index, flags.equals("-"), width, precision, conversion == 'S', escapesContent);
+        } else if (simpleFlags && conversion == 'd' && precision < 0 && index == LINE_NUMBER) {
+            return new NumberSegment(flags.equals("-"), width);
+        }
+
+        return new FormatterSegment(index, "%1$" + matcher.group().substring(matcher.group(1) == null ? 1
+                : matcher.group(1).length() + 1), escapesContent);
+    }
+
+    /**
+     * Add the collected run of date-time segments, if any, to the specified
+     * segments as a single cached segment.
+     *
+     * @param segments
+     *            The segments of the {@link eu.parcifal.print.Template} being
+     *            compiled.
+     * @param dateRun
+     *            The collected date-time segments, which is cleared.
+     */
+    private static void closeDateRun(List<Segment> segments, List<Segment> dateRun) {
+        if (!dateRun.isEmpty()) {
+            segments.add(new CachedDateSegment(dateRun.toArray(new Segment[dateRun.size()])));
+            dateRun.clear();
+        }
+    }
+
+    /**
+     * Return the specified textual attribute of the specified
+     * {@link eu.parcifal.print.Printable}.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable}.
+     * @param index
+     *            The index of the attribute.
+     * @return The attribute as it would be printed by
+     *         {@link java.util.Formatter}.
+     */
+    private static String text(Printable printable, int index) {
+        switch (index) {
+        case TAG:
+            return printable.getTag();
+        case CLASS_NAME:
+            return printable.getSourceClassName();
+        case METHOD_NAME:
+            return printable.getSourceMethodName();
+        case FILE_NAME:
+            return printable.getSourceFileName();
+        case LINE_NUMBER:
+            return Integer.toString(printable.getSourceLineNumber());
+        case CONTENT:
+            return printable.getContent();
+        case FIELDS:
+            StringBuilder fields = new StringBuilder();
+
+            for (Field field : printable.getFields()) {
+                fields.append(' ').append(field);
+            }
+
+            return fields.toString();
+        default:
+            return printable.getDateTime().toString();
+        }
+    }
+
+    /**
+     * Return the specified attribute of the specified
+     * {@link eu.parcifal.print.Printable} as an object.
+     *
+     * @param printable
+     *            The {@link eu.parcifal.print.Printable}.
+     * @param index
+     *            The index of the attribute.
+     * @return The attribute.
+     */
+    private static Object value(Printable printable, int index) {
+        switch (index) {
+        case DATE_TIME:
+            return printable.getDateTime();
+        case LINE_NUMBER:
+            return printable.getSourceLineNumber();
+        default:
+            return text(printable, index);
+        }
+    }
+
+    /**
+     * Append the specified number with at least the specified amount of
+     * digits, padded with leading zeros.
+     *
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     * @param number
+     *            The non-negative number to be appended.
+     * @param digits
+     *            The minimum amount of digits.
+     */
+    private static void appendPadded(StringBuilder output, int number, int digits) {
+        for (int limit = 10, i = 1; i < digits; i++, limit *= 10) {
+            if (number < limit) {
+                output.append('0');
+            }
+        }
+
+        output.append(number);
+    }
+
+    /**
+     * Append the specified amount of spaces.
+     *
+     * @param output
+     *            The {@link java.lang.StringBuilder} to append to.
+     * @param count
+     *            The amount of spaces, which may be negative.
+     */
+    private static void pad(StringBuilder output, int count) {
+        for (int i = 0; i < count; i++) {
+            output.append(' ');
+        }
+    }
+
+    /**
+     * A part of a compiled {@link eu.parcifal.print.Template}.
+     */
+    private interface Segment {
+
+        /**
+         * Append the current segment of the specified
+         * {@link eu.parcifal.print.Printable}.
+         *
+         * @param printable
+         *            The {@link eu.parcifal.print.Printable} being formatted.
+         * @param output
+         *            The {@link java.lang.StringBuilder} to append to.
+         */
+        void append(Printable printable, StringBuilder output);
+
+    }
+
+    /**
+     * A segment appending literal text.
+     */
+    private final static class LiteralSegment implements Segment {
+
+        /**
+         * The text to be appended.
+         */
+        private final String text;
+
+        /**
+         * Construct a new segment appending the specified text.
+         *
+         * @param text
+         *            The text to be appended.
+         */
+        LiteralSegment(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            output.append(this.text);
+        }
+
+    }
+
+    /**
+     * A segment appending a textual attribute, as the s and S conversions.
+     */
+    private final static class TextSegment implements Segment {
+
+        /**
+         * The index of the attribute.
+         */
+        private final int index;
+
+        /**
+         * Whether or not the text is aligned to the left.
+         */
+        private final boolean leftJustify;
+
+        /**
+         * The minimum width, or -1.
+         */
+        private final int width;
+
+        /**
+         * The maximum amount of characters, or -1.
+         */
+        private final int precision;
+
+        /**
+         * Whether or not the text is converted to upper case.
+         */
+        private final boolean upperCase;
+
+        /**
+         * Whether or not the content is escaped.
+         */
+        private final boolean escapes;
+
+        /**
+         * Construct a new segment appending a textual attribute.
+         *
+         * @param index
+         *            The index of the attribute.
+         * @param leftJustify
+         *            Whether or not the text is aligned to the left.
+         * @param width
+         *            The minimum width, or -1.
+         * @param precision
+         *            The maximum amount of characters, or -1.
+         * @param upperCase
+         *            Whether or not the text is converted to upper case.
+         * @param escapesContent
+         *            Whether or not the content is escaped.
+         */
+        TextSegment(int index, boolean leftJustify, int width, int precision, boolean upperCase,
+                boolean escapesContent) {
+            this.index = index;
+            this.leftJustify = leftJustify;
+            this.width = width;
+            this.precision = precision;
+            this.upperCase = upperCase;
+            this.escapes = escapesContent && index == CONTENT;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            if (this.index == CONTENT && this.width < 0 && this.precision < 0 && !this.upperCase) {
+                int start = output.length();
+
+                printable.appendContent(output);
+
+                if (this.escapes) {
+                    escape(output, start);
+                }
+
+                return;
+            }
+
+            String text = text(printable, this.index);
+
+            if (text == null) {
+                text = "null";
+            }
+
+            int length = this.precision >= 0 ? Math.min(this.precision, text.length()) : text.length();
+            int start = output.length();
+
+            if (!this.leftJustify) {
+                pad(output, this.width - length);
+            }
+
+            if (this.escapes) {
+                escape(text.subSequence(0, length), output);
+            } else {
+                output.append(text, 0, length);
+            }
+
+            if (this.upperCase) {
+                for (int i = start; i < output.length(); i++) {
+                    output.setCharAt(i, Character.toUpperCase(output.charAt(i)));
+                }
+            }
+
+            if (this.leftJustify) {
+                pad(output, this.width - length);
+            }
+        }
+
+    }
+
+    /**
+     * A segment appending the source line-number, as the d conversion.
+     */
+    private final static class NumberSegment implements Segment {
+
+        /**
+         * Whether or not the number is aligned to the left.
+         */
+        private final boolean leftJustify;
+
+        /**
+         * The minimum width, or -1.
+         */
+        private final int width;
+
+        /**
+         * Construct a new segment appending the source line-number.
+         *
+         * @param leftJustify
+         *            Whether or not the number is aligned to the left.
+         * @param width
+         *            The minimum width, or -1.
+         */
+        NumberSegment(boolean leftJustify, int width) {
+            this.leftJustify = leftJustify;
+            this.width = width;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            int start = output.length();
+
+            output.append(printable.getSourceLineNumber());
+
+            for (int padding = this.width - (output.length() - start); padding > 0; padding--) {
+                if (this.leftJustify) {
+                    output.append(' ');
+                } else {
+                    output.insert(start, ' ');
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A segment appending a single field of the date-time.
+     */
+    private final static class DateSegment implements Segment {
+
+        /**
+         * The date-time conversion, such as 'Y' for the year.
+         */
+        private final char conversion;
+
+        /**
+         * Construct a new segment appending a single field of the date-time.
+         *
+         * @param conversion
+         *            The date-time conversion.
+         */
+        DateSegment(char conversion) {
+            this.conversion = conversion;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            appendPadded(output, Clock.field(printable.getTimestamp(), this.conversion),
+                    this.conversion == 'Y' ? 4 : this.conversion == 'L' ? 3 : 2);
+        }
+
+    }
+
+    /**
+     * A segment appending a run of date-time fields and the literal text
+     * between them, which each thread renders only once per millisecond into
+     * a buffer of its own, so that rendering a new millisecond allocates
+     * nothing.
+     */
+    private final static class CachedDateSegment implements Segment {
+
+        /**
+         * The date-time and literal segments of the run.
+         */
+        private final Segment[] segments;
+
+        /**
+         * The run most recently rendered by each thread.
+         */
+        private final ThreadLocal<Rendered> rendered = ThreadLocal.withInitial(Rendered::new);
+
+        /**
+         * Construct a new segment appending a run of date-time fields.
+         *
+         * @param segments
+         *            The date-time and literal segments of the run.
+         */
+        CachedDateSegment(Segment[] segments) {
+            this.segments = segments;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            long millisecond = printable.getTimestamp();
+            Rendered rendered = this.rendered.get();
+
+            if (rendered.millisecond != millisecond) {
+                rendered.millisecond = millisecond;
+                rendered.text.setLength(0);
+
+                for (Segment segment : this.segments) {
+                    segment.append(printable, rendered.text);
+                }
+            }
+
+            output.append(rendered.text);
+        }
+
+        /**
+         * A run rendered for a single millisecond.
+         */
+        private final static class Rendered {
+
+            /**
+             * The millisecond for which the run has been rendered.
+             */
+            private long millisecond = Long.MIN_VALUE;
+
+            /**
+             * The rendered run.
+             */
+            private final StringBuilder text = new StringBuilder();
+
+        }
+
+    }
+
+    /**
+     * A segment appending the {@link eu.parcifal.print.Field}s.
+     */
+    private final static class FieldsSegment implements Segment {
+
+        /**
+         * Whether or not each {@link eu.parcifal.print.Field} is written as an
+         * escaped CSV column.
+         */
+        private final boolean escapes;
+
+        /**
+         * Construct a new segment appending the
+         * {@link eu.parcifal.print.Field}s.
+         *
+         * @param escapesContent
+         *            Whether or not each {@link eu.parcifal.print.Field} is
+         *            written as an escaped CSV column.
+         */
+        FieldsSegment(boolean escapesContent) {
+            this.escapes = escapesContent;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            for (Field field : printable.getFields()) {
+                if (this.escapes) {
+                    output.append(";\"").append(field.getName()).append('=');
+                    escape(String.valueOf(field.getValue()), output);
+                    output.append('"');
+                } else {
+                    output.append(' ').append(field.getName()).append('=').append(field.getValue());
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A segment appending an attribute using {@link java.util.Formatter}, for
+     * conversions that have no segment of their own.
+     */
+    private final static class FormatterSegment implements Segment {
+
+        /**
+         * The index of the attribute.
+         */
+        private final int index;
+
+        /**
+         * The format specifier, referring to the first argument.
+         */
+        private final String specifier;
+
+        /**
+         * Whether or not the content is escaped.
+         */
+        private final boolean escapes;
+
+        /**
+         * Construct a new segment appending an attribute using
+         * {@link java.util.Formatter}.
+         *
+         * @param index
+         *            The index of the attribute.
+         * @param specifier
+         *            The format specifier, referring to the first argument.
+         * @param escapesContent
+         *            Whether or not the content is escaped.
+         */
+        FormatterSegment(int index, String specifier, boolean escapesContent) {
+            this.index = index;
+            this.specifier = specifier;
+            this.escapes = escapesContent && index == CONTENT;
+        }
+
+        @Override
+        public void append(Printable printable, StringBuilder output) {
+            String text = String.format(this.specifier, value(printable, this.index));
+
+            if (this.escapes) {
+                escape(text, output);
+            } else {
+                output.append(text);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,256 @@
+package eu.parcifal.print;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The lines printed for a {@link java.lang.Throwable} by
+ * {@link eu.parcifal.print.Console#error(Throwable)}. Each stack trace,
+ * including its chain of causes, is identified by a fingerprint computed from
+ * the class names and frames, leaving out the messages. The first occurrence
+ * of a fingerprint prints the whole chain; while the fingerprint is among the
+ * most recently printed ones, later occurrences print a single line referring
+ * to it with the amount of times it has occurred. Lines are only rendered when
+ * a {@link eu.parcifal.print.Channel} asks for them, and a fingerprint is only
+ * remembered once its whole chain has been rendered, so a trace that is
+ * suppressed or not routed anywhere neither counts nor hides the next one.
+ *
+ * @see eu.parcifal.print.Console
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Trace {
+
+    /**
+     * The maximum amount of fingerprints remembered. The least recently
+     * printed fingerprint is forgotten first, after which its trace prints in
+     * full again.
+     */
+    final static int FINGERPRINT_CACHE_SIZE = 1024;
+
+    /**
+     * The maximum amount of causes followed.
+     */
+    private final static int MAX_CAUSES = 64;
+
+    /**
+     * The amount of printed occurrences of each recently printed fingerprint,
+     * least recently printed first.
+     */
+    private final static Map<Long, long[]> OCCURRENCES = new LinkedHashMap<Long, long[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return this.size() > FINGERPRINT_CACHE_SIZE;
+        }
+
+    };
+
+    /**
+     * The {@link java.lang.Throwable} and its causes.
+     */
+    private final Throwable[] chain;
+
+    /**
+     * The stack trace of each {@link java.lang.Throwable} of the chain.
+     */
+    private final StackTraceElement[][] frames;
+
+    /**
+     * The amount of frames printed of each {@link java.lang.Throwable} of the
+     * chain, leaving out those in common with the one it caused.
+     */
+    private final int[] shown;
+
+    /**
+     * The number of the first line of each {@link java.lang.Throwable} of the
+     * chain.
+     */
+    private final int[] starts;
+
+    /**
+     * The amount of lines of the whole chain.
+     */
+    private final int chainLineCount;
+
+    /**
+     * The fingerprint of the stack trace.
+     */
+    private final long fingerprint;
+
+    /**
+     * The amount of times the fingerprint has been printed, including this
+     * time, or 0 until a {@link eu.parcifal.print.Channel} first asks for the
+     * lines.
+     */
+    private long occurrence = 0;
+
+    /**
+     * Construct a new {@link eu.parcifal.print.Trace} of the specified
+     * {@link java.lang.Throwable}.
+     *
+     * @param throwable
+     *            The {@link java.lang.Throwable} to be printed.
+     */
+    Trace(Throwable throwable) {
+        List<Throwable> chain = new ArrayList<Throwable>();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+
+        for (Throwable cause = throwable; cause != null && chain.size() < MAX_CAUSES
+                && seen.add(cause); cause = cause.getCause()) {
+            chain.add(cause);
+        }
+
+        this.chain = chain.toArray(new Throwable[chain.size()]);
+        this.frames = new StackTraceElement[this.chain.length][];
+        this.shown = new int[this.chain.length];
+        this.starts = new int[this.chain.length];
+
+        long fingerprint = 0xcbf29ce484222325L;
+        int line = 0;
+
+        for (int i = 0; i < this.chain.length; i++) {
+            this.frames[i] = this.chain[i].getStackTrace();
+            this.shown[i] = this.frames[i].length;
+
+            if (i > 0) {
+                // leave out the frames in common with the enclosing trace
+                StackTraceElement[] enclosing = this.frames[i - 1];
+
+                for (int j = enclosing.length - 1; this.shown[i] > 0 && j >= 0
+                        && this.frames[i][this.shown[i] - 1].equals(enclosing[j]); j--) {
+                    this.shown[i]--;
+                }
+            }
+
+            fingerprint = (fingerprint ^ this.chain[i].getClass().getName().hashCode()) * 0x100000001b3L;
+
+            for (StackTraceElement element : this.frames[i]) {
+                fingerprint = (fingerprint ^ element.hashCode()) * 0x100000001b3L;
+            }
+
+            this.starts[i] = line;
+
+            line += 1 + this.shown[i] + (this.shown[i] < this.frames[i].length ? 1 : 0);
+        }
+
+        this.fingerprint = fingerprint;
+        this.chainLineCount = line;
+    }
+
+    /**
+     * Return true if the fingerprint had been printed recently when a
+     * {@link eu.parcifal.print.Channel} first asked for the lines, in which
+     * case only a reference to it is printed. Counts the occurrence on the
+     * first call.
+     *
+     * @return True if the trace is a repetition, otherwise false.
+     */
+    synchronized boolean isRepeated() {
+        if (this.occurrence == 0) {
+            synchronized (OCCURRENCES) {
+                long[] occurrences = OCCURRENCES.get(this.fingerprint);
+
+                // the first occurrence is remembered once it has been printed
+                this.occurrence = occurrences == null ? 1 : ++occurrences[0];
+            }
+        }
+
+        return this.occurrence > 1;
+    }
+
+    /**
+     * Return the fingerprint of the stack trace as a hexadecimal string.
+     *
+     * @return The fingerprint.
+     */
+    String getFingerprint() {
+        return String.format("%016x", this.fingerprint);
+    }
+
+    /**
+     * Return the amount of lines to be printed.
+     *
+     * @return The amount of lines.
+     */
+    int getLineCount() {
+        return this.isRepeated() ? 1 : this.chainLineCount;
+    }
+
+    /**
+     * Render the line with the specified number.
+     *
+     * @param number
+     *            The number of the line.
+     * @return The line.
+     */
+    String getLine(int number) {
+        if (this.isRepeated()) {
+            return " : " + describe(this.chain[0]) + " [trace " + this.getFingerprint() + " occurred "
+                    + this.occurrence + " times]";
+        }
+
+        if (number == this.chainLineCount - 1) {
+            this.remember();
+        }
+
+        int i = this.chain.length - 1;
+
+        while (this.starts[i] > number) {
+            i--;
+        }
+
+        int offset = number - this.starts[i];
+
+        if (offset == 0) {
+            return i == 0 ? " : " + describe(this.chain[0]) + " [trace " + this.getFingerprint() + "]"
+                    : " : caused by " + describe(this.chain[i]);
+        } else if (offset > this.shown[i]) {
+            return " @ ... " + (this.frames[i].length - this.shown[i]) + " more";
+        }
+
+        StackTraceElement element = this.frames[i][offset - 1];
+
+        String line = " @ " + element.getClassName() + "#" + element.getMethodName();
+
+        if (!(element.getFileName() == null || element.getLineNumber() == -1)) {
+            return line + " (" + element.getFileName() + ":" + element.getLineNumber() + ")";
+        } else {
+            return line;
+        }
+    }
+
+    /**
+     * Remember the fingerprint as printed, once the last line of the whole
+     * chain is rendered.
+     */
+    private void remember() {
+        synchronized (OCCURRENCES) {
+            if (OCCURRENCES.get(this.fingerprint) == null) {
+                OCCURRENCES.put(this.fingerprint, new long[] { 1 });
+            }
+        }
+    }
+
+    /**
+     * Describe the specified {@link java.lang.Throwable} by its message and
+     * class name.
+     *
+     * @param throwable
+     *            The {@link java.lang.Throwable} to be described.
+     * @return The description.
+     */
+    static String describe(Throwable throwable) {
+        return throwable.getMessage() + " (" + throwable.getClass().getName() + ")";
+    }
+
+}
@@ -0,0 +1,88 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import eu.parcifal.print.Configuration.Element;
+
+/**
+ * Tests reading the configuration file with the streaming parser, and that
+ * log files are only opened once a record is written to them.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class ConfigurationTest {
+
+    /**
+     * The log file written to by the tests.
+     */
+    private final static File WRITTEN = new File("log/configuration-written.csv");
+
+    /**
+     * The log file never written to by the tests.
+     */
+    private final static File UNUSED = new File("log/configuration-unused.csv");
+
+    @BeforeAll
+    static void configure() throws IOException {
+        Files.deleteIfExists(WRITTEN.toPath());
+        Files.deleteIfExists(UNUSED.toPath());
+
+        Tests.configure("reload=\"false\"", "<!-- a comment between the elements -->",
+                "<limit tag=\"limited\" rate=\"5\" />", "<console debug=\"true\" />",
+                "<log location=\"./" + WRITTEN.getPath() + "\" tag=\"written\" capture-location=\"false\" />",
+                "<log location=\"./" + UNUSED.getPath() + "\" tag=\"unused\" pattern=\"%7$s&#13;&#10;\" />");
+    }
+
+    /**
+     * The child elements of the printer element must be read in the order of
+     * the file, with their attributes, entities resolved, and the defaults of
+     * missing attributes applied by the code reading them.
+     */
+    @Test
+    void readsElementsInOrder() {
+        Configuration configuration = Configuration.current();
+        List<Element> logs = configuration.getElements("log");
+
+        assertTrue(configuration.isAvailable());
+        assertFalse(configuration.getPrinter().getFlag("reload", true));
+        assertEquals(2, logs.size());
+        assertEquals("written", logs.get(0).getAttribute("tag"));
+        assertEquals("%7$s\r\n", logs.get(1).getAttribute("pattern"));
+        assertEquals("", logs.get(0).getAttribute("pattern"));
+        assertFalse(logs.get(0).hasAttribute("pattern"));
+        assertEquals("record", logs.get(0).getAttribute("flush", "record"));
+        assertTrue(configuration.getElement("console").getFlag("debug", false));
+        assertEquals("5", configuration.getElements("limit").get(0).getAttribute("rate"));
+        assertEquals("", configuration.getElement("dispatcher").getAttribute("mode"));
+    }
+
+    /**
+     * A log file must not be created before the first record is written to
+     * it, and a log file never written to must never be created.
+     */
+    @Test
+    void opensLogFilesOnFirstWrite() throws IOException {
+        assertTrue(Log.isEnabled("written"));
+        assertFalse(WRITTEN.exists());
+        assertFalse(UNUSED.exists());
+
+        Log.write("written", "first record");
+
+        assertTrue(WRITTEN.exists());
+        assertTrue(Files.readString(WRITTEN.toPath()).endsWith(";\"first record\"\r\n"));
+        assertFalse(UNUSED.exists());
+    }
+
+}
@@ -0,0 +1,112 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the background threads of a {@link eu.parcifal.print.Dispatcher}
+ * park while there is nothing to print, and that publishers blocked on a full
+ * ring buffer are woken as it empties.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class DispatcherTest {
+
+    /**
+     * The prefix of the names of the background threads.
+     */
+    private final static String THREAD_NAME = "eu.parcifal.print.dispatcher-";
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * Idle background threads must park without a timeout, and the next
+     * {@link eu.parcifal.print.Print} must still be written.
+     */
+    @Test
+    void parksIdleThreads() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Collection<Channel> channels = Collections.singletonList(Tests.lineChannel("eu.parcifal.print.idle", output));
+        Dispatcher dispatcher = new Dispatcher(16, 2, Dispatcher.Policy.BLOCK);
+
+        try {
+            Thread.sleep(200);
+
+            List<Thread> threads = new ArrayList<Thread>();
+
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith(THREAD_NAME)) {
+                    threads.add(thread);
+                }
+            }
+
+            assertEquals(2, threads.size());
+
+            for (Thread thread : threads) {
+                assertEquals(Thread.State.WAITING, thread.getState(), thread.getName());
+            }
+
+            dispatcher.dispatch(new Print(Tests.printable("idle", "woken"), channels));
+
+            for (int i = 0; i < 500 && output.size() == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            assertEquals("woken\n", new String(output.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Publishers that block on a ring buffer much smaller than the amount of
+     * {@link eu.parcifal.print.Print}s must all finish, without a single
+     * {@link eu.parcifal.print.Print} being dropped.
+     */
+    @Test
+    void wakesBlockedPublishers() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Collection<Channel> channels = Collections.singletonList(Tests.lineChannel("eu.parcifal.print.full", output));
+        Dispatcher dispatcher = new Dispatcher(2, 1, Dispatcher.Policy.BLOCK);
+        List<Thread> publishers = new ArrayList<Thread>();
+
+        for (int t = 0; t < 4; t++) {
+            publishers.add(new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    dispatcher.dispatch(new Print(Tests.printable("full", "record"), channels));
+                }
+            }));
+        }
+
+        for (Thread publisher : publishers) {
+            publisher.start();
+        }
+
+        for (Thread publisher : publishers) {
+            publisher.join(60000);
+
+            assertFalse(publisher.isAlive());
+        }
+
+        dispatcher.shutdown();
+
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(4 * 5000, new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n").length);
+    }
+
+}
@@ -0,0 +1,117 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the compiled {@link eu.parcifal.print.Filter}s and their evaluation in
+ * one pass by a {@link eu.parcifal.print.FilterSet}.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class FilterSetTest {
+
+    /**
+     * The expressions of which the compiled {@link eu.parcifal.print.Filter}s
+     * are compared to {@link java.util.regex.Pattern}s: empty, any, literal,
+     * prefix and regular expressions.
+     */
+    private final static String[] EXPRESSIONS = { "", ".*", "tag", "tag.*", "t.g", "a|b", "x\\.y", "tag.*s" };
+
+    /**
+     * The values matched against each expression.
+     */
+    private final static String[] VALUES = { null, "", "tag", "tagged", "tags", "tog", "a", "b", "x.y", "xzy" };
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * A compiled {@link eu.parcifal.print.Filter} must match a value exactly
+     * as {@link java.util.regex.Pattern#matches(String, CharSequence)} does,
+     * whether it was compiled as a literal, a prefix or a regular expression.
+     */
+    @Test
+    void filtersMatchLikePatterns() {
+        for (String expression : EXPRESSIONS) {
+            Filter filter = Filter.compile(expression);
+
+            for (String value : VALUES) {
+                assertEquals(Pattern.matches(expression.isEmpty() ? ".*" : expression, value == null ? "" : value),
+                        filter.matches(value), "\"" + expression + "\" matching \"" + value + "\"");
+            }
+        }
+    }
+
+    /**
+     * A {@link eu.parcifal.print.FilterSet} must return exactly the
+     * {@link eu.parcifal.print.LogChannel}s of which all
+     * {@link eu.parcifal.print.Filter}s match, in the order they were given,
+     * including those sharing a {@link eu.parcifal.print.Filter}.
+     */
+    @Test
+    void acceptingChannelsInOrder() {
+        LogChannel literal = channel("tag");
+        LogChannel prefix = channel("tag.*");
+        LogChannel regex = channel("t.g|other");
+        LogChannel shared = channel("tag");
+        FilterSet filterSet = new FilterSet(Arrays.asList(literal, prefix, regex, shared));
+
+        assertEquals(Arrays.asList(literal, prefix, regex, shared), filterSet.accepting(Tests.printable("tag", "")));
+        assertEquals(Collections.singletonList(prefix), filterSet.accepting(Tests.printable("tagged", "")));
+        assertEquals(Collections.singletonList(regex), filterSet.accepting(Tests.printable("other", "")));
+        assertEquals(Collections.emptyList(), filterSet.accepting(Tests.printable("none", "")));
+    }
+
+    /**
+     * A tag accepted by none of the {@link eu.parcifal.print.LogChannel}s must
+     * be rejected, also when asked again from the cache, and a null tag must
+     * only be accepted by a {@link eu.parcifal.print.LogChannel} without a tag
+     * {@link eu.parcifal.print.Filter}.
+     */
+    @Test
+    void acceptsTag() {
+        FilterSet tagged = new FilterSet(Arrays.asList(channel("tag"), channel("other.*")));
+        FilterSet untagged = new FilterSet(Arrays.asList(channel("tag"), channel("")));
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(tagged.acceptsTag("tag"));
+            assertTrue(tagged.acceptsTag("others"));
+            assertFalse(tagged.acceptsTag("none"));
+        }
+
+        assertFalse(tagged.acceptsTag(null));
+        assertTrue(untagged.acceptsTag(null));
+        assertEquals(List.of(), tagged.accepting(Tests.printable(null, "")));
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.LogChannel} with the specified tag
+     * {@link eu.parcifal.print.Filter}, writing to a stream that discards
+     * everything.
+     *
+     * @param tag
+     *            The expression of the tag {@link eu.parcifal.print.Filter}.
+     * @return The new {@link eu.parcifal.print.LogChannel}.
+     */
+    private static LogChannel channel(String tag) {
+        return new LogChannel("eu.parcifal.print.log+" + tag, OutputStream.nullOutputStream(), false,
+                FlushPolicy.EVERY_RECORD, LogChannel.LINE_FORMAT, Filter.compile(tag), Filter.compile(""),
+                Filter.compile(""), Filter.compile(""), null);
+    }
+
+}
@@ -0,0 +1,69 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link eu.parcifal.print.Flusher} flushes a
+ * {@link eu.parcifal.print.Channel} with an interval only when something has
+ * been written to it since the previous flush.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class FlusherTest {
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * An idle {@link eu.parcifal.print.Channel} must be neither flushed nor
+     * counted as flushed, and a written record must be flushed exactly once.
+     */
+    @Test
+    void skipsIdleFlushes() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Channel channel = new Channel("eu.parcifal.print.interval", output, false,
+                FlushPolicy.byInterval(10, 1 << 16, false)) {
+
+            @Override
+            protected String format(Printable printable) {
+                return printable.getContent() + '\n';
+            }
+
+            @Override
+            protected void format(Printable printable, StringBuilder output) {
+                output.append(printable.getContent()).append('\n');
+            }
+
+        };
+
+        try {
+            Thread.sleep(200);
+
+            assertEquals(0, channel.getStatistics().getFlushCount());
+
+            channel.print(Tests.printable("interval", "flushed"));
+
+            for (int i = 0; i < 500 && output.size() == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            Thread.sleep(200);
+
+            assertEquals("flushed\n", new String(output.toByteArray(), StandardCharsets.UTF_8));
+            assertEquals(1, channel.getStatistics().getFlushCount());
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that writing a plain message to a log file in garbage-free mode
+ * allocates nothing once the application has warmed up, counting the bytes
+ * allocated by the writing thread with the
+ * {@link com.sun.management.ThreadMXBean}.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class GarbageFreeTest {
+
+    /**
+     * The amount of records written per round.
+     */
+    private final static int RECORDS = 100000;
+
+    /**
+     * The amount of rounds written to warm up.
+     */
+    private final static int WARMUP_ROUNDS = 10;
+
+    /**
+     * The amount of rounds measured.
+     */
+    private final static int ROUNDS = 5;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("garbage-free=\"true\"",
+                "<log location=\"" + (System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null")
+                        + "\" capture-location=\"false\" flush=\"size\" />");
+    }
+
+    /**
+     * A round of records must allocate no bytes at all once warmed up. A
+     * single round may catch a one-off allocation made while the code is
+     * being compiled, so the best round is asserted, next to the average of
+     * all rounds staying below a byte per record.
+     */
+    @Test
+    void allocatesNothingPerRecord() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        assertTrue(Printer.isGarbageFree());
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            write();
+        }
+
+        long least = Long.MAX_VALUE;
+        long total = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+
+            write();
+
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+            least = Math.min(least, allocated);
+            total += allocated;
+        }
+
+        assertEquals(0, least, "bytes allocated by the best round of " + RECORDS + " records");
+        assertTrue(total < ROUNDS * RECORDS, total + " bytes allocated by " + ROUNDS * RECORDS + " records");
+    }
+
+    /**
+     * Write a round of records, each a literal tag and message.
+     */
+    private static void write() {
+        for (int i = 0; i < RECORDS; i++) {
+            Log.write("tag", "message");
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link eu.parcifal.print.Limits} never format a suppressed
+ * {@link eu.parcifal.print.Printable}, and that they stop remembering tags
+ * beyond their bound.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class LimitsTest {
+
+    /**
+     * The {@link eu.parcifal.print.Channel}s passed to the
+     * {@link eu.parcifal.print.Limits}.
+     */
+    private final static Collection<Channel> CHANNELS = Collections.emptyList();
+
+    /**
+     * Returns the specified {@link eu.parcifal.print.Channel}s as accepting.
+     */
+    private final static BiFunction<Printable, Collection<Channel>, Collection<Channel>> ACCEPTING = (printable,
+            channels) -> channels;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("", "<limit tag=\"rated\" rate=\"1\" burst=\"2\" collapse=\"true\" />",
+                "<limit tag=\"collapsed\" collapse=\"true\" />", "<limit tag=\"tag-.*\" rate=\"1\" burst=\"1\" />");
+    }
+
+    /**
+     * Repeats and {@link eu.parcifal.print.Printable}s without a token must be
+     * suppressed without formatting their content, while content with other
+     * arguments must end the run of repeats.
+     */
+    @Test
+    void suppressesWithoutFormatting() {
+        Limits limits = Limits.configure(Configuration.current());
+        AtomicInteger formatted = new AtomicInteger();
+        Object argument = new Object() {
+
+            @Override
+            public String toString() {
+                return "formatted " + formatted.incrementAndGet();
+            }
+
+        };
+
+        try {
+            assertTrue(limits.admits(printable("rated", argument), CHANNELS, ACCEPTING));
+            assertFalse(limits.admits(printable("rated", argument), CHANNELS, ACCEPTING));
+            assertFalse(limits.admits(printable("rated", argument), CHANNELS, ACCEPTING));
+
+            assertTrue(limits.admits(printable("collapsed", 1), CHANNELS, ACCEPTING));
+            assertFalse(limits.admits(printable("collapsed", 1), CHANNELS, ACCEPTING));
+            assertTrue(limits.admits(printable("collapsed", 2), CHANNELS, ACCEPTING));
+
+            assertEquals(0, formatted.get());
+        } finally {
+            limits.close();
+        }
+    }
+
+    /**
+     * Tags beyond the bound must share a single token bucket instead of each
+     * getting one of their own.
+     */
+    @Test
+    void boundsTags() {
+        Limits limits = Limits.configure(Configuration.current());
+        int admitted = 0;
+
+        try {
+            for (int i = 0; i < 20000; i++) {
+                if (limits.admits(Tests.printable("tag-" + i, "content"), CHANNELS, ACCEPTING)) {
+                    admitted++;
+                }
+            }
+        } finally {
+            limits.close();
+        }
+
+        assertTrue(admitted >= 8192 && admitted < 20000, Integer.toString(admitted));
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Printable} with the specified tag
+     * of which the content is formatted from the specified argument.
+     *
+     * @param tag
+     *            The tag of the new {@link eu.parcifal.print.Printable}.
+     * @param argument
+     *            The argument of the content.
+     * @return The new {@link eu.parcifal.print.Printable}.
+     */
+    private static Printable printable(String tag, Object argument) {
+        return new Printable(tag, "%s", argument) {
+        };
+    }
+
+}
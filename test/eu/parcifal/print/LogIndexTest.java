@@ -0,0 +1,133 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the {@link eu.parcifal.print.LogIndex} written next to a CSV log
+ * file finds the records of that file by time and by tag.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class LogIndexTest {
+
+    /**
+     * The tags written, one group of records after the other.
+     */
+    private final static String[] TAGS = { "alpha", "beta", "gamma" };
+
+    /**
+     * The amount of records written with each tag.
+     */
+    private final static int GROUP_SIZE = 30;
+
+    /**
+     * The amount of records in each block of the index.
+     */
+    private final static int INTERVAL = 10;
+
+    /**
+     * The directory holding the files written by the tests.
+     */
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * The blocks found by tag or by time must hold exactly the records with
+     * that tag or written at that time, followed by the records written after
+     * the last complete block while the log file is still open.
+     */
+    @Test
+    void findsRecordsByTimeAndTag() throws IOException, InterruptedException {
+        File file = this.directory.resolve("indexed.csv").toFile();
+        LogChannel channel = new LogChannel("eu.parcifal.print.log+indexed", new FileOutputStream(file), false,
+                FlushPolicy.EVERY_RECORD, LogChannel.LINE_FORMAT, Filter.ANY, Filter.ANY, Filter.ANY, Filter.ANY,
+                new LogIndex.Writer(file, false, INTERVAL));
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+
+        try {
+            for (String tag : TAGS) {
+                for (int i = 0; i < GROUP_SIZE; i++) {
+                    Printable printable = Tests.printable(tag, tag + " " + i);
+
+                    channel.print(printable);
+
+                    if ("beta".equals(tag)) {
+                        from = Math.min(from, printable.getTimestamp());
+                        to = Math.max(to, printable.getTimestamp());
+                    }
+                }
+
+                // keep the times of the groups apart
+                Thread.sleep(20);
+            }
+
+            for (int i = 0; i < INTERVAL / 2; i++) {
+                channel.print(Tests.printable("alpha", "unindexed " + i));
+            }
+
+            LogIndex open = LogIndex.open(file);
+            List<String> lines = open.read(open.find("beta"));
+
+            assertEquals(GROUP_SIZE + INTERVAL / 2, lines.size());
+            assertGroup("beta", lines.subList(0, GROUP_SIZE));
+            assertTrue(lines.get(GROUP_SIZE).contains("\"unindexed 0\""), lines.get(GROUP_SIZE));
+        } finally {
+            channel.close();
+        }
+
+        LogIndex index = LogIndex.open(file);
+
+        assertEquals(TAGS.length * GROUP_SIZE / INTERVAL + 1, index.getBlocks().size());
+        assertGroup("beta", index.read(index.find("beta")));
+        assertGroup("beta", index.read(index.find(from, to)));
+        assertGroup("gamma", index.read(index.find("gamma", to + 1, Long.MAX_VALUE)));
+        assertEquals(0, index.find("delta").size());
+        assertEquals(0, index.find("alpha", from, to).size());
+    }
+
+    /**
+     * Assert that the specified lines are those of the group of records with
+     * the specified tag, in the order in which they were written.
+     *
+     * @param tag
+     *            The tag of the group.
+     * @param lines
+     *            The lines read from the log file.
+     */
+    private static void assertGroup(String tag, List<String> lines) {
+        List<String> contents = new ArrayList<String>();
+
+        for (String line : lines) {
+            assertTrue(line.startsWith(tag + ";"), line);
+
+            contents.add(line.substring(line.indexOf('"') + 1, line.lastIndexOf('"')));
+        }
+
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            assertEquals(tag + " " + i, contents.get(i));
+        }
+
+        assertEquals(GROUP_SIZE, contents.size());
+    }
+
+}
@@ -0,0 +1,217 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a {@link eu.parcifal.print.LogQuery} returns every record of a
+ * CSV log file exactly once and unchanged, including escaped content and
+ * fields, whether the file is split into chunks scanned in parallel or mapped
+ * one window at a time.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class LogQueryTest {
+
+    /**
+     * The amount of bytes written to the log file, more than a single window
+     * of 1 << 26 bytes so that records are mapped by more than one window.
+     */
+    private final static long FILE_SIZE = (1L << 26) + (1L << 22);
+
+    /**
+     * The format of the content of each record.
+     */
+    private final static String FORMAT = "record %d \"%s\"; back\\slash\r\nnext line é %s\\";
+
+    /**
+     * The directory holding the log file.
+     */
+    @TempDir
+    static Path directory;
+
+    /**
+     * The log file.
+     */
+    private static File file;
+
+    /**
+     * The time at which each record was written, in milliseconds since the
+     * epoch.
+     */
+    private static long[] timestamps;
+
+    /**
+     * The amount of records in the log file.
+     */
+    private static int count;
+
+    /**
+     * Write the log file in the default format.
+     */
+    @BeforeAll
+    static void write() throws IOException {
+        Tests.configure("");
+
+        Template template = Template.compile(LogChannel.LINE_FORMAT, false, true);
+
+        file = directory.resolve("queried.csv").toFile();
+        timestamps = new long[1024];
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            for (long size = 0; size < FILE_SIZE; count++) {
+                Printable printable = new Printable(tag(count), FORMAT, count, Field.of("value", value(count)),
+                        padding(count)) {
+                };
+                byte[] line = template.format(printable).getBytes(StandardCharsets.UTF_8);
+
+                if (count == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, count * 2);
+                }
+
+                timestamps[count] = printable.getTimestamp();
+                output.write(line);
+                size += line.length;
+            }
+        }
+    }
+
+    /**
+     * Chunks scanned in parallel must together return every record once, in
+     * the order of the log file.
+     */
+    @Test
+    void readsChunks() throws IOException {
+        try (Stream<LogQuery.Record> records = new LogQuery(file).stream()) {
+            assertRecords(records, 0, count, 1);
+        }
+    }
+
+    /**
+     * A single scan mapping the log file one window at a time must return
+     * every record once, including the one cut off by the end of the first
+     * window.
+     */
+    @Test
+    void readsWindows() throws IOException {
+        assertTrue(file.length() > 1L << 26, Long.toString(file.length()));
+
+        try (Stream<LogQuery.Record> records = new LogQuery(file).stream().sequential()) {
+            assertRecords(records, 0, count, 1);
+        }
+    }
+
+    /**
+     * Only the records with the requested tag written between the requested
+     * times must be returned.
+     */
+    @Test
+    void filtersByTagAndTime() throws IOException {
+        int first = count / 3 | 1;
+        int last = count * 2 / 3 | 1;
+        long from = timestamps[first];
+        long to = timestamps[last];
+
+        // records written in the same millisecond as the bounds also match
+        while (first > 1 && timestamps[first - 2] >= from) {
+            first -= 2;
+        }
+
+        while (last + 2 < count && timestamps[last + 2] <= to) {
+            last += 2;
+        }
+
+        try (Stream<LogQuery.Record> records = new LogQuery(file).tag("odd").between(from, to).stream()) {
+            assertRecords(records, first, last + 1, 2);
+        }
+    }
+
+    /**
+     * Assert that the specified records are those written at the specified
+     * positions, in order.
+     *
+     * @param records
+     *            The records returned by a {@link eu.parcifal.print.LogQuery}.
+     * @param first
+     *            The position of the first expected record.
+     * @param end
+     *            The position after the last expected record.
+     * @param step
+     *            The distance between the positions of the expected records.
+     */
+    private static void assertRecords(Stream<LogQuery.Record> records, int first, int end, int step) {
+        int[] next = { first };
+
+        records.forEachOrdered(record -> {
+            int i = next[0];
+
+            assertTrue(i < end, record.toString());
+            assertEquals(tag(i), record.getTag());
+            assertEquals(timestamps[i], record.getTimestamp());
+            assertEquals(String.format(FORMAT, i, value(i), padding(i)), record.getContent());
+
+            List<Field> fields = record.getFields();
+
+            assertEquals(1, fields.size());
+            assertEquals("value", fields.get(0).getName());
+            assertEquals(value(i), fields.get(0).getValue());
+
+            next[0] += step;
+        });
+
+        assertEquals(first + (end - first + step - 1) / step * step, next[0]);
+    }
+
+    /**
+     * Return the tag of the record at the specified position.
+     *
+     * @param i
+     *            The position of the record.
+     * @return The tag.
+     */
+    private static String tag(int i) {
+        return i % 2 == 0 ? "even" : "odd";
+    }
+
+    /**
+     * Return the value of the field of the record at the specified position,
+     * which needs escaping.
+     *
+     * @param i
+     *            The position of the record.
+     * @return The value.
+     */
+    private static String value(int i) {
+        return "a \"quoted\"; \\ value\n" + i + "\\";
+    }
+
+    /**
+     * Return the padding of the record at the specified position, so that
+     * records differ in length and the boundaries fall anywhere in them.
+     *
+     * @param i
+     *            The position of the record.
+     * @return The padding.
+     */
+    private static String padding(int i) {
+        return "x".repeat(i % 251);
+    }
+
+}
@@ -0,0 +1,162 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a {@link eu.parcifal.print.MappedOutputStream} writes across the
+ * regions it maps, and leaves a file of exactly the written length, and that
+ * readers skip the zero bytes of a file that was not truncated.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class MappedOutputStreamTest {
+
+    /**
+     * The size of the regions mapped by the tests, so that small writes cross
+     * several regions.
+     */
+    private final static int REGION_SIZE = 4096;
+
+    /**
+     * The directory holding the files written by the tests.
+     */
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * Bytes written one at a time and in blocks crossing several regions must
+     * all end up in the file, which is truncated to their length when the
+     * {@link eu.parcifal.print.MappedOutputStream} is closed.
+     */
+    @Test
+    void writesAcrossRegions() throws IOException {
+        File file = this.directory.resolve("mapped.csv").toFile();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        try (MappedOutputStream outputStream = new MappedOutputStream(file, REGION_SIZE)) {
+            for (int i = 0; i < 2000; i++) {
+                byte[] record = ("record " + i + "\r\n").getBytes(StandardCharsets.UTF_8);
+
+                if (i % 2 == 0) {
+                    outputStream.write(record);
+                } else {
+                    for (byte b : record) {
+                        outputStream.write(b);
+                    }
+                }
+
+                expected.write(record);
+            }
+
+            byte[] block = new byte[3 * REGION_SIZE + 1];
+
+            outputStream.write(block);
+            expected.write(block);
+
+            assertEquals(expected.size(), outputStream.position());
+        }
+
+        if (MappedOutputStream.TRUNCATES) {
+            assertEquals(expected.size(), file.length());
+        }
+
+        assertArrayEquals(expected.toByteArray(),
+                Arrays.copyOf(Files.readAllBytes(file.toPath()), expected.size()));
+    }
+
+    /**
+     * Appending must continue after the bytes already in the file, and
+     * opening without appending must empty it. Where the file is not
+     * truncated, appending continues after its zero bytes instead.
+     */
+    @Test
+    void appendsAndTruncates() throws IOException {
+        assumeTrue(MappedOutputStream.TRUNCATES);
+
+        File file = this.directory.resolve("appended.csv").toFile();
+
+        try (MappedOutputStream outputStream = new MappedOutputStream(file, REGION_SIZE)) {
+            outputStream.write("first\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (MappedOutputStream outputStream = new MappedOutputStream(file, REGION_SIZE, true)) {
+            outputStream.write("second\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals("first\r\nsecond\r\n", Files.readString(file.toPath()));
+
+        try (MappedOutputStream outputStream = new MappedOutputStream(file, REGION_SIZE, false)) {
+            outputStream.write("third\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals("third\r\n", Files.readString(file.toPath()));
+    }
+
+    /**
+     * A log file that was not truncated, because the virtual machine crashed
+     * or because it was written on Windows, and that was appended to after
+     * its zero bytes must still be read record by record, in CSV and in the
+     * {@link eu.parcifal.print.BinaryFormat}.
+     */
+    @Test
+    void skipsUntruncatedTail() throws IOException {
+        Template template = Template.compile(LogChannel.LINE_FORMAT, false, true);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        csv.write(template.format(Tests.printable("tag", "first")).getBytes(StandardCharsets.UTF_8));
+        csv.write(new byte[REGION_SIZE]);
+        csv.write(template.format(Tests.printable("tag", "second")).getBytes(StandardCharsets.UTF_8));
+        csv.write(new byte[REGION_SIZE]);
+
+        File file = this.directory.resolve("untruncated.csv").toFile();
+
+        Files.write(file.toPath(), csv.toByteArray());
+
+        assertEquals(Arrays.asList("first", "second"),
+                new LogQuery(file).stream().map(LogQuery.Record::getContent).collect(Collectors.toList()));
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        for (String content : new String[] { "first", "second" }) {
+            binary.write(BinaryFormat.MAGIC);
+            binary.write(new byte[] { BinaryFormat.RECORD_WITHOUT_LOCATION, 0, 0, (byte) content.length() });
+            binary.write(content.getBytes(StandardCharsets.UTF_8));
+            binary.write(new byte[REGION_SIZE]);
+        }
+
+        StringWriter output = new StringWriter();
+
+        LogDecoder.decode(new ByteArrayInputStream(binary.toByteArray()), output);
+
+        String[] lines = output.toString().split("\r\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith(";\"first\"") && lines[1].endsWith(";\"second\""), output.toString());
+    }
+
+}
@@ -0,0 +1,55 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import eu.parcifal.print.sources.Source;
+
+/**
+ * Tests that the source of a {@link eu.parcifal.print.Printable} is settled
+ * before its {@link eu.parcifal.print.Print} is returned, so that reading it
+ * later never looks it up from the call stack of the reader.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class PrintableTest {
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("", "<log location=\"./log/printable-located.csv\" tag=\"located\" />",
+                "<log location=\"./log/printable-unlocated.csv\" tag=\"unlocated\" capture-location=\"false\" />");
+    }
+
+    /**
+     * A {@link eu.parcifal.print.Printable} printed to a log file capturing the
+     * location must keep the frame that printed it.
+     */
+    @Test
+    void keepsSourceOfPrint() {
+        Print print = Source.write("located");
+
+        assertEquals(Source.class.getName(), print.getPrintable().getSourceClassName());
+        assertEquals("write", print.getPrintable().getSourceMethodName());
+        assertEquals("Source.java", print.getPrintable().getSourceFileName());
+    }
+
+    /**
+     * A {@link eu.parcifal.print.Printable} printed only to a log file that
+     * does not capture the location must report an unknown source rather
+     * than the frame that reads it.
+     */
+    @Test
+    void leavesSourceUnknown() {
+        Print print = Source.write("unlocated");
+
+        assertNull(print.getPrintable().getSourceClassName());
+        assertNull(print.getPrintable().getSourceMethodName());
+        assertEquals(-1, print.getPrintable().getSourceLineNumber());
+    }
+
+}
@@ -0,0 +1,116 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress tests the {@link eu.parcifal.print.Registry} and the lock of each
+ * {@link eu.parcifal.print.Channel}: several threads print to the same
+ * {@link eu.parcifal.print.Channel} while another thread keeps adding and
+ * removing {@link eu.parcifal.print.Channel}s.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class RegistryStressTest {
+
+    /**
+     * The amount of threads printing at once.
+     */
+    private final static int THREADS = 8;
+
+    /**
+     * The amount of records printed by each thread.
+     */
+    private final static int RECORDS = 20000;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * Every record must be written whole, exactly once and, per thread, in the
+     * order it was printed, while the {@link eu.parcifal.print.Channel}s
+     * available to the {@link eu.parcifal.print.Printer} keep changing.
+     */
+    @Test
+    void noTornOrLostRecords() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Channel channel = Tests.lineChannel("eu.parcifal.print.stress", output);
+        Collection<Channel> channels = Collections.singletonList(channel);
+        AtomicBoolean printing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        Printer.addChannel(channel);
+
+        Thread churn = new Thread(() -> {
+            for (int i = 0; printing.get(); i++) {
+                Channel other = Tests.lineChannel("eu.parcifal.print.churn" + i, OutputStream.nullOutputStream());
+
+                Printer.addChannel(other);
+                Printer.removeChannel(other);
+            }
+        });
+
+        churn.start();
+
+        for (int t = 0; t < THREADS; t++) {
+            String thread = "thread" + t;
+
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < RECORDS; i++) {
+                        Printer.executePrint(Tests.printable("stress", thread + " " + i), channels);
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        printing.set(false);
+        churn.join();
+        channel.flush();
+
+        assertEquals(null, failure.get());
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        int[] next = new int[THREADS];
+
+        assertEquals(THREADS * RECORDS, lines.length);
+
+        for (String line : lines) {
+            assertTrue(line.matches("thread\\d+ \\d+"), line);
+
+            int space = line.indexOf(' ');
+            int thread = Integer.parseInt(line.substring(6, space));
+
+            assertEquals(next[thread]++, Integer.parseInt(line.substring(space + 1)), line);
+        }
+    }
+
+}
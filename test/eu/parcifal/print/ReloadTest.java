@@ -0,0 +1,141 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that reloading the configuration file either applies it entirely or
+ * not at all, and that writers never see a log file that a reload has
+ * swapped out.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class ReloadTest {
+
+    /**
+     * The log file written to before the reload.
+     */
+    private final static File FIRST = new File("log/reload-first.csv");
+
+    /**
+     * The log file written to after the reload.
+     */
+    private final static File SECOND = new File("log/reload-second.csv");
+
+    /**
+     * The log file of a reload that fails.
+     */
+    private final static File ABANDONED = new File("log/reload-abandoned.csv");
+
+    /**
+     * A reload of which one log file cannot be opened must leave the current
+     * {@link eu.parcifal.print.Configuration} and log files in use.
+     */
+    @Test
+    void keepsConfigurationOnFailure() throws IOException {
+        Files.deleteIfExists(ABANDONED.toPath());
+        configure(FIRST, "");
+        Log.write("reloaded", "before");
+
+        Configuration current = Configuration.current();
+
+        Tests.configure("reload=\"false\"", log(ABANDONED, ""),
+                log(new File("log/reload-broken.csv"), "max-size=\"1m\" max-files=\"none\""));
+        Configuration.reload();
+
+        assertSame(current, Configuration.current());
+
+        Log.write("reloaded", "after");
+
+        List<String> lines = Files.readAllLines(FIRST.toPath());
+
+        assertTrue(lines.get(lines.size() - 1).endsWith("\"after\""), lines.toString());
+        assertFalse(ABANDONED.exists());
+    }
+
+    /**
+     * Writers must never fail while reloads swap the log files they write to.
+     */
+    @Test
+    void writesWhileReloading() throws InterruptedException {
+        configure(FIRST, "");
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> writers = new ArrayList<Thread>();
+
+        for (int t = 0; t < 4; t++) {
+            writers.add(new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        Log.write("reloaded", "record");
+                    }
+                } catch (Throwable throwable) {
+                    failure.set(throwable);
+                }
+            }));
+        }
+
+        for (Thread writer : writers) {
+            writer.start();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            configure(i % 2 == 0 ? SECOND : FIRST, "");
+        }
+
+        writing.set(false);
+
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals("./" + FIRST.getPath(),
+                Configuration.current().getElements("log").get(0).getAttribute("location"));
+    }
+
+    /**
+     * Write and reload a configuration file with a single log file.
+     *
+     * @param file
+     *            The log file.
+     * @param attributes
+     *            The additional attributes of the log element.
+     */
+    private static void configure(File file, String attributes) {
+        Tests.configure("reload=\"false\"", log(file, attributes));
+        Configuration.reload();
+    }
+
+    /**
+     * Return a log element writing records with the "reloaded" tag to the
+     * specified file.
+     *
+     * @param file
+     *            The log file.
+     * @param attributes
+     *            The additional attributes of the log element.
+     * @return The log element.
+     */
+    private static String log(File file, String attributes) {
+        return "<log location=\"./" + file.getPath() + "\" tag=\"reloaded\" capture-location=\"false\" " + attributes
+                + " />";
+    }
+
+}
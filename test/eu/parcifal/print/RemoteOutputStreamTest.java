@@ -0,0 +1,196 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link eu.parcifal.print.RemoteOutputStream} delivers whole
+ * records to a {@link eu.parcifal.print.Collector} on the loopback interface,
+ * with and without compression, and that it reconnects and bounds its spool
+ * while the {@link eu.parcifal.print.Collector} is gone.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class RemoteOutputStreamTest {
+
+    /**
+     * The amount of milliseconds to wait for the
+     * {@link eu.parcifal.print.Collector} to receive what was sent.
+     */
+    private final static long TIMEOUT = 10000;
+
+    /**
+     * Records spanning several frames must arrive unchanged and in order.
+     */
+    @Test
+    void sendsFrames() throws IOException, InterruptedException {
+        this.sendsRecords(false);
+    }
+
+    /**
+     * Compressed records spanning several frames must arrive unchanged and in
+     * order.
+     */
+    @Test
+    void sendsCompressedFrames() throws IOException, InterruptedException {
+        this.sendsRecords(true);
+    }
+
+    /**
+     * Records written after the {@link eu.parcifal.print.Collector} restarted
+     * must reach the new {@link eu.parcifal.print.Collector} as whole records.
+     */
+    @Test
+    void reconnectsAfterRestart() throws IOException, InterruptedException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        Collector collector = new Collector(0, first);
+        int port = collector.getPort();
+        RemoteOutputStream outputStream = new RemoteOutputStream("localhost", port, false, 1 << 20);
+
+        try {
+            send(outputStream, "before\n");
+            await(first, "before\n".length());
+
+            collector.close();
+            collector = new Collector(port, second);
+
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+
+            for (int i = 0; second.size() == 0 && System.currentTimeMillis() < deadline; i++) {
+                // records written before the loss is noticed may be lost
+                send(outputStream, "after " + i + "\n");
+                Thread.sleep(20);
+            }
+
+            String received = second.toString(StandardCharsets.UTF_8);
+
+            assertTrue(received.matches("(after \\d+\n)+"), received);
+        } finally {
+            outputStream.close();
+            collector.close();
+        }
+    }
+
+    /**
+     * Records written while no {@link eu.parcifal.print.Collector} listens
+     * must be kept up to the size of the spool, including the frame being
+     * sent, after which the oldest records are discarded.
+     */
+    @Test
+    void boundsSpool() throws IOException, InterruptedException {
+        Collector absent = new Collector(0, new ByteArrayOutputStream());
+        int port = absent.getPort();
+
+        absent.close();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RemoteOutputStream outputStream = new RemoteOutputStream("localhost", port, false, 4096);
+        String last = null;
+
+        for (int i = 0; i < 200; i++) {
+            last = String.format("record %03d %088d\n", i, 0);
+
+            send(outputStream, last);
+        }
+
+        Collector collector = new Collector(port, output);
+
+        try {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+
+            while (!output.toString(StandardCharsets.UTF_8).endsWith(last)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            String received = output.toString(StandardCharsets.UTF_8);
+
+            assertTrue(received.length() <= 4096, Integer.toString(received.length()));
+            assertTrue(received.endsWith(last), received);
+            assertTrue(received.matches("(record \\d{3} 0+\n)+"), received);
+        } finally {
+            outputStream.close();
+            collector.close();
+        }
+    }
+
+    /**
+     * Send records spanning several frames to a
+     * {@link eu.parcifal.print.Collector} and check that they arrive
+     * unchanged.
+     *
+     * @param compress
+     *            Whether or not frames are compressed.
+     */
+    private void sendsRecords(boolean compress) throws IOException, InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        try (Collector collector = new Collector(0, output)) {
+            RemoteOutputStream outputStream = new RemoteOutputStream("localhost", collector.getPort(), compress,
+                    1 << 24);
+
+            try {
+                for (int i = 0; i < 20000; i++) {
+                    byte[] record = ("record " + i + " \"escaped, quoted\"\n").getBytes(StandardCharsets.UTF_8);
+
+                    outputStream.write(record, 0, record.length);
+                    expected.write(record, 0, record.length);
+
+                    if (i % 1000 == 0) {
+                        outputStream.flush();
+                    }
+                }
+
+                outputStream.flush();
+                await(output, expected.size());
+            } finally {
+                outputStream.close();
+            }
+        }
+
+        assertArrayEquals(expected.toByteArray(), output.toByteArray());
+    }
+
+    /**
+     * Write and flush the specified record.
+     *
+     * @param outputStream
+     *            The {@link eu.parcifal.print.RemoteOutputStream}.
+     * @param record
+     *            The record.
+     */
+    private static void send(RemoteOutputStream outputStream, String record) throws IOException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+
+        outputStream.write(bytes, 0, bytes.length);
+        outputStream.flush();
+    }
+
+    /**
+     * Wait until the specified output has received at least the specified
+     * amount of bytes, or the timeout has passed.
+     *
+     * @param output
+     *            The output of a {@link eu.parcifal.print.Collector}.
+     * @param size
+     *            The amount of bytes to wait for.
+     */
+    private static void await(ByteArrayOutputStream output, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+
+        while (output.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a {@link eu.parcifal.print.RotatingOutputStream} counts the
+ * segments left by earlier runs towards the maximum amount of files, without
+ * touching other files in the same directory.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class RotatingOutputStreamTest {
+
+    /**
+     * The directory holding the files written by the tests.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Names formatted from a location pattern, with or without a counter and
+     * compression, must match its segment pattern, while the names of other
+     * logs must not.
+     */
+    @Test
+    void recognizesSegments() {
+        Pattern pattern = RotatingOutputStream.segmentPattern("app-%1$tY%1$tm%1$td.csv");
+
+        assertTrue(pattern.matcher("app-20261017.csv").matches());
+        assertTrue(pattern.matcher("app-20261017-2.csv.gz").matches());
+        assertFalse(pattern.matcher("app-errors-20261017.csv").matches());
+        assertFalse(pattern.matcher("app-20261017.csv.idx").matches());
+        assertFalse(pattern.matcher("app-20261017.csv.gz.part").matches());
+    }
+
+    /**
+     * The oldest segments of an earlier run beyond the maximum amount of files
+     * must be deleted with their indexes once a new run starts, keeping the
+     * current segment and the files of other logs.
+     */
+    @Test
+    void prunesEarlierSegments() throws IOException, InterruptedException {
+        File oldest = this.create("app-1.csv", 3000);
+        File oldestIndex = this.create("app-1.csv" + LogIndex.EXTENSION, 3000);
+        File older = this.create("app-2.csv.gz", 2000);
+        File newer = this.create("app-3.csv", 1000);
+        File other = this.create("other.csv", 4000);
+
+        RotatingOutputStream outputStream = new RotatingOutputStream(
+                this.directory.resolve("app.csv").toString(), FileOutputStream::new, 1 << 20, 0, 2, false);
+
+        try {
+            for (int i = 0; i < 500 && oldest.exists(); i++) {
+                Thread.sleep(10);
+            }
+
+            assertFalse(oldest.exists());
+            assertFalse(oldestIndex.exists());
+            assertTrue(older.exists());
+            assertTrue(newer.exists());
+            assertTrue(other.exists());
+            assertTrue(outputStream.getFile().exists());
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Create a file with the specified name, last modified the specified
+     * amount of seconds ago.
+     *
+     * @param name
+     *            The name of the file.
+     * @param age
+     *            The age of the file in seconds.
+     * @return The file.
+     */
+    private File create(String name, long age) throws IOException {
+        File file = Files.createFile(this.directory.resolve(name)).toFile();
+
+        file.setLastModified(System.currentTimeMillis() - age * 1000);
+
+        return file;
+    }
+
+}
@@ -0,0 +1,146 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link eu.parcifal.print.Channel} that stages its records
+ * writes all of them, in the order in which they were printed across
+ * threads.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class StagerTest {
+
+    /**
+     * The amount of threads printing at once.
+     */
+    private final static int THREADS = 8;
+
+    /**
+     * The amount of records printed by each thread.
+     */
+    private final static int RECORDS = 20000;
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * Records printed by several threads at once must all be written whole,
+     * and those of each thread in the order it printed them.
+     */
+    @Test
+    void writesAllRecords() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Collection<Channel> channels = stagingChannel("eu.parcifal.print.staged", output);
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int t = 0; t < THREADS; t++) {
+            String thread = "thread" + t;
+
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < RECORDS; i++) {
+                    Printer.executePrint(Tests.printable("staged", thread + " " + i), channels);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        channels.iterator().next().flush();
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        int[] next = new int[THREADS];
+
+        assertEquals(THREADS * RECORDS, lines.length);
+
+        for (String line : lines) {
+            int space = line.indexOf(' ');
+            int thread = Integer.parseInt(line.substring(6, space));
+
+            assertEquals(next[thread]++, Integer.parseInt(line.substring(space + 1)), line);
+        }
+    }
+
+    /**
+     * Two threads taking turns must have their records written in the order
+     * of their turns, although each stages them in a buffer of its own.
+     */
+    @Test
+    void mergesInPrintOrder() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Collection<Channel> channels = stagingChannel("eu.parcifal.print.turns", output);
+        SynchronousQueue<Integer> turns = new SynchronousQueue<Integer>();
+        Thread other = new Thread(() -> {
+            try {
+                for (int i = 1; i < RECORDS; i += 2) {
+                    turns.take();
+                    Printer.executePrint(Tests.printable("turns", Integer.toString(i)), channels);
+                    turns.put(i);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        other.start();
+
+        for (int i = 0; i < RECORDS; i += 2) {
+            Printer.executePrint(Tests.printable("turns", Integer.toString(i)), channels);
+            turns.put(i);
+            turns.take();
+        }
+
+        other.join();
+        channels.iterator().next().flush();
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(RECORDS, lines.length);
+
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(Integer.toString(i), lines[i]);
+        }
+    }
+
+    /**
+     * Add a new {@link eu.parcifal.print.Channel} staging its records to the
+     * {@link eu.parcifal.print.Printer}.
+     *
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @param output
+     *            The stream written to.
+     * @return The new {@link eu.parcifal.print.Channel}, as the only element
+     *         of a collection.
+     */
+    private static Collection<Channel> stagingChannel(String channelName, ByteArrayOutputStream output) {
+        Channel channel = Tests.lineChannel(channelName, output);
+
+        channel.startStaging();
+        Printer.addChannel(channel);
+
+        return Collections.singletonList(channel);
+    }
+
+}
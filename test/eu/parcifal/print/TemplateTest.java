@@ -0,0 +1,91 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a compiled {@link eu.parcifal.print.Template} writes what
+ * {@link java.lang.String#format(String, Object...)} writes for the same
+ * format, and that it escapes the content of CSV lines.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class TemplateTest {
+
+    /**
+     * The formats compared to {@link java.lang.String#format(String, Object...)}.
+     */
+    private final static String[] FORMATS = { LogChannel.LINE_FORMAT.replace("%8$s", ""),
+            "%1$-8.8S[ %2$tY.%2$tm.%2$td %2$tH:%2$tM:%2$tS:%2$tL ] %3$s#%4$s (%5$s:%6$d)\r\n",
+            "%2$tY-%2$tm-%2$td %7$s", "%1$10s|%1$-10s|%1$.2s|%6$5d|%6$-5d|%%|%7$S", "%7$s %2$tB %2$ta" };
+
+    @BeforeAll
+    static void configure() {
+        Tests.configure("");
+    }
+
+    /**
+     * Each format must be written exactly as by
+     * {@link java.lang.String#format(String, Object...)}, including the
+     * cached date-time runs, for several {@link eu.parcifal.print.Printable}s
+     * written one after the other.
+     */
+    @Test
+    void formatsLikeStringFormat() throws InterruptedException {
+        for (String format : FORMATS) {
+            Template template = Template.compile(format, true, false);
+
+            for (int i = 0; i < 3; i++) {
+                Printable printable = Tests.printable("tag" + i, "content " + i);
+
+                assertEquals(String.format(format, printable.getTag(), printable.getDateTime(),
+                        printable.getSourceClassName(), printable.getSourceMethodName(),
+                        printable.getSourceFileName(), printable.getSourceLineNumber(), printable.getContent(), ""),
+                        template.format(printable), format);
+
+                Thread.sleep(2);
+            }
+        }
+    }
+
+    /**
+     * Content formatted from arguments must be written as
+     * {@link java.lang.String#format(String, Object...)} formats it, with a
+     * {@link eu.parcifal.print.Field} among the arguments formatted as its
+     * value and also written as a column.
+     */
+    @Test
+    void formatsArguments() {
+        Template template = Template.compile("%7$s%8$s", false, true);
+        Printable printable = new Printable("tag", "%d of %s", 42, Field.of("name", "value")) {
+        };
+
+        assertEquals("42 of value;\"name=value\"", template.format(printable));
+    }
+
+    /**
+     * Backslashes, double quotes, carriage returns and line feeds must be
+     * escaped in a single pass, in the content and in field values.
+     */
+    @Test
+    void escapesContent() {
+        Template template = Template.compile("\"%7$s\"%8$s", false, true);
+
+        assertEquals("\"a\\\\b\\\"c\\r\\nd\\\\\"", template.format(Tests.printable("tag", "a\\b\"c\r\nd\\")));
+        assertEquals("\"\";\"k=\\\"v\\\\\"", template.format(new Printable("tag", "", Field.of("k", "\"v\\")) {
+        }));
+
+        StringBuilder output = new StringBuilder("keep\"");
+
+        Template.escape(output.append("\"\\"), 5);
+
+        assertEquals(Arrays.asList("keep\"", "\\\"\\\\"), Arrays.asList(output.substring(0, 5), output.substring(5)));
+    }
+
+}
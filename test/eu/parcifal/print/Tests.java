@@ -0,0 +1,102 @@
+package eu.parcifal.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Prepares the virtual machine of a test class before the
+ * {@link eu.parcifal.print.Printer} is first used. The configuration file is
+ * read once, so each test class runs in a virtual machine of its own and
+ * writes its own "cfg/print.xml" into the working directory before touching
+ * the {@link eu.parcifal.print.Printer}.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+final class Tests {
+
+    /**
+     * Prevent instantiation, all members are static.
+     */
+    private Tests() {
+    }
+
+    /**
+     * Write the configuration file with the specified attributes of the
+     * printer element and the specified child elements.
+     *
+     * @param attributes
+     *            The attributes of the printer element.
+     * @param elements
+     *            The child elements of the printer element.
+     */
+    static void configure(String attributes, String... elements) {
+        StringBuilder configuration = new StringBuilder();
+
+        configuration.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>\n");
+        configuration.append("<printer xmlns=\"https://print.parcifal.eu/2016\" ").append(attributes).append(">\n");
+
+        for (String element : elements) {
+            configuration.append("    ").append(element).append('\n');
+        }
+
+        configuration.append("</printer>\n");
+
+        try {
+            Path location = Paths.get("cfg", "print.xml");
+
+            Files.createDirectories(location.getParent());
+            Files.write(location, configuration.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException exception) {
+            throw new Error(exception);
+        }
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Channel} writing the content of
+     * each {@link eu.parcifal.print.Printable} as a line to the specified
+     * {@link java.io.OutputStream}.
+     *
+     * @param channelName
+     *            The name of the new {@link eu.parcifal.print.Channel}.
+     * @param outputStream
+     *            The {@link java.io.OutputStream} written to.
+     * @return The new {@link eu.parcifal.print.Channel}.
+     */
+    static Channel lineChannel(String channelName, OutputStream outputStream) {
+        return new Channel(channelName, outputStream, false) {
+
+            @Override
+            protected String format(Printable printable) {
+                return printable.getContent() + '\n';
+            }
+
+            @Override
+            protected void format(Printable printable, StringBuilder output) {
+                output.append(printable.getContent()).append('\n');
+            }
+
+        };
+    }
+
+    /**
+     * Return a new {@link eu.parcifal.print.Printable} with the specified tag
+     * and content.
+     *
+     * @param tag
+     *            The tag of the new {@link eu.parcifal.print.Printable}.
+     * @param content
+     *            The content of the new {@link eu.parcifal.print.Printable}.
+     * @return The new {@link eu.parcifal.print.Printable}.
+     */
+    static Printable printable(String tag, String content) {
+        return new Printable(tag, content) {
+        };
+    }
+
+}
@@ -0,0 +1,50 @@
+package eu.parcifal.print;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link eu.parcifal.print.Trace} only refers to an earlier
+ * occurrence of its stack trace once that occurrence has been printed in
+ * full.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+class TraceTest {
+
+    /**
+     * A trace that is never rendered must not count, the next one must print
+     * in full and only the one after that must refer to it.
+     */
+    @Test
+    void remembersPrintedTraces() {
+        Throwable throwable = new IllegalStateException("failed", new RuntimeException("cause"));
+
+        new Trace(throwable);
+
+        Trace first = new Trace(throwable);
+
+        assertFalse(first.isRepeated());
+        assertTrue(first.getLineCount() > 2);
+
+        Trace unfinished = new Trace(throwable);
+
+        assertFalse(unfinished.isRepeated());
+
+        for (int i = 0; i < first.getLineCount(); i++) {
+            first.getLine(i);
+        }
+
+        Trace repeated = new Trace(throwable);
+
+        assertTrue(repeated.isRepeated());
+        assertEquals(1, repeated.getLineCount());
+        assertTrue(repeated.getLine(0).endsWith("occurred 2 times]"), repeated.getLine(0));
+    }
+
+}
@@ -0,0 +1,34 @@
+package eu.parcifal.print.sources;
+
+import eu.parcifal.print.Log;
+import eu.parcifal.print.Print;
+
+/**
+ * Writes messages from outside of the eu.parcifal.print package, so that the
+ * tests can tell the source of a {@link eu.parcifal.print.Printable} apart
+ * from the frames of the library and of the tests themselves.
+ *
+ * @author Michaël van de Weerd
+ * @version 17.10.2026
+ * @since 17.10.2026
+ */
+public final class Source {
+
+    /**
+     * Prevent instantiation, all members are static.
+     */
+    private Source() {
+    }
+
+    /**
+     * Write a message with the specified tag to the log.
+     *
+     * @param tag
+     *            The tag of the message.
+     * @return The {@link eu.parcifal.print.Print} of the message.
+     */
+    public static Print write(String tag) {
+        return Log.write(tag, "message");
+    }
+
+}